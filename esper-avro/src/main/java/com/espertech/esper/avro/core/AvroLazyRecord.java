@@ -0,0 +1,89 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.avro.core;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.io.BinaryDecoder;
+
+/**
+ * Record backed by Avro binary-encoded data that decodes each field on first access.
+ * <p>
+ * The record keeps the start offsets of the fields up to the highest field accessed so far, so that accessing a field
+ * skips over preceding fields once, without decoding them. Made by {@link AvroLazyRecordFactory}.
+ * </p>
+ */
+public class AvroLazyRecord extends GenericData.Record {
+    private final AvroLazyRecordFactory factory;
+    private final byte[] data;
+    private final int end;
+    private final int[] offsets;
+    private final boolean[] decoded;
+    private int numIndexed;
+    private BinaryDecoder decoder;
+
+    AvroLazyRecord(AvroLazyRecordFactory factory, byte[] data, int start, int end) {
+        super(factory.getSchema());
+        this.factory = factory;
+        this.data = data;
+        this.end = end;
+        int numFields = factory.getSchema().getFields().size();
+        this.offsets = new int[numFields + 1];
+        this.offsets[0] = start;
+        this.decoded = new boolean[numFields];
+    }
+
+    public synchronized Object get(int i) {
+        if (!decoded[i]) {
+            super.put(i, decode(i));
+            decoded[i] = true;
+        }
+        return super.get(i);
+    }
+
+    public synchronized void put(int i, Object v) {
+        super.put(i, v);
+        decoded[i] = true;
+    }
+
+    public Object get(String key) {
+        Schema.Field field = getSchema().getField(key);
+        if (field == null) {
+            return null;
+        }
+        return get(field.pos());
+    }
+
+    public void put(String key, Object value) {
+        Schema.Field field = getSchema().getField(key);
+        if (field == null) {
+            throw new AvroRuntimeException("Not a valid schema field: " + key);
+        }
+        put(field.pos(), value);
+    }
+
+    BinaryDecoder getDecoder() {
+        return decoder;
+    }
+
+    void setDecoder(BinaryDecoder decoder) {
+        this.decoder = decoder;
+    }
+
+    private Object decode(int i) {
+        while (numIndexed <= i) {
+            offsets[numIndexed + 1] = factory.skipField(numIndexed, data, offsets[numIndexed], end);
+            numIndexed++;
+        }
+        return factory.decodeField(this, i, data, offsets[i], offsets[i + 1]);
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.avro.core;
+
+import com.espertech.esper.client.EventType;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DecoderFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Makes records from Avro binary-encoded data that decode fields on first access, for sending to the engine
+ * as Avro events without decoding the fields that no statement reads.
+ * <p>
+ * The records made by the factory are {@link AvroLazyRecord} instances which are {@link GenericData.Record}
+ * and can be sent using <code>sendEventAvro</code> or an event sender of the Avro event type.
+ * A field value, when accessed, is the same as the value decoded by {@link GenericDatumReader} for the record schema,
+ * except that a nested record is itself decoded lazily.
+ * </p>
+ * <p>
+ * The factory is thread-safe and should be shared for all records of a schema.
+ * </p>
+ */
+public class AvroLazyRecordFactory {
+    private final Schema schema;
+    private final Schema[][] fieldSchemas;
+    private final DatumReader<Object>[][] readers;
+    private final AvroLazyRecordFactory[][] nestedFactories;
+
+    /**
+     * Ctor.
+     *
+     * @param schema record schema of the writer, which must be the same as the schema of the Avro event type
+     */
+    @SuppressWarnings("unchecked")
+    public AvroLazyRecordFactory(Schema schema) {
+        if (schema.getType() != Schema.Type.RECORD) {
+            throw new IllegalArgumentException("Schema '" + schema.getName() + "' is not a record schema");
+        }
+        this.schema = schema;
+        List<Schema.Field> fields = schema.getFields();
+        fieldSchemas = new Schema[fields.size()][];
+        readers = new DatumReader[fields.size()][];
+        nestedFactories = new AvroLazyRecordFactory[fields.size()][];
+        for (Schema.Field field : fields) {
+            Schema fieldSchema = field.schema();
+            Schema[] branches = fieldSchema.getType() == Schema.Type.UNION ? fieldSchema.getTypes().toArray(new Schema[0]) : new Schema[]{fieldSchema};
+            fieldSchemas[field.pos()] = branches;
+            readers[field.pos()] = new DatumReader[branches.length];
+            nestedFactories[field.pos()] = new AvroLazyRecordFactory[branches.length];
+            for (int i = 0; i < branches.length; i++) {
+                if (branches[i].getType() != Schema.Type.RECORD && branches[i].getType() != Schema.Type.NULL) {
+                    readers[field.pos()][i] = new GenericDatumReader<>(branches[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a factory for the schema of an Avro event type.
+     *
+     * @param eventType Avro event type
+     * @return factory
+     * @throws IllegalArgumentException if the event type is not an Avro event type
+     */
+    public static AvroLazyRecordFactory forEventType(EventType eventType) {
+        if (!(eventType instanceof AvroEventType)) {
+            throw new IllegalArgumentException("Event type '" + eventType.getName() + "' is not an Avro event type");
+        }
+        return new AvroLazyRecordFactory(((AvroEventType) eventType).getSchemaAvro());
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Make a record over the binary-encoded data, without copying or decoding. The data must not be modified afterwards.
+     *
+     * @param data binary-encoded record
+     * @return record
+     */
+    public GenericData.Record make(byte[] data) {
+        return make(data, 0, data.length);
+    }
+
+    /**
+     * Make a record over the binary-encoded data, without copying or decoding. The data must not be modified afterwards.
+     *
+     * @param data   array holding the binary-encoded record
+     * @param offset start of the record
+     * @param length length of the record
+     * @return record
+     */
+    public GenericData.Record make(byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new IllegalArgumentException("Invalid offset " + offset + " and length " + length + " for data of length " + data.length);
+        }
+        return new AvroLazyRecord(this, data, offset, offset + length);
+    }
+
+    /**
+     * Make a record over the remaining bytes of the buffer, without changing the buffer position.
+     * For a buffer backed by an array the record refers to the array without copying, and the data must not be modified afterwards,
+     * for other buffers the record copies the remaining bytes.
+     *
+     * @param buffer binary-encoded record
+     * @return record
+     */
+    public GenericData.Record make(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return make(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        byte[] data = new byte[buffer.remaining()];
+        buffer.duplicate().get(data);
+        return make(data);
+    }
+
+    /**
+     * Skip the value of a field.
+     *
+     * @param fieldIndex field position
+     * @param data       data
+     * @param start      start of the field value
+     * @param end        end of the record
+     * @return end of the field value
+     */
+    int skipField(int fieldIndex, byte[] data, int start, int end) {
+        Cursor cursor = new Cursor(data, start);
+        try {
+            Schema[] branches = fieldSchemas[fieldIndex];
+            if (branches.length == 1) {
+                cursor.skip(branches[0]);
+            } else {
+                cursor.skip(branches[cursor.readBranch(branches.length)]);
+            }
+        } catch (ArrayIndexOutOfBoundsException ex) {
+            throw malformed(fieldIndex);
+        }
+        if (cursor.pos > end) {
+            throw malformed(fieldIndex);
+        }
+        return cursor.pos;
+    }
+
+    /**
+     * Decode the value of a field.
+     *
+     * @param record  record decoding the field, for reuse of the decoder
+     * @param fieldIndex field position
+     * @param data    data
+     * @param start   start of the field value
+     * @param end     end of the field value
+     * @return value
+     */
+    Object decodeField(AvroLazyRecord record, int fieldIndex, byte[] data, int start, int end) {
+        int branch = 0;
+        if (fieldSchemas[fieldIndex].length > 1) {
+            Cursor cursor = new Cursor(data, start);
+            branch = cursor.readBranch(fieldSchemas[fieldIndex].length);
+            start = cursor.pos;
+        }
+        Schema branchSchema = fieldSchemas[fieldIndex][branch];
+        if (branchSchema.getType() == Schema.Type.NULL) {
+            return null;
+        }
+        if (branchSchema.getType() == Schema.Type.RECORD) {
+            return new AvroLazyRecord(getNestedFactory(fieldIndex, branch), data, start, end);
+        }
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(data, start, end - start, record.getDecoder());
+        record.setDecoder(decoder);
+        try {
+            return readers[fieldIndex][branch].read(null, decoder);
+        } catch (IOException | RuntimeException ex) {
+            throw new AvroRuntimeException("Failed to decode field '" + schema.getFields().get(fieldIndex).name() + "' of schema '" + schema.getName() + "': " + ex.getMessage(), ex);
+        }
+    }
+
+    private synchronized AvroLazyRecordFactory getNestedFactory(int fieldIndex, int branch) {
+        AvroLazyRecordFactory factory = nestedFactories[fieldIndex][branch];
+        if (factory == null) {
+            factory = new AvroLazyRecordFactory(fieldSchemas[fieldIndex][branch]);
+            nestedFactories[fieldIndex][branch] = factory;
+        }
+        return factory;
+    }
+
+    private AvroRuntimeException malformed(int fieldIndex) {
+        return new AvroRuntimeException("Malformed data for field '" + schema.getFields().get(fieldIndex).name() + "' of schema '" + schema.getName() + "'");
+    }
+
+    private static class Cursor {
+        private final byte[] data;
+        private int pos;
+
+        Cursor(byte[] data, int pos) {
+            this.data = data;
+            this.pos = pos;
+        }
+
+        void skip(Schema schema) {
+            switch (schema.getType()) {
+                case NULL:
+                    return;
+                case BOOLEAN:
+                    pos++;
+                    return;
+                case INT:
+                case LONG:
+                case ENUM:
+                    readLong();
+                    return;
+                case FLOAT:
+                    pos += 4;
+                    return;
+                case DOUBLE:
+                    pos += 8;
+                    return;
+                case STRING:
+                case BYTES:
+                    pos += readLength();
+                    return;
+                case FIXED:
+                    pos += schema.getFixedSize();
+                    return;
+                case UNION:
+                    skip(schema.getTypes().get(readBranch(schema.getTypes().size())));
+                    return;
+                case RECORD:
+                    for (Schema.Field field : schema.getFields()) {
+                        skip(field.schema());
+                    }
+                    return;
+                case ARRAY:
+                case MAP:
+                    skipBlocks(schema);
+                    return;
+                default:
+                    throw new AvroRuntimeException("Unrecognized schema type " + schema.getType());
+            }
+        }
+
+        int readBranch(int numBranches) {
+            long branch = readLong();
+            if (branch < 0 || branch >= numBranches) {
+                throw new ArrayIndexOutOfBoundsException("Invalid union branch " + branch);
+            }
+            return (int) branch;
+        }
+
+        private void skipBlocks(Schema schema) {
+            while (true) {
+                long count = readLong();
+                if (count == 0) {
+                    return;
+                }
+                if (count < 0) {
+                    // block with byte size
+                    pos += readLength();
+                    continue;
+                }
+                for (long i = 0; i < count; i++) {
+                    if (schema.getType() == Schema.Type.MAP) {
+                        pos += readLength();
+                        skip(schema.getValueType());
+                    } else {
+                        skip(schema.getElementType());
+                    }
+                }
+            }
+        }
+
+        private int readLength() {
+            long length = readLong();
+            if (length < 0 || length > data.length - pos) {
+                throw new ArrayIndexOutOfBoundsException("Invalid length " + length);
+            }
+            return (int) length;
+        }
+
+        private long readLong() {
+            long n = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = data[pos++] & 0xff;
+                n |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            }
+            while ((b & 0x80) != 0);
+            return (n >>> 1) ^ -(n & 1);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.avro.core;
+
+import com.espertech.esper.client.EventType;
+import junit.framework.TestCase;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.espertech.esper.avro.core.AvroConstant.PROP_JAVA_STRING_KEY;
+import static com.espertech.esper.avro.core.AvroConstant.PROP_JAVA_STRING_VALUE;
+import static com.espertech.esper.avro.util.support.SupportAvroUtil.makeAvroSupportEventType;
+import static org.apache.avro.SchemaBuilder.record;
+
+public class TestAvroLazyRecord extends TestCase {
+    private static final Schema INNER_SCHEMA = record("inner").fields()
+            .requiredLong("innerLong")
+            .name("innerString").type().stringBuilder().prop(PROP_JAVA_STRING_KEY, PROP_JAVA_STRING_VALUE).endString().noDefault()
+            .endRecord();
+
+    private static final Schema SCHEMA = record("outer").fields()
+            .requiredInt("myInt")
+            .name("myString").type().stringBuilder().prop(PROP_JAVA_STRING_KEY, PROP_JAVA_STRING_VALUE).endString().noDefault()
+            .name("myArray").type().array().items().intType().noDefault()
+            .name("myMap").type().map().prop(PROP_JAVA_STRING_KEY, PROP_JAVA_STRING_VALUE).values().longType().noDefault()
+            .optionalDouble("myOptDouble")
+            .name("myInner").type(INNER_SCHEMA).noDefault()
+            .name("myOptInner").type().unionOf().nullType().and().type(INNER_SCHEMA).endUnion().nullDefault()
+            .name("myEnum").type().enumeration("color").symbols("RED", "GREEN").noDefault()
+            .name("myFixed").type().fixed("four").size(4).noDefault()
+            .requiredBytes("myBytes")
+            .requiredBoolean("myBool")
+            .requiredFloat("myFloat")
+            .endRecord();
+
+    public void testDecodeMatchesEager() throws Exception {
+        GenericData.Record record = makeRecord(true);
+        byte[] bytes = encode(record);
+        GenericData.Record eager = decodeEager(bytes);
+        AvroLazyRecordFactory factory = new AvroLazyRecordFactory(SCHEMA);
+
+        // access each field in reverse order
+        GenericData.Record lazy = factory.make(bytes);
+        for (int i = SCHEMA.getFields().size() - 1; i >= 0; i--) {
+            assertEquals(SCHEMA.getFields().get(i).name(), eager.get(i), lazy.get(i));
+        }
+        assertEquals(eager, lazy);
+        assertEquals(lazy, eager);
+
+        // access a single field in the middle by name
+        lazy = factory.make(bytes);
+        assertEquals(-3.5d, lazy.get("myOptDouble"));
+        assertNull(lazy.get("dummy"));
+
+        // nested records are lazy records and null union branch
+        lazy = factory.make(encode(makeRecord(false)));
+        assertTrue(lazy.get("myInner") instanceof AvroLazyRecord);
+        assertEquals("in", ((GenericData.Record) lazy.get("myInner")).get("innerString"));
+        assertNull(lazy.get("myOptInner"));
+        assertNull(lazy.get("myOptDouble"));
+
+        // record within a larger array, and a heap byte buffer
+        byte[] padded = new byte[bytes.length + 10];
+        System.arraycopy(bytes, 0, padded, 5, bytes.length);
+        assertEquals(eager, factory.make(padded, 5, bytes.length));
+        ByteBuffer buffer = ByteBuffer.wrap(padded, 5, bytes.length);
+        assertEquals(eager, factory.make(buffer));
+        assertEquals(5, buffer.position());
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        assertEquals(eager, factory.make(direct));
+    }
+
+    public void testPutOverridesData() throws Exception {
+        AvroLazyRecordFactory factory = new AvroLazyRecordFactory(SCHEMA);
+        GenericData.Record lazy = factory.make(encode(makeRecord(true)));
+        lazy.put("myString", "changed");
+        lazy.put(0, 100);
+        assertEquals("changed", lazy.get("myString"));
+        assertEquals(100, lazy.get(0));
+        assertEquals(-3.5d, lazy.get("myOptDouble"));
+
+        try {
+            lazy.put("dummy", 1);
+            fail();
+        } catch (AvroRuntimeException ex) {
+            // expected
+        }
+    }
+
+    public void testGetters() throws Exception {
+        EventType eventType = makeAvroSupportEventType(SCHEMA);
+        AvroLazyRecordFactory factory = AvroLazyRecordFactory.forEventType(eventType);
+        AvroGenericDataEventBean eventBean = new AvroGenericDataEventBean(factory.make(encode(makeRecord(true))), eventType);
+
+        assertEquals(10, eventBean.get("myInt"));
+        assertEquals(99L, eventBean.get("myInner.innerLong"));
+        assertEquals("optin", eventBean.get("myOptInner.innerString"));
+        assertEquals(2, eventBean.get("myArray[1]"));
+        assertEquals(20L, eventBean.get("myMap('b')"));
+    }
+
+    public void testMalformed() {
+        AvroLazyRecordFactory factory = new AvroLazyRecordFactory(SCHEMA);
+        GenericData.Record lazy = factory.make(new byte[]{2, 4});
+        assertEquals(1, lazy.get("myInt"));
+        try {
+            lazy.get("myString");
+            fail();
+        } catch (AvroRuntimeException ex) {
+            // expected
+        }
+    }
+
+    private static GenericData.Record makeRecord(boolean withOptional) {
+        GenericData.Record inner = new GenericData.Record(INNER_SCHEMA);
+        inner.put("innerLong", 99L);
+        inner.put("innerString", "in");
+
+        GenericData.Record record = new GenericData.Record(SCHEMA);
+        record.put("myInt", 10);
+        record.put("myString", "hello");
+        record.put("myArray", Arrays.asList(1, 2, 3));
+        Map<String, Long> map = new HashMap<>();
+        map.put("a", 10L);
+        map.put("b", 20L);
+        record.put("myMap", map);
+        record.put("myInner", inner);
+        if (withOptional) {
+            record.put("myOptDouble", -3.5d);
+            GenericData.Record optInner = new GenericData.Record(INNER_SCHEMA);
+            optInner.put("innerLong", -1L);
+            optInner.put("innerString", "optin");
+            record.put("myOptInner", optInner);
+        }
+        record.put("myEnum", new GenericData.EnumSymbol(SCHEMA.getField("myEnum").schema(), "GREEN"));
+        record.put("myFixed", new GenericData.Fixed(SCHEMA.getField("myFixed").schema(), new byte[]{1, 2, 3, 4}));
+        record.put("myBytes", ByteBuffer.wrap(new byte[]{5, 6}));
+        record.put("myBool", true);
+        record.put("myFloat", 1.25f);
+        return record;
+    }
+
+    private static byte[] encode(GenericData.Record record) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericData.Record>(record.getSchema()).write(record, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    private static GenericData.Record decodeEager(byte[] bytes) throws Exception {
+        return new GenericDatumReader<GenericData.Record>(SCHEMA).read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.dispatch;
+
+import com.espertech.esper.benchmark.support.TickBean;
+import com.espertech.esper.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures result delivery from a simple statement to a listener or subscriber, comparing receivers that retain
+ * the delivered arrays against receivers implementing {@link NonRetainingResultReceiver}.
+ * Run with "-prof gc" and compare "gc.alloc.rate.norm" for the bytes allocated per event.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultDispatchAllocationBenchmark {
+
+    @Param({"listener", "subscriberRows", "subscriberMap", "forClause"})
+    public String receiver;
+
+    @Param({"false", "true"})
+    public boolean nonRetaining;
+
+    private EPServiceProvider epService;
+    private EventSender sender;
+    private TickBean[] ticks;
+    private int count;
+    private long sink;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("Tick", TickBean.class);
+        epService = EPServiceProviderManager.getProvider(ResultDispatchAllocationBenchmark.class.getSimpleName() + receiver + nonRetaining, configuration);
+        epService.initialize();
+
+        switch (receiver) {
+            case "listener":
+                EPStatement stmt = epService.getEPAdministrator().createEPL("select * from Tick");
+                stmt.addListener(nonRetaining ? new MyNonRetainingListener() : new MyListener());
+                break;
+            case "forClause":
+                EPStatement stmtFor = epService.getEPAdministrator().createEPL("select * from Tick for discrete_delivery");
+                stmtFor.addListener(nonRetaining ? new MyNonRetainingListener() : new MyListener());
+                break;
+            case "subscriberRows":
+                EPStatement stmtRows = epService.getEPAdministrator().createEPL("select symbol, price from Tick");
+                stmtRows.setSubscriber(nonRetaining ? new MyNonRetainingRowsSubscriber() : new MyRowsSubscriber());
+                break;
+            case "subscriberMap":
+                EPStatement stmtMap = epService.getEPAdministrator().createEPL("select symbol, price from Tick");
+                stmtMap.setSubscriber(nonRetaining ? new MyNonRetainingMapSubscriber() : new MyMapSubscriber());
+                break;
+            default:
+                throw new IllegalArgumentException("Unrecognized receiver " + receiver);
+        }
+
+        sender = epService.getEPRuntime().getEventSender("Tick");
+        ticks = new TickBean[1024];
+        for (int i = 0; i < ticks.length; i++) {
+            ticks[i] = new TickBean("S" + (i % 100), i % 50);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent() {
+        sender.sendEvent(ticks[count++ & 1023]);
+        return sink;
+    }
+
+    public class MyListener implements UpdateListener {
+        public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+            sink += newEvents.length;
+        }
+    }
+
+    public class MyNonRetainingListener extends MyListener implements NonRetainingResultReceiver {
+    }
+
+    public class MyRowsSubscriber {
+        public void update(Object[][] newRows, Object[][] oldRows) {
+            sink += newRows.length;
+        }
+    }
+
+    public class MyNonRetainingRowsSubscriber extends MyRowsSubscriber implements NonRetainingResultReceiver {
+    }
+
+    public class MyMapSubscriber {
+        public void update(Map<String, Object> row) {
+            sink += row.size();
+        }
+    }
+
+    public class MyNonRetainingMapSubscriber extends MyMapSubscriber implements NonRetainingResultReceiver {
+    }
+}
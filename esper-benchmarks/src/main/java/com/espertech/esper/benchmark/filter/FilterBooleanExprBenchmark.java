@@ -0,0 +1,102 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.filter;
+
+import com.espertech.esper.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures boolean expression filters that cannot be planned into an index, with a large number of statements
+ * filtering the same event type. For SHARED each filter is "price * volume &gt; C" with a different constant,
+ * so the filters share the evaluation of "price * volume". For UNSHARED each filter is
+ * "price * volume + i &gt; C + i", which matches the same events but does not share a subexpression, which
+ * is the baseline of evaluating each filter individually. The "matches" auxiliary counter reports matches per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FilterBooleanExprBenchmark {
+    private static final int NUM_EVENTS = 1024;
+
+    @Param({"SHARED", "UNSHARED"})
+    public Shape shape;
+
+    @Param({"1000", "20000"})
+    public int numFilters;
+
+    private EPServiceProvider epService;
+    private EventSender sender;
+    private Object[][] events;
+    private int count;
+    private long numMatches;
+
+    public enum Shape {
+        SHARED,
+        UNSHARED
+    }
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("Tick", new String[]{"symbol", "price", "volume"}, new Object[]{String.class, double.class, long.class});
+        epService = EPServiceProviderManager.getProvider(FilterBooleanExprBenchmark.class.getSimpleName(), configuration);
+        epService.initialize();
+
+        UpdateListener listener = new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                numMatches++;
+            }
+        };
+        for (int i = 0; i < numFilters; i++) {
+            // thresholds spread over the range of "price * volume", on average half the filters match each event
+            long threshold = 900000L + i * 200000L / numFilters;
+            String filter = shape == Shape.SHARED ?
+                    "price * volume > " + threshold :
+                    "price * volume + " + i + " > " + (threshold + i);
+            epService.getEPAdministrator().createEPL("select * from Tick(" + filter + ")").addListener(listener);
+        }
+
+        sender = epService.getEPRuntime().getEventSender("Tick");
+        Random random = new Random(1);
+        events = new Object[NUM_EVENTS][];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            events[i] = new Object[]{"S", 1000d, 900L + random.nextInt(200)};
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public void sendEvent(MatchCounters counters) {
+        numMatches = 0;
+        sender.sendEvent(events[count++ & (NUM_EVENTS - 1)]);
+        counters.matches += numMatches;
+    }
+
+    /**
+     * Reports the number of statements matched.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class MatchCounters {
+        public long matches;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.filter;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.epl.expression.core.ExprFilterSpecLookupable;
+import com.espertech.esper.filter.FilterHandle;
+import com.espertech.esper.filter.FilterServiceProvider;
+import com.espertech.esper.filter.FilterServiceSPI;
+import com.espertech.esper.filterspec.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures filter service evaluation with a large number of filters registered for the same event type,
+ * for equals filters on a string property and for closed range filters on a double property.
+ * Each event matches one equals filter, or about three range filters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FilterMatchBenchmark {
+    private static final int NUM_EVENTS = 1024;
+
+    @Param({"EQUALS", "RANGE"})
+    public FilterKind kind;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int numFilters;
+
+    private EPServiceProvider epService;
+    private FilterServiceSPI filterService;
+    private EventBean[] events;
+    private List<FilterHandle> matches;
+
+    public enum FilterKind {
+        EQUALS,
+        RANGE
+    }
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("Tick", new String[]{"symbol", "price"}, new Object[]{String.class, double.class});
+        epService = EPServiceProviderManager.getProvider(FilterMatchBenchmark.class.getSimpleName(), configuration);
+        epService.initialize();
+
+        EventType eventType = epService.getEPAdministrator().getConfiguration().getEventType("Tick");
+        String property = kind == FilterKind.EQUALS ? "symbol" : "price";
+        ExprFilterSpecLookupable lookupable = new ExprFilterSpecLookupable(property, eventType.getGetter(property), eventType.getPropertyType(property), false);
+
+        filterService = FilterServiceProvider.newService(ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY, false);
+        for (int i = 0; i < numFilters; i++) {
+            FilterValueSetParam param;
+            if (kind == FilterKind.EQUALS) {
+                param = new FilterValueSetParamImpl(lookupable, FilterOperator.EQUAL, "S" + i);
+            } else {
+                param = new FilterValueSetParamImpl(lookupable, FilterOperator.RANGE_CLOSED, new DoubleRange((double) i, i + 2d));
+            }
+            filterService.add(new FilterValueSetImpl(eventType, new FilterValueSetParam[][]{{param}}), new BenchmarkFilterHandle(i));
+        }
+
+        Random random = new Random(1);
+        events = new EventBean[NUM_EVENTS];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            int value = random.nextInt(numFilters);
+            events[i] = ((EPServiceProviderSPI) epService).getEventAdapterService().adapterForObjectArray(new Object[]{"S" + value, value + 0.5d}, "Tick");
+        }
+        matches = new ArrayList<FilterHandle>();
+    }
+
+    @TearDown
+    public void tearDown() {
+        filterService.destroy();
+        epService.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_EVENTS)
+    public void evaluate(Blackhole blackhole) {
+        for (EventBean event : events) {
+            filterService.evaluate(event, matches);
+        }
+        blackhole.consume(matches.size());
+        matches.clear();
+    }
+
+    private static class BenchmarkFilterHandle implements FilterHandle {
+        private final int statementId;
+
+        private BenchmarkFilterHandle(int statementId) {
+            this.statementId = statementId;
+        }
+
+        public int getStatementId() {
+            return statementId;
+        }
+    }
+}
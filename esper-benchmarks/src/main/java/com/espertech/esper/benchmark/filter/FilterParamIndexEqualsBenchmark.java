@@ -0,0 +1,108 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.filter;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.epl.expression.core.ExprFilterSpecLookupable;
+import com.espertech.esper.filter.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compares the HashMap-based equals filter index with the primitive-keyed equals indexes
+ * for long account ids and int instrument codes.
+ * <p>
+ * Run with {@code -prof gc} for the allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterParamIndexEqualsBenchmark {
+    private static final int NUM_EVENTS = 1024;
+
+    @Param({"false", "true"})
+    public boolean primitive;
+
+    @Param({"accountId", "instrumentCode"})
+    public String property;
+
+    @Param({"100", "100000"})
+    public int numConstants;
+
+    private EPServiceProvider epService;
+    private FilterParamIndexBase index;
+    private EventBean[] events;
+    private List<FilterHandle> matches;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("Trade", new String[]{"accountId", "instrumentCode"}, new Object[]{long.class, int.class});
+        epService = EPServiceProviderManager.getProvider(FilterParamIndexEqualsBenchmark.class.getSimpleName(), configuration);
+        epService.initialize();
+
+        EventType eventType = epService.getEPAdministrator().getConfiguration().getEventType("Trade");
+        ExprFilterSpecLookupable lookupable = new ExprFilterSpecLookupable(property, eventType.getGetter(property), eventType.getPropertyType(property), false);
+        boolean isLong = property.equals("accountId");
+        if (!primitive) {
+            index = new FilterParamIndexEquals(lookupable, new ReentrantReadWriteLock());
+        } else if (isLong) {
+            index = new FilterParamIndexEqualsLong(lookupable, new ReentrantReadWriteLock());
+        } else {
+            index = new FilterParamIndexEqualsInt(lookupable, new ReentrantReadWriteLock());
+        }
+
+        EventEvaluator evaluator = new EventEvaluator() {
+            public void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+                matches.add(null);
+            }
+        };
+        for (int i = 0; i < numConstants; i++) {
+            index.put(isLong ? (Object) (1000000000000L + i * 7L) : (Object) (i * 7), evaluator);
+        }
+
+        // half of the events match
+        events = new EventBean[NUM_EVENTS];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            int n = (i * 7919) % numConstants;
+            long accountId = 1000000000000L + n * 7L + (i % 2);
+            int instrumentCode = n * 7 + (i % 2);
+            events[i] = ((EPServiceProviderSPI) epService).getEventAdapterService().adapterForObjectArray(new Object[]{accountId, instrumentCode}, "Trade");
+        }
+        matches = new ArrayList<FilterHandle>();
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_EVENTS)
+    public void matchEvent(Blackhole blackhole) {
+        for (EventBean event : events) {
+            index.matchEvent(event, matches);
+        }
+        blackhole.consume(matches.size());
+        matches.clear();
+    }
+}
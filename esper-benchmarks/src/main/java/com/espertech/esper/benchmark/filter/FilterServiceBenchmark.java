@@ -0,0 +1,80 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.filter;
+
+import com.espertech.esper.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares filter service profiles for many threads sending events against filters that do not change.
+ * Run with {@code -t <threads>} to change the number of sending threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class FilterServiceBenchmark {
+
+    @Param({"READMOSTLY", "READWRITE", "COPYONWRITE"})
+    public ConfigurationEngineDefaults.FilterServiceProfile profile;
+
+    @Param({"1000"})
+    public int numFilters;
+
+    private EPServiceProvider epService;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+        private final Object[][] events = new Object[1024][];
+
+        @Setup
+        public void setup() {
+            int thread = THREAD_NUMBER.getAndIncrement();
+            for (int i = 0; i < events.length; i++) {
+                events[i] = new Object[]{"S" + ((i * 31 + thread) % 2000), (double) (i % 100)};
+            }
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.getEngineDefaults().getExecution().setFilterServiceProfile(profile);
+        configuration.addEventType("Tick", new String[]{"symbol", "price"}, new Object[]{String.class, double.class});
+        epService = EPServiceProviderManager.getProvider(FilterServiceBenchmark.class.getSimpleName() + profile, configuration);
+        epService.initialize();
+        for (int i = 0; i < numFilters; i++) {
+            epService.getEPAdministrator().createEPL("select * from Tick(symbol='S" + i + "', price > 50)");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public void sendEvent(ThreadState state) {
+        EPRuntime runtime = epService.getEPRuntime();
+        for (Object[] event : state.events) {
+            runtime.sendEvent(event, "Tick");
+        }
+    }
+}
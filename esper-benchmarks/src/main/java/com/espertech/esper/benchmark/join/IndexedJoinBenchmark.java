@@ -0,0 +1,81 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.join;
+
+import com.espertech.esper.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a unidirectional equi-join of an incoming event against a keep-all window,
+ * which the join planner indexes by the join key, optionally with a second non-key condition.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexedJoinBenchmark {
+    private static final int NUM_EVENTS = 1024;
+
+    @Param({"1000", "100000"})
+    public int numOrders;
+
+    @Param({"1", "10"})
+    public int ordersPerKey;
+
+    private EPServiceProvider epService;
+    private EventSender sender;
+    private Object[][] events;
+    private int count;
+    private int last;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("OrderEvent", new String[]{"orderId", "account", "price"}, new Object[]{String.class, String.class, double.class});
+        configuration.addEventType("Fill", new String[]{"account", "qty"}, new Object[]{String.class, long.class});
+        epService = EPServiceProviderManager.getProvider(IndexedJoinBenchmark.class.getSimpleName(), configuration);
+        epService.initialize();
+
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select o.orderId, o.price * f.qty as notional from Fill as f unidirectional, OrderEvent#keepall as o where o.account = f.account");
+        stmt.addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                last = newEvents.length;
+            }
+        });
+
+        int numKeys = numOrders / ordersPerKey;
+        EventSender orderSender = epService.getEPRuntime().getEventSender("OrderEvent");
+        for (int i = 0; i < numOrders; i++) {
+            orderSender.sendEvent(new Object[]{"O" + i, "A" + (i % numKeys), (double) i});
+        }
+        sender = epService.getEPRuntime().getEventSender("Fill");
+        events = new Object[NUM_EVENTS][];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            events[i] = new Object[]{"A" + ((i * 7919) % numKeys), 10L};
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public int sendEvent() {
+        sender.sendEvent(events[count++ & (NUM_EVENTS - 1)]);
+        return last;
+    }
+}
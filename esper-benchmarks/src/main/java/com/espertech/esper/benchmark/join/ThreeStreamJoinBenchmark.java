@@ -0,0 +1,97 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.join;
+
+import com.espertech.esper.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a three-stream inner join of length windows on a common key, where each incoming event joins against
+ * the other two windows. Run with "-prof gc" to see the allocation rate of join result composition.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThreeStreamJoinBenchmark {
+    private static final int NUM_EVENTS = 1024;
+
+    @Param({"100", "10000"})
+    public int numKeys;
+
+    @Param({"1", "4"})
+    public int rowsPerKey;
+
+    private EPServiceProvider epService;
+    private EventSender[] senders;
+    private Object[][] events;
+    private int count;
+    private int last;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("Quote", new String[]{"symbol", "price"}, new Object[]{String.class, double.class});
+        configuration.addEventType("Trade", new String[]{"symbol", "volume"}, new Object[]{String.class, long.class});
+        configuration.addEventType("News", new String[]{"symbol", "score"}, new Object[]{String.class, int.class});
+        epService = EPServiceProviderManager.getProvider(ThreeStreamJoinBenchmark.class.getSimpleName(), configuration);
+        epService.initialize();
+
+        int windowSize = numKeys * rowsPerKey;
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select q.price * t.volume as notional, n.score from " +
+                "Quote#length(" + windowSize + ") as q, Trade#length(" + windowSize + ") as t, News#length(" + windowSize + ") as n " +
+                "where q.symbol = t.symbol and t.symbol = n.symbol");
+        stmt.addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                last = newEvents.length;
+            }
+        });
+
+        senders = new EventSender[]{epService.getEPRuntime().getEventSender("Quote"),
+            epService.getEPRuntime().getEventSender("Trade"),
+            epService.getEPRuntime().getEventSender("News")};
+        events = new Object[NUM_EVENTS][];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            String symbol = "S" + ((i * 7919) % numKeys);
+            switch (i % 3) {
+                case 0:
+                    events[i] = new Object[]{symbol, 10d + i};
+                    break;
+                case 1:
+                    events[i] = new Object[]{symbol, (long) i};
+                    break;
+                default:
+                    events[i] = new Object[]{symbol, i % 10};
+                    break;
+            }
+        }
+        for (int i = 0; i < windowSize * 3; i++) {
+            sendEvent();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public int sendEvent() {
+        int index = count++ & (NUM_EVENTS - 1);
+        senders[index % 3].sendEvent(events[index]);
+        return last;
+    }
+}
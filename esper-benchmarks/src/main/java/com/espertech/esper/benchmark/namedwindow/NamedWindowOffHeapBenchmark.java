@@ -0,0 +1,80 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.namedwindow;
+
+import com.espertech.esper.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares keyed subquery lookup against a large named window with and without off-heap storage.
+ * Run with "-prof gc" to compare heap use.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NamedWindowOffHeapBenchmark {
+    private static final int NUM_ROWS = 200000;
+
+    @Param({"false", "true"})
+    public boolean offHeap;
+
+    private EPRuntime runtime;
+    private EPServiceProvider epService;
+    private Object[][] lookups;
+    private int count;
+    private Object last;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("Row", new String[]{"key", "value", "text"}, new Object[]{String.class, long.class, String.class});
+        configuration.addEventType("Lookup", new String[]{"key"}, new Object[]{String.class});
+        epService = EPServiceProviderManager.getProvider(NamedWindowOffHeapBenchmark.class.getSimpleName() + offHeap, configuration);
+        epService.initialize();
+        runtime = epService.getEPRuntime();
+
+        String hint = offHeap ? "@Hint('offheap_storage') " : "";
+        epService.getEPAdministrator().createEPL(hint + "@EventRepresentation(objectarray) create window RowWindow#keepall as Row");
+        epService.getEPAdministrator().createEPL("insert into RowWindow select * from Row");
+        epService.getEPAdministrator().createEPL("create index RowIndex on RowWindow(key)");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select (select value from RowWindow where key = l.key) as value from Lookup as l");
+        stmt.addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                last = newEvents[0].get("value");
+            }
+        });
+
+        for (int i = 0; i < NUM_ROWS; i++) {
+            runtime.sendEvent(new Object[]{"K" + i, (long) i, "row text " + i}, "Row");
+        }
+        lookups = new Object[1024][];
+        for (int i = 0; i < lookups.length; i++) {
+            lookups[i] = new Object[]{"K" + (i * 193 % NUM_ROWS)};
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public Object lookup() {
+        runtime.sendEvent(lookups[count++ & 1023], "Lookup");
+        return last;
+    }
+}
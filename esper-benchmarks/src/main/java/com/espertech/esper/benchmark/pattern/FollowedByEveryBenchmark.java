@@ -0,0 +1,74 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.pattern;
+
+import com.espertech.esper.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the pattern {@code every a=Request -> b=Response(id = a.id)} with a steady number of outstanding requests:
+ * each operation sends a new request and the response for the oldest outstanding request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FollowedByEveryBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int numOutstanding;
+
+    private EPServiceProvider epService;
+    private EventSender requestSender;
+    private EventSender responseSender;
+    private long id;
+    private Object last;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("Request", new String[]{"id"}, new Object[]{long.class});
+        configuration.addEventType("Response", new String[]{"id"}, new Object[]{long.class});
+        epService = EPServiceProviderManager.getProvider(FollowedByEveryBenchmark.class.getSimpleName(), configuration);
+        epService.initialize();
+
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select a.id as id from pattern [every a=Request -> b=Response(id = a.id)]");
+        stmt.addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                last = newEvents[0].get("id");
+            }
+        });
+        requestSender = epService.getEPRuntime().getEventSender("Request");
+        responseSender = epService.getEPRuntime().getEventSender("Response");
+        for (id = 0; id < numOutstanding; id++) {
+            requestSender.sendEvent(new Object[]{id});
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public Object sendEvents() {
+        requestSender.sendEvent(new Object[]{id});
+        responseSender.sendEvent(new Object[]{id - numOutstanding});
+        id++;
+        return last;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.pattern;
+
+import com.espertech.esper.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the pattern {@code every a=Order -> b=Fill(orderId = a.id) where timer:within(1 min)} with a steady number of
+ * outstanding orders: each operation sends a new order and the fill for the oldest outstanding order.
+ * For KEYED the statement has the KEYED_FOLLOWEDBY hint and keeps the outstanding orders in a table keyed by order id,
+ * for PLAIN each outstanding order has its own filter and timer. Run with "-prof gc" to see the allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FollowedByKeyedBenchmark {
+    @Param({"KEYED", "PLAIN"})
+    public Evaluation evaluation;
+
+    @Param({"10000", "1000000"})
+    public int numOutstanding;
+
+    private EPServiceProvider epService;
+    private EventSender orderSender;
+    private EventSender fillSender;
+    private long count;
+    private long numMatches;
+
+    public enum Evaluation {
+        KEYED,
+        PLAIN
+    }
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("Order", new String[]{"id"}, new Object[]{long.class});
+        configuration.addEventType("Fill", new String[]{"orderId"}, new Object[]{long.class});
+        epService = EPServiceProviderManager.getProvider(FollowedByKeyedBenchmark.class.getSimpleName(), configuration);
+        epService.initialize();
+
+        String hint = evaluation == Evaluation.KEYED ? "@Hint('KEYED_FOLLOWEDBY') " : "";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(hint +
+                "select a.id as id from pattern [every a=Order -> b=Fill(orderId = a.id) where timer:within(1 min)]");
+        stmt.addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                numMatches += newEvents.length;
+            }
+        });
+
+        orderSender = epService.getEPRuntime().getEventSender("Order");
+        fillSender = epService.getEPRuntime().getEventSender("Fill");
+        for (int i = 0; i < numOutstanding; i++) {
+            orderSender.sendEvent(new Object[]{count++});
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public long sendEvents() {
+        orderSender.sendEvent(new Object[]{count});
+        fillSender.sendEvent(new Object[]{count - numOutstanding});
+        count++;
+        return numMatches;
+    }
+}
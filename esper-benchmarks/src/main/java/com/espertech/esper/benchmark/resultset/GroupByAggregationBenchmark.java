@@ -0,0 +1,72 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.resultset;
+
+import com.espertech.esper.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures fully-aggregated group-by processing (row-per-group result set processor) for an unbound stream,
+ * with a listener receiving each group's updated row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupByAggregationBenchmark {
+    private static final int NUM_EVENTS = 131072;
+
+    @Param({"10", "10000", "100000"})
+    public int numGroups;
+
+    private EPServiceProvider epService;
+    private EventSender sender;
+    private Object[][] events;
+    private int count;
+    private Object last;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("Tick", new String[]{"symbol", "price", "volume"}, new Object[]{String.class, double.class, long.class});
+        epService = EPServiceProviderManager.getProvider(GroupByAggregationBenchmark.class.getSimpleName(), configuration);
+        epService.initialize();
+
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select symbol, count(*) as cnt, sum(volume) as vol, avg(price) as avgPrice, max(price) as maxPrice from Tick group by symbol");
+        stmt.addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                last = newEvents[0].get("avgPrice");
+            }
+        });
+        sender = epService.getEPRuntime().getEventSender("Tick");
+
+        events = new Object[NUM_EVENTS][];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            events[i] = new Object[]{"S" + (i % numGroups), (double) (i % 100), (long) i};
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public Object sendEvent() {
+        sender.sendEvent(events[count++ & (NUM_EVENTS - 1)]);
+        return last;
+    }
+}
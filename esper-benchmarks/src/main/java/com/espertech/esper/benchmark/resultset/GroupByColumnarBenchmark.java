@@ -0,0 +1,137 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.resultset;
+
+import com.espertech.esper.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares single-key group-by aggregation with columnar aggregation state against aggregation state kept
+ * in an object per group (@Hint('disable_columnar_group')), for long and string group keys.
+ * <p>
+ * The "update" benchmark measures events per second into existing groups. The "retainedBytesPerGroup" benchmark
+ * creates the given number of groups and reports the heap retained per group as an auxiliary counter.
+ */
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GroupByColumnarBenchmark {
+    private static final int NUM_EVENTS = 1 << 20;
+
+    @Param({"true", "false"})
+    public boolean columnar;
+
+    @Param({"long", "string"})
+    public String keyType;
+
+    @Param({"100000", "1000000"})
+    public int numGroups;
+
+    private EPServiceProvider epService;
+    private EventSender sender;
+    private Object[][] events;
+    private int count;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        Class keyClass = keyType.equals("long") ? long.class : String.class;
+        configuration.addEventType("Trade", new String[]{"account", "px"}, new Object[]{keyClass, double.class});
+        epService = EPServiceProviderManager.getProvider(GroupByColumnarBenchmark.class.getSimpleName() + columnar + keyType + numGroups, configuration);
+        epService.initialize();
+        sender = epService.getEPRuntime().getEventSender("Trade");
+
+        events = new Object[NUM_EVENTS][];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            events[i] = new Object[]{makeKey(i % numGroups), (double) (i % 100)};
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public void update(UpdateState state) {
+        sender.sendEvent(events[count++ & (NUM_EVENTS - 1)]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public void retainedBytesPerGroup(MemoryCounters counters) {
+        long before = usedHeap();
+        EPStatement stmt = createStatement();
+        for (int i = 0; i < numGroups; i++) {
+            sender.sendEvent(events[i]);
+        }
+        long after = usedHeap();
+        counters.bytesPerGroup = (after - before) / numGroups;
+        stmt.destroy();
+    }
+
+    private EPStatement createStatement() {
+        String hint = columnar ? "" : "@Hint('disable_columnar_group') ";
+        return epService.getEPAdministrator().createEPL(hint + "select account, sum(px), count(*), avg(px), max(px) from Trade group by account");
+    }
+
+    private Object makeKey(int i) {
+        long account = 1000000000L + i;
+        return keyType.equals("long") ? (Object) account : "A" + account;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Statement for the update benchmark, with all groups created beforehand.
+     */
+    @State(Scope.Thread)
+    public static class UpdateState {
+        private EPStatement stmt;
+
+        @Setup
+        public void setup(GroupByColumnarBenchmark benchmark) {
+            stmt = benchmark.createStatement();
+            for (int i = 0; i < benchmark.numGroups; i++) {
+                benchmark.sender.sendEvent(benchmark.events[i]);
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            stmt.destroy();
+        }
+    }
+
+    /**
+     * Reports the heap retained per group.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class MemoryCounters {
+        public long bytesPerGroup;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.rowregex;
+
+import com.espertech.esper.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures match-recognize detecting a rise followed by one or more falls and a recovery, partitioned by symbol.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchRecognizeBenchmark {
+    private static final int NUM_EVENTS = 4096;
+
+    @Param({"1", "1000"})
+    public int numPartitions;
+
+    private EPServiceProvider epService;
+    private EventSender sender;
+    private Object[][] events;
+    private int count;
+    private Object last;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("Tick", new String[]{"symbol", "price"}, new Object[]{String.class, double.class});
+        epService = EPServiceProviderManager.getProvider(MatchRecognizeBenchmark.class.getSimpleName(), configuration);
+        epService.initialize();
+
+        String epl = "select * from Tick match_recognize (" +
+                "partition by symbol " +
+                "measures A.symbol as symbol, A.price as startPrice, last(B.price) as bottomPrice, C.price as endPrice " +
+                "pattern (A B+ C) " +
+                "define B as B.price < prev(B.price), C as C.price > prev(C.price))";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                last = newEvents[0].get("bottomPrice");
+            }
+        });
+        sender = epService.getEPRuntime().getEventSender("Tick");
+
+        // per partition a saw-tooth of three falling prices followed by a rise
+        events = new Object[NUM_EVENTS][];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            int partition = i % numPartitions;
+            int step = (i / numPartitions) % 4;
+            events[i] = new Object[]{"S" + partition, step == 3 ? 110d : 100d - step};
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public Object sendEvent() {
+        sender.sendEvent(events[count++ & (NUM_EVENTS - 1)]);
+        return last;
+    }
+}
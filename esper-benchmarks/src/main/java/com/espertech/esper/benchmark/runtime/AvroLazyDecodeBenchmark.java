@@ -0,0 +1,146 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.runtime;
+
+import com.espertech.esper.avro.core.AvroLazyRecordFactory;
+import com.espertech.esper.client.*;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.espertech.esper.avro.core.AvroConstant.PROP_JAVA_STRING_KEY;
+import static com.espertech.esper.avro.core.AvroConstant.PROP_JAVA_STRING_VALUE;
+
+/**
+ * Measures sending Avro binary-encoded events of a wide schema, of which a filtered statement reads 3 fields.
+ * EAGER decodes each event with {@link GenericDatumReader} before sending, LAZY sends a record made by
+ * {@link AvroLazyRecordFactory} that decodes only the fields that are accessed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvroLazyDecodeBenchmark {
+    private static final int NUM_EVENTS = 1024;
+
+    @Param({"EAGER", "LAZY"})
+    public Decoding decoding;
+
+    @Param({"80"})
+    public int numFields;
+
+    private EPServiceProvider epService;
+    private EventSender sender;
+    private byte[][] events;
+    private GenericDatumReader<GenericData.Record> reader;
+    private BinaryDecoder decoder;
+    private AvroLazyRecordFactory factory;
+    private int count;
+    private Object last;
+
+    public enum Decoding {
+        EAGER,
+        LAZY
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        // fields "f0" to "fN", alternating string, long and double
+        SchemaBuilder.FieldAssembler<Schema> assembler = SchemaBuilder.record("Wide").fields();
+        for (int i = 0; i < numFields; i++) {
+            switch (i % 3) {
+                case 0:
+                    assembler.name("f" + i).type().stringBuilder().prop(PROP_JAVA_STRING_KEY, PROP_JAVA_STRING_VALUE).endString().noDefault();
+                    break;
+                case 1:
+                    assembler.requiredLong("f" + i);
+                    break;
+                default:
+                    assembler.requiredDouble("f" + i);
+                    break;
+            }
+        }
+        Schema schema = assembler.endRecord();
+
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventTypeAvro("Wide", new ConfigurationEventTypeAvro(schema));
+        epService = EPServiceProviderManager.getProvider(AvroLazyDecodeBenchmark.class.getSimpleName() + decoding, configuration);
+        epService.initialize();
+
+        // reads a string, a long and a double field located after most other fields
+        int last3 = numFields - numFields % 3 - 3;
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select f" + (last3 + 1) + " as l, f" + (last3 + 2) + " as d from Wide(f" + last3 + " = 'A')");
+        stmt.addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                last = newEvents[0].get("l");
+            }
+        });
+        sender = epService.getEPRuntime().getEventSender("Wide");
+
+        GenericDatumWriter<GenericData.Record> writer = new GenericDatumWriter<>(schema);
+        events = new byte[NUM_EVENTS][];
+        for (int n = 0; n < NUM_EVENTS; n++) {
+            GenericData.Record record = new GenericData.Record(schema);
+            for (int i = 0; i < numFields; i++) {
+                switch (i % 3) {
+                    case 0:
+                        record.put(i, n % 2 == 0 ? "A" : "value" + i);
+                        break;
+                    case 1:
+                        record.put(i, (long) n * i);
+                        break;
+                    default:
+                        record.put(i, n * 1.5d);
+                        break;
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+            writer.write(record, encoder);
+            encoder.flush();
+            events[n] = out.toByteArray();
+        }
+
+        reader = new GenericDatumReader<>(schema);
+        factory = new AvroLazyRecordFactory(schema);
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public Object sendEvent() throws IOException {
+        byte[] bytes = events[count++ & (NUM_EVENTS - 1)];
+        if (decoding == Decoding.EAGER) {
+            decoder = DecoderFactory.get().binaryDecoder(bytes, decoder);
+            sender.sendEvent(reader.read(null, decoder));
+        } else {
+            sender.sendEvent(factory.make(bytes));
+        }
+        return last;
+    }
+}
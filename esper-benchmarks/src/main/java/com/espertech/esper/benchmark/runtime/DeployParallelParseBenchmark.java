@@ -0,0 +1,87 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.runtime;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.deploy.DeploymentOptions;
+import com.espertech.esper.client.deploy.DeploymentResult;
+import com.espertech.esper.client.deploy.EPDeploymentAdmin;
+import com.espertech.esper.client.deploy.Module;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures deploying a module with many statements with and without parallel parsing.
+ * <p>
+ * Parallel parsing only affects the parse step, compiling and starting statements stays serial.
+ * The "compileOnly" benchmark excludes statement start so that it shows the parse share of the gain,
+ * the "deployUndeploy" benchmark shows the end-to-end effect.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeployParallelParseBenchmark {
+    @Param({"true", "false"})
+    public boolean parallelParse;
+
+    @Param({"200"})
+    public int numStatements;
+
+    private EPServiceProvider epService;
+    private EPDeploymentAdmin deploymentAdmin;
+    private Module module;
+
+    @Setup
+    public void setup() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("Tick", new String[]{"symbol", "price", "volume"}, new Object[]{String.class, double.class, long.class});
+        epService = EPServiceProviderManager.getProvider(DeployParallelParseBenchmark.class.getSimpleName() + parallelParse, configuration);
+        epService.initialize();
+        deploymentAdmin = epService.getEPAdministrator().getDeploymentAdmin();
+
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < numStatements; i++) {
+            buf.append("select symbol, sum(volume) as vol, avg(price) as avgPrice, price * volume as notional ")
+                    .append("from Tick(symbol = 'S").append(i).append("' and price > ").append(i).append(")#length(100) ")
+                    .append("group by symbol having count(*) > 1 order by symbol;\n");
+        }
+        module = deploymentAdmin.parse(buf.toString());
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public void compileOnly() throws Exception {
+        DeploymentOptions options = new DeploymentOptions();
+        options.setParallelParse(parallelParse);
+        options.setCompileOnly(true);
+        deploymentAdmin.deploy(module, options);
+    }
+
+    @Benchmark
+    public void deployUndeploy() throws Exception {
+        DeploymentOptions options = new DeploymentOptions();
+        options.setParallelParse(parallelParse);
+        DeploymentResult result = deploymentAdmin.deploy(module, options);
+        deploymentAdmin.undeployRemove(result.getDeploymentId());
+    }
+}
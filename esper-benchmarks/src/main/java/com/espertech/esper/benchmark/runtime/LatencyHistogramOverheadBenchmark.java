@@ -0,0 +1,88 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.runtime;
+
+import com.espertech.esper.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of latency histograms on event processing.
+ * <p>
+ * Compare the "histograms" mode against the "metrics" mode, which has metrics reporting enabled without histograms.
+ * The latency histogram budget is an overhead of less than 2%. The "none" mode shows the cost of metrics reporting itself.
+ * The four-thread benchmark shows contention between threads recording into the same histograms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class LatencyHistogramOverheadBenchmark {
+
+    @Param({"none", "metrics", "histograms"})
+    public String mode;
+
+    private EPRuntime runtime;
+    private EPServiceProvider epService;
+    private Object[][] events;
+
+    @State(Scope.Thread)
+    public static class Counter {
+        private int count;
+    }
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        if (!mode.equals("none")) {
+            configuration.getEngineDefaults().getMetricsReporting().setEnableMetricsReporting(true);
+            configuration.getEngineDefaults().getMetricsReporting().setThreading(false);
+            configuration.getEngineDefaults().getMetricsReporting().setLatencyHistograms(mode.equals("histograms"));
+        }
+        configuration.addEventType("Tick", new String[]{"symbol", "price", "volume"}, new Object[]{String.class, double.class, long.class});
+        epService = EPServiceProviderManager.getProvider(LatencyHistogramOverheadBenchmark.class.getSimpleName() + mode, configuration);
+        epService.initialize();
+        runtime = epService.getEPRuntime();
+
+        for (int i = 0; i < 20; i++) {
+            EPStatement stmt = epService.getEPAdministrator().createEPL("select symbol, price from Tick(symbol='S" + i + "', price > 10)");
+            stmt.addListener(new UpdateListener() {
+                public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                }
+            });
+        }
+
+        events = new Object[1024][];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Object[]{"S" + (i % 40), (double) (i % 20), (long) i};
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public void sendEvent(Counter counter) {
+        runtime.sendEvent(events[counter.count++ & 1023], "Tick");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void sendEventFourThreads(Counter counter) {
+        runtime.sendEvent(events[counter.count++ & 1023], "Tick");
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.runtime;
+
+import com.espertech.esper.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares event-at-a-time {@link EPRuntime#sendEvent(Object[], String)} against
+ * batch {@link EPRuntime#sendEvents(Object[][], String)} for a filter-heavy engine.
+ * <p>
+ * Each invocation sends {@code batchSize} events, multiply the reported throughput by the batch size for events per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendEventBatchBenchmark {
+
+    @Param({"1", "16", "256"})
+    public int batchSize;
+
+    @Param({"false", "true"})
+    public boolean withListener;
+
+    private EPServiceProvider epService;
+    private EventSender sender;
+    private EventSenderBatch senderBatch;
+    private Object[][] events;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("Tick", new String[]{"symbol", "price", "volume"}, new Object[]{String.class, double.class, long.class});
+        epService = EPServiceProviderManager.getProvider(SendEventBatchBenchmark.class.getSimpleName(), configuration);
+        epService.initialize();
+
+        for (int i = 0; i < 100; i++) {
+            EPStatement stmt = epService.getEPAdministrator().createEPL("select * from Tick(symbol='S" + i + "', price > 10)");
+            if (withListener) {
+                stmt.addListener(new UpdateListener() {
+                    public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                    }
+                });
+            }
+        }
+        epService.getEPAdministrator().createEPL("select symbol, sum(volume) from Tick#length(1000) group by symbol");
+
+        events = new Object[batchSize][];
+        for (int i = 0; i < batchSize; i++) {
+            events[i] = new Object[]{"S" + (i % 200), (double) (i % 20), (long) i};
+        }
+        sender = epService.getEPRuntime().getEventSender("Tick");
+        senderBatch = epService.getEPRuntime().getEventSenderBatch("Tick");
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public void sendEventSingle() {
+        for (Object[] event : events) {
+            epService.getEPRuntime().sendEvent(event, "Tick");
+        }
+    }
+
+    @Benchmark
+    public void sendEventsBatch() {
+        epService.getEPRuntime().sendEvents(events, "Tick");
+    }
+
+    @Benchmark
+    public void eventSenderSingle() {
+        for (Object[] event : events) {
+            sender.sendEvent(event);
+        }
+    }
+
+    @Benchmark
+    public void eventSenderBatch() {
+        senderBatch.sendEvents(events);
+    }
+}
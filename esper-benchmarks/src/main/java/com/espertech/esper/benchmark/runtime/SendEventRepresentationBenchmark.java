@@ -0,0 +1,140 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.runtime;
+
+import com.espertech.esper.benchmark.support.TickBean;
+import com.espertech.esper.client.*;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.openjdk.jmh.annotations.*;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.avro.SchemaBuilder.record;
+
+/**
+ * Measures {@link EventSender#sendEvent(Object)} for each event representation, with a filtered statement
+ * that half of the events match and a listener that reads a property of each match.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendEventRepresentationBenchmark {
+    private static final int NUM_EVENTS = 1024;
+
+    @Param({"BEAN", "MAP", "OBJECTARRAY", "AVRO", "XML"})
+    public Representation representation;
+
+    private EPServiceProvider epService;
+    private EventSender sender;
+    private Object[] events;
+    private int count;
+    private Object last;
+
+    public enum Representation {
+        BEAN,
+        MAP,
+        OBJECTARRAY,
+        AVRO,
+        XML
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        Schema schema = record("Tick").fields().requiredString("symbol").requiredDouble("price").endRecord();
+        switch (representation) {
+            case BEAN:
+                configuration.addEventType("Tick", TickBean.class);
+                break;
+            case MAP:
+                Map<String, Object> mapType = new HashMap<String, Object>();
+                mapType.put("symbol", String.class);
+                mapType.put("price", double.class);
+                configuration.addEventType("Tick", mapType);
+                break;
+            case OBJECTARRAY:
+                configuration.addEventType("Tick", new String[]{"symbol", "price"}, new Object[]{String.class, double.class});
+                break;
+            case AVRO:
+                configuration.addEventTypeAvro("Tick", new ConfigurationEventTypeAvro(schema));
+                break;
+            default:
+                ConfigurationEventTypeXMLDOM xmlType = new ConfigurationEventTypeXMLDOM();
+                xmlType.setRootElementName("Tick");
+                configuration.addEventType("Tick", xmlType);
+                break;
+        }
+        epService = EPServiceProviderManager.getProvider(SendEventRepresentationBenchmark.class.getSimpleName() + representation, configuration);
+        epService.initialize();
+
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select symbol from Tick(symbol = 'A')");
+        stmt.addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                last = newEvents[0].get("symbol");
+            }
+        });
+        sender = epService.getEPRuntime().getEventSender("Tick");
+
+        DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+        events = new Object[NUM_EVENTS];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            String symbol = i % 2 == 0 ? "A" : "B";
+            double price = i;
+            switch (representation) {
+                case BEAN:
+                    events[i] = new TickBean(symbol, price);
+                    break;
+                case MAP:
+                    Map<String, Object> map = new HashMap<String, Object>();
+                    map.put("symbol", symbol);
+                    map.put("price", price);
+                    events[i] = map;
+                    break;
+                case OBJECTARRAY:
+                    events[i] = new Object[]{symbol, price};
+                    break;
+                case AVRO:
+                    GenericData.Record record = new GenericData.Record(schema);
+                    record.put("symbol", symbol);
+                    record.put("price", price);
+                    events[i] = record;
+                    break;
+                default:
+                    String xml = "<Tick><symbol>" + symbol + "</symbol><price>" + price + "</price></Tick>";
+                    Document document = documentBuilderFactory.newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+                    events[i] = document;
+                    break;
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public Object sendEvent() {
+        sender.sendEvent(events[count++ & (NUM_EVENTS - 1)]);
+        return last;
+    }
+}
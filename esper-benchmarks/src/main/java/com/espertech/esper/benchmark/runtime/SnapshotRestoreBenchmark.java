@@ -0,0 +1,109 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.runtime;
+
+import com.espertech.esper.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing a snapshot of a named window and a grouped table to a file, and restoring the snapshot into a freshly
+ * deployed engine from a stream and from a memory-mapped file. The "bytes" auxiliary counter reports the snapshot bytes
+ * per second, i.e. divide by 1e9 for GB/s.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SnapshotRestoreBenchmark {
+    private static final String EPL =
+            "create window TradeWindow#keepall as Trade;\n" +
+            "create table TradeTotals(account string primary key, volume sum(long), trades count(*), avgPrice avg(double));\n" +
+            "insert into TradeWindow select * from Trade;\n" +
+            "into table TradeTotals select sum(volume) as volume, count(*) as trades, avg(price) as avgPrice from Trade group by account;\n";
+
+    @Param({"1000000"})
+    public int numEvents;
+
+    private File file;
+    private EPServiceProvider source;
+    private EPServiceProvider target;
+
+    @Setup
+    public void setup() throws Exception {
+        file = File.createTempFile("esper-snapshot", ".bin");
+        file.deleteOnExit();
+        source = makeEngine("source");
+        for (int i = 0; i < numEvents; i++) {
+            source.getEPRuntime().sendEvent(new Object[]{"A" + (i % 100000), "S" + (i % 500), 10d + i % 1000, (long) i}, "Trade");
+        }
+        source.getEPAdministrator().getSnapshotAdmin().snapshot(file);
+    }
+
+    @TearDown
+    public void tearDown() {
+        source.destroy();
+        file.delete();
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() throws Exception {
+        target = makeEngine("target");
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() {
+        target.destroy();
+    }
+
+    @Benchmark
+    public void snapshot(ByteCounters counters) throws IOException {
+        source.getEPAdministrator().getSnapshotAdmin().snapshot(file);
+        counters.bytes += file.length();
+    }
+
+    @Benchmark
+    public void restoreStream(ByteCounters counters) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            target.getEPAdministrator().getSnapshotAdmin().restore(in);
+        }
+        counters.bytes += file.length();
+    }
+
+    @Benchmark
+    public void restoreMapped(ByteCounters counters) throws IOException {
+        target.getEPAdministrator().getSnapshotAdmin().restore(file);
+        counters.bytes += file.length();
+    }
+
+    private EPServiceProvider makeEngine(String name) throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("Trade", new String[]{"account", "symbol", "price", "volume"}, new Object[]{String.class, String.class, double.class, long.class});
+        EPServiceProvider engine = EPServiceProviderManager.getProvider(SnapshotRestoreBenchmark.class.getSimpleName() + name, configuration);
+        engine.initialize();
+        engine.getEPAdministrator().getDeploymentAdmin().parseDeploy(EPL);
+        return engine;
+    }
+
+    /**
+     * Reports the snapshot bytes written or read.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ByteCounters {
+        public long bytes;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.runtime;
+
+import com.espertech.esper.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating and destroying a statement that uses code generation for the result set processor,
+ * aggregation and expressions, with and without the compiled-class cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementCreateCodegenCacheBenchmark {
+    private static final String EPL = "select symbol, sum(volume) as vol, avg(price) as avgPrice, price * volume as notional " +
+            "from Tick(price > 0)#length(100) group by symbol having count(*) > 1 order by symbol";
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    private EPServiceProvider epService;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.getEngineDefaults().getByteCodeGeneration().setEnableCache(cache);
+        configuration.addEventType("Tick", new String[]{"symbol", "price", "volume"}, new Object[]{String.class, double.class, long.class});
+        epService = EPServiceProviderManager.getProvider(StatementCreateCodegenCacheBenchmark.class.getSimpleName() + cache, configuration);
+        epService.initialize();
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public void createDestroy() {
+        epService.getEPAdministrator().createEPL(EPL).destroy();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.schedule;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.schedule.ScheduleHandle;
+import com.espertech.esper.schedule.SchedulingServiceProvider;
+import com.espertech.esper.schedule.SchedulingServiceSPI;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the sorted and the timing-wheel scheduling service with a steady population of outstanding schedules,
+ * such as many time windows or pattern timers.
+ * <p>
+ * The {@code reschedule} benchmark removes and re-adds a random handle, the {@code advance} benchmark moves time
+ * forward by one millisecond, evaluates and re-schedules all triggered handles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SchedulingServiceBenchmark {
+
+    private static final int MAX_DELTA = 60000;
+
+    @Param({"SORTED", "TIMINGWHEEL"})
+    public ConfigurationEngineDefaults.SchedulingServiceProfile profile;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int numHandles;
+
+    private SchedulingServiceSPI service;
+    private BenchmarkHandle[] handles;
+    private List<ScheduleHandle> triggered;
+    private Random random;
+    private long time;
+
+    @Setup
+    public void setup() {
+        service = SchedulingServiceProvider.newService(profile, new TimeSourceServiceImpl());
+        service.setTime(0);
+        random = new Random(1);
+        triggered = new ArrayList<ScheduleHandle>();
+        handles = new BenchmarkHandle[numHandles];
+        for (int i = 0; i < numHandles; i++) {
+            handles[i] = new BenchmarkHandle(i);
+            service.add(1 + random.nextInt(MAX_DELTA), handles[i], i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.destroy();
+    }
+
+    @Benchmark
+    public void reschedule() {
+        BenchmarkHandle handle = handles[random.nextInt(numHandles)];
+        service.remove(handle, handle.slot);
+        service.add(1 + random.nextInt(MAX_DELTA), handle, handle.slot);
+    }
+
+    @Benchmark
+    public int advance() {
+        time++;
+        service.setTime(time);
+        service.evaluate(triggered);
+        int count = triggered.size();
+        for (ScheduleHandle handle : triggered) {
+            service.add(1 + random.nextInt(MAX_DELTA), handle, ((BenchmarkHandle) handle).slot);
+        }
+        triggered.clear();
+        return count;
+    }
+
+    private static class BenchmarkHandle implements ScheduleHandle {
+        private final int slot;
+
+        private BenchmarkHandle(int slot) {
+            this.slot = slot;
+        }
+
+        public int getStatementId() {
+            return 1;
+        }
+
+        public int getAgentInstanceId() {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.thread;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.util.ThreadingExecutorFactoryVirtualThread;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures outbound threading throughput when listeners block, such as for JDBC writes or HTTP posts,
+ * comparing engine-managed outbound thread pools against an executor running each delivery on a virtual thread.
+ * <p>
+ * Each invocation sends {@code NUM_EVENTS} events to {@code NUM_STATEMENTS} statements and waits until all listeners
+ * received all results, multiply the reported throughput by {@code NUM_EVENTS * NUM_STATEMENTS} for deliveries per second.
+ * The "virtual" executor requires running the benchmark on Java 21 or later.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutboundBlockingListenerBenchmark {
+    private static final int NUM_STATEMENTS = 64;
+    private static final int NUM_EVENTS = 100;
+    private static final long BLOCK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Param({"pool16", "pool256", "virtual"})
+    public String executor;
+
+    @Param({"false", "true"})
+    public boolean orderedPerStatement;
+
+    private EPServiceProvider epService;
+    private EventSender sender;
+    private final AtomicLong delivered = new AtomicLong();
+    private long expected;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.getEngineDefaults().getThreading().setThreadPoolOutbound(true);
+        if (executor.equals("virtual")) {
+            configuration.getEngineDefaults().getThreading().setThreadPoolOutboundExecutorFactory(ThreadingExecutorFactoryVirtualThread.class.getName());
+        } else {
+            configuration.getEngineDefaults().getThreading().setThreadPoolOutboundNumThreads(Integer.parseInt(executor.substring("pool".length())));
+        }
+        configuration.getEngineDefaults().getThreading().setThreadPoolOutboundOrderedPerStatement(orderedPerStatement);
+        configuration.addEventType("Tick", new String[]{"symbol", "price"}, new Object[]{String.class, double.class});
+        epService = EPServiceProviderManager.getProvider(OutboundBlockingListenerBenchmark.class.getSimpleName() + executor + orderedPerStatement, configuration);
+        epService.initialize();
+
+        for (int i = 0; i < NUM_STATEMENTS; i++) {
+            epService.getEPAdministrator().createEPL("select symbol, price from Tick").addListener(new UpdateListener() {
+                public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                    LockSupport.parkNanos(BLOCK_NANOS);
+                    delivered.incrementAndGet();
+                }
+            });
+        }
+        sender = epService.getEPRuntime().getEventSender("Tick");
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public long sendAndDeliver() {
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            sender.sendEvent(new Object[]{"S" + (i & 15), (double) i});
+        }
+        expected += NUM_EVENTS * NUM_STATEMENTS;
+        while (delivered.get() < expected) {
+            LockSupport.parkNanos(10000);
+        }
+        return expected;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.view;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time window with and without the time-window bucket hint, for a stream that
+ * arrives spread over distinct milliseconds so that the regular time window schedules and expires per millisecond.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeWindowBenchmark {
+    private static final int EVENTS_PER_MSEC = 4;
+
+    @Param({"", "0.1"})
+    public String bucketSeconds;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private Object[] event;
+    private long time;
+    private int count;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("Tick", new String[]{"symbol", "price"}, new Object[]{String.class, double.class});
+        epService = EPServiceProviderManager.getProvider(TimeWindowBenchmark.class.getSimpleName() + bucketSeconds, configuration);
+        epService.initialize();
+        runtime = epService.getEPRuntime();
+        runtime.sendEvent(new CurrentTimeEvent(0));
+
+        String hint = bucketSeconds.isEmpty() ? "" : "@Hint('time_window_bucket=" + bucketSeconds + "') ";
+        epService.getEPAdministrator().createEPL(hint + "select count(*), sum(price) from Tick#time(10 sec)");
+        event = new Object[]{"E", 1d};
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public void sendEvent() {
+        if (++count == EVENTS_PER_MSEC) {
+            count = 0;
+            runtime.sendEvent(new CurrentTimeEvent(++time));
+        }
+        runtime.sendEvent(event, "Tick");
+    }
+}
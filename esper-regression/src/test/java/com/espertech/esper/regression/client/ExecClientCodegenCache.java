@@ -0,0 +1,100 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.codegen.compile.CodegenClassCache;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExecClientCodegenCache implements RegressionExecution {
+    private static final String EPL = "select theString, intPrimitive * 2 as val from SupportBean(intPrimitive > 0)#length(2) " +
+            "group by theString having sum(intPrimitive) > 1 order by theString";
+
+    public void run(EPServiceProvider epService) throws Exception {
+        File directory = Files.createTempDirectory("esper-codegen").toFile();
+        try {
+            runAssertionCache(directory);
+        } finally {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            directory.delete();
+        }
+    }
+
+    private void runAssertionCache(File directory) {
+        // compile, then recreate the same statement from the in-memory cache
+        EPServiceProvider engine = makeEngine(directory);
+        CodegenClassCache cache = getCache(engine);
+        assertEquals(0, cache.getHitCount());
+
+        tryAssertionStatement(engine);
+        long misses = cache.getMissCount();
+        assertTrue(misses > 0);
+        assertTrue(directory.listFiles().length > 0);
+
+        tryAssertionStatement(engine);
+        assertEquals(misses, cache.getMissCount());
+        assertTrue(cache.getHitCount() > 0);
+        engine.destroy();
+
+        // restart, loading compiled classes from the cache directory
+        engine = makeEngine(directory);
+        cache = getCache(engine);
+        tryAssertionStatement(engine);
+        assertTrue(cache.getHitCount() > 0);
+        engine.destroy();
+    }
+
+    private void tryAssertionStatement(EPServiceProvider engine) {
+        EPStatement stmt = engine.getEPAdministrator().createEPL(EPL);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        engine.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        assertFalse(listener.getIsInvokedAndReset());
+        engine.getEPRuntime().sendEvent(new SupportBean("E1", 3));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "theString,val".split(","), new Object[]{"E1", 6});
+
+        stmt.destroy();
+    }
+
+    private EPServiceProvider makeEngine(File directory) {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType(SupportBean.class);
+        configuration.getEngineDefaults().getByteCodeGeneration().setCacheDirectory(directory.getAbsolutePath());
+        EPServiceProvider engine = EPServiceProviderManager.getProvider(ExecClientCodegenCache.class.getSimpleName(), configuration);
+        engine.initialize();
+        return engine;
+    }
+
+    private static CodegenClassCache getCache(EPServiceProvider engine) {
+        return ((EPServiceProviderSPI) engine).getEngineImportService().getCodegenCompiler().getClassCache();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.deploy.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+import com.espertech.esper.supportregression.util.SupportMessageAssertUtil;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ExecClientDeployParallelParse implements RegressionExecution {
+
+    public void run(EPServiceProvider epService) throws Exception {
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean_S0.class);
+
+        runAssertionDependentStatements(epService);
+        runAssertionCompileOnly(epService);
+        runAssertionInvalidSyntax(epService);
+    }
+
+    private void runAssertionDependentStatements(EPServiceProvider epService) throws Exception {
+        String epl = "module mymodule.parallel;\n" +
+                "create variable int myvar = 10;\n" +
+                "create window MyWindow#keepall as SupportBean;\n" +
+                "insert into MyWindow select * from SupportBean(intPrimitive > myvar);\n" +
+                "on SupportBean_S0 set myvar = id;\n" +
+                "@Name('out') select theString, intPrimitive from MyWindow;\n";
+        Module module = epService.getEPAdministrator().getDeploymentAdmin().parse(epl);
+        DeploymentOptions options = new DeploymentOptions();
+        options.setParallelParse(true);
+        DeploymentResult result = epService.getEPAdministrator().getDeploymentAdmin().deploy(module, options);
+        assertEquals(5, result.getStatements().size());
+
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().getStatement("out").addListener(listener);
+        String[] fields = "theString,intPrimitive".split(",");
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 5));
+        assertFalse(listener.isInvoked());
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 20));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"E2", 20});
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(0));
+        epService.getEPRuntime().sendEvent(new SupportBean("E3", 5));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"E3", 5});
+
+        epService.getEPAdministrator().getDeploymentAdmin().undeployRemove(result.getDeploymentId());
+        assertEquals(0, epService.getEPAdministrator().getStatementNames().length);
+    }
+
+    private void runAssertionCompileOnly(EPServiceProvider epService) throws Exception {
+        List<String> statements = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            statements.add("@Name('s" + i + "') select * from SupportBean(intPrimitive = " + i + ")");
+        }
+        Module module = makeModule("mymodule.many", statements.toArray(new String[0]));
+        DeploymentOptions options = new DeploymentOptions();
+        options.setParallelParse(true);
+        options.setCompileOnly(true);
+        assertNull(epService.getEPAdministrator().getDeploymentAdmin().deploy(module, options));
+        assertEquals(0, epService.getEPAdministrator().getStatementNames().length);
+
+        options.setCompileOnly(false);
+        DeploymentResult result = epService.getEPAdministrator().getDeploymentAdmin().deploy(module, options);
+        assertEquals(100, result.getStatements().size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("s" + i, result.getStatements().get(i).getName());
+        }
+        epService.getEPAdministrator().getDeploymentAdmin().undeployRemove(result.getDeploymentId());
+    }
+
+    private void runAssertionInvalidSyntax(EPServiceProvider epService) throws Exception {
+        Module module = makeModule("mymodule.invalid",
+                "create variable int myinvalidvar = 1",
+                "select * frm SupportBean",
+                "select * from SupportBean",
+                "select * from SupportBean where");
+        DeploymentOptions options = new DeploymentOptions();
+        options.setParallelParse(true);
+        try {
+            epService.getEPAdministrator().getDeploymentAdmin().deploy(module, options);
+            fail();
+        } catch (DeploymentActionException ex) {
+            SupportMessageAssertUtil.assertMessage(ex, "Compilation failed in module 'mymodule.invalid' in expression 'select * frm SupportBean' : Incorrect syntax near");
+            assertEquals(2, ex.getExceptions().size());
+            assertEquals("select * frm SupportBean", ex.getExceptions().get(0).getExpression());
+            assertEquals("select * from SupportBean where", ex.getExceptions().get(1).getExpression());
+        }
+
+        // nothing was created, not even the valid statements before the failing ones
+        assertEquals(0, epService.getEPAdministrator().getStatementNames().length);
+    }
+
+    private Module makeModule(String name, String... statements) {
+        List<ModuleItem> items = new ArrayList<>();
+        for (String statement : statements) {
+            items.add(new ModuleItem(statement, false, 0, 0, 0));
+        }
+        return new Module(name, null, new HashSet<>(), new HashSet<>(), items, null);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ExecClientSendEventBatch implements RegressionExecution {
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType("SupportBean", SupportBean.class);
+        Map<String, Object> mapType = new HashMap<>();
+        mapType.put("id", String.class);
+        mapType.put("value", int.class);
+        configuration.addEventType("MyMapEvent", mapType);
+        configuration.addEventType("MyOAEvent", new String[]{"id", "value"}, new Object[]{String.class, int.class});
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionObjectArrayInsertIntoOrdering(epService);
+        runAssertionMapBatch(epService);
+        runAssertionEventSenderBatch(epService);
+        runAssertionListenerCreatesStatement(epService);
+        runAssertionInvalid(epService);
+    }
+
+    private void runAssertionObjectArrayInsertIntoOrdering(EPServiceProvider epService) {
+        epService.getEPAdministrator().createEPL("insert into MyStream select id, value * 10 as value from MyOAEvent");
+        EPStatement stmtTotal = epService.getEPAdministrator().createEPL("select id, sum(value) as total from MyStream");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmtTotal.addListener(listener);
+
+        epService.getEPRuntime().sendEvents(new Object[][]{{"E1", 1}, {"E2", 2}, {"E3", 3}}, "MyOAEvent");
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "id,total".split(","),
+                new Object[][]{{"E1", 10}, {"E2", 30}, {"E3", 60}});
+        assertEquals(3, listener.getNewDataList().size());
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionMapBatch(EPServiceProvider epService) {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select id, value from MyMapEvent(value > 1)");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        List<Map> batch = new ArrayList<>();
+        batch.add(makeMap("E1", 1));
+        batch.add(makeMap("E2", 2));
+        batch.add(makeMap("E3", 0));
+        batch.add(makeMap("E4", 4));
+        epService.getEPRuntime().sendEvents(batch, "MyMapEvent");
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "id,value".split(","),
+                new Object[][]{{"E2", 2}, {"E4", 4}});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionEventSenderBatch(EPServiceProvider epService) {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select theString, intPrimitive from SupportBean");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        EventSenderBatch sender = epService.getEPRuntime().getEventSenderBatch("SupportBean");
+        sender.sendEvents(new Object[]{new SupportBean("E1", 1), new SupportBean("E2", 2)});
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "theString,intPrimitive".split(","),
+                new Object[][]{{"E1", 1}, {"E2", 2}});
+        listener.reset();
+
+        EventSenderBatch senderOA = epService.getEPRuntime().getEventSenderBatch("MyOAEvent");
+        EPStatement stmtOA = epService.getEPAdministrator().createEPL("select id from MyOAEvent");
+        stmtOA.addListener(listener);
+        senderOA.sendEvents(new Object[]{new Object[]{"E3", 3}, new Object[]{"E4", 4}});
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "id".split(","),
+                new Object[][]{{"E3"}, {"E4"}});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionListenerCreatesStatement(EPServiceProvider epService) {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select * from MyOAEvent(id = 'create')");
+        final SupportUpdateListener listenerCreated = new SupportUpdateListener();
+        stmt.addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                epService.getEPAdministrator().createEPL("select id from MyOAEvent").addListener(listenerCreated);
+            }
+        });
+
+        epService.getEPRuntime().sendEvents(new Object[][]{{"E1", 1}, {"create", 2}, {"E3", 3}}, "MyOAEvent");
+        EPAssertionUtil.assertPropsPerRow(listenerCreated.getNewDataListFlattened(), "id".split(","),
+                new Object[][]{{"E3"}});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionInvalid(EPServiceProvider epService) {
+        try {
+            epService.getEPRuntime().sendEvents(new Object[][]{{"E1", 1}, null}, "MyOAEvent");
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("Invalid null event object", ex.getMessage());
+        }
+
+        try {
+            epService.getEPRuntime().getEventSenderBatch("MyOAEvent").sendEvents(new Object[]{new SupportBean()});
+            fail();
+        } catch (EPException ex) {
+            assertEquals("Unexpected event object of type " + SupportBean.class.getName() + ", expected Object[]", ex.getMessage());
+        }
+    }
+
+    private static Map<String, Object> makeMap(String id, int value) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", id);
+        map.put("value", value);
+        return map;
+    }
+}
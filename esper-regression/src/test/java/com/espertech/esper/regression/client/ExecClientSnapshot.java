@@ -0,0 +1,179 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.supportregression.epl.SupportPluginAggregationMethodOneFactory;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+import com.espertech.esper.supportregression.util.SupportMessageAssertUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExecClientSnapshot implements RegressionExecution {
+    private static final String EPL =
+            "create schema MyEvent(id string, amount int);\n" +
+            "create window MyWindow#keepall as MyEvent;\n" +
+            "create window MyBeanWindow#length(2) as SupportBean;\n" +
+            "create table MyTable(theKey string primary key, total sum(int), cnt count(*), average avg(int), distinctCnt count(distinct int));\n" +
+            "create table MyTotals(total sum(long));\n" +
+            "insert into MyBeanWindow select * from SupportBean;\n" +
+            "into table MyTable select sum(intPrimitive) as total, count(*) as cnt, avg(intPrimitive) as average, count(distinct intPrimitive) as distinctCnt from SupportBean group by theString;\n" +
+            "into table MyTotals select sum(longPrimitive) as total from SupportBean;\n" +
+            "@Name('count') select count(*) as cnt from MyWindow;\n";
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionSnapshotRestore();
+        runAssertionInvalid();
+        runAssertionAggregationNotStateful();
+    }
+
+    private void runAssertionSnapshotRestore() throws Exception {
+        EPServiceProvider engine = makeEngine();
+        sendEvents(engine);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        engine.getEPAdministrator().getSnapshotAdmin().snapshot(out);
+        File file = Files.createTempFile("esper-snapshot", ".bin").toFile();
+        try {
+            engine.getEPAdministrator().getSnapshotAdmin().snapshot(file);
+            engine.destroy();
+
+            // restore from a stream
+            engine = makeEngine();
+            engine.getEPAdministrator().getSnapshotAdmin().restore(new ByteArrayInputStream(out.toByteArray()));
+            assertRestored(engine);
+            engine.destroy();
+
+            // restore from a memory-mapped file
+            engine = makeEngine();
+            engine.getEPAdministrator().getSnapshotAdmin().restore(file);
+            assertRestored(engine);
+            engine.destroy();
+        } finally {
+            file.delete();
+        }
+    }
+
+    private void runAssertionInvalid() throws Exception {
+        EPServiceProvider engine = makeEngine();
+        sendEvents(engine);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        engine.getEPAdministrator().getSnapshotAdmin().snapshot(out);
+
+        // restore into a window that holds events
+        try {
+            engine.getEPAdministrator().getSnapshotAdmin().restore(new ByteArrayInputStream(out.toByteArray()));
+            fail();
+        } catch (EPException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().endsWith("is not empty"));
+        }
+        engine.destroy();
+
+        // restore into an engine without the named windows and tables
+        engine = EPServiceProviderManager.getProvider(ExecClientSnapshot.class.getSimpleName(), SupportConfigFactory.getConfiguration());
+        engine.initialize();
+        try {
+            engine.getEPAdministrator().getSnapshotAdmin().restore(new ByteArrayInputStream(out.toByteArray()));
+            fail();
+        } catch (EPException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().endsWith("of the snapshot does not exist"));
+        }
+
+        // restore something that is not a snapshot
+        try {
+            engine.getEPAdministrator().getSnapshotAdmin().restore(new ByteArrayInputStream(new byte[]{0, 0, 0, 4, 1, 2, 3, 4}));
+            fail();
+        } catch (EPException ex) {
+            SupportMessageAssertUtil.assertMessage(ex, "Unrecognized snapshot format");
+        }
+        engine.destroy();
+    }
+
+    private void runAssertionAggregationNotStateful() throws Exception {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType(SupportBean.class);
+        configuration.addPlugInAggregationFunctionFactory("myagg", SupportPluginAggregationMethodOneFactory.class.getName());
+        String epl = "create table MyPlugInTable(theKey string primary key, total myagg());\n" +
+                "into table MyPlugInTable select myagg(intPrimitive) as total from SupportBean group by theString;\n";
+
+        EPServiceProvider engine = EPServiceProviderManager.getProvider(ExecClientSnapshot.class.getSimpleName(), configuration);
+        engine.initialize();
+        engine.getEPAdministrator().getDeploymentAdmin().parseDeploy(epl);
+        sendSupportBean(engine, "E1", 10, 0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        engine.getEPAdministrator().getSnapshotAdmin().snapshot(out);
+        engine.destroy();
+
+        // the table is skipped as the plug-in aggregation method does not write its state
+        engine = EPServiceProviderManager.getProvider(ExecClientSnapshot.class.getSimpleName(), configuration);
+        engine.initialize();
+        engine.getEPAdministrator().getDeploymentAdmin().parseDeploy(epl);
+        engine.getEPAdministrator().getSnapshotAdmin().restore(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(0, engine.getEPRuntime().executeQuery("select * from MyPlugInTable").getArray().length);
+        engine.destroy();
+    }
+
+    private void sendEvents(EPServiceProvider engine) {
+        engine.getEPRuntime().executeQuery("insert into MyWindow select 'A' as id, 1 as amount");
+        engine.getEPRuntime().executeQuery("insert into MyWindow select 'B' as id, 2 as amount");
+        engine.getEPRuntime().executeQuery("insert into MyWindow select null as id, 3 as amount");
+        sendSupportBean(engine, "E1", 10, 100);
+        sendSupportBean(engine, "E2", 20, 200);
+        sendSupportBean(engine, "E1", 30, 300);
+        sendSupportBean(engine, "E1", 10, 400);
+    }
+
+    private void assertRestored(EPServiceProvider engine) {
+        EPAssertionUtil.assertPropsPerRowAnyOrder(engine.getEPRuntime().executeQuery("select * from MyWindow").getArray(), "id,amount".split(","),
+                new Object[][]{{"A", 1}, {"B", 2}, {null, 3}});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(engine.getEPRuntime().executeQuery("select * from MyBeanWindow").getArray(), "theString,intPrimitive".split(","),
+                new Object[][]{{"E1", 30}, {"E1", 10}});
+
+        // consumers receive the restored events
+        EPAssertionUtil.assertProps(engine.getEPAdministrator().getStatement("count").iterator().next(), "cnt".split(","), new Object[]{3L});
+
+        String[] fields = "theKey,total,cnt,average,distinctCnt".split(",");
+        EPAssertionUtil.assertPropsPerRowAnyOrder(engine.getEPRuntime().executeQuery("select * from MyTable").getArray(), fields,
+                new Object[][]{{"E1", 50, 3L, 50 / 3d, 2L}, {"E2", 20, 1L, 20d, 1L}});
+        EPAssertionUtil.assertProps(engine.getEPRuntime().executeQuery("select * from MyTotals").getArray()[0], "total".split(","), new Object[]{1000L});
+
+        // aggregation state continues from the restored state
+        sendSupportBean(engine, "E1", 30, 1);
+        sendSupportBean(engine, "E2", 20, 1);
+        EPAssertionUtil.assertPropsPerRowAnyOrder(engine.getEPRuntime().executeQuery("select * from MyTable").getArray(), fields,
+                new Object[][]{{"E1", 80, 4L, 20d, 2L}, {"E2", 40, 2L, 20d, 1L}});
+        EPAssertionUtil.assertProps(engine.getEPRuntime().executeQuery("select * from MyTotals").getArray()[0], "total".split(","), new Object[]{1002L});
+    }
+
+    private void sendSupportBean(EPServiceProvider engine, String theString, int intPrimitive, long longPrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        engine.getEPRuntime().sendEvent(bean);
+    }
+
+    private EPServiceProvider makeEngine() throws Exception {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType(SupportBean.class);
+        EPServiceProvider engine = EPServiceProviderManager.getProvider(ExecClientSnapshot.class.getSimpleName(), configuration);
+        engine.initialize();
+        engine.getEPAdministrator().getDeploymentAdmin().parseDeploy(EPL);
+        return engine;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ExecClientSubscriberNonRetaining implements RegressionExecution {
+    private final static String[] FIELDS = "theString,intPrimitive".split(",");
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType(SupportBean.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionRowsReused(epService);
+        runAssertionMapReused(epService);
+        runAssertionRetainingListenerDisablesReuse(epService);
+        runAssertionDiscreteDeliveryListener(epService);
+    }
+
+    private void runAssertionRowsReused(EPServiceProvider epService) {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select theString, intPrimitive from SupportBean");
+        MyNonRetainingRowsSubscriber subscriber = new MyNonRetainingRowsSubscriber();
+        stmt.setSubscriber(subscriber);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 2));
+
+        assertEquals(2, subscriber.rows.size());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[]{"E1", 1}, subscriber.rows.get(0));
+        EPAssertionUtil.assertEqualsExactOrder(new Object[]{"E2", 2}, subscriber.rows.get(1));
+        assertSame(subscriber.arrays.get(0), subscriber.arrays.get(1));
+
+        stmt.destroy();
+    }
+
+    private void runAssertionMapReused(EPServiceProvider epService) {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select theString, intPrimitive from SupportBean");
+        MyNonRetainingMapSubscriber subscriber = new MyNonRetainingMapSubscriber();
+        stmt.setSubscriber(subscriber);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 2));
+
+        assertEquals(2, subscriber.rows.size());
+        EPAssertionUtil.assertPropsMap(subscriber.rows.get(0), FIELDS, "E1", 1);
+        EPAssertionUtil.assertPropsMap(subscriber.rows.get(1), FIELDS, "E2", 2);
+        assertSame(subscriber.maps.get(0), subscriber.maps.get(1));
+
+        stmt.destroy();
+    }
+
+    private void runAssertionRetainingListenerDisablesReuse(EPServiceProvider epService) {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select theString, intPrimitive from SupportBean");
+        MyNonRetainingRowsSubscriber subscriber = new MyNonRetainingRowsSubscriber();
+        stmt.setSubscriber(subscriber);
+        stmt.addListener(new SupportUpdateListener());
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 2));
+
+        assertEquals(2, subscriber.rows.size());
+        assertNotSame(subscriber.arrays.get(0), subscriber.arrays.get(1));
+
+        stmt.destroy();
+    }
+
+    private void runAssertionDiscreteDeliveryListener(EPServiceProvider epService) {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select theString, intPrimitive from SupportBean#length_batch(2) for discrete_delivery");
+        MyNonRetainingListener listener = new MyNonRetainingListener();
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 2));
+
+        assertEquals(2, listener.events.size());
+        EPAssertionUtil.assertPropsPerRow(listener.events.toArray(new EventBean[0]), FIELDS, new Object[][]{{"E1", 1}, {"E2", 2}});
+        assertSame(listener.arrays.get(0), listener.arrays.get(1));
+
+        stmt.destroy();
+    }
+
+    public static class MyNonRetainingRowsSubscriber implements NonRetainingResultReceiver {
+        private final List<Object[]> rows = new ArrayList<>();
+        private final List<Object[][]> arrays = new ArrayList<>();
+
+        public void update(Object[][] newData, Object[][] oldData) {
+            arrays.add(newData);
+            for (Object[] row : newData) {
+                rows.add(row.clone());
+            }
+        }
+    }
+
+    public static class MyNonRetainingMapSubscriber implements NonRetainingResultReceiver {
+        private final List<Map> rows = new ArrayList<>();
+        private final List<Map> maps = new ArrayList<>();
+
+        public void update(Map row) {
+            maps.add(row);
+            rows.add(new HashMap<>(row));
+        }
+    }
+
+    public static class MyNonRetainingListener implements UpdateListener, NonRetainingResultReceiver {
+        private final List<EventBean> events = new ArrayList<>();
+        private final List<EventBean[]> arrays = new ArrayList<>();
+
+        public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+            arrays.add(newEvents);
+            assertEquals(1, newEvents.length);
+            events.add(newEvents[0]);
+        }
+    }
+}
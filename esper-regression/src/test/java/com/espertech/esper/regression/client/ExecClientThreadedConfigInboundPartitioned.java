@@ -0,0 +1,152 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.core.thread.InboundLanes;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ExecClientThreadedConfigInboundPartitioned implements RegressionExecution {
+    private static final int NUM_KEYS = 10;
+    private static final int NUM_EVENTS_PER_KEY = 1000;
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        configuration.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(4);
+        configuration.getEngineDefaults().getThreading().setThreadPoolInboundCapacity(100);
+        configuration.getEngineDefaults().getThreading().setThreadPoolInboundPartitioned(true);
+        configuration.getEngineDefaults().getThreading().addThreadPoolInboundPartitionProperty("MyOAEvent", "key");
+        configuration.addEventType("MyOAEvent", new String[]{"key", "seq"}, new Object[]{String.class, int.class});
+        configuration.getEngineDefaults().getThreading().addThreadPoolInboundPartitionProperty("SupportBean_S0", "p00");
+        configuration.addEventType("SupportBean", SupportBean.class);
+        configuration.addEventType("SupportBean_S0", SupportBean_S0.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+        InboundLanes lanes = spi.getThreadingService().getInboundLanes();
+        assertNotNull(lanes);
+        assertEquals(4, lanes.getLanes().length);
+        assertEquals(128, lanes.getLanes()[0].getQueue().getCapacity());
+        assertNull(spi.getThreadingService().getInboundThreadPool());
+
+        runAssertionPartitionProperty(epService);
+        runAssertionBeanPartitionProperty(epService);
+        runAssertionKeyedSender(epService);
+
+        assertEquals(0, lanes.getQueueSize());
+    }
+
+    private void runAssertionPartitionProperty(EPServiceProvider epService) throws Exception {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select key, seq from MyOAEvent");
+        MyOrderListener listener = new MyOrderListener("key", "seq");
+        stmt.addListener(listener);
+
+        for (int i = 0; i < NUM_EVENTS_PER_KEY; i++) {
+            for (int k = 0; k < NUM_KEYS; k++) {
+                epService.getEPRuntime().sendEvent(new Object[]{"K" + k, i}, "MyOAEvent");
+            }
+        }
+
+        listener.waitAndAssert();
+        stmt.destroy();
+    }
+
+    private void runAssertionBeanPartitionProperty(EPServiceProvider epService) throws Exception {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select p00, id from SupportBean_S0");
+        MyOrderListener listener = new MyOrderListener("p00", "id");
+        stmt.addListener(listener);
+
+        for (int i = 0; i < NUM_EVENTS_PER_KEY; i++) {
+            for (int k = 0; k < NUM_KEYS; k++) {
+                epService.getEPRuntime().sendEvent(new SupportBean_S0(i, "K" + k));
+            }
+        }
+
+        listener.waitAndAssert();
+        stmt.destroy();
+    }
+
+    private void runAssertionKeyedSender(EPServiceProvider epService) throws Exception {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select theString, intPrimitive from SupportBean");
+        MyOrderListener listener = new MyOrderListener("theString", "intPrimitive");
+        stmt.addListener(listener);
+
+        EventSenderKeyed sender = epService.getEPRuntime().getEventSenderKeyed("SupportBean");
+        for (int i = 0; i < NUM_EVENTS_PER_KEY; i++) {
+            for (int k = 0; k < NUM_KEYS; k++) {
+                sender.sendEvent(new SupportBean("K" + k, i), "K" + k);
+            }
+        }
+
+        listener.waitAndAssert();
+        stmt.destroy();
+    }
+
+    private static class MyOrderListener implements UpdateListener {
+        private final String keyProperty;
+        private final String seqProperty;
+        private final Map<Object, List<Integer>> sequences = new HashMap<>();
+        private final Map<Object, Set<String>> threads = new HashMap<>();
+        private int count;
+
+        MyOrderListener(String keyProperty, String seqProperty) {
+            this.keyProperty = keyProperty;
+            this.seqProperty = seqProperty;
+        }
+
+        public synchronized void update(EventBean[] newEvents, EventBean[] oldEvents) {
+            for (EventBean event : newEvents) {
+                Object key = event.get(keyProperty);
+                sequences.computeIfAbsent(key, k -> new ArrayList<>()).add((Integer) event.get(seqProperty));
+                threads.computeIfAbsent(key, k -> new HashSet<>()).add(Thread.currentThread().getName());
+                count++;
+            }
+        }
+
+        void waitAndAssert() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (getCount() < NUM_KEYS * NUM_EVENTS_PER_KEY && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            synchronized (this) {
+                assertEquals(NUM_KEYS * NUM_EVENTS_PER_KEY, count);
+                assertEquals(NUM_KEYS, sequences.size());
+                for (Map.Entry<Object, List<Integer>> entry : sequences.entrySet()) {
+                    List<Integer> seqs = entry.getValue();
+                    for (int i = 0; i < seqs.size(); i++) {
+                        assertEquals("out of order for key " + entry.getKey(), i, (int) seqs.get(i));
+                    }
+                    Set<String> threadNames = threads.get(entry.getKey());
+                    assertEquals(1, threadNames.size());
+                    assertTrue(threadNames.iterator().next().contains("InboundLane"));
+                }
+            }
+        }
+
+        private synchronized int getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.hook.ThreadingExecutorFactoryContext;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.supportregression.client.SupportThreadingExecutorFactory;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ExecClientThreadedConfigOutboundExecutor implements RegressionExecution {
+    private static final int NUM_STATEMENTS = 4;
+    private static final int NUM_EVENTS = 200;
+
+    public void configure(Configuration configuration) throws Exception {
+        SupportThreadingExecutorFactory.getContexts().clear();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.getEngineDefaults().getThreading().setThreadPoolOutbound(true);
+        configuration.getEngineDefaults().getThreading().setThreadPoolOutboundNumThreads(8);
+        configuration.getEngineDefaults().getThreading().setThreadPoolOutboundExecutorFactory(SupportThreadingExecutorFactory.class.getName());
+        configuration.getEngineDefaults().getThreading().setThreadPoolOutboundOrderedPerStatement(true);
+        configuration.addEventType("SupportBean", SupportBean.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        ThreadingExecutorFactoryContext context = SupportThreadingExecutorFactory.getContexts().get(SupportThreadingExecutorFactory.getContexts().size() - 1);
+        assertEquals("Outbound", context.getThreadingOptionName());
+        assertEquals(8, context.getNumThreads());
+        assertEquals(epService.getURI(), context.getEngineURI());
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+        assertNull(spi.getThreadingService().getOutboundThreadPool());
+
+        runAssertionOrderedPerStatement(epService);
+        runAssertionInvalidFactory();
+    }
+
+    private void runAssertionOrderedPerStatement(EPServiceProvider epService) throws Exception {
+        MyBlockingListener[] listeners = new MyBlockingListener[NUM_STATEMENTS];
+        for (int i = 0; i < NUM_STATEMENTS; i++) {
+            listeners[i] = new MyBlockingListener();
+            epService.getEPAdministrator().createEPL("select intPrimitive from SupportBean").addListener(listeners[i]);
+        }
+
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E", i));
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        for (MyBlockingListener listener : listeners) {
+            while (listener.getCount() < NUM_EVENTS && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            listener.assertOrdered();
+        }
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionInvalidFactory() {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.getEngineDefaults().getThreading().setThreadPoolOutbound(true);
+        configuration.getEngineDefaults().getThreading().setThreadPoolOutboundExecutorFactory("com.dummy.NoSuchFactory");
+        try {
+            EPServiceProviderManager.getProvider(this.getClass().getSimpleName() + "_invalid", configuration);
+            fail();
+        } catch (ConfigurationException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().startsWith("Exception initializing executor for threading option Outbound from executor factory 'com.dummy.NoSuchFactory'"));
+        }
+    }
+
+    private static class MyBlockingListener implements UpdateListener {
+        private final List<Integer> received = new ArrayList<>();
+        private final Set<String> threadNames = new HashSet<>();
+        private boolean concurrent;
+        private boolean active;
+
+        public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+            synchronized (this) {
+                if (active) {
+                    concurrent = true;
+                }
+                active = true;
+                threadNames.add(Thread.currentThread().getName());
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            synchronized (this) {
+                received.add((Integer) newEvents[0].get("intPrimitive"));
+                active = false;
+            }
+        }
+
+        synchronized int getCount() {
+            return received.size();
+        }
+
+        synchronized void assertOrdered() {
+            assertFalse(concurrent);
+            assertEquals(NUM_EVENTS, received.size());
+            for (int i = 0; i < NUM_EVENTS; i++) {
+                assertEquals(i, (int) received.get(i));
+            }
+            for (String name : threadNames) {
+                assertTrue(name, name.startsWith(SupportThreadingExecutorFactory.THREAD_NAME_PREFIX + "Outbound"));
+            }
+        }
+    }
+}
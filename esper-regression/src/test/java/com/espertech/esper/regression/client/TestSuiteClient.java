@@ -34,6 +34,10 @@ public class TestSuiteClient extends TestCase {
         RegressionRunner.run(new ExecClientCodegen());
     }
 
+    public void testExecClientCodegenCache() {
+        RegressionRunner.run(new ExecClientCodegenCache());
+    }
+
     public void testExecClientMicrosecondResolution() {
         RegressionRunner.run(new ExecClientMicrosecondResolution());
     }
@@ -46,6 +50,10 @@ public class TestSuiteClient extends TestCase {
         RegressionRunner.run(new ExecClientDeployAdmin());
     }
 
+    public void testExecClientDeployParallelParse() {
+        RegressionRunner.run(new ExecClientDeployParallelParse());
+    }
+
     public void testExecClientDeployOrder() {
         RegressionRunner.run(new ExecClientDeployOrder());
     }
@@ -78,6 +86,10 @@ public class TestSuiteClient extends TestCase {
         RegressionRunner.run(new ExecClientEPStatementSubstitutionParams());
     }
 
+    public void testExecClientSendEventBatch() {
+        RegressionRunner.run(new ExecClientSendEventBatch());
+    }
+
     public void testExecClientEPServiceProvider() {
         RegressionRunner.run(new ExecClientEPServiceProvider());
     }
@@ -178,6 +190,14 @@ public class TestSuiteClient extends TestCase {
         RegressionRunner.run(new ExecClientSubscriberPerf());
     }
 
+    public void testExecClientSnapshot() {
+        RegressionRunner.run(new ExecClientSnapshot());
+    }
+
+    public void testExecClientSubscriberNonRetaining() {
+        RegressionRunner.run(new ExecClientSubscriberNonRetaining());
+    }
+
     public void testExecClientThreadedConfigInbound() {
         RegressionRunner.run(new ExecClientThreadedConfigInbound());
     }
@@ -186,10 +206,18 @@ public class TestSuiteClient extends TestCase {
         RegressionRunner.run(new ExecClientThreadedConfigInboundFastShutdown());
     }
 
+    public void testExecClientThreadedConfigInboundPartitioned() {
+        RegressionRunner.run(new ExecClientThreadedConfigInboundPartitioned());
+    }
+
     public void testExecClientThreadedConfigOutbound() {
         RegressionRunner.run(new ExecClientThreadedConfigOutbound());
     }
 
+    public void testExecClientThreadedConfigOutboundExecutor() {
+        RegressionRunner.run(new ExecClientThreadedConfigOutboundExecutor());
+    }
+
     public void testExecClientThreadedConfigRoute() {
         RegressionRunner.run(new ExecClientThreadedConfigRoute());
     }
@@ -0,0 +1,120 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.context;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.util.Map;
+
+import static com.espertech.esper.supportregression.util.SupportMessageAssertUtil.tryInvalid;
+import static org.junit.Assert.*;
+
+public class ExecContextHashSegmentedPartialAggregation implements RegressionExecution {
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType(SupportBean.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionMerge(epService);
+        runAssertionNoHint(epService);
+        runAssertionInvalid(epService);
+    }
+
+    private void runAssertionMerge(EPServiceProvider epService) {
+        epService.getEPAdministrator().createEPL("create context HashCtx coalesce by consistent_hash_crc32(theString) from SupportBean granularity 16 preallocate");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@Hint('partial_aggregation') context HashCtx " +
+                "select sum(intPrimitive) as c0, count(*) as c1, avg(intPrimitive) as c2, min(intPrimitive) as c3, max(longPrimitive) as c4 from SupportBean#length(3)");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        Map<String, Object> merged = stmt.getMergedAggregations();
+        assertNull(merged.get("sum(intPrimitive)"));
+        assertEquals(0L, merged.get("count(*)"));
+
+        sendEvent(epService, "E1", 10, 100);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "c0,c1".split(","), new Object[]{10, 1L});
+        sendEvent(epService, "E2", 20, 50);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "c0,c1".split(","), new Object[]{20, 1L});
+        sendEvent(epService, "E3", 5, 70);
+        listener.reset();
+        sendEvent(epService, "E1", 1, 10);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "c0,c1".split(","), new Object[]{11, 2L});
+
+        merged = stmt.getMergedAggregations();
+        assertEquals(5, merged.size());
+        assertEquals(36, merged.get("sum(intPrimitive)"));
+        assertEquals(4L, merged.get("count(*)"));
+        assertEquals(9d, merged.get("avg(intPrimitive)"));
+        assertEquals(1, merged.get("min(intPrimitive)"));
+        assertEquals(100L, merged.get("max(longPrimitive)"));
+
+        // the length window of each context partition retains the last three events of that partition
+        for (int i = 0; i < 3; i++) {
+            sendEvent(epService, "E1", 2, 1);
+        }
+        merged = stmt.getMergedAggregations();
+        assertEquals(31, merged.get("sum(intPrimitive)"));
+        assertEquals(5L, merged.get("count(*)"));
+        assertEquals(2, merged.get("min(intPrimitive)"));
+        assertEquals(70L, merged.get("max(longPrimitive)"));
+
+        stmt.stop();
+        assertNull(stmt.getMergedAggregations());
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionNoHint(EPServiceProvider epService) {
+        epService.getEPAdministrator().createEPL("create context HashCtx coalesce by consistent_hash_crc32(theString) from SupportBean granularity 16");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("context HashCtx select sum(intPrimitive) from SupportBean");
+        try {
+            stmt.getMergedAggregations();
+            fail();
+        } catch (UnsupportedOperationException ex) {
+            assertEquals("Merged aggregations are only supported for statements that specify the 'PARTIAL_AGGREGATION' hint", ex.getMessage());
+        }
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionInvalid(EPServiceProvider epService) {
+        epService.getEPAdministrator().createEPL("create context HashCtx coalesce by consistent_hash_crc32(theString) from SupportBean granularity 16");
+        epService.getEPAdministrator().createEPL("create context PartitionCtx partition by theString from SupportBean");
+
+        tryInvalid(epService, "@Hint('partial_aggregation') select sum(intPrimitive) from SupportBean",
+                "Error starting statement: Hint 'PARTIAL_AGGREGATION' requires a statement declared under a hash-segmented context [");
+        tryInvalid(epService, "@Hint('partial_aggregation') context PartitionCtx select sum(intPrimitive) from SupportBean",
+                "Error starting statement: Hint 'PARTIAL_AGGREGATION' requires a statement declared under a hash-segmented context [");
+        tryInvalid(epService, "@Hint('partial_aggregation') context HashCtx select sum(intPrimitive) from SupportBean group by theString",
+                "Error starting statement: Hint 'PARTIAL_AGGREGATION' does not allow grouping [");
+        tryInvalid(epService, "@Hint('partial_aggregation') context HashCtx select sum(distinct intPrimitive) from SupportBean",
+                "Error starting statement: Hint 'PARTIAL_AGGREGATION' does not allow aggregation function 'sum(distinct intPrimitive)' as its state cannot be merged [");
+        tryInvalid(epService, "@Hint('partial_aggregation') context HashCtx select median(intPrimitive) from SupportBean",
+                "Error starting statement: Hint 'PARTIAL_AGGREGATION' does not allow aggregation function 'median(intPrimitive)' as its state cannot be merged [");
+        tryInvalid(epService, "@Hint('partial_aggregation') context HashCtx select window(*) from SupportBean#keepall",
+                "Error starting statement: Hint 'PARTIAL_AGGREGATION' does not allow access aggregation functions [");
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void sendEvent(EPServiceProvider epService, String theString, int intPrimitive, long longPrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+}
@@ -34,6 +34,10 @@ public class TestSuiteContext extends TestCase {
         RegressionRunner.run(new ExecContextHashSegmented());
     }
 
+    public void testExecContextHashSegmentedPartialAggregation() {
+        RegressionRunner.run(new ExecContextHashSegmentedPartialAggregation());
+    }
+
     public void testExecContextInitTerm() {
         RegressionRunner.run(new ExecContextInitTerm());
     }
@@ -0,0 +1,131 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.expr.filter;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExecFilterBooleanExprShared implements RegressionExecution {
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType(SupportBean.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionRelationalOp(epService);
+        runAssertionEquals(epService);
+        runAssertionNullValue(epService);
+        runAssertionDestroy(epService);
+    }
+
+    private void runAssertionRelationalOp(EPServiceProvider epService) {
+        String[] filters = new String[]{"intPrimitive * 2 > 10", "intPrimitive * 2 >= 10", "intPrimitive * 2 < 10", "10 > intPrimitive * 2",
+            "intPrimitive * 2 > 9.5", "intPrimitive * 2 <= 10L"};
+        SupportUpdateListener[] listeners = createStatements(epService, filters);
+
+        sendBean(epService, "E1", 5, null);
+        assertReceived(listeners, new boolean[]{false, true, false, false, true, true});
+
+        sendBean(epService, "E1", 6, null);
+        assertReceived(listeners, new boolean[]{true, true, false, false, true, false});
+
+        sendBean(epService, "E1", 4, null);
+        assertReceived(listeners, new boolean[]{false, false, true, true, false, true});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionEquals(EPServiceProvider epService) {
+        String[] filters = new String[]{"intPrimitive * 2 = 10", "intPrimitive * 2 != 10", "10L = intPrimitive * 2",
+            "theString || 'x' = 'E1x'", "theString || 'x' = 'E2x'", "intPrimitive * 2 is 10"};
+        SupportUpdateListener[] listeners = createStatements(epService, filters);
+
+        sendBean(epService, "E1", 5, null);
+        assertReceived(listeners, new boolean[]{true, false, true, true, false, true});
+
+        sendBean(epService, "E2", 4, null);
+        assertReceived(listeners, new boolean[]{false, true, false, false, true, false});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionNullValue(EPServiceProvider epService) {
+        String[] filters = new String[]{"intBoxed + 1 > 5", "intBoxed + 1 = 6", "intBoxed + 1 != 6", "intBoxed + 1 is null", "intBoxed + 1 is not 6"};
+        SupportUpdateListener[] listeners = createStatements(epService, filters);
+
+        sendBean(epService, "E1", 0, null);
+        assertReceived(listeners, new boolean[]{false, false, false, true, true});
+
+        sendBean(epService, "E1", 0, 5);
+        assertReceived(listeners, new boolean[]{true, true, false, false, false});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionDestroy(EPServiceProvider epService) {
+        String[] filters = new String[]{"intPrimitive * 3 > 10", "intPrimitive * 3 > 20", "intPrimitive * 3 > 30"};
+        SupportUpdateListener[] listeners = createStatements(epService, filters);
+
+        sendBean(epService, "E1", 8, null);
+        assertReceived(listeners, new boolean[]{true, true, false});
+
+        // destroy the statement that first registered the shared subexpression
+        epService.getEPAdministrator().getStatement("s0").destroy();
+        sendBean(epService, "E1", 11, null);
+        assertReceived(listeners, new boolean[]{false, true, true});
+
+        // destroy the statement that the shared subexpression moved to, and share with a new statement
+        epService.getEPAdministrator().getStatement("s1").destroy();
+        SupportUpdateListener listenerNew = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("@Name('s3') select * from SupportBean(intPrimitive * 3 > 15)").addListener(listenerNew);
+        sendBean(epService, "E1", 6, null);
+        assertReceived(listeners, new boolean[]{false, false, false});
+        assertEquals(true, listenerNew.getIsInvokedAndReset());
+        sendBean(epService, "E1", 11, null);
+        assertReceived(listeners, new boolean[]{false, false, true});
+        assertEquals(true, listenerNew.getIsInvokedAndReset());
+
+        // all destroyed and recreated
+        epService.getEPAdministrator().destroyAllStatements();
+        listeners = createStatements(epService, filters);
+        sendBean(epService, "E1", 4, null);
+        assertReceived(listeners, new boolean[]{true, false, false});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private SupportUpdateListener[] createStatements(EPServiceProvider epService, String[] filters) {
+        SupportUpdateListener[] listeners = new SupportUpdateListener[filters.length];
+        for (int i = 0; i < filters.length; i++) {
+            listeners[i] = new SupportUpdateListener();
+            EPStatement stmt = epService.getEPAdministrator().createEPL("@Name('s" + i + "') select * from SupportBean(" + filters[i] + ")");
+            stmt.addListener(listeners[i]);
+        }
+        return listeners;
+    }
+
+    private void sendBean(EPServiceProvider epService, String theString, int intPrimitive, Integer intBoxed) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setIntBoxed(intBoxed);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+
+    private void assertReceived(SupportUpdateListener[] listeners, boolean[] expected) {
+        for (int i = 0; i < listeners.length; i++) {
+            assertEquals("failed for listener " + i, expected[i], listeners[i].getIsInvokedAndReset());
+        }
+    }
+}
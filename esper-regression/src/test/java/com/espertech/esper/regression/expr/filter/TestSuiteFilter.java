@@ -26,6 +26,10 @@ public class TestSuiteFilter extends TestCase {
         RegressionRunner.run(new ExecFilterExpressions());
     }
 
+    public void testExecFilterBooleanExprShared() {
+        RegressionRunner.run(new ExecFilterBooleanExprShared());
+    }
+
     public void testExecFilterLargeThreading() {
         RegressionRunner.run(new ExecFilterLargeThreading());
     }
@@ -0,0 +1,93 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.multithread;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for fire-and-forget queries executing context partitions and segments in parallel, and asynchronous fire-and-forget queries.
+ */
+public class ExecMTStmtNamedWindowFAFParallel implements RegressionExecution {
+    private static final int NUM_KEYS = 50;
+    private static final int NUM_EVENTS = 50000;
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType(SupportBean.class);
+        configuration.getEngineDefaults().getThreading().setThreadPoolFireAndForget(true);
+        configuration.getEngineDefaults().getThreading().setThreadPoolFireAndForgetNumThreads(4);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        epService.getEPAdministrator().createEPL("create context SegmentedByString partition by theString from SupportBean");
+        epService.getEPAdministrator().createEPL("context SegmentedByString create window MyContextWindow#keepall as SupportBean");
+        epService.getEPAdministrator().createEPL("context SegmentedByString insert into MyContextWindow select * from SupportBean");
+        epService.getEPAdministrator().createEPL("create window MyWindow#keepall as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+
+        Map<String, Long> expectedTotals = new TreeMap<String, Long>();
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            String key = "K" + (i % NUM_KEYS);
+            epService.getEPRuntime().sendEvent(new SupportBean(key, i));
+            if (i % 3 == 0) {
+                Long total = expectedTotals.get(key);
+                expectedTotals.put(key, total == null ? i : total + i);
+            }
+        }
+
+        runAssertionContextPartitions(epService, expectedTotals);
+        runAssertionSegments(epService);
+        runAssertionAsync(epService);
+    }
+
+    private void runAssertionContextPartitions(EPServiceProvider epService, Map<String, Long> expectedTotals) {
+        EPOnDemandQueryResult result = epService.getEPRuntime().executeQuery("context SegmentedByString select theString, sum(longPrimitive + intPrimitive) as total from MyContextWindow where intPrimitive % 3 = 0 group by theString");
+        assertEquals(NUM_KEYS, result.getArray().length);
+        Map<String, Long> totals = new TreeMap<String, Long>();
+        for (EventBean row : result.getArray()) {
+            totals.put((String) row.get("theString"), (Long) row.get("total"));
+        }
+        assertEquals(expectedTotals, totals);
+
+        result = epService.getEPRuntime().executeQuery("select * from MyContextWindow where intPrimitive = 10");
+        assertEquals(1, result.getArray().length);
+        assertEquals("K10", result.getArray()[0].get("theString"));
+    }
+
+    private void runAssertionSegments(EPServiceProvider epService) {
+        EPOnDemandQueryResult result = epService.getEPRuntime().executeQuery("select intPrimitive from MyWindow where intPrimitive % 3 = 0");
+        EventBean[] rows = result.getArray();
+        assertEquals((NUM_EVENTS + 2) / 3, rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            assertEquals(i * 3, rows[i].get("intPrimitive"));
+        }
+    }
+
+    private void runAssertionAsync(EPServiceProvider epService) throws Exception {
+        EPOnDemandQueryResult result = epService.getEPRuntime().executeQueryAsync("select count(*) as cnt from MyWindow").get(10, TimeUnit.SECONDS);
+        assertEquals((long) NUM_EVENTS, result.getArray()[0].get("cnt"));
+
+        try {
+            epService.getEPRuntime().executeQueryAsync("select * from DummyWindow").get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof EPStatementException);
+        }
+    }
+}
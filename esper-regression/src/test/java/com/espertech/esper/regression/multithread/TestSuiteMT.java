@@ -138,6 +138,10 @@ public class TestSuiteMT extends TestCase {
         RegressionRunner.run(new ExecMTStmtNamedWindowFAF());
     }
 
+    public void testExecMTStmtNamedWindowFAFParallel() {
+        RegressionRunner.run(new ExecMTStmtNamedWindowFAFParallel());
+    }
+
     public void testExecMTStmtNamedWindowIterate() {
         RegressionRunner.run(new ExecMTStmtNamedWindowIterate());
     }
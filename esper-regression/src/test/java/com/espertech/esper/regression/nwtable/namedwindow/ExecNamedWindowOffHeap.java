@@ -0,0 +1,151 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.nwtable.namedwindow;
+
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.event.offheap.OffHeapEventBean;
+import com.espertech.esper.event.offheap.OffHeapEventStore;
+import com.espertech.esper.support.EventRepresentationChoice;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_A;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+import com.espertech.esper.supportregression.util.SupportMessageAssertUtil;
+
+import static org.junit.Assert.*;
+
+public class ExecNamedWindowOffHeap implements RegressionExecution {
+    public void run(EPServiceProvider epService) throws Exception {
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean_A.class);
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean_S0.class);
+
+        runAssertionKeepAllIndexed(epService, EventRepresentationChoice.ARRAY);
+        runAssertionKeepAllIndexed(epService, EventRepresentationChoice.MAP);
+        runAssertionUniqueWithUpdate(epService);
+        runAssertionFAFInsertUniqueViolation(epService);
+        runAssertionInvalid(epService);
+    }
+
+    private void runAssertionKeepAllIndexed(EPServiceProvider epService, EventRepresentationChoice representation) {
+        epService.getEPAdministrator().createEPL("@Hint('offheap_storage') " + representation.getAnnotationText() + " create window MyWindow#keepall as (key string, value int)");
+        epService.getEPAdministrator().createEPL("create index MyIndex on MyWindow(key)");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select theString as key, intPrimitive as value from SupportBean");
+        epService.getEPAdministrator().createEPL("on SupportBean_A delete from MyWindow where key = id");
+        EPStatement consumer = epService.getEPAdministrator().createEPL("select irstream * from MyWindow");
+        SupportUpdateListener listenerConsumer = new SupportUpdateListener();
+        consumer.addListener(listenerConsumer);
+        EPStatement subquery = epService.getEPAdministrator().createEPL("select (select value from MyWindow where key = s0.p00) as value from SupportBean_S0 as s0");
+        SupportUpdateListener listenerSubquery = new SupportUpdateListener();
+        subquery.addListener(listenerSubquery);
+        String[] fields = "key,value".split(",");
+
+        for (int i = 0; i < 100; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i));
+        }
+        EventBean inserted = listenerConsumer.getLastNewData()[0];
+        assertTrue(inserted instanceof OffHeapEventBean);
+        EPAssertionUtil.assertProps(inserted, fields, new Object[]{"E99", 99});
+        listenerConsumer.reset();
+
+        OffHeapEventStore store = getStore(epService);
+        assertEquals(100, store.getNumEvents());
+        assertEquals(1, store.getNumSegments());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "E50"));
+        assertEquals(50, listenerSubquery.assertOneGetNewAndReset().get("value"));
+
+        // the deleted event remains accessible to the consumer
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E50"));
+        EPAssertionUtil.assertProps(listenerConsumer.assertOneGetOldAndReset(), fields, new Object[]{"E50", 50});
+        assertEquals(99, store.getNumEvents());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "E50"));
+        assertNull(listenerSubquery.assertOneGetNewAndReset().get("value"));
+
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyWindow where key in ('E1', 'E2', 'E50')").getArray(),
+                fields, new Object[][]{{"E1", 1}, {"E2", 2}});
+
+        epService.getEPRuntime().executeQuery("delete from MyWindow");
+        assertEquals(0, store.getNumEvents());
+        assertEquals(0, store.getUsedBytes());
+
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPAdministrator().getConfiguration().removeEventType("MyWindow", false);
+    }
+
+    private void runAssertionUniqueWithUpdate(EPServiceProvider epService) {
+        epService.getEPAdministrator().createEPL("@Hint('offheap_storage') " + EventRepresentationChoice.ARRAY.getAnnotationText() + " create window MyWindow#unique(key) as (key string, value int)");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select theString as key, intPrimitive as value from SupportBean");
+        epService.getEPAdministrator().createEPL("on SupportBean_A update MyWindow set value = value + 100 where key = id");
+        EPStatement consumer = epService.getEPAdministrator().createEPL("select irstream * from MyWindow");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        consumer.addListener(listener);
+        String[] fields = "key,value".split(",");
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 2));
+        listener.reset();
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNew(), fields, new Object[]{"E1", 10});
+        EPAssertionUtil.assertPropsPerRow(listener.getLastOldData(), fields, new Object[][]{{"E1", 1}});
+        listener.reset();
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E2"));
+        EPAssertionUtil.assertProps(listener.assertOneGetNew(), fields, new Object[]{"E2", 102});
+        EPAssertionUtil.assertProps(listener.assertOneGetOld(), fields, new Object[]{"E2", 2});
+        listener.reset();
+
+        EPAssertionUtil.assertPropsPerRowAnyOrder(consumer.iterator(), fields, new Object[][]{{"E1", 10}, {"E2", 102}});
+        assertEquals(2, getStore(epService).getNumEvents());
+
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPAdministrator().getConfiguration().removeEventType("MyWindow", false);
+    }
+
+    private void runAssertionFAFInsertUniqueViolation(EPServiceProvider epService) {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@Hint('offheap_storage') " + EventRepresentationChoice.ARRAY.getAnnotationText() + " create window MyWindow#keepall as (key string, value int)");
+        epService.getEPAdministrator().createEPL("create unique index MyIndex on MyWindow(key)");
+        String[] fields = "key,value".split(",");
+
+        EventBean[] inserted = epService.getEPRuntime().executeQuery("insert into MyWindow select 'E1' as key, 1 as value").getArray();
+        assertTrue(inserted[0] instanceof OffHeapEventBean);
+        // the unique index violation rolls back the insert
+        epService.getEPRuntime().executeQuery("insert into MyWindow select 'E1' as key, 2 as value");
+        EPAssertionUtil.assertPropsPerRow(stmt.iterator(), fields, new Object[][]{{"E1", 1}});
+        assertEquals(1, getStore(epService).getNumEvents());
+
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPAdministrator().getConfiguration().removeEventType("MyWindow", false);
+    }
+
+    private void runAssertionInvalid(EPServiceProvider epService) {
+        String message = "requires an object-array or map event type with properties of string, primitive, BigDecimal or BigInteger type only";
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('offheap_storage') create window MyInvalidWindow#keepall as SupportBean",
+                "Error starting statement: Hint 'OFFHEAP_STORAGE' " + message + " for named window 'MyInvalidWindow'");
+
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('offheap_storage') create window MyInvalidWindowTwo#keepall as (key string, bean SupportBean)",
+                "Error starting statement: Hint 'OFFHEAP_STORAGE' " + message + " for named window 'MyInvalidWindowTwo'");
+
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('offheap_storage') create window MyInvalidWindowThree#keepall as (key string, values int[])",
+                "Error starting statement: Hint 'OFFHEAP_STORAGE' " + message + " for named window 'MyInvalidWindowThree'");
+    }
+
+    private static OffHeapEventStore getStore(EPServiceProvider epService) {
+        return ((EPServiceProviderSPI) epService).getNamedWindowMgmtService().getProcessor("MyWindow").getProcessorInstanceNoContext().getRootViewInstance().getOffHeapStore();
+    }
+}
@@ -44,6 +44,10 @@ public class TestSuiteNamedWindow extends TestCase {
         RegressionRunner.run(new ExecNamedWindowOM());
     }
 
+    public void testExecNamedWindowOffHeap() {
+        RegressionRunner.run(new ExecNamedWindowOffHeap());
+    }
+
     public void testExecNamedWindowOnDelete() {
         RegressionRunner.run(new ExecNamedWindowOnDelete());
     }
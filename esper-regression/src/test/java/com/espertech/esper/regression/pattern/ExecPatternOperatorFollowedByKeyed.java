@@ -0,0 +1,182 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.pattern;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.bean.SupportBean_S1;
+import com.espertech.esper.supportregression.client.SupportConditionHandlerFactory;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import static com.espertech.esper.regression.pattern.ExecPatternOperatorFollowedByMax4Prevent.assertContextEnginePool;
+import static com.espertech.esper.regression.pattern.ExecPatternOperatorFollowedByMax4Prevent.getExpectedCountMap;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExecPatternOperatorFollowedByKeyed implements RegressionExecution {
+    private final static String[] FIELDS = new String[]{"a", "b"};
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType(SupportBean_S0.class);
+        configuration.addEventType(SupportBean_S1.class);
+        configuration.getEngineDefaults().getConditionHandling().addClass(SupportConditionHandlerFactory.class);
+        configuration.getEngineDefaults().getPatterns().setMaxSubexpressions(3L);
+        configuration.getEngineDefaults().getPatterns().setMaxSubexpressionPreventStart(true);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        // the keyed evaluation must produce the same output as the evaluation without hint
+        for (String hint : new String[]{"@Hint('keyed_followedby') ", ""}) {
+            runAssertionCorrelated(epService, hint);
+            runAssertionAdditionalFilter(epService, hint);
+            runAssertionPool(epService, hint);
+            runAssertionDiscardPartials(epService, hint);
+        }
+        runAssertionNotApplicable(epService);
+    }
+
+    private void runAssertionCorrelated(EPServiceProvider epService, String hint) {
+        sendTimer(epService, 0);
+        SupportUpdateListener listener = createStatement(epService, hint +
+                "select a.p00 as a, b.p10 as b from pattern [every a=SupportBean_S0 -> b=SupportBean_S1(id=a.id) where timer:within(10 sec)]");
+
+        sendS0(epService, 1, "A1");
+        sendS0(epService, 2, "A2");
+        sendS0(epService, 1, "A3");
+
+        sendTimer(epService, 5000);
+        sendS1(epService, 1, "B1");
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), FIELDS, new Object[][]{{"A1", "B1"}, {"A3", "B1"}});
+        sendS1(epService, 1, "B2");
+        assertFalse(listener.isInvoked());
+
+        sendTimer(epService, 8000);
+        sendS0(epService, 3, "A4");
+
+        sendTimer(epService, 10000);
+        sendS1(epService, 2, "B3");
+        assertFalse(listener.isInvoked());
+
+        sendTimer(epService, 17999);
+        sendS1(epService, 3, "B4");
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), FIELDS, new Object[][]{{"A4", "B4"}});
+
+        sendS0(epService, 5, "A5");
+        sendTimer(epService, 27999);
+        sendS1(epService, 5, "B5");
+        assertFalse(listener.isInvoked());
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionAdditionalFilter(EPServiceProvider epService, String hint) {
+        sendTimer(epService, 0);
+        SupportUpdateListener listener = createStatement(epService, hint +
+                "select a.p00 as a, b.p10 as b from pattern [every a=SupportBean_S0 -> b=SupportBean_S1(id=a.id, p10 like 'B%') where timer:within(10 sec)]");
+
+        sendS0(epService, 1, "A1");
+        sendS1(epService, 1, "X1");
+        assertFalse(listener.isInvoked());
+
+        sendS1(epService, 1, "B1");
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), FIELDS, new Object[][]{{"A1", "B1"}});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionPool(EPServiceProvider epService, String hint) {
+        SupportConditionHandlerFactory.SupportConditionHandler handler = SupportConditionHandlerFactory.getLastHandler();
+        sendTimer(epService, 0);
+        EPStatement stmt = epService.getEPAdministrator().createEPL(hint + "@Name('A') " +
+                "select a.p00 as a, b.p10 as b from pattern [every a=SupportBean_S0 -> b=SupportBean_S1(id=a.id) where timer:within(10 sec)]");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        sendS0(epService, 1, "A1");
+        sendS0(epService, 2, "A2");
+        sendS0(epService, 3, "A3");
+        handler.getContexts().clear();
+        sendS0(epService, 4, "A4");
+        assertContextEnginePool(epService, stmt, handler.getContexts(), 3, getExpectedCountMap("A", 3));
+
+        sendS1(epService, 4, "B4");
+        assertFalse(listener.isInvoked());
+
+        // matches and expiry return to the pool
+        sendS1(epService, 1, "B1");
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), FIELDS, new Object[][]{{"A1", "B1"}});
+        sendTimer(epService, 10000);
+        sendS0(epService, 5, "A5");
+        sendS0(epService, 6, "A6");
+        sendS0(epService, 7, "A7");
+        assertTrue(handler.getContexts().isEmpty());
+        sendS1(epService, 7, "B7");
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), FIELDS, new Object[][]{{"A7", "B7"}});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionDiscardPartials(EPServiceProvider epService, String hint) {
+        sendTimer(epService, 0);
+        SupportUpdateListener listener = createStatement(epService, hint +
+                "select a.p00 as a, b.p10 as b from pattern @DiscardPartialsOnMatch [every a=SupportBean_S0 -> b=SupportBean_S1(id=a.id) where timer:within(10 sec)]");
+
+        sendS0(epService, 1, "A1");
+        sendS0(epService, 1, "A2");
+        sendS1(epService, 1, "B1");
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), FIELDS, new Object[][]{{"A1", "B1"}, {"A2", "B1"}});
+
+        sendS1(epService, 1, "B2");
+        assertFalse(listener.isInvoked());
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionNotApplicable(EPServiceProvider epService) {
+        sendTimer(epService, 0);
+        // guard time depends on the tagged event, evaluated without keyed table
+        SupportUpdateListener listener = createStatement(epService, "@Hint('keyed_followedby') " +
+                "select a.p00 as a, b.p10 as b from pattern [every a=SupportBean_S0 -> b=SupportBean_S1(id=a.id) where timer:within(a.id)]");
+
+        sendS0(epService, 2, "A1");
+        sendS0(epService, 5, "A2");
+        sendTimer(epService, 3000);
+        sendS1(epService, 2, "B1");
+        assertFalse(listener.isInvoked());
+        sendS1(epService, 5, "B2");
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), FIELDS, new Object[][]{{"A2", "B2"}});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private SupportUpdateListener createStatement(EPServiceProvider epService, String epl) {
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL(epl).addListener(listener);
+        return listener;
+    }
+
+    private void sendS0(EPServiceProvider epService, int id, String p00) {
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(id, p00));
+    }
+
+    private void sendS1(EPServiceProvider epService, int id, String p10) {
+        epService.getEPRuntime().sendEvent(new SupportBean_S1(id, p10));
+    }
+
+    private void sendTimer(EPServiceProvider epService, long timeInMSec) {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(timeInMSec));
+    }
+}
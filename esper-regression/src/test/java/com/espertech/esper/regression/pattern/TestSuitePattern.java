@@ -62,6 +62,10 @@ public class TestSuitePattern extends TestCase {
         RegressionRunner.run(new ExecPatternOperatorFollowedByMax2Noprevent());
     }
 
+    public void testExecPatternOperatorFollowedByKeyed() {
+        RegressionRunner.run(new ExecPatternOperatorFollowedByKeyed());
+    }
+
     public void testExecPatternComplexPropertyAccess() {
         RegressionRunner.run(new ExecPatternComplexPropertyAccess());
     }
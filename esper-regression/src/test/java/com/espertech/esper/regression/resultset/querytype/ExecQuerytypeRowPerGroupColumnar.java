@@ -0,0 +1,127 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.resultset.querytype;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ExecQuerytypeRowPerGroupColumnar implements RegressionExecution {
+    private final static String[] FIELDS = "k,cnt,cntBoxed,sumInt,sumLong,sumDouble,avgBoxed".split(",");
+    private final static String[] FIELDS_MINMAX = "k,minInt,maxLong,minDouble,maxDouble".split(",");
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType(SupportBean.class);
+        configuration.addEventType(SupportBean_S0.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        for (String key : new String[]{"theString", "intPrimitive", "longPrimitive", "intBoxed"}) {
+            runAssertionSameAsRowPerGroup(epService, key, "#length(5)", "");
+            runAssertionSameAsRowPerGroup(epService, key, "#length(5)", "@Hint('disable_reclaim_group')");
+            runAssertionSameAsRowPerGroup(epService, key, "", "");
+            runAssertionMinMaxUnbound(epService, key);
+        }
+        runAssertionSubqueryGroupKeys(epService);
+    }
+
+    private void runAssertionSameAsRowPerGroup(EPServiceProvider epService, String key, String window, String hint) {
+        String epl = "select irstream " + key + " as k, count(*) as cnt, count(intBoxed) as cntBoxed, sum(intPrimitive) as sumInt, " +
+                "sum(longPrimitive) as sumLong, sum(doublePrimitive) as sumDouble, avg(doubleBoxed) as avgBoxed " +
+                "from SupportBean" + window + " group by " + key;
+        tryAssertionCompare(epService, hint, epl, FIELDS);
+    }
+
+    private void runAssertionMinMaxUnbound(EPServiceProvider epService, String key) {
+        String epl = "select " + key + " as k, min(intPrimitive) as minInt, max(longPrimitive) as maxLong, " +
+                "min(doubleBoxed) as minDouble, max(doublePrimitive) as maxDouble " +
+                "from SupportBean group by " + key;
+        tryAssertionCompare(epService, "", epl, FIELDS_MINMAX);
+    }
+
+    private void runAssertionSubqueryGroupKeys(EPServiceProvider epService) {
+        String epl = "select (select sum(intPrimitive) from SupportBean#length(3) group by theString having theString = s0.p00) as value from SupportBean_S0 as s0";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 20));
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 11));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "E1"));
+        assertEquals(21, listener.assertOneGetNewAndReset().get("value"));
+
+        // E2 leaves the window and its group is removed
+        epService.getEPRuntime().sendEvent(new SupportBean("E3", 30));
+        epService.getEPRuntime().sendEvent(new SupportBean("E3", 31));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(2, "E2"));
+        assertNull(listener.assertOneGetNewAndReset().get("value"));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(3, "E3"));
+        assertEquals(61, listener.assertOneGetNewAndReset().get("value"));
+
+        stmt.destroy();
+    }
+
+    private void tryAssertionCompare(EPServiceProvider epService, String hint, String epl, String[] fields) {
+        EPStatement stmtColumnar = epService.getEPAdministrator().createEPL(hint + epl);
+        SupportUpdateListener listenerColumnar = new SupportUpdateListener();
+        stmtColumnar.addListener(listenerColumnar);
+
+        EPStatement stmtObject = epService.getEPAdministrator().createEPL("@Hint('disable_columnar_group') " + hint + epl);
+        SupportUpdateListener listenerObject = new SupportUpdateListener();
+        stmtObject.addListener(listenerObject);
+
+        Random random = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            SupportBean bean = new SupportBean("E" + random.nextInt(4), random.nextInt(4) - 1);
+            bean.setLongPrimitive(random.nextInt(3) * 1000000000000L);
+            bean.setIntBoxed(random.nextInt(3) == 0 ? null : random.nextInt(4));
+            bean.setDoublePrimitive(random.nextInt(100) / 4d);
+            bean.setDoubleBoxed(random.nextInt(3) == 0 ? null : random.nextInt(100) / 8d);
+            epService.getEPRuntime().sendEvent(bean);
+
+            assertSameEvents(fields, listenerObject.getLastNewData(), listenerColumnar.getLastNewData());
+            assertSameEvents(fields, listenerObject.getLastOldData(), listenerColumnar.getLastOldData());
+            listenerObject.reset();
+            listenerColumnar.reset();
+        }
+
+        stmtColumnar.destroy();
+        stmtObject.destroy();
+    }
+
+    private static void assertSameEvents(String[] fields, EventBean[] expected, EventBean[] received) {
+        if (expected == null) {
+            assertEquals(null, received);
+            return;
+        }
+        assertEquals(expected.length, received.length);
+        Object[][] expectedRows = new Object[expected.length][];
+        for (int i = 0; i < expected.length; i++) {
+            expectedRows[i] = new Object[fields.length];
+            for (int j = 0; j < fields.length; j++) {
+                expectedRows[i][j] = expected[i].get(fields[j]);
+            }
+        }
+        EPAssertionUtil.assertPropsPerRow(received, fields, expectedRows);
+    }
+}
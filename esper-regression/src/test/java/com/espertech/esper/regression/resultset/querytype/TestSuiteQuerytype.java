@@ -66,6 +66,10 @@ public class TestSuiteQuerytype extends TestCase {
         RegressionRunner.run(new ExecQuerytypeRowPerGroupReclaimMicrosecondResolution());
     }
 
+    public void testExecQuerytypeRowPerGroupColumnar() {
+        RegressionRunner.run(new ExecQuerytypeRowPerGroupColumnar());
+    }
+
     public void testExecQuerytypeWTimeBatch() {
         RegressionRunner.run(new ExecQuerytypeWTimeBatch());
     }
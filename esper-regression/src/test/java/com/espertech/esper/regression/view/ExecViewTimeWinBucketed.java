@@ -0,0 +1,127 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.view;
+
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_A;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+import com.espertech.esper.supportregression.util.SupportMessageAssertUtil;
+
+import static org.junit.Assert.*;
+
+public class ExecViewTimeWinBucketed implements RegressionExecution {
+    public void run(EPServiceProvider epService) throws Exception {
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean_A.class);
+
+        runAssertionBucketExpiry(epService);
+        runAssertionNamedWindowRemove(epService);
+        runAssertionInvalid(epService);
+    }
+
+    private void runAssertionBucketExpiry(EPServiceProvider epService) {
+        sendTimer(epService, 0);
+        String epl = "@Hint('time_window_bucket=1') select irstream theString, sum(intPrimitive) as total from SupportBean#time(10 sec)";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+        String[] fields = "theString".split(",");
+
+        sendEvent(epService, "E1", 1);
+        sendTimer(epService, 500);
+        sendEvent(epService, "E2", 2);
+        sendTimer(epService, 1200);
+        sendEvent(epService, "E3", 3);
+        listener.reset();
+        EPAssertionUtil.assertPropsPerRow(stmt.iterator(), fields, new Object[][]{{"E1"}, {"E2"}, {"E3"}});
+
+        // the first bucket covers 0 to 999 and expires once its last millisecond is outside the window
+        sendTimer(epService, 10998);
+        assertFalse(listener.isInvoked());
+
+        sendTimer(epService, 10999);
+        assertEquals(1, listener.getOldDataList().size());
+        EPAssertionUtil.assertPropsPerRow(listener.getLastOldData(), fields, new Object[][]{{"E1"}, {"E2"}});
+        listener.reset();
+        EPAssertionUtil.assertPropsPerRow(stmt.iterator(), fields, new Object[][]{{"E3"}});
+
+        sendTimer(epService, 11998);
+        assertFalse(listener.isInvoked());
+        sendTimer(epService, 11999);
+        EPAssertionUtil.assertPropsPerRow(listener.getLastOldData(), fields, new Object[][]{{"E3"}});
+        listener.reset();
+
+        // window refills after being empty
+        sendTimer(epService, 20000);
+        sendEvent(epService, "E4", 4);
+        listener.reset();
+        sendTimer(epService, 30998);
+        assertFalse(listener.isInvoked());
+        sendTimer(epService, 30999);
+        EPAssertionUtil.assertPropsPerRow(listener.getLastOldData(), fields, new Object[][]{{"E4"}});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionNamedWindowRemove(EPServiceProvider epService) {
+        sendTimer(epService, 0);
+        epService.getEPAdministrator().createEPL("@Hint('time_window_bucket=1') create window MyWindow#time(10 sec) as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+        epService.getEPAdministrator().createEPL("on SupportBean_A delete from MyWindow where theString = id");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select irstream theString from MyWindow");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+        String[] fields = "theString".split(",");
+
+        sendEvent(epService, "E1", 1);
+        sendEvent(epService, "E2", 2);
+        sendTimer(epService, 100);
+        sendEvent(epService, "E3", 3);
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E2"));
+        EPAssertionUtil.assertPropsPerRow(listener.getLastOldData(), fields, new Object[][]{{"E2"}});
+        listener.reset();
+
+        sendTimer(epService, 10999);
+        EPAssertionUtil.assertPropsPerRow(listener.getLastOldData(), fields, new Object[][]{{"E1"}, {"E3"}});
+        listener.reset();
+
+        // a bucket without remaining events expires silently
+        sendTimer(epService, 12000);
+        sendEvent(epService, "E4", 4);
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E4"));
+        listener.reset();
+        sendTimer(epService, 22999);
+        assertFalse(listener.isInvoked());
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionInvalid(EPServiceProvider epService) {
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('time_window_bucket=x') select * from SupportBean#time(10 sec)",
+                "Error starting statement: Error in view 'time', Required hint value for hint 'TIME_WINDOW_BUCKET' value 'x' could not be parsed as a double value");
+
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('time_window_bucket=0') select * from SupportBean#time(10 sec)",
+                "Error starting statement: Error in view 'time', Hint value for hint 'TIME_WINDOW_BUCKET' value '0' must be a positive bucket width");
+    }
+
+    private void sendEvent(EPServiceProvider epService, String theString, int intPrimitive) {
+        epService.getEPRuntime().sendEvent(new SupportBean(theString, intPrimitive));
+    }
+
+    private void sendTimer(EPServiceProvider epService, long time) {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(time));
+    }
+}
@@ -135,6 +135,10 @@ public class TestSuiteView extends TestCase {
         RegressionRunner.run(new ExecViewTimeWin());
     }
 
+    public void testExecViewTimeWinBucketed() {
+        RegressionRunner.run(new ExecViewTimeWinBucketed());
+    }
+
     public void testExecViewTimeWindowMicrosecondResolution() {
         RegressionRunner.run(new ExecViewTimeWindowMicrosecondResolution());
     }
@@ -0,0 +1,40 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.supportregression.client;
+
+import com.espertech.esper.client.hook.ThreadingExecutorFactory;
+import com.espertech.esper.client.hook.ThreadingExecutorFactoryContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SupportThreadingExecutorFactory implements ThreadingExecutorFactory {
+    public final static String THREAD_NAME_PREFIX = "SupportThreadingExecutor-";
+
+    private static List<ThreadingExecutorFactoryContext> contexts = new ArrayList<>();
+
+    public static List<ThreadingExecutorFactoryContext> getContexts() {
+        return contexts;
+    }
+
+    public Executor makeExecutor(ThreadingExecutorFactoryContext context) {
+        contexts.add(context);
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(context.getNumThreads(), runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + context.getThreadingOptionName() + "-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -18,7 +18,9 @@ import com.espertech.esper.client.util.EventUnderlyingType;
 import java.io.Serializable;
 import java.math.MathContext;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 
@@ -328,6 +330,14 @@ public class ConfigurationEngineDefaults implements Serializable {
         private Integer threadPoolInboundCapacity;
         private Integer threadPoolRouteExecCapacity;
         private Integer threadPoolOutboundCapacity;
+        private boolean isThreadPoolInboundPartitioned;
+        private Map<String, String> threadPoolInboundPartitionProperties;
+        private String threadPoolTimerExecExecutorFactory;
+        private String threadPoolRouteExecExecutorFactory;
+        private String threadPoolOutboundExecutorFactory;
+        private boolean isThreadPoolOutboundOrderedPerStatement;
+        private boolean isThreadPoolFireAndForget;
+        private int threadPoolFireAndForgetNumThreads;
 
         private boolean engineFairlock;
 
@@ -359,6 +369,8 @@ public class ConfigurationEngineDefaults implements Serializable {
             threadPoolInboundNumThreads = 2;
             threadPoolRouteExecNumThreads = 2;
             threadPoolOutboundNumThreads = 2;
+            threadPoolFireAndForgetNumThreads = Runtime.getRuntime().availableProcessors();
+            threadPoolInboundPartitionProperties = new LinkedHashMap<String, String>();
         }
 
         /**
@@ -690,6 +702,28 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.threadPoolTimerExecCapacity = capacity;
         }
 
+        /**
+         * Returns the class name of the {@link com.espertech.esper.client.hook.ThreadingExecutorFactory} that provides the executor
+         * for timer execution threading, or null (the default) for an engine-managed thread pool.
+         *
+         * @return executor factory class name
+         */
+        public String getThreadPoolTimerExecExecutorFactory() {
+            return threadPoolTimerExecExecutorFactory;
+        }
+
+        /**
+         * Sets the class name of the {@link com.espertech.esper.client.hook.ThreadingExecutorFactory} that provides the executor
+         * for timer execution threading, or null (the default) for an engine-managed thread pool.
+         * <p>
+         * With an executor factory the number of threads and the capacity are passed to the factory and are not otherwise used.
+         *
+         * @param executorFactoryClassName executor factory class name
+         */
+        public void setThreadPoolTimerExecExecutorFactory(String executorFactoryClassName) {
+            this.threadPoolTimerExecExecutorFactory = executorFactoryClassName;
+        }
+
         /**
          * Returns the capacity of the inbound execution queue, or null if none defined (the unbounded case, default).
          *
@@ -708,6 +742,50 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.threadPoolInboundCapacity = capacity;
         }
 
+        /**
+         * Returns true for partitioned inbound threading: each inbound thread consumes its own lane
+         * and events are assigned to a lane by partition key, false (the default) for a thread pool sharing one queue.
+         *
+         * @return indicator whether inbound threading is partitioned
+         */
+        public boolean isThreadPoolInboundPartitioned() {
+            return isThreadPoolInboundPartitioned;
+        }
+
+        /**
+         * Set to true for partitioned inbound threading: each inbound thread consumes its own lane
+         * and events are assigned to a lane by partition key, false (the default) for a thread pool sharing one queue.
+         * <p>
+         * The inbound capacity applies to each lane. Lanes are always bounded and the capacity
+         * is rounded up to a power of two.
+         *
+         * @param threadPoolInboundPartitioned indicator whether inbound threading is partitioned
+         */
+        public void setThreadPoolInboundPartitioned(boolean threadPoolInboundPartitioned) {
+            isThreadPoolInboundPartitioned = threadPoolInboundPartitioned;
+        }
+
+        /**
+         * Returns the partition key property per event type name, for use with partitioned inbound threading.
+         *
+         * @return map of event type name and property name
+         */
+        public Map<String, String> getThreadPoolInboundPartitionProperties() {
+            return threadPoolInboundPartitionProperties;
+        }
+
+        /**
+         * Adds the property that provides the partition key for events of the given type, for use with partitioned inbound threading.
+         * Events of the same type and same partition key value are processed by the same inbound thread in the order sent.
+         * Events of types that have no partition property are assigned to lanes round-robin, unless sent with a partition key.
+         *
+         * @param eventTypeName event type name
+         * @param propertyName  property name
+         */
+        public void addThreadPoolInboundPartitionProperty(String eventTypeName, String propertyName) {
+            threadPoolInboundPartitionProperties.put(eventTypeName, propertyName);
+        }
+
         /**
          * Returns the capacity of the route execution queue, or null if none defined (the unbounded case, default).
          *
@@ -726,6 +804,28 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.threadPoolRouteExecCapacity = capacity;
         }
 
+        /**
+         * Returns the class name of the {@link com.espertech.esper.client.hook.ThreadingExecutorFactory} that provides the executor
+         * for route execution threading, or null (the default) for an engine-managed thread pool.
+         *
+         * @return executor factory class name
+         */
+        public String getThreadPoolRouteExecExecutorFactory() {
+            return threadPoolRouteExecExecutorFactory;
+        }
+
+        /**
+         * Sets the class name of the {@link com.espertech.esper.client.hook.ThreadingExecutorFactory} that provides the executor
+         * for route execution threading, or null (the default) for an engine-managed thread pool.
+         * <p>
+         * With an executor factory the number of threads and the capacity are passed to the factory and are not otherwise used.
+         *
+         * @param executorFactoryClassName executor factory class name
+         */
+        public void setThreadPoolRouteExecExecutorFactory(String executorFactoryClassName) {
+            this.threadPoolRouteExecExecutorFactory = executorFactoryClassName;
+        }
+
         /**
          * Returns the capacity of the outbound queue, or null if none defined (the unbounded case, default).
          *
@@ -744,6 +844,87 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.threadPoolOutboundCapacity = capacity;
         }
 
+        /**
+         * Returns the class name of the {@link com.espertech.esper.client.hook.ThreadingExecutorFactory} that provides the executor
+         * for outbound threading, or null (the default) for an engine-managed thread pool.
+         *
+         * @return executor factory class name
+         */
+        public String getThreadPoolOutboundExecutorFactory() {
+            return threadPoolOutboundExecutorFactory;
+        }
+
+        /**
+         * Sets the class name of the {@link com.espertech.esper.client.hook.ThreadingExecutorFactory} that provides the executor
+         * for outbound threading, or null (the default) for an engine-managed thread pool.
+         * <p>
+         * With an executor factory the number of threads and the capacity are passed to the factory and are not otherwise used.
+         *
+         * @param executorFactoryClassName executor factory class name
+         */
+        public void setThreadPoolOutboundExecutorFactory(String executorFactoryClassName) {
+            this.threadPoolOutboundExecutorFactory = executorFactoryClassName;
+        }
+
+        /**
+         * Returns true if outbound threading delivers the results of a given statement one after another and in the order produced,
+         * or false (the default) if results of the same statement may be delivered concurrently by different outbound threads.
+         *
+         * @return indicator whether outbound delivery is ordered per statement
+         */
+        public boolean isThreadPoolOutboundOrderedPerStatement() {
+            return isThreadPoolOutboundOrderedPerStatement;
+        }
+
+        /**
+         * Set to true to have outbound threading deliver the results of a given statement one after another and in the order produced,
+         * or false (the default) if results of the same statement may be delivered concurrently by different outbound threads.
+         *
+         * @param threadPoolOutboundOrderedPerStatement indicator whether outbound delivery is ordered per statement
+         */
+        public void setThreadPoolOutboundOrderedPerStatement(boolean threadPoolOutboundOrderedPerStatement) {
+            isThreadPoolOutboundOrderedPerStatement = threadPoolOutboundOrderedPerStatement;
+        }
+
+        /**
+         * Returns true for fire-and-forget query threading enabled, the default is false for not enabled.
+         * <p>
+         * When enabled, fire-and-forget queries evaluate context partitions, and segments of large context partitions,
+         * in parallel on a fork-join pool, and asynchronous fire-and-forget queries execute on that pool.
+         *
+         * @return indicator whether fire-and-forget query threading is enabled
+         */
+        public boolean isThreadPoolFireAndForget() {
+            return isThreadPoolFireAndForget;
+        }
+
+        /**
+         * Set to true for fire-and-forget query threading enabled, the default is false for not enabled.
+         *
+         * @param threadPoolFireAndForget indicator whether fire-and-forget query threading is enabled
+         */
+        public void setThreadPoolFireAndForget(boolean threadPoolFireAndForget) {
+            isThreadPoolFireAndForget = threadPoolFireAndForget;
+        }
+
+        /**
+         * Returns the number of threads of the fire-and-forget query fork-join pool, the default is the number of available processors.
+         *
+         * @return number of threads
+         */
+        public int getThreadPoolFireAndForgetNumThreads() {
+            return threadPoolFireAndForgetNumThreads;
+        }
+
+        /**
+         * Sets the number of threads of the fire-and-forget query fork-join pool.
+         *
+         * @param num number of threads
+         */
+        public void setThreadPoolFireAndForgetNumThreads(int num) {
+            this.threadPoolFireAndForgetNumThreads = num;
+        }
+
         /**
          * Returns true if the engine-level lock is configured as a fair lock (default is false).
          * <p>
@@ -1811,6 +1992,7 @@ public class ConfigurationEngineDefaults implements Serializable {
         private ThreadingProfile threadingProfile = ThreadingProfile.NORMAL;
         private FilterServiceProfile filterServiceProfile = FilterServiceProfile.READMOSTLY;
         private int filterServiceMaxFilterWidth = 16;
+        private SchedulingServiceProfile schedulingServiceProfile = SchedulingServiceProfile.SORTED;
         private int declaredExprValueCacheSize = 1;
 
         private static final long serialVersionUID = 0L;
@@ -1956,6 +2138,24 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.filterServiceMaxFilterWidth = filterServiceMaxFilterWidth;
         }
 
+        /**
+         * Returns the scheduling service profile for tuning time-based operations.
+         *
+         * @return scheduling service profile
+         */
+        public SchedulingServiceProfile getSchedulingServiceProfile() {
+            return schedulingServiceProfile;
+        }
+
+        /**
+         * Set the scheduling service profile for tuning time-based operations.
+         *
+         * @param schedulingServiceProfile scheduling service profile
+         */
+        public void setSchedulingServiceProfile(SchedulingServiceProfile schedulingServiceProfile) {
+            this.schedulingServiceProfile = schedulingServiceProfile;
+        }
+
         /**
          * Returns the cache size for declared expression values
          *
@@ -2002,7 +2202,34 @@ public class ConfigurationEngineDefaults implements Serializable {
         /**
          * For very dynamic filters that come and go in a highly threaded environment.
          */
-        READWRITE
+        READWRITE,
+
+        /**
+         * For filters that rarely change and events evaluated by many threads, evaluation takes no lock
+         * and filter changes publish a new copy of the filters.
+         * <p>
+         * Publishing filter changes copies the filters changed since the filter indexes of the event type were last built,
+         * and rebuilds the filter indexes of the event type after a number of changes.
+         * For workloads where filters frequently come and go, such as patterns with many subexpressions or short-lived
+         * context partitions, {@link #READMOSTLY} and {@link #READWRITE} remain the choice.
+         */
+        COPYONWRITE
+    }
+
+    /**
+     * Scheduling service profile.
+     */
+    public enum SchedulingServiceProfile {
+        /**
+         * Schedules kept in a sorted map by time, the default.
+         */
+        SORTED,
+
+        /**
+         * Schedules kept in a hierarchical timing wheel, for a very large number of outstanding schedules
+         * such as per-partition or per-key timers.
+         */
+        TIMINGWHEEL
     }
 
     /**
@@ -2328,6 +2555,8 @@ public class ConfigurationEngineDefaults implements Serializable {
         private boolean enableFallback = true;
         private boolean includeDebugSymbols = false;
         private boolean includeComments = false;
+        private boolean enableCache = true;
+        private String cacheDirectory;
 
         /**
          * Disable all code generation.
@@ -2490,5 +2719,42 @@ public class ConfigurationEngineDefaults implements Serializable {
         public void setEnableAggregation(boolean enableAggregation) {
             this.enableAggregation = enableAggregation;
         }
+
+        /**
+         * Returns indicator whether compiled classes are cached by a hash of the generated source and engine version,
+         * so that statements generating the same source do not compile it again (true by default).
+         * @return indicator
+         */
+        public boolean isEnableCache() {
+            return enableCache;
+        }
+
+        /**
+         * Sets indicator whether compiled classes are cached by a hash of the generated source and engine version,
+         * so that statements generating the same source do not compile it again (true by default).
+         * @param enableCache indicator
+         */
+        public void setEnableCache(boolean enableCache) {
+            this.enableCache = enableCache;
+        }
+
+        /**
+         * Returns the directory that the compiled-class cache stores class files in, or null when the
+         * cache is kept in memory only (the default).
+         * @return directory or null
+         */
+        public String getCacheDirectory() {
+            return cacheDirectory;
+        }
+
+        /**
+         * Sets the directory that the compiled-class cache stores class files in, allowing compiled classes to be
+         * reused after an engine restart. Set to null to keep the cache in memory only (the default).
+         * Relevant only when the cache is enabled.
+         * @param cacheDirectory directory or null
+         */
+        public void setCacheDirectory(String cacheDirectory) {
+            this.cacheDirectory = cacheDirectory;
+        }
     }
 }
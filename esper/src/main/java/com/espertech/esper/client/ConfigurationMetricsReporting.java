@@ -26,6 +26,7 @@ import java.util.Map;
  */
 public class ConfigurationMetricsReporting implements Serializable {
     private boolean jmxEngineMetrics;
+    private boolean latencyHistograms;
     private boolean enableMetricsReporting;
     private boolean isThreading;
     private long engineInterval;
@@ -38,6 +39,7 @@ public class ConfigurationMetricsReporting implements Serializable {
      */
     public ConfigurationMetricsReporting() {
         jmxEngineMetrics = false;
+        latencyHistograms = false;
         enableMetricsReporting = false;
         isThreading = true;
         engineInterval = 10 * 1000; // 10 seconds
@@ -166,6 +168,26 @@ public class ConfigurationMetricsReporting implements Serializable {
         this.jmxEngineMetrics = jmxEngineMetrics;
     }
 
+    /**
+     * Returns true if the engine records latency distributions per statement and per processing stage
+     * and reports percentiles with engine and statement metrics.
+     *
+     * @return indicator
+     */
+    public boolean isLatencyHistograms() {
+        return latencyHistograms;
+    }
+
+    /**
+     * Set to true to have the engine record latency distributions per statement and per processing stage
+     * and report percentiles with engine and statement metrics. Requires metrics reporting to be enabled.
+     *
+     * @param latencyHistograms indicator whether enabled or not
+     */
+    public void setLatencyHistograms(boolean latencyHistograms) {
+        this.latencyHistograms = latencyHistograms;
+    }
+
     /**
      * Sets a new interval for a statement group identified by name.
      *
@@ -948,24 +948,49 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolInbound(result.isEnabled());
                 configuration.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolInboundCapacity(result.getCapacity());
+                String partitionedStr = getOptionalAttribute(subElement, "partitioned");
+                if (partitionedStr != null) {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolInboundPartitioned(Boolean.parseBoolean(partitionedStr));
+                }
+                DOMElementIterator partitionIterator = new DOMElementIterator(subElement.getChildNodes());
+                while (partitionIterator.hasNext()) {
+                    Element partitionElement = partitionIterator.next();
+                    if (partitionElement.getNodeName().equals("partition-property")) {
+                        String eventTypeName = getRequiredAttribute(partitionElement, "event-type-name");
+                        String propertyName = getRequiredAttribute(partitionElement, "property-name");
+                        configuration.getEngineDefaults().getThreading().addThreadPoolInboundPartitionProperty(eventTypeName, propertyName);
+                    }
+                }
             }
             if (subElement.getNodeName().equals("threadpool-outbound")) {
                 ThreadPoolConfig result = parseThreadPoolConfig(subElement);
                 configuration.getEngineDefaults().getThreading().setThreadPoolOutbound(result.isEnabled());
                 configuration.getEngineDefaults().getThreading().setThreadPoolOutboundNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolOutboundCapacity(result.getCapacity());
+                configuration.getEngineDefaults().getThreading().setThreadPoolOutboundExecutorFactory(getOptionalAttribute(subElement, "executor-factory"));
+                String orderedStr = getOptionalAttribute(subElement, "ordered-per-statement");
+                if (orderedStr != null) {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolOutboundOrderedPerStatement(Boolean.parseBoolean(orderedStr));
+                }
             }
             if (subElement.getNodeName().equals("threadpool-timerexec")) {
                 ThreadPoolConfig result = parseThreadPoolConfig(subElement);
                 configuration.getEngineDefaults().getThreading().setThreadPoolTimerExec(result.isEnabled());
                 configuration.getEngineDefaults().getThreading().setThreadPoolTimerExecNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolTimerExecCapacity(result.getCapacity());
+                configuration.getEngineDefaults().getThreading().setThreadPoolTimerExecExecutorFactory(getOptionalAttribute(subElement, "executor-factory"));
             }
             if (subElement.getNodeName().equals("threadpool-routeexec")) {
                 ThreadPoolConfig result = parseThreadPoolConfig(subElement);
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExec(result.isEnabled());
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecCapacity(result.getCapacity());
+                configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecExecutorFactory(getOptionalAttribute(subElement, "executor-factory"));
+            }
+            if (subElement.getNodeName().equals("threadpool-fireandforget")) {
+                ThreadPoolConfig result = parseThreadPoolConfig(subElement);
+                configuration.getEngineDefaults().getThreading().setThreadPoolFireAndForget(result.isEnabled());
+                configuration.getEngineDefaults().getThreading().setThreadPoolFireAndForgetNumThreads(result.getNumThreads());
             }
         }
     }
@@ -1180,6 +1205,11 @@ class ConfigurationParser {
             configuration.getEngineDefaults().getMetricsReporting().setJmxEngineMetrics(Boolean.parseBoolean(jmxEngineMetrics));
         }
 
+        String latencyHistograms = getOptionalAttribute(parentElement, "latency-histograms");
+        if (latencyHistograms != null) {
+            configuration.getEngineDefaults().getMetricsReporting().setLatencyHistograms(Boolean.parseBoolean(latencyHistograms));
+        }
+
         DOMElementIterator nodeIterator = new DOMElementIterator(parentElement.getChildNodes());
         while (nodeIterator.hasNext()) {
             Element subElement = nodeIterator.next();
@@ -1277,6 +1307,11 @@ class ConfigurationParser {
         parseOptionalBoolean(element, "enable-fallback", codegen::setEnableFallback);
         parseOptionalBoolean(element, "include-debugsymbols", codegen::setIncludeDebugSymbols);
         parseOptionalBoolean(element, "include-comments", codegen::setIncludeComments);
+        parseOptionalBoolean(element, "enable-cache", codegen::setEnableCache);
+        String cacheDirectory = getOptionalAttribute(element, "cache-directory");
+        if (cacheDirectory != null) {
+            codegen.setCacheDirectory(cacheDirectory);
+        }
     }
 
     private static void handleExecution(Configuration configuration, Element parentElement) {
@@ -1309,6 +1344,11 @@ class ConfigurationParser {
         if (filterServiceMaxFilterWidthStr != null) {
             configuration.getEngineDefaults().getExecution().setFilterServiceMaxFilterWidth(Integer.parseInt(filterServiceMaxFilterWidthStr));
         }
+        String schedulingServiceProfileStr = getOptionalAttribute(parentElement, "scheduling-service-profile");
+        if (schedulingServiceProfileStr != null) {
+            ConfigurationEngineDefaults.SchedulingServiceProfile profile = ConfigurationEngineDefaults.SchedulingServiceProfile.valueOf(schedulingServiceProfileStr.toUpperCase(Locale.ENGLISH));
+            configuration.getEngineDefaults().getExecution().setSchedulingServiceProfile(profile);
+        }
         String allowIsolatedServiceStr = getOptionalAttribute(parentElement, "allow-isolated-service");
         if (allowIsolatedServiceStr != null) {
             boolean isAllowIsolatedService = Boolean.parseBoolean(allowIsolatedServiceStr);
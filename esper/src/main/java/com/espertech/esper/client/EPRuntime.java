@@ -20,6 +20,7 @@ import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface to event stream processing runtime services.
@@ -77,6 +78,32 @@ public interface EPRuntime {
      */
     public void sendEvent(org.w3c.dom.Node node) throws EPException;
 
+    /**
+     * Send a batch of maps containing event property values to the event stream processing runtime.
+     * <p>
+     * Equivalent to calling {@link #sendEvent(java.util.Map, String)} for each map in list order:
+     * listeners receive results and events routed or inserted-into are processed after each event
+     * and before the next event of the batch. The runtime however only releases the event processing lock
+     * between events when results are pending dispatch, reducing per-event overhead for high-rate senders.
+     *
+     * @param maps             - maps that contain event property values, each map must be non-null
+     * @param mapEventTypeName - the name for the Map event type that was previously configured
+     * @throws EPException - when the processing of an event leads to an error
+     */
+    public void sendEvents(List<Map> maps, String mapEventTypeName) throws EPException;
+
+    /**
+     * Send a batch of object arrays containing event property values to the event stream processing runtime.
+     * <p>
+     * Equivalent to calling {@link #sendEvent(Object[], String)} for each object array in array order,
+     * see {@link #sendEvents(java.util.List, String)} for batch semantics.
+     *
+     * @param objectArrays             - arrays that contain event property values, each array must be non-null
+     * @param objectArrayEventTypeName - the name for the Object-array event type that was previously configured
+     * @throws EPException - when the processing of an event leads to an error
+     */
+    public void sendEvents(Object[][] objectArrays, String objectArrayEventTypeName) throws EPException;
+
     /**
      * Number of events evaluated over the lifetime of the event stream processing runtime,
      * or since the last resetStats() call.
@@ -314,6 +341,30 @@ public interface EPRuntime {
      */
     public EventSender getEventSender(String eventTypeName) throws EventTypeException;
 
+    /**
+     * Returns a facility to process batches of event objects that are of a known type.
+     * <p>
+     * The returned sender has the same type checking as the sender returned by {@link #getEventSender(String)}
+     * and additionally allows sending an array of event objects, see {@link EventSenderBatch}.
+     *
+     * @param eventTypeName is the name of the event type
+     * @return sender for fast-access processing of batches of event objects of known type (and content)
+     * @throws EventTypeException thrown to indicate that the name does not exist
+     */
+    public EventSenderBatch getEventSenderBatch(String eventTypeName) throws EventTypeException;
+
+    /**
+     * Returns a facility to process event objects that are of a known type, with an application-provided partition key.
+     * <p>
+     * The returned sender has the same type checking as the sender returned by {@link #getEventSender(String)}
+     * and additionally allows providing a partition key for partitioned inbound threading, see {@link EventSenderKeyed}.
+     *
+     * @param eventTypeName is the name of the event type
+     * @return sender for fast-access processing of event objects of known type (and content) with partition key
+     * @throws EventTypeException thrown to indicate that the name does not exist
+     */
+    public EventSenderKeyed getEventSenderKeyed(String eventTypeName) throws EventTypeException;
+
     /**
      * For use with plug-in event representations, returns a facility to process event objects that are of one of a number of types
      * that one or more of the registered plug-in event representation extensions can reflect upon and provide an
@@ -349,6 +400,25 @@ public interface EPRuntime {
      */
     public EPOnDemandQueryResult executeQuery(String epl, ContextPartitionSelector[] contextPartitionSelectors);
 
+    /**
+     * Execute an on-demand query asynchronously, without blocking the calling thread.
+     * <p>
+     * The query executes on the fire-and-forget query thread pool when configured, or on the common fork-join pool otherwise.
+     *
+     * @param epl is the EPL query to execute
+     * @return future completing with the query result, or completing exceptionally with an {@link EPStatementException}
+     */
+    public CompletableFuture<EPOnDemandQueryResult> executeQueryAsync(String epl);
+
+    /**
+     * Execute an on-demand query asynchronously, without blocking the calling thread, allowing to target context partitions selectively.
+     *
+     * @param epl                       is the EPL query to execute
+     * @param contextPartitionSelectors selects context partitions to consider
+     * @return future completing with the query result, or completing exceptionally with an {@link EPStatementException}
+     */
+    public CompletableFuture<EPOnDemandQueryResult> executeQueryAsync(String epl, ContextPartitionSelector[] contextPartitionSelectors);
+
     /**
      * Execute an on-demand query.
      * <p>
@@ -14,6 +14,7 @@ import com.espertech.esper.client.context.ContextPartitionSelector;
 
 import java.lang.annotation.Annotation;
 import java.util.Iterator;
+import java.util.Map;
 
 /**
  * Statement interface that provides methods to start, stop and destroy a statement as well as
@@ -215,4 +216,13 @@ public interface EPStatement extends EPListenable, EPIterable {
      * @return safe iterator
      */
     public SafeIterator<EventBean> safeIterator(ContextPartitionSelector selector);
+
+    /**
+     * For use with statements that have a hash-segmented context declared and that specify the "PARTIAL_AGGREGATION" hint,
+     * merges the aggregation state of all context partitions and returns the aggregation values across context partitions.
+     *
+     * @return merged aggregation value per aggregation function expression text, or null if the statement is not started
+     * @throws UnsupportedOperationException if the statement does not specify the partial-aggregation hint
+     */
+    public Map<String, Object> getMergedAggregations();
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client;
+
+/**
+ * Event sender for processing batches of event objects that are of a known type.
+ * <p>
+ * Obtained via the method {@link EPRuntime#getEventSenderBatch(String)}.
+ * <p>
+ * Sending a batch is equivalent to sending each event object in array order using {@link #sendEvent(Object)}:
+ * results are dispatched to listeners, and routed or inserted-into events processed, after each event
+ * and before the next event of the batch.
+ */
+public interface EventSenderBatch extends EventSender {
+    /**
+     * Processes the event objects in array order.
+     *
+     * @param theEvents to process, each event object must be non-null
+     * @throws EPException if a runtime error occured.
+     */
+    public void sendEvents(Object[] theEvents) throws EPException;
+}
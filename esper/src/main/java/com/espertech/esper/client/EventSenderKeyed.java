@@ -0,0 +1,31 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client;
+
+/**
+ * Event sender for processing event objects that are of a known type, with an application-provided partition key.
+ * <p>
+ * Obtained via the method {@link EPRuntime#getEventSenderKeyed(String)}.
+ * <p>
+ * When inbound threading is enabled and partitioned, the partition key determines the inbound lane that processes the event:
+ * events sent with equal partition keys are processed by the same thread in the order sent.
+ * Otherwise the partition key has no effect and sending is equivalent to {@link #sendEvent(Object)}.
+ */
+public interface EventSenderKeyed extends EventSender {
+    /**
+     * Processes the event object using the partition key to determine the inbound lane.
+     *
+     * @param theEvent     to process
+     * @param partitionKey partition key, or null to use the partition property configured for the event type, if any
+     * @throws EPException if a runtime error occured.
+     */
+    public void sendEvent(Object theEvent, Object partitionKey) throws EPException;
+}
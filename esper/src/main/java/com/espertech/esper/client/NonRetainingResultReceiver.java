@@ -0,0 +1,27 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client;
+
+/**
+ * Marker interface for listeners and subscribers that do not retain the arrays and maps passed to them
+ * beyond the duration of the method call.
+ * <p>
+ * Implement this interface in an {@link UpdateListener}, a {@link StatementAwareUpdateListener} or a subscriber object
+ * to allow the engine to reuse result arrays, result maps and parameter arrays when delivering results to the statement,
+ * reducing allocation per delivery. The engine reuses such instances only if all listeners and the subscriber of a statement
+ * implement this interface, and never when outbound threading is enabled.
+ * <p>
+ * The event objects within the arrays, as well as underlying objects and property values, are not reused and may be retained.
+ * A listener or subscriber implementing this interface must copy the array, map or parameter array if it requires the contents
+ * after it returns.
+ */
+public interface NonRetainingResultReceiver {
+}
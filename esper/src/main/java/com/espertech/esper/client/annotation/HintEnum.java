@@ -110,7 +110,33 @@ public enum HintEnum {
     /**
      * For use with output rate limiting.
      */
-    DISABLE_OUTPUTLIMIT_OPT("DISABLE_OUTPUTLIMIT_OPT", false, false, false);
+    DISABLE_OUTPUTLIMIT_OPT("DISABLE_OUTPUTLIMIT_OPT", false, false, false),
+
+    /**
+     * For use with time windows, keep events in time buckets of the given number of seconds and expire a bucket at a time.
+     */
+    TIME_WINDOW_BUCKET("TIME_WINDOW_BUCKET", true, true, false),
+
+    /**
+     * For use with create-window, keep the events held by the named window in off-heap storage.
+     */
+    OFFHEAP_STORAGE("OFFHEAP_STORAGE", false, false, false),
+
+    /**
+     * For use with group-by, keep aggregation state per group in aggregator objects rather than in primitive columns.
+     */
+    DISABLE_COLUMNAR_GROUP("DISABLE_COLUMNAR_GROUP", false, false, false),
+
+    /**
+     * For use with patterns, keep the partial matches of "every a=A -&gt; b=B(key=a.key) where timer:within(...)" in a table keyed by correlation value.
+     */
+    KEYED_FOLLOWEDBY("KEYED_FOLLOWEDBY", false, false, false),
+
+    /**
+     * For use with statements under a hash-segmented context, keep mergeable partial aggregation state per context partition
+     * for merging across context partitions.
+     */
+    PARTIAL_AGGREGATION("PARTIAL_AGGREGATION", false, false, false);
 
     private final String value;
     private final boolean acceptsParameters;
@@ -21,6 +21,7 @@ public class DeploymentOptions implements Serializable {
 
     private boolean compile = true;
     private boolean compileOnly = false;
+    private boolean parallelParse = false;
     private boolean rollbackOnFail = true;
     private boolean failFast = true;
     private String isolatedServiceProvider = null;
@@ -113,6 +114,31 @@ public class DeploymentOptions implements Serializable {
         this.compileOnly = compileOnly;
     }
 
+    /**
+     * Returns true to indicate that the deploy operation parses the module's statements in parallel using the common
+     * fork-join pool, or false (the default) to parse each statement when compiling and starting it.
+     * <p>
+     * Each statement is parsed once and the parse result is used for the compile step as well as for starting
+     * the statement. Compiling and starting statements, which depends on the named windows, tables, variables,
+     * contexts and types that earlier statements of the module create, still takes place one statement at a time in module order.
+     * </p>
+     *
+     * @return indicator
+     */
+    public boolean isParallelParse() {
+        return parallelParse;
+    }
+
+    /**
+     * Set this indicator to true to indicate that the deploy operation parses the module's statements in parallel using the common
+     * fork-join pool, or false (the default) to parse each statement when compiling and starting it.
+     *
+     * @param parallelParse indicator
+     */
+    public void setParallelParse(boolean parallelParse) {
+        this.parallelParse = parallelParse;
+    }
+
     /**
      * Returns the isolated service provider to deploy to, if specified.
      *
@@ -0,0 +1,31 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client.hook;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Factory for the executor that runs the work units of an engine threading option, replacing the engine-managed thread pool.
+ * <p>
+ * Use for example to run outbound work units, which deliver results to listeners and subscribers, on an executor of the application's choice,
+ * such as an executor that creates a virtual thread per work unit (see {@link com.espertech.esper.client.util.ThreadingExecutorFactoryVirtualThread}).
+ * <p>
+ * If the executor returned is an {@link java.util.concurrent.ExecutorService} the engine shuts it down when the engine is destroyed.
+ */
+public interface ThreadingExecutorFactory {
+    /**
+     * Returns the executor for the threading option.
+     *
+     * @param context provides the engine URI and the threading option and its settings
+     * @return executor, not null
+     */
+    public Executor makeExecutor(ThreadingExecutorFactoryContext context);
+}
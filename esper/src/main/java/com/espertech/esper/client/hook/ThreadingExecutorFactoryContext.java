@@ -0,0 +1,73 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client.hook;
+
+/**
+ * Context provided to {@link ThreadingExecutorFactory} implementations providing
+ * engine contextual information and the threading option settings.
+ */
+public class ThreadingExecutorFactoryContext {
+    private final String engineURI;
+    private final String threadingOptionName;
+    private final int numThreads;
+    private final Integer capacity;
+
+    /**
+     * Ctor.
+     *
+     * @param engineURI           engine URI
+     * @param threadingOptionName name of the threading option, i.e. "Outbound", "RouteExec" or "TimerExec"
+     * @param numThreads          configured number of threads
+     * @param capacity            configured capacity or null if unbound
+     */
+    public ThreadingExecutorFactoryContext(String engineURI, String threadingOptionName, int numThreads, Integer capacity) {
+        this.engineURI = engineURI;
+        this.threadingOptionName = threadingOptionName;
+        this.numThreads = numThreads;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the engine URI.
+     *
+     * @return engine URI
+     */
+    public String getEngineURI() {
+        return engineURI;
+    }
+
+    /**
+     * Returns the name of the threading option, i.e. "Outbound", "RouteExec" or "TimerExec".
+     *
+     * @return threading option name
+     */
+    public String getThreadingOptionName() {
+        return threadingOptionName;
+    }
+
+    /**
+     * Returns the configured number of threads.
+     *
+     * @return number of threads
+     */
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Returns the configured capacity, or null if unbound.
+     *
+     * @return capacity
+     */
+    public Integer getCapacity() {
+        return capacity;
+    }
+}
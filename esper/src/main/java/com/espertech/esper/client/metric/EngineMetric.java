@@ -18,6 +18,11 @@ public class EngineMetric extends MetricEvent {
     private final long inputCount;
     private final long inputCountDelta;
     private final long scheduleDepth;
+    private final long codegenCacheHitCount;
+    private final long codegenCacheMissCount;
+    private final LatencyMetric filterLatency;
+    private final LatencyMetric statementLatency;
+    private final LatencyMetric dispatchLatency;
 
     /**
      * Ctor.
@@ -29,11 +34,50 @@ public class EngineMetric extends MetricEvent {
      * @param scheduleDepth   schedule depth
      */
     public EngineMetric(String engineURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth) {
+        this(engineURI, timestamp, inputCount, inputCountDelta, scheduleDepth, 0, 0);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param engineURI             engine URI
+     * @param timestamp             engine timestamp
+     * @param inputCount            number of input events
+     * @param inputCountDelta       number of input events since last
+     * @param scheduleDepth         schedule depth
+     * @param codegenCacheHitCount  number of generated classes obtained from the compiled-class cache
+     * @param codegenCacheMissCount number of generated classes compiled
+     */
+    public EngineMetric(String engineURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth, long codegenCacheHitCount, long codegenCacheMissCount) {
+        this(engineURI, timestamp, inputCount, inputCountDelta, scheduleDepth, codegenCacheHitCount, codegenCacheMissCount, null, null, null);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param engineURI             engine URI
+     * @param timestamp             engine timestamp
+     * @param inputCount            number of input events
+     * @param inputCountDelta       number of input events since last
+     * @param scheduleDepth         schedule depth
+     * @param codegenCacheHitCount  number of generated classes obtained from the compiled-class cache
+     * @param codegenCacheMissCount number of generated classes compiled
+     * @param filterLatency         latency of filter evaluation per event, or null if latency histograms are not enabled
+     * @param statementLatency      latency of statement processing, or null if latency histograms are not enabled
+     * @param dispatchLatency       latency of dispatch to listeners and subscribers, or null if latency histograms are not enabled
+     */
+    public EngineMetric(String engineURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth, long codegenCacheHitCount, long codegenCacheMissCount,
+                        LatencyMetric filterLatency, LatencyMetric statementLatency, LatencyMetric dispatchLatency) {
         super(engineURI);
         this.timestamp = timestamp;
         this.inputCount = inputCount;
         this.inputCountDelta = inputCountDelta;
         this.scheduleDepth = scheduleDepth;
+        this.codegenCacheHitCount = codegenCacheHitCount;
+        this.codegenCacheMissCount = codegenCacheMissCount;
+        this.filterLatency = filterLatency;
+        this.statementLatency = statementLatency;
+        this.dispatchLatency = dispatchLatency;
     }
 
     /**
@@ -71,4 +115,54 @@ public class EngineMetric extends MetricEvent {
     public long getInputCountDelta() {
         return inputCountDelta;
     }
+
+    /**
+     * Returns the number of generated classes obtained from the compiled-class cache since engine initialization,
+     * or zero when the cache is not enabled.
+     *
+     * @return cache hit count
+     */
+    public long getCodegenCacheHitCount() {
+        return codegenCacheHitCount;
+    }
+
+    /**
+     * Returns the number of generated classes not found in the compiled-class cache and compiled since engine initialization,
+     * or zero when the cache is not enabled.
+     *
+     * @return cache miss count
+     */
+    public long getCodegenCacheMissCount() {
+        return codegenCacheMissCount;
+    }
+
+    /**
+     * Returns the latency of filter evaluation per event since last reporting period,
+     * or null when latency histograms are not enabled.
+     *
+     * @return filter latency
+     */
+    public LatencyMetric getFilterLatency() {
+        return filterLatency;
+    }
+
+    /**
+     * Returns the latency of statement processing, i.e. view and result set processing per statement and event,
+     * since last reporting period, or null when latency histograms are not enabled.
+     *
+     * @return statement latency
+     */
+    public LatencyMetric getStatementLatency() {
+        return statementLatency;
+    }
+
+    /**
+     * Returns the latency of dispatching results to listeners and subscribers since last reporting period,
+     * or null when latency histograms are not enabled.
+     *
+     * @return dispatch latency
+     */
+    public LatencyMetric getDispatchLatency() {
+        return dispatchLatency;
+    }
 }
@@ -0,0 +1,91 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client.metric;
+
+/**
+ * Reports latency percentiles, in nanoseconds, for the latencies recorded during a reporting interval.
+ * <p>
+ * Percentiles are computed from a histogram and have a relative error of at most 1/16 (6.25%).
+ * </p>
+ */
+public class LatencyMetric {
+    private final long count;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    /**
+     * Ctor.
+     *
+     * @param count number of latencies recorded
+     * @param p50   50th percentile in nanoseconds
+     * @param p99   99th percentile in nanoseconds
+     * @param p999  99.9th percentile in nanoseconds
+     * @param max   maximum in nanoseconds
+     */
+    public LatencyMetric(long count, long p50, long p99, long p999, long max) {
+        this.count = count;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    /**
+     * Returns the number of latencies recorded.
+     *
+     * @return count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the median latency in nanoseconds.
+     *
+     * @return 50th percentile
+     */
+    public long getP50() {
+        return p50;
+    }
+
+    /**
+     * Returns the 99th percentile latency in nanoseconds.
+     *
+     * @return 99th percentile
+     */
+    public long getP99() {
+        return p99;
+    }
+
+    /**
+     * Returns the 99.9th percentile latency in nanoseconds.
+     *
+     * @return 99.9th percentile
+     */
+    public long getP999() {
+        return p999;
+    }
+
+    /**
+     * Returns the maximum latency in nanoseconds.
+     *
+     * @return maximum
+     */
+    public long getMax() {
+        return max;
+    }
+
+    public String toString() {
+        return "count=" + count + " p50=" + p50 + " p99=" + p99 + " p99.9=" + p999 + " max=" + max;
+    }
+}
@@ -23,6 +23,7 @@ public class StatementMetric extends MetricEvent {
     private AtomicLong numInput;
     private AtomicLong numOutputRStream;
     private AtomicLong numOutputIStream;
+    private LatencyMetric latency;
 
     /**
      * Ctor.
@@ -156,4 +157,23 @@ public class StatementMetric extends MetricEvent {
     public void addNumInput(long numInputAdd) {
         numInput.addAndGet(numInputAdd);
     }
+
+    /**
+     * Returns the latency of statement processing since last reporting period,
+     * or null when latency histograms are not enabled.
+     *
+     * @return latency
+     */
+    public LatencyMetric getLatency() {
+        return latency;
+    }
+
+    /**
+     * Sets the latency of statement processing.
+     *
+     * @param latency latency
+     */
+    public void setLatency(LatencyMetric latency) {
+        this.latency = latency;
+    }
 }
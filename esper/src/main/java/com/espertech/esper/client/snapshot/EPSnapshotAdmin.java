@@ -0,0 +1,74 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client.snapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Service for writing the contents of named windows and tables to a compact binary snapshot and for restoring
+ * a snapshot into an engine, for a warm restart without replaying events.
+ * <p>
+ * A snapshot contains the events held by each named window and the rows of each table including the state
+ * of aggregation methods such as sum, avg and count. Named windows and tables that are declared with a context,
+ * named windows backed by a virtual data window, named windows with fragment properties or non-serializable
+ * underlying objects, tables with aggregation-access columns (such as window or sorted) and tables with aggregation
+ * methods that do not implement {@link com.espertech.esper.epl.agg.aggregator.AggregationMethodStateful}
+ * are not part of the snapshot and are logged as skipped.
+ * </p>
+ * <p>
+ * Restore requires that the named windows and tables of the snapshot are created and are empty, i.e. the same
+ * modules are deployed into a fresh engine. Restored events enter the named window's data windows as new events
+ * at the current engine time and are delivered to consuming statements.
+ * Pattern state, schedules and the state of other statements are not part of the snapshot.
+ * </p>
+ * <p>
+ * Event processing is blocked while a snapshot is copied to memory and while a snapshot is restored.
+ * Writing the snapshot to the stream or file takes place after event processing resumes.
+ * </p>
+ */
+public interface EPSnapshotAdmin {
+    /**
+     * Writes a snapshot to the stream. The stream is not closed.
+     *
+     * @param out to write to
+     * @throws IOException if writing to the stream failed
+     */
+    public void snapshot(OutputStream out) throws IOException;
+
+    /**
+     * Writes a snapshot to the file, replacing any existing file.
+     *
+     * @param file to write to
+     * @throws IOException if writing the file failed
+     */
+    public void snapshot(File file) throws IOException;
+
+    /**
+     * Restores a snapshot reading from the stream. The stream is not closed.
+     *
+     * @param in to read from
+     * @throws IOException if reading from the stream failed
+     * @throws com.espertech.esper.client.EPException if the snapshot does not match the named windows and tables of the engine
+     */
+    public void restore(InputStream in) throws IOException;
+
+    /**
+     * Restores a snapshot from the file, reading the file as a memory-mapped buffer.
+     *
+     * @param file to read from
+     * @throws IOException if reading the file failed
+     * @throws com.espertech.esper.client.EPException if the snapshot does not match the named windows and tables of the engine
+     */
+    public void restore(File file) throws IOException;
+}
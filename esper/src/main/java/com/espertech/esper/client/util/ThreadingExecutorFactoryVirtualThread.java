@@ -0,0 +1,38 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client.util;
+
+import com.espertech.esper.client.ConfigurationException;
+import com.espertech.esper.client.hook.ThreadingExecutorFactory;
+import com.espertech.esper.client.hook.ThreadingExecutorFactoryContext;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+
+/**
+ * Executor factory that runs each work unit on a new virtual thread, for use with a threading option
+ * whose work units may block, such as outbound threading with listeners that perform I/O.
+ * <p>
+ * Requires a Java runtime that provides virtual threads, i.e. Java 21 or later.
+ * The number of threads and the capacity configured for the threading option are not used.
+ */
+public class ThreadingExecutorFactoryVirtualThread implements ThreadingExecutorFactory {
+    public Executor makeExecutor(ThreadingExecutorFactoryContext context) {
+        try {
+            Method method = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) method.invoke(null);
+        } catch (NoSuchMethodException ex) {
+            throw new ConfigurationException("Virtual threads are not available in this Java runtime, version " + System.getProperty("java.version"));
+        } catch (Exception ex) {
+            throw new ConfigurationException("Failed to create virtual thread executor: " + ex.getMessage(), ex);
+        }
+    }
+}
@@ -17,6 +17,10 @@ public class CodegenMemberId {
         this.memberNumber = memberNumber;
     }
 
+    public int getMemberNumber() {
+        return memberNumber;
+    }
+
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
@@ -0,0 +1,240 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.codegen.compile;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.util.Version;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed cache of compiled classes.
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the engine version and the generated source code. Compiled classes
+ * are kept in memory by soft reference. When a cache directory is provided the class files are also
+ * written to the directory, so that an engine restart or a redeployment can load them instead of compiling.
+ * </p>
+ */
+public class CodegenClassCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CodegenClassCache.class);
+
+    private static final int FILE_MAGIC = 0x45535043;
+    private static final String FILE_SUFFIX = ".classes";
+
+    private final File directory;
+    private final ConcurrentHashMap<String, SoftReference<Class>> classes = new ConcurrentHashMap<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Ctor.
+     *
+     * @param directory directory to store class files in, or null for in-memory only
+     */
+    public CodegenClassCache(File directory) {
+        this.directory = directory;
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            log.warn("Failed to create code generation cache directory '" + directory + "', compiled classes are cached in memory only");
+        }
+    }
+
+    /**
+     * Returns the cache key for the generated source code.
+     *
+     * @param code                source code
+     * @param includeDebugSymbols whether the class is compiled with debug symbols
+     * @return key
+     */
+    public static String computeKey(String code, boolean includeDebugSymbols) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new EPException("Failed to obtain message digest: " + ex.getMessage(), ex);
+        }
+        digest.update(Version.VERSION.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) (includeDebugSymbols ? 1 : 0));
+        byte[] hash = digest.digest(code.getBytes(StandardCharsets.UTF_8));
+        StringBuilder builder = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+            builder.append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the cached class, or null if the class must be compiled.
+     *
+     * @param key                     cache key
+     * @param fullyQualifiedClassName class name
+     * @param classLoader             parent class loader that the class must resolve against
+     * @return class or null
+     */
+    public Class get(String key, String fullyQualifiedClassName, ClassLoader classLoader) {
+        SoftReference<Class> ref = classes.get(key);
+        Class clazz = ref == null ? null : ref.get();
+        if (clazz != null && clazz.getClassLoader().getParent() == classLoader) {
+            hitCount.incrementAndGet();
+            return clazz;
+        }
+
+        clazz = read(key, fullyQualifiedClassName, classLoader);
+        if (clazz != null) {
+            classes.put(key, new SoftReference<>(clazz));
+            hitCount.incrementAndGet();
+            return clazz;
+        }
+
+        if (ref != null && ref.get() == null) {
+            classes.remove(key, ref);
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Adds a compiled class.
+     *
+     * @param key      cache key
+     * @param clazz    compiled class
+     * @param bytecode class files by class name including inner classes, or null if not available
+     */
+    public void put(String key, Class clazz, Map<String, byte[]> bytecode) {
+        classes.put(key, new SoftReference<>(clazz));
+        if (bytecode != null) {
+            write(key, bytecode);
+        }
+    }
+
+    /**
+     * Returns the number of classes that were obtained from the cache rather than compiled.
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of classes that were not found in the cache and were compiled.
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the cache directory or null if the cache is in-memory only.
+     *
+     * @return directory
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    private Class read(String key, String fullyQualifiedClassName, ClassLoader classLoader) {
+        if (directory == null) {
+            return null;
+        }
+        File file = new File(directory, key + FILE_SUFFIX);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        Map<String, byte[]> bytecode = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                log.warn("Ignoring code generation cache file '" + file + "' that has an unrecognized format");
+                return null;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                bytecode.put(name, bytes);
+            }
+        } catch (IOException ex) {
+            log.warn("Failed to read code generation cache file '" + file + "': " + ex.getMessage(), ex);
+            return null;
+        }
+
+        try {
+            return Class.forName(fullyQualifiedClassName, true, new CodegenClassCacheClassLoader(bytecode, classLoader));
+        } catch (ClassNotFoundException | LinkageError ex) {
+            log.warn("Failed to load class '" + fullyQualifiedClassName + "' from code generation cache file '" + file + "': " + ex.getMessage(), ex);
+            return null;
+        }
+    }
+
+    private void write(String key, Map<String, byte[]> bytecode) {
+        if (directory == null) {
+            return;
+        }
+        File file = new File(directory, key + FILE_SUFFIX);
+        if (file.isFile()) {
+            return;
+        }
+
+        // write to a temporary file and rename so that readers never see a partial file
+        File temp = null;
+        try {
+            temp = File.createTempFile(key, ".tmp", directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(bytecode.size());
+                for (Map.Entry<String, byte[]> entry : bytecode.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            log.warn("Failed to write code generation cache file '" + file + "': " + ex.getMessage(), ex);
+            if (temp != null && temp.exists() && !temp.delete()) {
+                temp.deleteOnExit();
+            }
+        }
+    }
+
+    private static class CodegenClassCacheClassLoader extends ClassLoader {
+        private final Map<String, byte[]> bytecode;
+
+        CodegenClassCacheClassLoader(Map<String, byte[]> bytecode, ClassLoader parent) {
+            super(parent);
+            this.bytecode = bytecode;
+        }
+
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = bytecode.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -25,19 +25,31 @@ import static com.espertech.esper.codegen.util.CodegenClassUtil.getComponentType
 public class CodegenClassGenerator {
 
     private static final CodegenIndent INDENT = new CodegenIndent(true);
+    private static final String CONTENT_CLASSNAME_PLACEHOLDER = "$CLASSNAME$";
+    private static final int CONTENT_CLASSNAME_HASH_LENGTH = 32;
 
     public static <T> T compile(CodegenClass clazz, EngineImportService engineImportService, Class<T> interfaceClass, Supplier<String> debugInformation) throws CodegenCompilerException {
         // build members and imports
-        Set<CodegenMember> memberSet = new LinkedHashSet<>(clazz.getImplicitMembers().values());
+        Set<CodegenMember> memberSet = sortMembers(clazz.getImplicitMembers().values());
         Set<Class> classes = clazz.getReferencedClasses();
         Map<Class, String> imports = compileImports(classes);
 
         // generate code
         String code = generateCode(imports, clazz, memberSet);
-        String fullyQualifiedClassName = clazz.getPackageName() + "." + clazz.getClassName();
+        String className = clazz.getClassName();
+
+        // when caching compiled classes, name the class by the content so that the same code produces the same class name
+        CodegenCompiler compiler = engineImportService.getCodegenCompiler();
+        if (compiler.getClassCache() != null) {
+            String contentHash = CodegenClassCache.computeKey(code.replace(className, CONTENT_CLASSNAME_PLACEHOLDER), false);
+            String contentClassName = interfaceClass.getSimpleName() + "_h" + contentHash.substring(0, CONTENT_CLASSNAME_HASH_LENGTH);
+            code = code.replace(className, contentClassName);
+            className = contentClassName;
+        }
+        String fullyQualifiedClassName = clazz.getPackageName() + "." + className;
 
         // compiler
-        Class<T> compiled = engineImportService.getCodegenCompiler().compileClass(code, fullyQualifiedClassName, engineImportService.getClassLoader(), debugInformation);
+        Class<T> compiled = compiler.compileClass(code, fullyQualifiedClassName, engineImportService.getClassLoader(), debugInformation);
 
         // allocate constructor parameters
         Object[] params = new Object[memberSet.size()];
@@ -54,10 +66,21 @@ public class CodegenClassGenerator {
         }
     }
 
+    private static Set<CodegenMember> sortMembers(Collection<CodegenMember> members) {
+        // member order must not depend on identity hash codes so that the same statement generates the same code
+        List<CodegenMember> sorted = new ArrayList<>(members);
+        sorted.sort(Comparator.comparingInt(member -> member.getMemberId().getMemberNumber()));
+        return new LinkedHashSet<>(sorted);
+    }
+
     private static Map<Class, String> compileImports(Set<Class> classes) {
-        Map<Class, String> imports = new HashMap<>();
+        // import order must not depend on identity hash codes so that the same statement generates the same code
+        List<Class> sorted = new ArrayList<>(classes);
+        sorted.removeIf(Objects::isNull);
+        sorted.sort(Comparator.comparing(Class::getName));
+        Map<Class, String> imports = new LinkedHashMap<>();
         Map<String, Class> assignments = new HashMap<>();
-        for (Class clazz : classes) {
+        for (Class clazz : sorted) {
             if (clazz == null || clazz.getEnclosingClass() != null) {
                 continue;
             }
@@ -113,7 +136,7 @@ public class CodegenClassGenerator {
             INDENT.indent(builder, 1);
             classimplements(builder, inner.getClassName(), inner.getInterfaceImplemented(), false, true, imports);
 
-            Set<CodegenMember> innerMembers = new LinkedHashSet<>(inner.getImplicitMembers().values());
+            Set<CodegenMember> innerMembers = sortMembers(inner.getImplicitMembers().values());
             generateCodeMembers(builder, inner.getExplicitMembers(), inner.getCtor(), innerMembers, imports, 2);
 
             generateCodeCtor(builder, inner.getClassName(), true, inner.getCtor(), innerMembers, imports, 1);
@@ -15,4 +15,5 @@ import java.util.function.Supplier;
 public interface CodegenCompiler {
     String getPackageName();
     <T> Class<T> compileClass(String code, String fullyQualifiedClassName, ClassLoader classLoader, Supplier<String> debugInformation) throws CodegenCompilerException;
+    CodegenClassCache getClassCache();
 }
@@ -21,8 +21,11 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Supplier;
 
 import static com.espertech.esper.codegen.compile.CodeGenerationUtil.codeWithLineNum;
@@ -46,16 +49,20 @@ public class CodegenCompilerJanino implements CodegenCompiler {
     private final boolean logging;
     private final boolean includeDebugSymbols;
     private final String packageName;
+    private final CodegenClassCache classCache;
 
     private Constructor janinoCompilerCtor;
     private Method janinoCompilerCookMethod;
     private Method janinoCompilerGetClassLoaderMethod;
     private Method janinoCompilerSetDebuggingInformationMethod;
     private Method janinoCompilerSetParentClassLoaderMethod;
+    private Method janinoCompilerGetBytecodesMethod;
+    private volatile boolean bytecodeUnavailable;
 
-    public CodegenCompilerJanino(String engineURI, boolean logging, boolean includeDebugSymbols) {
+    public CodegenCompilerJanino(String engineURI, boolean logging, boolean includeDebugSymbols, CodegenClassCache classCache) {
         this.logging = logging;
         this.includeDebugSymbols = includeDebugSymbols;
+        this.classCache = classCache;
         setupJanino();
         this.packageName = "com.espertech.esper.generated.uri_" + IdentifierUtil.getIdentifierMayStartNumeric(engineURI);
     }
@@ -64,8 +71,21 @@ public class CodegenCompilerJanino implements CodegenCompiler {
         return packageName;
     }
 
+    public CodegenClassCache getClassCache() {
+        return classCache;
+    }
+
     public <T> Class<T> compileClass(String code, String fullyQualifiedClassName, ClassLoader classLoader, Supplier<String> debugInformation) throws CodegenCompilerException {
 
+        String cacheKey = null;
+        if (classCache != null) {
+            cacheKey = CodegenClassCache.computeKey(code, includeDebugSymbols);
+            Class cached = classCache.get(cacheKey, fullyQualifiedClassName, classLoader);
+            if (cached != null) {
+                return (Class<T>) cached;
+            }
+        }
+
         if (log.isDebugEnabled() || logging) {
             String origin = debugInformation.get();
             StringWriter writer = new StringWriter();
@@ -125,11 +145,45 @@ public class CodegenCompilerJanino implements CodegenCompiler {
             throw new EPException("Failed to invoke Janino getClassLoader: " + ex.getMessage(), ex);
         }
 
+        // the cache directory requires the class files, obtain these before the classes get loaded
+        Map<String, byte[]> bytecode = null;
+        if (classCache != null && classCache.getDirectory() != null) {
+            bytecode = getBytecode(compiler, classLoaderForLoading);
+        }
+
+        Class<T> clazz;
         try {
-            return (Class<T>) Class.forName(fullyQualifiedClassName, true, classLoaderForLoading);
+            clazz = (Class<T>) Class.forName(fullyQualifiedClassName, true, classLoaderForLoading);
         } catch (ClassNotFoundException ex) {
             throw new EPException("Failed find compiled class: " + ex.getMessage(), ex);
         }
+
+        if (classCache != null) {
+            classCache.put(cacheKey, clazz, bytecode);
+        }
+        return clazz;
+    }
+
+    private Map<String, byte[]> getBytecode(Object compiler, ClassLoader classLoaderForLoading) {
+        if (bytecodeUnavailable) {
+            return null;
+        }
+
+        // For: Map<String, byte[]> bytecodes = compiler.getBytecodes(), available with newer Janino versions
+        try {
+            if (janinoCompilerGetBytecodesMethod != null) {
+                return new HashMap<>((Map<String, byte[]>) janinoCompilerGetBytecodesMethod.invoke(compiler));
+            }
+
+            // Older Janino versions only keep the class files in the Janino class loader
+            Field classesField = classLoaderForLoading.getClass().getDeclaredField("classes");
+            classesField.setAccessible(true);
+            return new HashMap<>((Map<String, byte[]>) classesField.get(classLoaderForLoading));
+        } catch (Exception ex) {
+            bytecodeUnavailable = true;
+            log.warn("Failed to obtain class files from Janino, compiled classes are cached in memory only: " + ex.getMessage(), ex);
+            return null;
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -171,5 +225,11 @@ public class CodegenCompilerJanino implements CodegenCompiler {
         } catch (Exception ex) {
             throw new ConfigurationException("Failed to find Janino compiler 'janinoCompilerSetParentClassLoaderMethod' method: " + ex.getMessage(), ex);
         }
+
+        try {
+            janinoCompilerGetBytecodesMethod = janinoCompilerClass.getMethod("getBytecodes");
+        } catch (Exception ex) {
+            janinoCompilerGetBytecodesMethod = null;
+        }
     }
 }
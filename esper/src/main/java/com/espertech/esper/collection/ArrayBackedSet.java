@@ -0,0 +1,101 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A set backed by an array that does not check for duplicates: the caller guarantees that added elements are distinct.
+ * Elements are neither hashed nor compared, and iteration is in the order of addition.
+ * <p>
+ * Intended for reuse: clearing retains the backing array. Removal through the iterator is supported and leaves
+ * a null slot that is skipped by iteration and reclaimed when the set is cleared. Null elements are not allowed.
+ * <p>
+ * When running out of space for the underlying array, allocates a new array of double the size of the
+ * current array.
+ * <p>
+ * Not synchronized and not thread-safe.
+ */
+public class ArrayBackedSet<T> extends AbstractSet<T> {
+    private Object[] handles;
+    private int currentIndex;
+    private int numRemoved;
+
+    /**
+     * Ctor.
+     *
+     * @param currentSize is the initial size of the backing array.
+     */
+    public ArrayBackedSet(int currentSize) {
+        this.handles = new Object[currentSize < 1 ? 1 : currentSize];
+    }
+
+    public boolean add(T object) {
+        if (currentIndex == handles.length) {
+            Object[] newHandles = new Object[handles.length * 2];
+            System.arraycopy(handles, 0, newHandles, 0, handles.length);
+            handles = newHandles;
+        }
+        handles[currentIndex++] = object;
+        return true;
+    }
+
+    public void clear() {
+        for (int i = 0; i < currentIndex; i++) {
+            handles[i] = null;
+        }
+        currentIndex = 0;
+        numRemoved = 0;
+    }
+
+    public int size() {
+        return currentIndex - numRemoved;
+    }
+
+    public boolean isEmpty() {
+        return currentIndex == numRemoved;
+    }
+
+    public Iterator<T> iterator() {
+        return new ArrayBackedSetIterator();
+    }
+
+    private class ArrayBackedSetIterator implements Iterator<T> {
+        private int position;
+        private int lastReturned = -1;
+
+        public boolean hasNext() {
+            while (position < currentIndex && handles[position] == null) {
+                position++;
+            }
+            return position < currentIndex;
+        }
+
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = position;
+            return (T) handles[position++];
+        }
+
+        public void remove() {
+            if (lastReturned == -1) {
+                throw new IllegalStateException();
+            }
+            handles[lastReturned] = null;
+            lastReturned = -1;
+            numRemoved++;
+        }
+    }
+}
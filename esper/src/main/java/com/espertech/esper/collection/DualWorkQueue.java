@@ -47,4 +47,13 @@ public class DualWorkQueue<V> {
     public ArrayDeque<V> getBackQueue() {
         return backQueue;
     }
+
+    /**
+     * Returns true if both front and back queue are empty.
+     *
+     * @return indicator whether there are no items to be processed
+     */
+    public boolean isEmpty() {
+        return frontQueue.isEmpty() && backQueue.isEmpty();
+    }
 }
@@ -16,6 +16,7 @@ import com.espertech.esper.client.SafeIterator;
 import com.espertech.esper.client.context.*;
 import com.espertech.esper.core.context.factory.StatementAgentInstanceFactoryResult;
 import com.espertech.esper.core.context.stmt.StatementAIResourceRegistryFactory;
+import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.core.context.util.ContextDescriptor;
 import com.espertech.esper.core.context.util.ContextIteratorHandler;
 import com.espertech.esper.core.context.util.StatementAgentInstanceUtil;
@@ -258,6 +259,15 @@ public class ContextManagerImpl extends ContextManagerBase implements ContextMan
         return new AgentInstanceArraySafeIterator(instances);
     }
 
+    public synchronized AgentInstanceContext[] getAgentInstanceContexts(int statementId) {
+        AgentInstance[] instances = getAgentInstancesForStmt(statementId);
+        AgentInstanceContext[] contexts = new AgentInstanceContext[instances.length];
+        for (int i = 0; i < instances.length; i++) {
+            contexts[i] = instances[i].getAgentInstanceContext();
+        }
+        return contexts;
+    }
+
     public synchronized Iterator<EventBean> iterator(int statementId, ContextPartitionSelector selector) {
         AgentInstance[] instances = getAgentInstancesForStmt(statementId, selector);
         return new AgentInstanceArrayIterator(instances);
@@ -20,6 +20,7 @@ import com.espertech.esper.core.context.stmt.AIRegistryExprMap;
 import com.espertech.esper.core.context.stmt.StatementAIResourceRegistry;
 import com.espertech.esper.core.context.stmt.StatementAIResourceRegistryFactory;
 import com.espertech.esper.core.context.util.ContextControllerSelectorUtil;
+import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.core.context.util.ContextDescriptor;
 import com.espertech.esper.core.context.util.ContextIteratorHandler;
 import com.espertech.esper.core.context.util.StatementAgentInstanceUtil;
@@ -507,6 +508,15 @@ public class ContextManagerNested extends ContextManagerBase implements ContextM
         return new AgentInstanceArraySafeIterator(instances);
     }
 
+    public synchronized AgentInstanceContext[] getAgentInstanceContexts(int statementId) {
+        AgentInstance[] instances = getAgentInstancesForStmt(statementId);
+        AgentInstanceContext[] contexts = new AgentInstanceContext[instances.length];
+        for (int i = 0; i < instances.length; i++) {
+            contexts[i] = instances[i].getAgentInstanceContext();
+        }
+        return contexts;
+    }
+
     public Map<String, Object> getContextProperties(int contextPartitionId) {
         return ContextManagerImpl.getContextPropertiesFirstStmt(contextPartitionId, statements);
     }
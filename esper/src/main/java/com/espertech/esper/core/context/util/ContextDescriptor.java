@@ -68,6 +68,10 @@ public class ContextDescriptor {
         return iteratorHandler.safeIterator(statementId, selector);
     }
 
+    public AgentInstanceContext[] getAgentInstanceContexts(int statementId) {
+        return iteratorHandler.getAgentInstanceContexts(statementId);
+    }
+
     public ContextDetail getContextDetail() {
         return contextDetail;
     }
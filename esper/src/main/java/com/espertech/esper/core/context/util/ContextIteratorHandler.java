@@ -24,4 +24,6 @@ public interface ContextIteratorHandler {
     public Iterator<EventBean> iterator(int statementId, ContextPartitionSelector selector);
 
     public SafeIterator<EventBean> safeIterator(int statementId, ContextPartitionSelector selector);
+
+    public AgentInstanceContext[] getAgentInstanceContexts(int statementId);
 }
@@ -15,9 +15,11 @@ import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EPServiceProviderIsolated;
 import com.espertech.esper.client.EPStatement;
 import com.espertech.esper.client.deploy.*;
+import com.espertech.esper.core.service.EPAdministratorHelper;
 import com.espertech.esper.core.service.EPAdministratorSPI;
 import com.espertech.esper.core.service.StatementEventTypeRef;
 import com.espertech.esper.core.service.StatementIsolationService;
+import com.espertech.esper.epl.parse.ParseResult;
 import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.filter.FilterService;
 import com.espertech.esper.util.DependencyGraph;
@@ -30,6 +32,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * Deployment administrative implementation.
@@ -130,6 +133,16 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI {
             imports = Collections.emptyList();
         }
 
+        // parse all statements up-front and in parallel, when requested
+        Map<ModuleItem, ParseResult> parsed = Collections.emptyMap();
+        if (options.isParallelParse()) {
+            List<DeploymentItemException> exceptions = new ArrayList<DeploymentItemException>();
+            parsed = parseParallel(module, exceptions);
+            if (!exceptions.isEmpty()) {
+                throw buildException("Compilation failed", module, exceptions);
+            }
+        }
+
         if (options.isCompile()) {
             List<DeploymentItemException> exceptions = new ArrayList<DeploymentItemException>();
             for (ModuleItem item : module.getItems()) {
@@ -138,7 +151,12 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI {
                 }
 
                 try {
-                    epService.compileEPL(item.getExpression());
+                    ParseResult parseResult = parsed.get(item);
+                    if (parseResult == null) {
+                        epService.compileEPL(item.getExpression());
+                    } else {
+                        epService.compileEPL(item.getExpression(), parseResult);
+                    }
                 } catch (RuntimeException ex) {
                     exceptions.add(new DeploymentItemException(ex.getMessage(), item.getExpression(), ex, item.getLineNumber()));
                 }
@@ -174,7 +192,12 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI {
             try {
                 EPStatement stmt;
                 if (options.getIsolatedServiceProvider() == null) {
-                    stmt = epService.createEPL(item.getExpression(), statementName, userObject);
+                    ParseResult parseResult = parsed.get(item);
+                    if (parseResult == null) {
+                        stmt = epService.createEPL(item.getExpression(), statementName, userObject);
+                    } else {
+                        stmt = epService.createEPL(item.getExpression(), parseResult, statementName, userObject);
+                    }
                 } else {
                     EPServiceProviderIsolated unit = statementIsolationService.getIsolationUnit(options.getIsolatedServiceProvider(), -1);
                     stmt = unit.getEPAdministrator().createEPL(item.getExpression(), statementName, userObject);
@@ -236,6 +259,38 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI {
         return new DeploymentResult(desc.getDeploymentId(), Collections.unmodifiableList(statements), imports);
     }
 
+    private Map<ModuleItem, ParseResult> parseParallel(Module module, List<DeploymentItemException> exceptions) {
+        List<ModuleItem> items = new ArrayList<ModuleItem>();
+        for (ModuleItem item : module.getItems()) {
+            if (!item.isCommentOnly()) {
+                items.add(item);
+            }
+        }
+
+        // parsing does not depend on engine state, each slot receives either the parse result or the exception
+        Object[] results = new Object[items.size()];
+        IntStream.range(0, items.size()).parallel().forEach(i -> {
+            String expression = items.get(i).getExpression();
+            try {
+                results[i] = EPAdministratorHelper.parseEPL(expression, expression, true);
+            } catch (RuntimeException ex) {
+                results[i] = ex;
+            }
+        });
+
+        Map<ModuleItem, ParseResult> parsed = new IdentityHashMap<ModuleItem, ParseResult>();
+        for (int i = 0; i < items.size(); i++) {
+            ModuleItem item = items.get(i);
+            if (results[i] instanceof RuntimeException) {
+                RuntimeException ex = (RuntimeException) results[i];
+                exceptions.add(new DeploymentItemException(ex.getMessage(), item.getExpression(), ex, item.getLineNumber()));
+            } else {
+                parsed.put(item, (ParseResult) results[i]);
+            }
+        }
+        return parsed;
+    }
+
     private DeploymentActionException buildException(String msg, Module module, List<DeploymentItemException> exceptions) {
         String message = msg;
         if (module.getName() != null) {
@@ -21,4 +21,15 @@ public interface DeliveryConvertor {
      * @return converted row
      */
     public Object[] convertRow(Object[] row);
+
+    /**
+     * Convert result row to dispatchable, reusing the arrays and maps of the buffers provided.
+     *
+     * @param row    to convert
+     * @param buffer reusable buffers for a subscriber that does not retain results, or null to allocate
+     * @return converted row
+     */
+    default Object[] convertRow(Object[] row, ResultDeliveryBuffers buffer) {
+        return convertRow(row);
+    }
 }
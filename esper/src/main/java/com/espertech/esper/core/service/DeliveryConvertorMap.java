@@ -35,4 +35,17 @@ public class DeliveryConvertorMap implements DeliveryConvertor {
         }
         return new Object[]{map};
     }
+
+    public Object[] convertRow(Object[] columns, ResultDeliveryBuffers buffer) {
+        if (buffer == null) {
+            return convertRow(columns);
+        }
+        Map<String, Object> map = buffer.getMap();
+        for (int i = 0; i < columns.length; i++) {
+            map.put(columnNames[i], columns[i]);
+        }
+        Object[] parameters = buffer.getRowParameters(1);
+        parameters[0] = map;
+        return parameters;
+    }
 }
@@ -31,4 +31,18 @@ public class DeliveryConvertorMapWStatement implements DeliveryConvertor {
         }
         return new Object[]{statement, map};
     }
+
+    public Object[] convertRow(Object[] columns, ResultDeliveryBuffers buffer) {
+        if (buffer == null) {
+            return convertRow(columns);
+        }
+        Map<String, Object> map = buffer.getMap();
+        for (int i = 0; i < columns.length; i++) {
+            map.put(columnNames[i], columns[i]);
+        }
+        Object[] parameters = buffer.getRowParameters(2);
+        parameters[0] = statement;
+        parameters[1] = map;
+        return parameters;
+    }
 }
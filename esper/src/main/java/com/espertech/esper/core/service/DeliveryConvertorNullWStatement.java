@@ -28,4 +28,14 @@ public class DeliveryConvertorNullWStatement implements DeliveryConvertor {
         System.arraycopy(columns, 0, deliver, 1, columns.length);
         return deliver;
     }
+
+    public Object[] convertRow(Object[] columns, ResultDeliveryBuffers buffer) {
+        if (buffer == null) {
+            return convertRow(columns);
+        }
+        Object[] deliver = buffer.getRowParameters(columns.length + 1);
+        deliver[0] = statement;
+        System.arraycopy(columns, 0, deliver, 1, columns.length);
+        return deliver;
+    }
 }
@@ -22,4 +22,13 @@ public class DeliveryConvertorObjectArr implements DeliveryConvertor {
     public Object[] convertRow(Object[] columns) {
         return new Object[]{columns};
     }
+
+    public Object[] convertRow(Object[] columns, ResultDeliveryBuffers buffer) {
+        if (buffer == null) {
+            return convertRow(columns);
+        }
+        Object[] parameters = buffer.getRowParameters(1);
+        parameters[0] = columns;
+        return parameters;
+    }
 }
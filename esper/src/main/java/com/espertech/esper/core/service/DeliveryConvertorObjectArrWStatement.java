@@ -25,4 +25,14 @@ public class DeliveryConvertorObjectArrWStatement implements DeliveryConvertor {
     public Object[] convertRow(Object[] columns) {
         return new Object[]{statement, columns};
     }
+
+    public Object[] convertRow(Object[] columns, ResultDeliveryBuffers buffer) {
+        if (buffer == null) {
+            return convertRow(columns);
+        }
+        Object[] parameters = buffer.getRowParameters(2);
+        parameters[0] = statement;
+        parameters[1] = columns;
+        return parameters;
+    }
 }
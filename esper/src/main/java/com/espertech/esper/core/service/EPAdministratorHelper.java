@@ -68,6 +68,38 @@ public class EPAdministratorHelper {
                 services.getEngineImportService(), services.getVariableService(), services.getEngineURI(), services.getConfigSnapshot(), services.getPatternNodeFactory(), services.getContextManagementService(), services.getExprDeclaredService(), services.getTableService());
     }
 
+    /**
+     * Parse an EPL statement without walking the parse tree. Parsing does not depend on engine state and
+     * may be performed by multiple threads at the same time.
+     *
+     * @param eplStatement            to parse
+     * @param eplStatementForErrorMsg the statement to use for indicating error messages
+     * @param addPleaseCheck          true to add please-check message text
+     * @return parse result
+     */
+    public static ParseResult parseEPL(String eplStatement, String eplStatementForErrorMsg, boolean addPleaseCheck) {
+        return ParseHelper.parse(eplStatement, eplStatementForErrorMsg, addPleaseCheck, eplParseRule, true);
+    }
+
+    /**
+     * Compile an EPL statement that was parsed by {@link #parseEPL(String, String, boolean)}.
+     *
+     * @param parseResult             parse result
+     * @param eplStatement            statement text
+     * @param eplStatementForErrorMsg the statement to use for indicating error messages
+     * @param statementName           the name of statement
+     * @param services                engine services
+     * @param defaultStreamSelector   stream selector
+     * @return compiled statement
+     */
+    public static StatementSpecRaw compileEPL(ParseResult parseResult, String eplStatement, String eplStatementForErrorMsg, String statementName, EPServicesContext services, SelectClauseStreamSelectorEnum defaultStreamSelector) {
+        if (log.isDebugEnabled()) {
+            log.debug(".createEPLStmt statementName=" + statementName + " eplStatement=" + eplStatement);
+        }
+        return walkEPL(parseResult, eplStatement, eplStatementForErrorMsg, defaultStreamSelector,
+                services.getEngineImportService(), services.getVariableService(), services.getEngineURI(), services.getConfigSnapshot(), services.getPatternNodeFactory(), services.getContextManagementService(), services.getExprDeclaredService(), services.getTableService());
+    }
+
     public static StatementSpecRaw compileEPL(String eplStatement, String eplStatementForErrorMsg, boolean addPleaseCheck, String statementName, SelectClauseStreamSelectorEnum defaultStreamSelector,
                                               EngineImportService engineImportService,
                                               VariableService variableService,
@@ -82,6 +114,18 @@ public class EPAdministratorHelper {
         }
 
         ParseResult parseResult = ParseHelper.parse(eplStatement, eplStatementForErrorMsg, addPleaseCheck, eplParseRule, true);
+        return walkEPL(parseResult, eplStatement, eplStatementForErrorMsg, defaultStreamSelector, engineImportService, variableService, engineURI, configSnapshot, patternNodeFactory, contextManagementService, exprDeclaredService, tableService);
+    }
+
+    private static StatementSpecRaw walkEPL(ParseResult parseResult, String eplStatement, String eplStatementForErrorMsg, SelectClauseStreamSelectorEnum defaultStreamSelector,
+                                            EngineImportService engineImportService,
+                                            VariableService variableService,
+                                            String engineURI,
+                                            ConfigurationInformation configSnapshot,
+                                            PatternNodeFactory patternNodeFactory,
+                                            ContextManagementService contextManagementService,
+                                            ExprDeclaredService exprDeclaredService,
+                                            TableService tableService) {
         Tree ast = parseResult.getTree();
 
         EPLTreeWalkerListener walker = new EPLTreeWalkerListener(parseResult.getTokenStream(), engineImportService, variableService, defaultStreamSelector, engineURI, configSnapshot, patternNodeFactory, contextManagementService, parseResult.getScripts(), exprDeclaredService, tableService);
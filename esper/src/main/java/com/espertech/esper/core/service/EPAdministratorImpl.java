@@ -16,9 +16,12 @@ import com.espertech.esper.client.EPPreparedStatement;
 import com.espertech.esper.client.EPStatement;
 import com.espertech.esper.client.context.EPContextPartitionAdmin;
 import com.espertech.esper.client.deploy.EPDeploymentAdmin;
+import com.espertech.esper.client.snapshot.EPSnapshotAdmin;
 import com.espertech.esper.client.soda.*;
 import com.espertech.esper.core.deploy.EPDeploymentAdminImpl;
+import com.espertech.esper.core.snapshot.EPSnapshotAdminImpl;
 import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.parse.ParseResult;
 import com.espertech.esper.epl.specmapper.StatementSpecMapper;
 import com.espertech.esper.epl.specmapper.StatementSpecUnMapResult;
 import com.espertech.esper.epl.spec.*;
@@ -192,6 +195,23 @@ public class EPAdministratorImpl implements EPAdministratorSPI {
 
     public EPStatementObjectModel compileEPL(String eplStatement) throws EPException {
         StatementSpecRaw statementSpec = EPAdministratorHelper.compileEPL(eplStatement, eplStatement, true, null, services, defaultStreamSelector);
+        return unmapNoSubstitutionParams(statementSpec);
+    }
+
+    public EPStatementObjectModel compileEPL(String eplStatement, ParseResult parseResult) throws EPException {
+        StatementSpecRaw statementSpec = EPAdministratorHelper.compileEPL(parseResult, eplStatement, eplStatement, null, services, defaultStreamSelector);
+        return unmapNoSubstitutionParams(statementSpec);
+    }
+
+    public EPStatement createEPL(String eplStatement, ParseResult parseResult, String statementName, Object userObject) throws EPException {
+        StatementSpecRaw statementSpec = EPAdministratorHelper.compileEPL(parseResult, eplStatement, eplStatement, statementName, services, defaultStreamSelector);
+        EPStatement statement = services.getStatementLifecycleSvc().createAndStart(statementSpec, eplStatement, false, statementName, userObject, null, null, null);
+
+        log.debug(".createEPLStmt Statement created and started");
+        return statement;
+    }
+
+    private EPStatementObjectModel unmapNoSubstitutionParams(StatementSpecRaw statementSpec) {
         StatementSpecUnMapResult unmapped = StatementSpecMapper.unmap(statementSpec);
         if (unmapped.getSubstitutionParams().size() != 0) {
             throw new EPException(SUBS_PARAM_INVALID_USE);
@@ -293,5 +313,9 @@ public class EPAdministratorImpl implements EPAdministratorSPI {
         return new EPContextPartitionAdminImpl(services);
     }
 
+    public EPSnapshotAdmin getSnapshotAdmin() {
+        return new EPSnapshotAdminImpl(services);
+    }
+
     private final static Logger log = LoggerFactory.getLogger(EPAdministratorImpl.class);
 }
@@ -15,6 +15,7 @@ import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EPStatement;
 import com.espertech.esper.client.soda.*;
 import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.parse.ParseResult;
 import com.espertech.esper.epl.spec.StatementSpecRaw;
 import com.espertech.esper.pattern.EvalFactoryNode;
 
@@ -103,4 +104,8 @@ public interface EPAdministratorSPI extends EPAdministrator {
     public EPStatement createPreparedEPLStatementId(EPPreparedStatementImpl prepared, String statementName, Object userObject, int statementId) throws EPException;
 
     public String getStatementNameForId(int statementId);
+
+    public EPStatementObjectModel compileEPL(String eplStatement, ParseResult parseResult) throws EPException;
+
+    public EPStatement createEPL(String eplStatement, ParseResult parseResult, String statementName, Object userObject) throws EPException;
 }
@@ -23,6 +23,13 @@ public interface EPRuntimeEventSender {
      */
     public void processWrappedEvent(EventBean eventBean);
 
+    /**
+     * Equivalent to calling {@link #processWrappedEvent(EventBean)} for each event in array order.
+     *
+     * @param eventBeans are the event objects wrapped by an event bean providing the event metadata
+     */
+    public void processWrappedEvents(EventBean[] eventBeans);
+
     /**
      * For processing a routed event.
      *
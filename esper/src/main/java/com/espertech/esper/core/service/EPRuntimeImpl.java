@@ -64,6 +64,9 @@ import org.w3c.dom.Node;
 import java.lang.annotation.Annotation;
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -319,6 +322,55 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
     }
 
+    public void sendEvents(List<Map> maps, String mapEventTypeName) throws EPException {
+        if (maps == null) {
+            throw new IllegalArgumentException("Invalid null event batch");
+        }
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
+            log.debug(".sendEvents Processing batch of " + maps.size() + " map events");
+        }
+
+        EventBean[] eventBeans = new EventBean[maps.size()];
+        int count = 0;
+        for (Map map : maps) {
+            if (map == null) {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+            eventBeans[count++] = wrapEvent(map, mapEventTypeName);
+        }
+        sendWrappedEvents(eventBeans);
+    }
+
+    public void sendEvents(Object[][] objectArrays, String objectArrayEventTypeName) throws EPException {
+        if (objectArrays == null) {
+            throw new IllegalArgumentException("Invalid null event batch");
+        }
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
+            log.debug(".sendEvents Processing batch of " + objectArrays.length + " object-array events");
+        }
+
+        EventBean[] eventBeans = new EventBean[objectArrays.length];
+        for (int i = 0; i < objectArrays.length; i++) {
+            if (objectArrays[i] == null) {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+            eventBeans[i] = wrapEvent(objectArrays[i], objectArrayEventTypeName);
+        }
+        sendWrappedEvents(eventBeans);
+    }
+
+    private void sendWrappedEvents(EventBean[] eventBeans) {
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
+            for (EventBean eventBean : eventBeans) {
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(eventBean, this));
+            }
+        } else {
+            processWrappedEvents(eventBeans);
+        }
+    }
+
     public EventBean wrapEvent(Map map, String eventTypeName) {
         return services.getEventAdapterService().adapterForMap(map, eventTypeName);
     }
@@ -493,6 +545,60 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
     }
 
+    /**
+     * Process a batch of wrapped events.
+     * <p>
+     * Produces the same results in the same order as processing each event by itself:
+     * the event processing lock is held across consecutive events of the batch and released
+     * for dispatch and for working off the thread work queue whenever an event leaves results to dispatch
+     * or routed or inserted-into events behind.
+     *
+     * @param eventBeans events to process
+     */
+    public void processWrappedEvents(EventBean[] eventBeans) {
+        // Preprocessing and instrumentation are event-at-a-time
+        if (InstrumentationHelper.ENABLED || internalEventRouter.isHasPreprocessing()) {
+            for (EventBean eventBean : eventBeans) {
+                processWrappedEvent(eventBean);
+            }
+            return;
+        }
+
+        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
+        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
+        DualWorkQueue queues = threadWorkQueue.getThreadQueue();
+
+        int index = 0;
+        while (index < eventBeans.length) {
+            // Acquire main processing lock which locks out statement management, for a run of events
+            services.getEventProcessingRWLock().acquireReadLock();
+            try {
+                while (index < eventBeans.length) {
+                    processMatches(eventBeans[index++], matches, stmtCallbacks);
+                    if (!isThreadWorkEmpty(queues)) {
+                        break;
+                    }
+                }
+            } catch (RuntimeException ex) {
+                matches.clear();
+                throw new EPException(ex);
+            } finally {
+                services.getEventProcessingRWLock().releaseReadLock();
+            }
+
+            // Dispatch results to listeners
+            // Done outside of the read-lock to prevent lockups when listeners create statements
+            dispatch();
+
+            // Work off the event queue if any events accumulated in there via a route() or insert-into
+            processThreadWorkQueue();
+        }
+    }
+
+    private boolean isThreadWorkEmpty(DualWorkQueue queues) {
+        return services.getDispatchService().isEmpty() && queues.isEmpty() && !services.getNamedWindowDispatchService().hasDispatches();
+    }
+
     private void processTimeEvent(TimerEvent theEvent) {
         if (theEvent instanceof TimerControlEvent) {
             TimerControlEvent timerControlEvent = (TimerControlEvent) theEvent;
@@ -882,9 +988,19 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     }
 
     protected void processMatches(EventBean theEvent) {
+        processMatches(theEvent, matchesArrayThreadLocal.get(), matchesPerStmtThreadLocal.get());
+    }
+
+    private void processMatches(EventBean theEvent, ArrayBackedCollection<FilterHandle> matches, Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks) {
         // get matching filters
-        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
-        long version = services.getFilterService().evaluate(theEvent, matches);
+        long version;
+        if (MetricReportingPath.isLatencyEnabled) {
+            long wallTimeBefore = MetricUtil.getWall();
+            version = services.getFilterService().evaluate(theEvent, matches);
+            services.getMetricsReportingService().accountFilterLatency(MetricUtil.getWall() - wallTimeBefore);
+        } else {
+            version = services.getFilterService().evaluate(theEvent, matches);
+        }
 
         if (ThreadLogUtil.ENABLED_TRACE) {
             ThreadLogUtil.trace("Found matches for underlying ", matches.size(), theEvent.getUnderlying());
@@ -905,7 +1021,6 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             return;
         }
 
-        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
         Object[] matchArray = matches.getArray();
         int entryCount = matches.size();
 
@@ -1225,7 +1340,13 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
      */
     public void dispatch() {
         try {
-            services.getDispatchService().dispatch();
+            if (MetricReportingPath.isLatencyEnabled) {
+                long wallTimeBefore = MetricUtil.getWall();
+                services.getDispatchService().dispatch();
+                services.getMetricsReportingService().accountDispatchLatency(MetricUtil.getWall() - wallTimeBefore);
+            } else {
+                services.getDispatchService().dispatch();
+            }
         } catch (RuntimeException ex) {
             throw new EPException(ex);
         }
@@ -1402,6 +1523,25 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         return executeQueryInternal(epl, null, null, null);
     }
 
+    public CompletableFuture<EPOnDemandQueryResult> executeQueryAsync(String epl) {
+        return executeQueryAsyncInternal(epl, null);
+    }
+
+    public CompletableFuture<EPOnDemandQueryResult> executeQueryAsync(String epl, ContextPartitionSelector[] contextPartitionSelectors) {
+        if (contextPartitionSelectors == null) {
+            throw new IllegalArgumentException("No context partition selectors provided");
+        }
+        return executeQueryAsyncInternal(epl, contextPartitionSelectors);
+    }
+
+    private CompletableFuture<EPOnDemandQueryResult> executeQueryAsyncInternal(String epl, ContextPartitionSelector[] contextPartitionSelectors) {
+        Executor executor = services.getThreadingService().getFireAndForgetPool();
+        if (executor == null) {
+            executor = ForkJoinPool.commonPool();
+        }
+        return CompletableFuture.supplyAsync(() -> executeQueryInternal(epl, null, null, contextPartitionSelectors), executor);
+    }
+
     public EPOnDemandQueryResult executeQuery(EPStatementObjectModel model) {
         return executeQueryInternal(null, model, null, null);
     }
@@ -1528,6 +1668,22 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         return services.getEventAdapterService().getStaticTypeEventSender(this, eventTypeName, services.getThreadingService());
     }
 
+    public EventSenderBatch getEventSenderBatch(String eventTypeName) {
+        EventSender sender = services.getEventAdapterService().getStaticTypeEventSender(this, eventTypeName, services.getThreadingService());
+        if (!(sender instanceof EventSenderBatch)) {
+            throw new EventTypeException("An event sender for batches of event type named '" + eventTypeName + "' could not be created as the event representation does not support batches");
+        }
+        return (EventSenderBatch) sender;
+    }
+
+    public EventSenderKeyed getEventSenderKeyed(String eventTypeName) {
+        EventSender sender = services.getEventAdapterService().getStaticTypeEventSender(this, eventTypeName, services.getThreadingService());
+        if (!(sender instanceof EventSenderKeyed)) {
+            throw new EventTypeException("An event sender with partition key for event type named '" + eventTypeName + "' could not be created as the event representation does not support partition keys");
+        }
+        return (EventSenderKeyed) sender;
+    }
+
     public EventSender getEventSender(URI[] uri) throws EventTypeException {
         return services.getEventAdapterService().getDynamicTypeEventSender(this, uri, services.getThreadingService());
     }
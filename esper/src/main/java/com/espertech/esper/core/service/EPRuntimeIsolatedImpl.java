@@ -196,6 +196,12 @@ public class EPRuntimeIsolatedImpl implements EPRuntimeIsolatedSPI, InternalEven
         processThreadWorkQueue();
     }
 
+    public void processWrappedEvents(EventBean[] eventBeans) {
+        for (EventBean eventBean : eventBeans) {
+            processWrappedEvent(eventBean);
+        }
+    }
+
     private void processTimeEvent(TimerEvent theEvent) {
         if (theEvent instanceof TimerControlEvent) {
             TimerControlEvent tce = (TimerControlEvent) theEvent;
@@ -384,6 +384,8 @@ public class EPServiceProviderImpl implements EPServiceProviderSPI {
 
         // This setting applies to all engines in a given VM
         MetricReportingPath.setMetricsEnabled(configSnapshot.getEngineDefaults().getMetricsReporting().isEnableMetricsReporting());
+        MetricReportingPath.setLatencyEnabled(configSnapshot.getEngineDefaults().getMetricsReporting().isEnableMetricsReporting() &&
+                configSnapshot.getEngineDefaults().getMetricsReporting().isLatencyHistograms());
 
         // This setting applies to all engines in a given VM
         AuditPath.setAuditPattern(configSnapshot.getEngineDefaults().getLogging().getAuditPattern());
@@ -595,12 +597,19 @@ public class EPServiceProviderImpl implements EPServiceProviderSPI {
         CommonJMXUtil.registerMbean(services.getSchedulingService(), scheduleName);
         MetricName runtimeName = MetricNameFactory.name(services.getEngineURI(), "runtime");
         CommonJMXUtil.registerMbean(runtime, runtimeName);
+        if (services.getMetricsReportingService().getLatencyService() != null) {
+            MetricName latencyName = MetricNameFactory.name(services.getEngineURI(), "latency");
+            CommonJMXUtil.registerMbean(services.getMetricsReportingService().getLatencyService(), latencyName);
+        }
     }
 
     private synchronized void destroyEngineMetrics(String engineURI) {
         CommonJMXUtil.unregisterMbean(MetricNameFactory.name(engineURI, "filter"));
         CommonJMXUtil.unregisterMbean(MetricNameFactory.name(engineURI, "schedule"));
         CommonJMXUtil.unregisterMbean(MetricNameFactory.name(engineURI, "runtime"));
+        if (configSnapshot.getEngineDefaults().getMetricsReporting().isLatencyHistograms()) {
+            CommonJMXUtil.unregisterMbean(MetricNameFactory.name(engineURI, "latency"));
+        }
     }
 
     /**
@@ -13,6 +13,7 @@ package com.espertech.esper.core.service;
 import com.espertech.esper.client.*;
 import com.espertech.esper.client.hook.*;
 import com.espertech.esper.codegen.compile.CodegenCompiler;
+import com.espertech.esper.codegen.compile.CodegenClassCache;
 import com.espertech.esper.codegen.compile.CodegenCompilerJanino;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.context.activator.ViewableActivatorFactoryDefault;
@@ -84,6 +85,7 @@ import com.espertech.esper.view.stream.StreamFactoryServiceProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.Serializable;
 import java.lang.reflect.Array;
 import java.net.URI;
@@ -133,7 +135,7 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
         ManagedReadWriteLock eventProcessingRWLock = new ManagedReadWriteLock("EventProcLock", false);
 
         TimeSourceService timeSourceService = makeTimeSource(configSnapshot);
-        SchedulingServiceSPI schedulingService = SchedulingServiceProvider.newService(timeSourceService);
+        SchedulingServiceSPI schedulingService = SchedulingServiceProvider.newService(configSnapshot.getEngineDefaults().getExecution().getSchedulingServiceProfile(), timeSourceService);
         SchedulingMgmtService schedulingMgmtService = new SchedulingMgmtServiceImpl();
         EngineSettingsService engineSettingsService = new EngineSettingsService(configSnapshot.getEngineDefaults(), configSnapshot.getPlugInEventTypeResolutionURIs());
         DatabaseConfigService databaseConfigService = makeDatabaseRefService(configSnapshot, schedulingService, schedulingMgmtService, engineImportService);
@@ -532,8 +534,13 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
         }
 
         CodegenCompiler codegenCompiler = null;
-        if (configSnapshot.getEngineDefaults().getByteCodeGeneration().isEnabledAny()) {
-            codegenCompiler = new CodegenCompilerJanino(engineURI, configSnapshot.getEngineDefaults().getLogging().isEnableCode(), configSnapshot.getEngineDefaults().getByteCodeGeneration().isIncludeDebugSymbols());
+        ConfigurationEngineDefaults.ByteCodeGeneration byteCodeGeneration = configSnapshot.getEngineDefaults().getByteCodeGeneration();
+        if (byteCodeGeneration.isEnabledAny()) {
+            CodegenClassCache classCache = null;
+            if (byteCodeGeneration.isEnableCache()) {
+                classCache = new CodegenClassCache(byteCodeGeneration.getCacheDirectory() == null ? null : new File(byteCodeGeneration.getCacheDirectory()));
+            }
+            codegenCompiler = new CodegenCompilerJanino(engineURI, configSnapshot.getEngineDefaults().getLogging().isEnableCode(), byteCodeGeneration.isIncludeDebugSymbols(), classCache);
         }
 
         ConfigurationEngineDefaults.Expression expression = configSnapshot.getEngineDefaults().getExpression();
@@ -11,8 +11,10 @@
 package com.espertech.esper.core.service;
 
 import com.espertech.esper.client.*;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.context.ContextPartitionSelector;
 import com.espertech.esper.dispatch.DispatchService;
+import com.espertech.esper.epl.agg.service.groupall.AggSvcGroupAllPartialMerger;
 import com.espertech.esper.timer.TimeSourceService;
 import com.espertech.esper.view.Viewable;
 import org.slf4j.Logger;
@@ -22,6 +24,7 @@ import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Map;
 
 /**
  * Statement implementation for EPL statements.
@@ -204,6 +207,18 @@ public class EPStatementImpl implements EPStatementSPI {
         return statementContext.getContextDescriptor().safeIterator(statementContext.getStatementId(), selector);
     }
 
+    public Map<String, Object> getMergedAggregations() {
+        if (HintEnum.PARTIAL_AGGREGATION.getHint(statementContext.getAnnotations()) == null) {
+            throw new UnsupportedOperationException("Merged aggregations are only supported for statements that specify the '" + HintEnum.PARTIAL_AGGREGATION + "' hint");
+        }
+
+        // Return null if not started
+        if (parentView == null) {
+            return null;
+        }
+        return AggSvcGroupAllPartialMerger.merge(statementContext);
+    }
+
     public Iterator<EventBean> iterator() {
         // Return null if not started
         statementContext.getVariableService().setLocalVersion();
@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.core.service;
 
+import com.espertech.esper.client.NonRetainingResultReceiver;
 import com.espertech.esper.client.StatementAwareUpdateListener;
 import com.espertech.esper.client.UpdateListener;
 import com.espertech.esper.util.CollectionUtil;
@@ -186,4 +187,32 @@ public class EPStatementListenerSet {
     public String getSubscriberMethodName() {
         return subscriberMethodName;
     }
+
+    /**
+     * Returns indicator whether there is at least one listener or subscriber and all listeners and the subscriber
+     * declare that they do not retain the delivered arrays.
+     *
+     * @return true for all receivers implementing {@link NonRetainingResultReceiver}
+     */
+    public boolean isNonRetaining() {
+        UpdateListener[] listeners = this.listeners;
+        StatementAwareUpdateListener[] stmtAwareListeners = this.stmtAwareListeners;
+        if (listeners.length == 0 && stmtAwareListeners.length == 0 && subscriber == null) {
+            return false;
+        }
+        if (subscriber != null && !(subscriber instanceof NonRetainingResultReceiver)) {
+            return false;
+        }
+        for (UpdateListener listener : listeners) {
+            if (!(listener instanceof NonRetainingResultReceiver)) {
+                return false;
+            }
+        }
+        for (StatementAwareUpdateListener listener : stmtAwareListeners) {
+            if (!(listener instanceof NonRetainingResultReceiver)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,145 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.service;
+
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reusable per-thread arrays for delivering results to a subscriber that implements
+ * {@link com.espertech.esper.client.NonRetainingResultReceiver}.
+ * <p>
+ * Buffers are acquired for the duration of a single delivery. A nested delivery on the same thread, for example
+ * when the subscriber sends an event that produces output for the same statement, finds the buffers in use
+ * and falls back to allocating.
+ */
+public class ResultDeliveryBuffers {
+    private final Class rowType;
+    private final Object[] parameters;
+    private Object[] newRows;
+    private Object[] oldRows;
+    private Object[] rowParameters;
+    private Map<String, Object> map;
+    private boolean inUse;
+
+    /**
+     * Ctor.
+     *
+     * @param rowType       type of each row, i.e. the component type of row arrays
+     * @param numParameters number of parameters of the subscriber method
+     */
+    public ResultDeliveryBuffers(Class rowType, int numParameters) {
+        this.rowType = rowType;
+        this.parameters = new Object[numParameters];
+    }
+
+    /**
+     * Returns a thread-local that provides buffers for the current thread.
+     *
+     * @param rowType       type of each row
+     * @param numParameters number of parameters of the subscriber method
+     * @return thread-local
+     */
+    public static ThreadLocal<ResultDeliveryBuffers> makeThreadLocal(Class rowType, int numParameters) {
+        return ThreadLocal.withInitial(() -> new ResultDeliveryBuffers(rowType, numParameters));
+    }
+
+    /**
+     * Acquires the buffers of the current thread.
+     *
+     * @param buffers thread-local, or null when the subscriber retains results
+     * @return buffers or null if buffers cannot be used and the caller must allocate
+     */
+    public static ResultDeliveryBuffers acquire(ThreadLocal<ResultDeliveryBuffers> buffers) {
+        if (buffers == null) {
+            return null;
+        }
+        ResultDeliveryBuffers current = buffers.get();
+        if (current.inUse) {
+            return null;
+        }
+        current.inUse = true;
+        return current;
+    }
+
+    /**
+     * Releases the buffers after delivery.
+     */
+    public void release() {
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = null;
+        }
+        if (rowParameters != null) {
+            for (int i = 0; i < rowParameters.length; i++) {
+                rowParameters[i] = null;
+            }
+        }
+        if (map != null) {
+            map.clear();
+        }
+        inUse = false;
+    }
+
+    /**
+     * Returns the parameter array.
+     *
+     * @return parameters
+     */
+    public Object[] getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns the parameter array for delivering a single row, of the exact length requested.
+     *
+     * @param length number of parameters
+     * @return parameters
+     */
+    public Object[] getRowParameters(int length) {
+        if (rowParameters == null || rowParameters.length != length) {
+            rowParameters = new Object[length];
+        }
+        return rowParameters;
+    }
+
+    /**
+     * Returns the map for delivering a single row as a map.
+     *
+     * @return map
+     */
+    public Map<String, Object> getMap() {
+        if (map == null) {
+            map = new HashMap<String, Object>();
+        }
+        return map;
+    }
+
+    /**
+     * Returns a row array of the exact length requested, reusing the last array if the length is the same.
+     *
+     * @param insertStream true for the insert stream rows, false for the remove stream rows
+     * @param length       number of rows
+     * @return array of rows
+     */
+    public Object[] getRows(boolean insertStream, int length) {
+        Object[] rows = insertStream ? newRows : oldRows;
+        if (rows == null || rows.length != length) {
+            rows = (Object[]) Array.newInstance(rowType, length);
+            if (insertStream) {
+                newRows = rows;
+            } else {
+                oldRows = rows;
+            }
+        }
+        return rows;
+    }
+}
@@ -51,6 +51,7 @@ public class ResultDeliveryStrategyFactory {
      * @param methodName          method name
      * @param engineURI           engine URI
      * @param engineImportService engine imports
+     * @param nonRetaining        indicator whether the subscriber does not retain the arrays delivered, allowing reuse
      * @return strategy for dispatching naturals
      * @throws EPSubscriberException if the subscriber is invalid
      */
@@ -58,7 +59,8 @@ public class ResultDeliveryStrategyFactory {
                                                 Class[] selectClauseTypes,
                                                 String[] selectClauseColumns,
                                                 String engineURI,
-                                                EngineImportService engineImportService)
+                                                EngineImportService engineImportService,
+                                                boolean nonRetaining)
             throws EPSubscriberException {
         if (selectClauseTypes == null) {
             selectClauseTypes = new Class[0];
@@ -241,12 +243,12 @@ public class ResultDeliveryStrategyFactory {
         boolean firstParameterIsEPStatement = isFirstParameterEPStatement(subscriptionMethod);
         if (isMapArrayDelivery) {
             return firstParameterIsEPStatement ?
-                    new ResultDeliveryStrategyMapWStmt(statement, subscriber, subscriptionMethod, selectClauseColumns, engineImportService) :
-                    new ResultDeliveryStrategyMap(statement, subscriber, subscriptionMethod, selectClauseColumns, engineImportService);
+                    new ResultDeliveryStrategyMapWStmt(statement, subscriber, subscriptionMethod, selectClauseColumns, engineImportService, nonRetaining) :
+                    new ResultDeliveryStrategyMap(statement, subscriber, subscriptionMethod, selectClauseColumns, engineImportService, nonRetaining);
         } else if (isObjectArrayDelivery) {
             return firstParameterIsEPStatement ?
-                    new ResultDeliveryStrategyObjectArrWStmt(statement, subscriber, subscriptionMethod, engineImportService) :
-                    new ResultDeliveryStrategyObjectArr(statement, subscriber, subscriptionMethod, engineImportService);
+                    new ResultDeliveryStrategyObjectArrWStmt(statement, subscriber, subscriptionMethod, engineImportService, nonRetaining) :
+                    new ResultDeliveryStrategyObjectArr(statement, subscriber, subscriptionMethod, engineImportService, nonRetaining);
         } else if (isTypeArrayDelivery) {
             return firstParameterIsEPStatement ?
                     new ResultDeliveryStrategyTypeArrWStmt(statement, subscriber, subscriptionMethod, subscriptionMethod.getParameterTypes()[1].getComponentType(), engineImportService) :
@@ -313,7 +315,7 @@ public class ResultDeliveryStrategyFactory {
             }
         }
 
-        return new ResultDeliveryStrategyImpl(statement, subscriber, convertor, subscriptionMethod, startMethod, endMethod, rStreamMethod, engineImportService);
+        return new ResultDeliveryStrategyImpl(statement, subscriber, convertor, subscriptionMethod, startMethod, endMethod, rStreamMethod, engineImportService, nonRetaining);
     }
 
     private static DeliveryConvertor determineWideningDeliveryConvertor(boolean firstParameterIsEPStatement, EPStatement statement, Class[] selectClauseTypes, Class[] parameterTypes, Method method, String engineURI) {
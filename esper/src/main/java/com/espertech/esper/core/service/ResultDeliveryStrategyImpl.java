@@ -42,6 +42,8 @@ public class ResultDeliveryStrategyImpl implements ResultDeliveryStrategy {
     private final boolean endMethodHasEPStatement;
     private final FastMethod updateRStreamMethodFast;
     private final DeliveryConvertor deliveryConvertor;
+    private final Object[] endMethodParameters;
+    private final ThreadLocal<ResultDeliveryBuffers> buffers;
 
     /**
      * Ctor.
@@ -54,8 +56,9 @@ public class ResultDeliveryStrategyImpl implements ResultDeliveryStrategy {
      * @param rStreamMethod     to deliver the remove stream to, or null if no such indication is required
      * @param statement         statement
      * @param engineImportService engine imports
+     * @param nonRetaining      indicator whether the subscriber does not retain the parameters delivered
      */
-    public ResultDeliveryStrategyImpl(EPStatement statement, Object subscriber, DeliveryConvertor deliveryConvertor, Method method, Method startMethod, Method endMethod, Method rStreamMethod, EngineImportService engineImportService) {
+    public ResultDeliveryStrategyImpl(EPStatement statement, Object subscriber, DeliveryConvertor deliveryConvertor, Method method, Method startMethod, Method endMethod, Method rStreamMethod, EngineImportService engineImportService, boolean nonRetaining) {
         this.statement = statement;
         this.subscriber = subscriber;
         this.deliveryConvertor = deliveryConvertor;
@@ -77,6 +80,8 @@ public class ResultDeliveryStrategyImpl implements ResultDeliveryStrategy {
             this.endMethodFast = null;
             this.endMethodHasEPStatement = false;
         }
+        this.endMethodParameters = endMethodHasEPStatement ? new Object[]{statement} : null;
+        this.buffers = nonRetaining ? ResultDeliveryBuffers.makeThreadLocal(Object.class, startMethodHasEPStatement ? 3 : 2) : null;
 
         if (rStreamMethod != null) {
             updateRStreamMethodFast = fastClass.getMethod(rStreamMethod);
@@ -86,6 +91,17 @@ public class ResultDeliveryStrategyImpl implements ResultDeliveryStrategy {
     }
 
     public void execute(UniformPair<EventBean[]> result) {
+        ResultDeliveryBuffers buffer = ResultDeliveryBuffers.acquire(buffers);
+        try {
+            execute(result, buffer);
+        } finally {
+            if (buffer != null) {
+                buffer.release();
+            }
+        }
+    }
+
+    private void execute(UniformPair<EventBean[]> result, ResultDeliveryBuffers buffer) {
         if (startMethodFast != null) {
             int countNew = 0;
             int countOld = 0;
@@ -95,7 +111,15 @@ public class ResultDeliveryStrategyImpl implements ResultDeliveryStrategy {
             }
 
             Object[] parameters;
-            if (!startMethodHasEPStatement) {
+            if (buffer != null) {
+                parameters = buffer.getParameters();
+                int index = 0;
+                if (startMethodHasEPStatement) {
+                    parameters[index++] = statement;
+                }
+                parameters[index++] = countNew;
+                parameters[index] = countOld;
+            } else if (!startMethodHasEPStatement) {
                 parameters = new Object[]{countNew, countOld};
             } else {
                 parameters = new Object[]{statement, countNew, countOld};
@@ -121,7 +145,7 @@ public class ResultDeliveryStrategyImpl implements ResultDeliveryStrategy {
                 EventBean theEvent = newData[i];
                 if (theEvent instanceof NaturalEventBean) {
                     NaturalEventBean natural = (NaturalEventBean) theEvent;
-                    Object[] parameters = deliveryConvertor.convertRow(natural.getNatural());
+                    Object[] parameters = deliveryConvertor.convertRow(natural.getNatural(), buffer);
                     try {
                         updateMethodFast.invoke(subscriber, parameters);
                     } catch (InvocationTargetException e) {
@@ -138,7 +162,7 @@ public class ResultDeliveryStrategyImpl implements ResultDeliveryStrategy {
                 EventBean theEvent = oldData[i];
                 if (theEvent instanceof NaturalEventBean) {
                     NaturalEventBean natural = (NaturalEventBean) theEvent;
-                    Object[] parameters = deliveryConvertor.convertRow(natural.getNatural());
+                    Object[] parameters = deliveryConvertor.convertRow(natural.getNatural(), buffer);
                     try {
                         updateRStreamMethodFast.invoke(subscriber, parameters);
                     } catch (InvocationTargetException e) {
@@ -151,9 +175,8 @@ public class ResultDeliveryStrategyImpl implements ResultDeliveryStrategy {
         }
 
         if (endMethodFast != null) {
-            Object[] parameters = endMethodHasEPStatement ? new Object[]{statement} : null;
             try {
-                endMethodFast.invoke(subscriber, parameters);
+                endMethodFast.invoke(subscriber, endMethodParameters);
             } catch (InvocationTargetException e) {
                 handle(statement.getName(), log, e, null, subscriber, endMethodFast);
             } catch (Throwable t) {
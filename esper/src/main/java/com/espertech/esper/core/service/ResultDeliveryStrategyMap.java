@@ -34,6 +34,7 @@ public class ResultDeliveryStrategyMap implements ResultDeliveryStrategy {
     protected final Object subscriber;
     protected final FastMethod fastMethod;
     protected final String[] columnNames;
+    private final ThreadLocal<ResultDeliveryBuffers> buffers;
 
     /**
      * Ctor.
@@ -43,46 +44,92 @@ public class ResultDeliveryStrategyMap implements ResultDeliveryStrategy {
      * @param columnNames the column names for the map
      * @param statement   statement
      * @param engineImportService engine imports
+     * @param nonRetaining indicator whether the subscriber does not retain the arrays and maps delivered
      */
-    public ResultDeliveryStrategyMap(EPStatement statement, Object subscriber, Method method, String[] columnNames, EngineImportService engineImportService) {
+    public ResultDeliveryStrategyMap(EPStatement statement, Object subscriber, Method method, String[] columnNames, EngineImportService engineImportService, boolean nonRetaining) {
+        this(statement, subscriber, method, columnNames, engineImportService, nonRetaining, 2);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param subscriber  the object to deliver to
+     * @param method      the delivery method
+     * @param columnNames the column names for the map
+     * @param statement   statement
+     * @param engineImportService engine imports
+     * @param nonRetaining indicator whether the subscriber does not retain the arrays and maps delivered
+     * @param numParameters number of parameters of the method
+     */
+    protected ResultDeliveryStrategyMap(EPStatement statement, Object subscriber, Method method, String[] columnNames, EngineImportService engineImportService, boolean nonRetaining, int numParameters) {
         this.statement = statement;
         this.subscriber = subscriber;
         FastClass fastClass = FastClass.create(engineImportService.getFastClassClassLoader(subscriber.getClass()), subscriber.getClass());
         this.fastMethod = fastClass.getMethod(method);
         this.columnNames = columnNames;
+        this.buffers = nonRetaining ? ResultDeliveryBuffers.makeThreadLocal(Map.class, numParameters) : null;
     }
 
     public void execute(UniformPair<EventBean[]> result) {
-        Map[] newData;
-        Map[] oldData;
+        ResultDeliveryBuffers buffer = ResultDeliveryBuffers.acquire(buffers);
+        try {
+            Map[] newData;
+            Map[] oldData;
 
-        if (result == null) {
-            newData = null;
-            oldData = null;
-        } else {
-            newData = convert(result.getFirst());
-            oldData = convert(result.getSecond());
+            if (result == null) {
+                newData = null;
+                oldData = null;
+            } else {
+                newData = convert(result.getFirst(), buffer, true);
+                oldData = convert(result.getSecond(), buffer, false);
+            }
+
+            Object[] parameters = makeParameters(newData, oldData, buffer);
+            try {
+                fastMethod.invoke(subscriber, parameters);
+            } catch (InvocationTargetException e) {
+                ResultDeliveryStrategyImpl.handle(statement.getName(), log, e, parameters, subscriber, fastMethod);
+            }
+        } finally {
+            if (buffer != null) {
+                buffer.release();
+            }
         }
+    }
 
-        Object[] parameters = new Object[]{newData, oldData};
-        try {
-            fastMethod.invoke(subscriber, parameters);
-        } catch (InvocationTargetException e) {
-            ResultDeliveryStrategyImpl.handle(statement.getName(), log, e, parameters, subscriber, fastMethod);
+    /**
+     * Returns the parameters for invoking the method.
+     *
+     * @param newData insert stream rows
+     * @param oldData remove stream rows
+     * @param buffer  reusable buffers or null if allocating
+     * @return parameters
+     */
+    protected Object[] makeParameters(Map[] newData, Map[] oldData, ResultDeliveryBuffers buffer) {
+        if (buffer == null) {
+            return new Object[]{newData, oldData};
         }
+        Object[] parameters = buffer.getParameters();
+        parameters[0] = newData;
+        parameters[1] = oldData;
+        return parameters;
     }
 
     protected Map[] convert(EventBean[] events) {
+        return convert(events, null, true);
+    }
+
+    private Map[] convert(EventBean[] events, ResultDeliveryBuffers buffer, boolean insertStream) {
         if ((events == null) || (events.length == 0)) {
             return null;
         }
 
-        Map[] result = new Map[events.length];
+        Map[] result = buffer == null ? new Map[events.length] : (Map[]) buffer.getRows(insertStream, events.length);
         int length = 0;
         for (int i = 0; i < result.length; i++) {
             if (events[i] instanceof NaturalEventBean) {
                 NaturalEventBean natural = (NaturalEventBean) events[i];
-                result[length] = convert(natural);
+                result[length] = convert(natural, buffer == null ? null : result[length]);
                 length++;
             }
         }
@@ -98,8 +145,8 @@ public class ResultDeliveryStrategyMap implements ResultDeliveryStrategy {
         return result;
     }
 
-    private Map convert(NaturalEventBean natural) {
-        Map<String, Object> map = new HashMap<String, Object>();
+    private Map convert(NaturalEventBean natural, Map reused) {
+        Map<String, Object> map = reused == null ? new HashMap<String, Object>() : reused;
         Object[] columns = natural.getNatural();
         for (int i = 0; i < columns.length; i++) {
             map.put(columnNames[i], columns[i]);
@@ -11,42 +11,25 @@
 package com.espertech.esper.core.service;
 
 import com.espertech.esper.client.EPStatement;
-import com.espertech.esper.client.EventBean;
-import com.espertech.esper.collection.UniformPair;
 import com.espertech.esper.epl.core.engineimport.EngineImportService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Map;
 
 public class ResultDeliveryStrategyMapWStmt extends ResultDeliveryStrategyMap {
-
-    private final static Logger log = LoggerFactory.getLogger(ResultDeliveryStrategyMapWStmt.class);
-
-    public ResultDeliveryStrategyMapWStmt(EPStatement statement, Object subscriber, Method method, String[] columnNames, EngineImportService engineImportService) {
-        super(statement, subscriber, method, columnNames, engineImportService);
+    public ResultDeliveryStrategyMapWStmt(EPStatement statement, Object subscriber, Method method, String[] columnNames, EngineImportService engineImportService, boolean nonRetaining) {
+        super(statement, subscriber, method, columnNames, engineImportService, nonRetaining, 3);
     }
 
     @Override
-    public void execute(UniformPair<EventBean[]> result) {
-        Map[] newData;
-        Map[] oldData;
-
-        if (result == null) {
-            newData = null;
-            oldData = null;
-        } else {
-            newData = convert(result.getFirst());
-            oldData = convert(result.getSecond());
-        }
-
-        Object[] parameters = new Object[]{statement, newData, oldData};
-        try {
-            fastMethod.invoke(subscriber, parameters);
-        } catch (InvocationTargetException e) {
-            ResultDeliveryStrategyImpl.handle(statement.getName(), log, e, parameters, subscriber, fastMethod);
+    protected Object[] makeParameters(Map[] newData, Map[] oldData, ResultDeliveryBuffers buffer) {
+        if (buffer == null) {
+            return new Object[]{statement, newData, oldData};
         }
+        Object[] parameters = buffer.getParameters();
+        parameters[0] = statement;
+        parameters[1] = newData;
+        parameters[2] = oldData;
+        return parameters;
     }
 }
@@ -31,6 +31,7 @@ public class ResultDeliveryStrategyObjectArr implements ResultDeliveryStrategy {
     protected final EPStatement statement;
     protected final Object subscriber;
     protected final FastMethod fastMethod;
+    private final ThreadLocal<ResultDeliveryBuffers> buffers;
 
     /**
      * Ctor.
@@ -39,40 +40,85 @@ public class ResultDeliveryStrategyObjectArr implements ResultDeliveryStrategy {
      * @param method     the method to invoke
      * @param statement  statement
      * @param engineImportService engine imports
+     * @param nonRetaining indicator whether the subscriber does not retain the arrays delivered
      */
-    public ResultDeliveryStrategyObjectArr(EPStatement statement, Object subscriber, Method method, EngineImportService engineImportService) {
+    public ResultDeliveryStrategyObjectArr(EPStatement statement, Object subscriber, Method method, EngineImportService engineImportService, boolean nonRetaining) {
+        this(statement, subscriber, method, engineImportService, nonRetaining, 2);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param subscriber is the subscriber to deliver to
+     * @param method     the method to invoke
+     * @param statement  statement
+     * @param engineImportService engine imports
+     * @param nonRetaining indicator whether the subscriber does not retain the arrays delivered
+     * @param numParameters number of parameters of the method
+     */
+    protected ResultDeliveryStrategyObjectArr(EPStatement statement, Object subscriber, Method method, EngineImportService engineImportService, boolean nonRetaining, int numParameters) {
         this.statement = statement;
         this.subscriber = subscriber;
         FastClass fastClass = FastClass.create(engineImportService.getFastClassClassLoader(subscriber.getClass()), subscriber.getClass());
         this.fastMethod = fastClass.getMethod(method);
+        this.buffers = nonRetaining ? ResultDeliveryBuffers.makeThreadLocal(Object[].class, numParameters) : null;
     }
 
     public void execute(UniformPair<EventBean[]> result) {
-        Object[][] newData;
-        Object[][] oldData;
+        ResultDeliveryBuffers buffer = ResultDeliveryBuffers.acquire(buffers);
+        try {
+            Object[][] newData;
+            Object[][] oldData;
 
-        if (result == null) {
-            newData = null;
-            oldData = null;
-        } else {
-            newData = convert(result.getFirst());
-            oldData = convert(result.getSecond());
+            if (result == null) {
+                newData = null;
+                oldData = null;
+            } else {
+                newData = convert(result.getFirst(), buffer, true);
+                oldData = convert(result.getSecond(), buffer, false);
+            }
+
+            Object[] parameters = makeParameters(newData, oldData, buffer);
+            try {
+                fastMethod.invoke(subscriber, parameters);
+            } catch (InvocationTargetException e) {
+                ResultDeliveryStrategyImpl.handle(statement.getName(), log, e, parameters, subscriber, fastMethod);
+            }
+        } finally {
+            if (buffer != null) {
+                buffer.release();
+            }
         }
+    }
 
-        Object[] parameters = new Object[]{newData, oldData};
-        try {
-            fastMethod.invoke(subscriber, parameters);
-        } catch (InvocationTargetException e) {
-            ResultDeliveryStrategyImpl.handle(statement.getName(), log, e, parameters, subscriber, fastMethod);
+    /**
+     * Returns the parameters for invoking the method.
+     *
+     * @param newData insert stream rows
+     * @param oldData remove stream rows
+     * @param buffer  reusable buffers or null if allocating
+     * @return parameters
+     */
+    protected Object[] makeParameters(Object[][] newData, Object[][] oldData, ResultDeliveryBuffers buffer) {
+        if (buffer == null) {
+            return new Object[]{newData, oldData};
         }
+        Object[] parameters = buffer.getParameters();
+        parameters[0] = newData;
+        parameters[1] = oldData;
+        return parameters;
     }
 
     protected Object[][] convert(EventBean[] events) {
+        return convert(events, null, true);
+    }
+
+    private Object[][] convert(EventBean[] events, ResultDeliveryBuffers buffer, boolean insertStream) {
         if ((events == null) || (events.length == 0)) {
             return null;
         }
 
-        Object[][] result = new Object[events.length][];
+        Object[][] result = buffer == null ? new Object[events.length][] : (Object[][]) buffer.getRows(insertStream, events.length);
         int length = 0;
         for (int i = 0; i < result.length; i++) {
             if (events[i] instanceof NaturalEventBean) {
@@ -11,43 +11,27 @@
 package com.espertech.esper.core.service;
 
 import com.espertech.esper.client.EPStatement;
-import com.espertech.esper.client.EventBean;
-import com.espertech.esper.collection.UniformPair;
 import com.espertech.esper.epl.core.engineimport.EngineImportService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 /**
  * A result delivery strategy that uses an "update" method that accepts a pair of object array array.
  */
 public class ResultDeliveryStrategyObjectArrWStmt extends ResultDeliveryStrategyObjectArr {
-    private final static Logger log = LoggerFactory.getLogger(ResultDeliveryStrategyObjectArrWStmt.class);
-
-    public ResultDeliveryStrategyObjectArrWStmt(EPStatement statement, Object subscriber, Method method, EngineImportService engineImportService) {
-        super(statement, subscriber, method, engineImportService);
+    public ResultDeliveryStrategyObjectArrWStmt(EPStatement statement, Object subscriber, Method method, EngineImportService engineImportService, boolean nonRetaining) {
+        super(statement, subscriber, method, engineImportService, nonRetaining, 3);
     }
 
     @Override
-    public void execute(UniformPair<EventBean[]> result) {
-        Object[][] newData;
-        Object[][] oldData;
-
-        if (result == null) {
-            newData = null;
-            oldData = null;
-        } else {
-            newData = convert(result.getFirst());
-            oldData = convert(result.getSecond());
-        }
-
-        Object[] parameters = new Object[]{statement, newData, oldData};
-        try {
-            fastMethod.invoke(subscriber, parameters);
-        } catch (InvocationTargetException e) {
-            ResultDeliveryStrategyImpl.handle(statement.getName(), log, e, parameters, subscriber, fastMethod);
+    protected Object[] makeParameters(Object[][] newData, Object[][] oldData, ResultDeliveryBuffers buffer) {
+        if (buffer == null) {
+            return new Object[]{statement, newData, oldData};
         }
+        Object[] parameters = buffer.getParameters();
+        parameters[0] = statement;
+        parameters[1] = newData;
+        parameters[2] = oldData;
+        return parameters;
     }
 }
@@ -70,6 +70,7 @@ public class StatementResultServiceImpl implements StatementResultService {
     private boolean isMakeNatural;
     private boolean isMakeSynthetic;
     private ResultDeliveryStrategy statementResultNaturalStrategy;
+    private boolean isNonRetaining;
 
     private Set<StatementResultListener> statementOutputHooks;
 
@@ -164,6 +165,8 @@ public class StatementResultServiceImpl implements StatementResultService {
         }
 
         this.statementListenerSet = updateListeners;
+        isNonRetaining = statementListenerSet.isNonRetaining() &&
+                !(ThreadingOption.isThreadingEnabled && threadingService.isOutboundThreading());
 
         isMakeNatural = statementListenerSet.getSubscriber() != null;
         isMakeSynthetic = !(statementListenerSet.getListeners().length == 0 && statementListenerSet.getStmtAwareListeners().length == 0)
@@ -176,7 +179,7 @@ public class StatementResultServiceImpl implements StatementResultService {
         }
 
         statementResultNaturalStrategy = ResultDeliveryStrategyFactory.create(epStatement, statementListenerSet.getSubscriber(), statementListenerSet.getSubscriberMethodName(),
-                selectClauseTypes, selectClauseColumnNames, epServiceProvider.getURI(), epServiceProvider.getEngineImportService());
+                selectClauseTypes, selectClauseColumnNames, epServiceProvider.getURI(), epServiceProvider.getEngineImportService(), isNonRetaining);
         isMakeNatural = true;
     }
 
@@ -234,17 +237,20 @@ public class StatementResultServiceImpl implements StatementResultService {
         // Discrete delivery
         if ((groupDeliveryExpressions == null) || (groupDeliveryExpressions.length == 0)) {
             UniformPair<EventBean[]> todeliver = new UniformPair<EventBean[]>(null, null);
+            boolean reuse = isNonRetaining && !(AuditPath.isAuditEnabled && !statementOutputHooks.isEmpty());
             if (events != null) {
                 if (events.getFirst() != null) {
+                    EventBean[] single = reuse ? new EventBean[1] : null;
                     for (EventBean theEvent : events.getFirst()) {
-                        todeliver.setFirst(new EventBean[]{theEvent});
+                        todeliver.setFirst(makeSingle(single, theEvent));
                         dispatchInternal(todeliver);
                     }
                     todeliver.setFirst(null);
                 }
                 if (events.getSecond() != null) {
+                    EventBean[] single = reuse ? new EventBean[1] : null;
                     for (EventBean theEvent : events.getSecond()) {
-                        todeliver.setSecond(new EventBean[]{theEvent});
+                        todeliver.setSecond(makeSingle(single, theEvent));
                         dispatchInternal(todeliver);
                     }
                     todeliver.setSecond(null);
@@ -269,6 +275,14 @@ public class StatementResultServiceImpl implements StatementResultService {
         }
     }
 
+    private static EventBean[] makeSingle(EventBean[] reused, EventBean theEvent) {
+        if (reused == null) {
+            return new EventBean[]{theEvent};
+        }
+        reused[0] = theEvent;
+        return reused;
+    }
+
     private Map<Object, UniformPair<EventBean[]>> getGroupedResults(UniformPair<EventBean[]> events) {
         if (events == null) {
             return Collections.emptyMap();
@@ -0,0 +1,381 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.snapshot;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.snapshot.EPSnapshotAdmin;
+import com.espertech.esper.core.service.EPServicesContext;
+import com.espertech.esper.core.service.StatementAgentInstanceLock;
+import com.espertech.esper.epl.agg.aggregator.AggregatorStateUtil;
+import com.espertech.esper.epl.agg.service.common.AggregationRowPair;
+import com.espertech.esper.epl.named.NamedWindowProcessor;
+import com.espertech.esper.epl.named.NamedWindowProcessorInstance;
+import com.espertech.esper.epl.table.mgmt.TableMetadata;
+import com.espertech.esper.epl.table.mgmt.TableMetadataColumn;
+import com.espertech.esper.epl.table.mgmt.TableMetadataColumnAggregation;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.map.MapEventType;
+import com.espertech.esper.util.DataIOUtil;
+import com.espertech.esper.util.Version;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot and restore of named window and table state.
+ * <p>
+ * A snapshot is a sequence of records, each record being the record length followed by the record bytes.
+ * The first record is the header, holding the snapshot format version. Each named window and table is a section
+ * record followed by one record per event or row. A section record of type zero ends the snapshot.
+ * </p>
+ * <p>
+ * Table rows hold the values of non-aggregation columns followed by the state of each aggregation method
+ * as written by the aggregation method itself, see {@link com.espertech.esper.epl.agg.aggregator.AggregationMethodStateful}.
+ * The state of each aggregation method starts with its own state version.
+ * </p>
+ * <p>
+ * The snapshot is copied to memory while event processing is blocked and written to the output afterwards.
+ * </p>
+ */
+public class EPSnapshotAdminImpl implements EPSnapshotAdmin {
+    private static final Logger log = LoggerFactory.getLogger(EPSnapshotAdminImpl.class);
+
+    private static final int MAGIC = 0x4553534E;
+    private static final int FORMAT_VERSION = 2;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final int RESTORE_BATCH_SIZE = 1024;
+
+    private static final byte SECTION_END = 0;
+    private static final byte SECTION_NAMED_WINDOW = 1;
+    private static final byte SECTION_TABLE = 2;
+
+    private final EPServicesContext services;
+
+    public EPSnapshotAdminImpl(EPServicesContext services) {
+        this.services = services;
+    }
+
+    public void snapshot(File file) throws IOException {
+        SnapshotBuffer buffer = copySnapshot();
+        try (OutputStream out = new FileOutputStream(file)) {
+            buffer.writeTo(out);
+        }
+    }
+
+    public void snapshot(OutputStream out) throws IOException {
+        SnapshotBuffer buffer = copySnapshot();
+        buffer.writeTo(out);
+        out.flush();
+    }
+
+    public void restore(InputStream in) throws IOException {
+        restore(new SnapshotRecordReaderStream(new DataInputStream(new BufferedInputStream(in, STREAM_BUFFER_SIZE))));
+    }
+
+    public void restore(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            restore(new SnapshotRecordReaderMapped(channel));
+        }
+    }
+
+    private SnapshotBuffer copySnapshot() throws IOException {
+        SnapshotBuffer buffer = new SnapshotBuffer();
+        SnapshotRecordWriter writer = new SnapshotRecordWriter(buffer);
+
+        services.getEventProcessingRWLock().acquireWriteLock();
+        try {
+            DataOutput header = writer.begin();
+            header.writeInt(MAGIC);
+            header.writeInt(FORMAT_VERSION);
+            DataIOUtil.writeString(header, Version.VERSION);
+            writer.end();
+
+            for (String name : services.getNamedWindowMgmtService().getNamedWindows()) {
+                try {
+                    snapshotNamedWindow(name, writer);
+                } catch (RuntimeException ex) {
+                    throw new EPException("Failed to snapshot named window '" + name + "': " + ex.getMessage(), ex);
+                }
+            }
+            for (String name : services.getTableService().getTables()) {
+                try {
+                    snapshotTable(name, writer);
+                } catch (RuntimeException ex) {
+                    throw new EPException("Failed to snapshot table '" + name + "': " + ex.getMessage(), ex);
+                }
+            }
+
+            writer.begin().writeByte(SECTION_END);
+            writer.end();
+        } finally {
+            services.getEventProcessingRWLock().releaseWriteLock();
+        }
+        return buffer;
+    }
+
+    private void restore(SnapshotRecordReader reader) throws IOException {
+        services.getEventProcessingRWLock().acquireWriteLock();
+        try {
+            DataInput header = reader.next();
+            if (header.readInt() != MAGIC) {
+                throw new EPException("Unrecognized snapshot format");
+            }
+            int formatVersion = header.readInt();
+            String version = DataIOUtil.readString(header);
+            if (formatVersion != FORMAT_VERSION) {
+                throw new EPException("Snapshot format version " + formatVersion + " written by engine version " + version + " is not supported, expected format version " + FORMAT_VERSION);
+            }
+
+            while (true) {
+                DataInput section = reader.next();
+                byte type = section.readByte();
+                if (type == SECTION_END) {
+                    break;
+                }
+                String name = DataIOUtil.readString(section);
+                if (type == SECTION_NAMED_WINDOW) {
+                    restoreNamedWindow(name, section, reader);
+                } else if (type == SECTION_TABLE) {
+                    restoreTable(name, section, reader);
+                } else {
+                    throw new EPException("Unrecognized snapshot section type " + type);
+                }
+            }
+        } finally {
+            services.getEventProcessingRWLock().releaseWriteLock();
+        }
+
+        // deliver restored named window events to consuming statements
+        services.getInternalEventEngineRouteDest().processThreadWorkQueue();
+    }
+
+    private void snapshotNamedWindow(String name, SnapshotRecordWriter writer) throws IOException {
+        NamedWindowProcessor processor = services.getNamedWindowMgmtService().getProcessor(name);
+        if (processor == null) {
+            return;
+        }
+        if (processor.getContextName() != null) {
+            log.warn("Snapshot skips named window '" + name + "' that is declared with context '" + processor.getContextName() + "'");
+            return;
+        }
+        if (processor.isVirtualDataWindow()) {
+            log.warn("Snapshot skips named window '" + name + "' that is a virtual data window");
+            return;
+        }
+        EventType eventType = processor.getNamedWindowType();
+        byte kind = SnapshotEventCodec.getKind(eventType);
+        if (kind == SnapshotEventCodec.UNSUPPORTED) {
+            log.warn("Snapshot skips named window '" + name + "' as its event type has fragment properties or its underlying class is not serializable");
+            return;
+        }
+        NamedWindowProcessorInstance instance = processor.getProcessorInstanceNoContext();
+        if (instance == null) {
+            return;
+        }
+
+        List<EventBean> events = new ArrayList<EventBean>();
+        Iterator<EventBean> it = instance.getTailViewInstance().iterator();
+        while (it.hasNext()) {
+            events.add(it.next());
+        }
+
+        DataOutput section = writer.begin();
+        section.writeByte(SECTION_NAMED_WINDOW);
+        DataIOUtil.writeString(section, name);
+        section.writeByte(kind);
+        section.writeInt(events.size());
+        writer.end();
+
+        for (EventBean event : events) {
+            SnapshotEventCodec.write(kind, event.getUnderlying(), writer.begin());
+            writer.end();
+        }
+    }
+
+    private void restoreNamedWindow(String name, DataInput section, SnapshotRecordReader reader) throws IOException {
+        byte kind = section.readByte();
+        int count = section.readInt();
+
+        NamedWindowProcessor processor = services.getNamedWindowMgmtService().getProcessor(name);
+        if (processor == null) {
+            throw new EPException("Named window '" + name + "' of the snapshot does not exist");
+        }
+        NamedWindowProcessorInstance instance = processor.getContextName() == null ? processor.getProcessorInstanceNoContext() : null;
+        if (instance == null) {
+            throw new EPException("Named window '" + name + "' of the snapshot is not started or is declared with a context");
+        }
+        EventType eventType = processor.getNamedWindowType();
+        if (SnapshotEventCodec.getKind(eventType) != kind) {
+            throw new EPException("Named window '" + name + "' has an event type that does not match the snapshot");
+        }
+        if (instance.getTailViewInstance().getNumberOfEvents() > 0) {
+            throw new EPException("Named window '" + name + "' is not empty");
+        }
+
+        EventBean[] batch = new EventBean[Math.min(count, RESTORE_BATCH_SIZE)];
+        int remaining = count;
+        while (remaining > 0) {
+            int size = Math.min(remaining, RESTORE_BATCH_SIZE);
+            if (size != batch.length) {
+                batch = new EventBean[size];
+            }
+            for (int i = 0; i < size; i++) {
+                batch[i] = makeEvent(SnapshotEventCodec.read(kind, reader.next()), eventType);
+            }
+            insertNamedWindow(instance, batch);
+            remaining -= size;
+        }
+    }
+
+    private void insertNamedWindow(NamedWindowProcessorInstance instance, EventBean[] events) {
+        StatementAgentInstanceLock lock = instance.getTailViewInstance().getAgentInstanceContext().getAgentInstanceLock();
+        lock.acquireWriteLock();
+        try {
+            instance.getRootViewInstance().update(events, null);
+        } finally {
+            lock.releaseWriteLock();
+        }
+    }
+
+    private void snapshotTable(String name, SnapshotRecordWriter writer) throws IOException {
+        TableMetadata metadata = services.getTableService().getTableMetadata(name);
+        if (metadata == null) {
+            return;
+        }
+        if (metadata.getContextName() != null) {
+            log.warn("Snapshot skips table '" + name + "' that is declared with context '" + metadata.getContextName() + "'");
+            return;
+        }
+        String[] methodColumnNames = getMethodColumnNames(name, metadata);
+        if (methodColumnNames == null) {
+            return;
+        }
+        TableStateInstance instance = metadata.getState(-1);
+        if (instance == null) {
+            return;
+        }
+
+        instance.getTableLevelRWLock().readLock().lock();
+        try {
+            int numColumns = metadata.getInternalEventType().getPropertyDescriptors().length;
+            DataOutput section = writer.begin();
+            section.writeByte(SECTION_TABLE);
+            DataIOUtil.writeString(section, name);
+            section.writeInt(numColumns);
+            section.writeInt(methodColumnNames.length);
+            for (String columnName : methodColumnNames) {
+                DataIOUtil.writeString(section, columnName);
+            }
+            section.writeInt(instance.getRowCount());
+            writer.end();
+
+            for (EventBean row : instance.getEventCollection()) {
+                Object[] data = ((ObjectArrayBackedEventBean) row).getProperties();
+                DataOutput output = writer.begin();
+                for (int i = 1; i < numColumns; i++) {
+                    DataIOUtil.writeValue(output, data[i]);
+                }
+                ((AggregationRowPair) data[0]).writeMethodState(output);
+                writer.end();
+            }
+        } finally {
+            instance.getTableLevelRWLock().readLock().unlock();
+        }
+    }
+
+    private void restoreTable(String name, DataInput section, SnapshotRecordReader reader) throws IOException {
+        int numColumns = section.readInt();
+        String[] methodColumnNames = new String[section.readInt()];
+        for (int i = 0; i < methodColumnNames.length; i++) {
+            methodColumnNames[i] = DataIOUtil.readString(section);
+        }
+        int count = section.readInt();
+
+        TableMetadata metadata = services.getTableService().getTableMetadata(name);
+        if (metadata == null) {
+            throw new EPException("Table '" + name + "' of the snapshot does not exist");
+        }
+        TableStateInstance instance = metadata.getContextName() == null ? metadata.getState(-1) : null;
+        if (instance == null) {
+            throw new EPException("Table '" + name + "' of the snapshot is not started or is declared with a context");
+        }
+        String[] expectedMethodColumnNames = getMethodColumnNames(name, metadata);
+        if (metadata.getInternalEventType().getPropertyDescriptors().length != numColumns || expectedMethodColumnNames == null || !Arrays.equals(expectedMethodColumnNames, methodColumnNames)) {
+            throw new EPException("Table '" + name + "' has columns that do not match the snapshot");
+        }
+        if (instance.getRowCount() > 0) {
+            throw new EPException("Table '" + name + "' is not empty");
+        }
+
+        ObjectArrayEventType internalEventType = metadata.getInternalEventType();
+        instance.getTableLevelRWLock().writeLock().lock();
+        try {
+            for (int row = 0; row < count; row++) {
+                DataInput input = reader.next();
+                Object[] data = new Object[numColumns];
+                for (int i = 1; i < numColumns; i++) {
+                    data[i] = DataIOUtil.readValue(input);
+                }
+                ObjectArrayBackedEventBean event = (ObjectArrayBackedEventBean) services.getEventAdapterService().adapterForTypedObjectArray(data, internalEventType);
+                instance.addEventUnadorned(event);
+                ((AggregationRowPair) event.getProperties()[0]).readMethodState(input);
+            }
+        } finally {
+            instance.getTableLevelRWLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the names of the aggregation method columns in the order of the aggregation methods of a row,
+     * or null when the table cannot be part of a snapshot.
+     */
+    private static String[] getMethodColumnNames(String name, TableMetadata metadata) {
+        String[] names = new String[metadata.getNumberMethodAggregations()];
+        for (Map.Entry<String, TableMetadataColumn> entry : metadata.getTableColumns().entrySet()) {
+            if (!(entry.getValue() instanceof TableMetadataColumnAggregation)) {
+                continue;
+            }
+            TableMetadataColumnAggregation column = (TableMetadataColumnAggregation) entry.getValue();
+            if (column.getAccessAccessorSlotPair() != null) {
+                log.warn("Snapshot skips table '" + name + "' that has aggregation-access column '" + entry.getKey() + "'");
+                return null;
+            }
+            if (!AggregatorStateUtil.isStateful(column.getFactory().make())) {
+                log.warn("Snapshot skips table '" + name + "' as the aggregation method of column '" + entry.getKey() + "' cannot write its state");
+                return null;
+            }
+            names[column.getMethodOffset()] = entry.getKey();
+        }
+        return names;
+    }
+
+    private EventBean makeEvent(Object underlying, EventType eventType) {
+        if (eventType instanceof ObjectArrayEventType) {
+            return services.getEventAdapterService().adapterForTypedObjectArray((Object[]) underlying, eventType);
+        }
+        if (eventType instanceof MapEventType) {
+            return services.getEventAdapterService().adapterForTypedMap((Map<String, Object>) underlying, eventType);
+        }
+        return services.getEventAdapterService().adapterForTypedBean(underlying, eventType);
+    }
+}
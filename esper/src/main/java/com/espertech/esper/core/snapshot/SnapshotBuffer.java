@@ -0,0 +1,80 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.snapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds snapshot bytes in memory in fixed-size chunks, so that a snapshot can be taken while event processing is
+ * blocked and written out after event processing resumes. Chunks are not copied as the buffer grows.
+ * Not thread-safe.
+ */
+public class SnapshotBuffer extends OutputStream {
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    private final List<byte[]> chunks = new ArrayList<byte[]>();
+    private byte[] current;
+    private int position = CHUNK_SIZE;
+
+    public void write(int b) {
+        if (position == CHUNK_SIZE) {
+            nextChunk();
+        }
+        current[position++] = (byte) b;
+    }
+
+    public void write(byte[] b, int off, int len) {
+        while (len > 0) {
+            if (position == CHUNK_SIZE) {
+                nextChunk();
+            }
+            int count = Math.min(len, CHUNK_SIZE - position);
+            System.arraycopy(b, off, current, position, count);
+            position += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    /**
+     * Returns the number of bytes held.
+     *
+     * @return size
+     */
+    public long size() {
+        if (chunks.isEmpty()) {
+            return 0;
+        }
+        return (long) (chunks.size() - 1) * CHUNK_SIZE + position;
+    }
+
+    /**
+     * Write the bytes held to the output stream.
+     *
+     * @param out to write to
+     * @throws IOException when writing failed
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        for (int i = 0; i < chunks.size(); i++) {
+            byte[] chunk = chunks.get(i);
+            out.write(chunk, 0, i == chunks.size() - 1 ? position : CHUNK_SIZE);
+        }
+    }
+
+    private void nextChunk() {
+        current = new byte[CHUNK_SIZE];
+        chunks.add(current);
+        position = 0;
+    }
+}
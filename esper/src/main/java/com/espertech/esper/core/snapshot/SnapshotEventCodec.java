@@ -0,0 +1,125 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.snapshot;
+
+import com.espertech.esper.client.EventPropertyDescriptor;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.bean.BeanEventType;
+import com.espertech.esper.event.map.MapEventType;
+import com.espertech.esper.util.DataIOUtil;
+import com.espertech.esper.util.SerializerUtil;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes and decodes the underlying of named window events for snapshots.
+ * <p>
+ * Object-array and map event types are supported unless they have fragment properties, since such properties
+ * may hold event beans. Property values are encoded by {@link DataIOUtil}. Bean event types of serializable
+ * classes are supported and use Java serialization.
+ * </p>
+ */
+public class SnapshotEventCodec {
+    /**
+     * Kind of underlying that is not supported.
+     */
+    public static final byte UNSUPPORTED = 0;
+
+    private static final byte OBJECTARRAY = 1;
+    private static final byte MAP = 2;
+    private static final byte BEAN = 3;
+
+    /**
+     * Returns the kind of underlying of the event type, or {@link #UNSUPPORTED} if events of the type cannot be encoded.
+     *
+     * @param eventType type
+     * @return kind
+     */
+    public static byte getKind(EventType eventType) {
+        if (eventType instanceof ObjectArrayEventType || eventType instanceof MapEventType) {
+            for (EventPropertyDescriptor desc : eventType.getPropertyDescriptors()) {
+                if (desc.isFragment()) {
+                    return UNSUPPORTED;
+                }
+            }
+            return eventType instanceof ObjectArrayEventType ? OBJECTARRAY : MAP;
+        }
+        if (eventType instanceof BeanEventType && Serializable.class.isAssignableFrom(eventType.getUnderlyingType())) {
+            return BEAN;
+        }
+        return UNSUPPORTED;
+    }
+
+    /**
+     * Encode the event underlying.
+     *
+     * @param kind       kind of underlying
+     * @param underlying to encode
+     * @param output     to write to
+     * @throws IOException when writing failed
+     */
+    public static void write(byte kind, Object underlying, DataOutput output) throws IOException {
+        if (kind == OBJECTARRAY) {
+            Object[] props = (Object[]) underlying;
+            output.writeInt(props.length);
+            for (Object prop : props) {
+                DataIOUtil.writeValue(output, prop);
+            }
+        } else if (kind == MAP) {
+            Map<String, Object> props = (Map<String, Object>) underlying;
+            output.writeInt(props.size());
+            for (Map.Entry<String, Object> entry : props.entrySet()) {
+                DataIOUtil.writeString(output, entry.getKey());
+                DataIOUtil.writeValue(output, entry.getValue());
+            }
+        } else {
+            byte[] bytes = SerializerUtil.objectToByteArr(underlying);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Decode the event underlying.
+     *
+     * @param kind  kind of underlying
+     * @param input to read from
+     * @return underlying
+     * @throws IOException when reading failed
+     */
+    public static Object read(byte kind, DataInput input) throws IOException {
+        if (kind == OBJECTARRAY) {
+            Object[] props = new Object[input.readInt()];
+            for (int i = 0; i < props.length; i++) {
+                props[i] = DataIOUtil.readValue(input);
+            }
+            return props;
+        }
+        if (kind == MAP) {
+            int size = input.readInt();
+            Map<String, Object> props = new HashMap<String, Object>((int) (size / 0.75f) + 1);
+            for (int i = 0; i < size; i++) {
+                String key = DataIOUtil.readString(input);
+                props.put(key, DataIOUtil.readValue(input));
+            }
+            return props;
+        }
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return SerializerUtil.byteArrToObject(bytes);
+    }
+}
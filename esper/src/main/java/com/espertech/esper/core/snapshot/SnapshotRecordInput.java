@@ -0,0 +1,114 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.snapshot;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads a snapshot record from a buffer using absolute gets, so that the position of the buffer is not changed.
+ * Not thread-safe.
+ */
+public class SnapshotRecordInput implements DataInput {
+    private ByteBuffer buffer;
+    private int position;
+    private int limit;
+
+    /**
+     * Positions the input at a record.
+     *
+     * @param buffer   buffer to read
+     * @param position position of the first byte of the record
+     * @param length   record length
+     */
+    public void reset(ByteBuffer buffer, int position, int length) {
+        this.buffer = buffer;
+        this.position = position;
+        this.limit = position + length;
+    }
+
+    public void readFully(byte[] b) throws IOException {
+        readFully(b, 0, b.length);
+    }
+
+    public void readFully(byte[] b, int off, int len) throws IOException {
+        int start = advance(len);
+        for (int i = 0; i < len; i++) {
+            b[off + i] = buffer.get(start + i);
+        }
+    }
+
+    public int skipBytes(int n) {
+        int skipped = Math.max(0, Math.min(n, limit - position));
+        position += skipped;
+        return skipped;
+    }
+
+    public boolean readBoolean() throws IOException {
+        return buffer.get(advance(1)) != 0;
+    }
+
+    public byte readByte() throws IOException {
+        return buffer.get(advance(1));
+    }
+
+    public int readUnsignedByte() throws IOException {
+        return buffer.get(advance(1)) & 0xFF;
+    }
+
+    public short readShort() throws IOException {
+        return buffer.getShort(advance(2));
+    }
+
+    public int readUnsignedShort() throws IOException {
+        return buffer.getShort(advance(2)) & 0xFFFF;
+    }
+
+    public char readChar() throws IOException {
+        return buffer.getChar(advance(2));
+    }
+
+    public int readInt() throws IOException {
+        return buffer.getInt(advance(4));
+    }
+
+    public long readLong() throws IOException {
+        return buffer.getLong(advance(8));
+    }
+
+    public float readFloat() throws IOException {
+        return buffer.getFloat(advance(4));
+    }
+
+    public double readDouble() throws IOException {
+        return buffer.getDouble(advance(8));
+    }
+
+    public String readLine() {
+        throw new UnsupportedOperationException("Snapshot records do not contain lines");
+    }
+
+    public String readUTF() throws IOException {
+        return DataInputStream.readUTF(this);
+    }
+
+    private int advance(int bytes) throws EOFException {
+        if (bytes < 0 || limit - position < bytes) {
+            throw new EOFException("Unexpected end of snapshot record");
+        }
+        int start = position;
+        position += bytes;
+        return start;
+    }
+}
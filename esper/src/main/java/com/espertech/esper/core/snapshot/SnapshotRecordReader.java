@@ -0,0 +1,27 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.snapshot;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+/**
+ * Reads the length-prefixed records of a snapshot.
+ */
+public interface SnapshotRecordReader {
+    /**
+     * Returns the input for the next record. The input is valid until the next call.
+     *
+     * @return record input
+     * @throws IOException if the record could not be read
+     */
+    DataInput next() throws IOException;
+}
@@ -0,0 +1,66 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.snapshot;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads records from a memory-mapped file without copying. Files larger than the mapping size are mapped
+ * in regions, re-mapping when a record does not fit into the current region.
+ */
+public class SnapshotRecordReaderMapped implements SnapshotRecordReader {
+    private static final long MAP_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final SnapshotRecordInput input = new SnapshotRecordInput();
+    private MappedByteBuffer mapped;
+    private long mappedStart;
+    private long mappedEnd;
+    private long position;
+
+    public SnapshotRecordReaderMapped(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+    }
+
+    public SnapshotRecordInput next() throws IOException {
+        if (position + 4 > fileSize) {
+            throw new EOFException("Unexpected end of snapshot file");
+        }
+        if (position + 4 > mappedEnd) {
+            map(position);
+        }
+        int length = mapped.getInt((int) (position - mappedStart));
+        if (length < 0 || position + 4 + length > fileSize) {
+            throw new IOException("Invalid snapshot record length " + length);
+        }
+        if (position + 4 + length > mappedEnd) {
+            if (4 + length > MAP_SIZE) {
+                throw new IOException("Snapshot record of " + length + " bytes exceeds the mapping size");
+            }
+            map(position);
+        }
+        input.reset(mapped, (int) (position - mappedStart) + 4, length);
+        position += 4 + length;
+        return input;
+    }
+
+    private void map(long start) throws IOException {
+        long size = Math.min(MAP_SIZE, fileSize - start);
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        mappedStart = start;
+        mappedEnd = start + size;
+    }
+}
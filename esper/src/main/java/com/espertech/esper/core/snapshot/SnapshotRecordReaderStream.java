@@ -0,0 +1,43 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.snapshot;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads records sequentially from a stream into a reusable heap buffer.
+ */
+public class SnapshotRecordReaderStream implements SnapshotRecordReader {
+    private final DataInputStream in;
+    private final SnapshotRecordInput input = new SnapshotRecordInput();
+    private byte[] bytes = new byte[1024];
+    private ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+    public SnapshotRecordReaderStream(DataInputStream in) {
+        this.in = in;
+    }
+
+    public SnapshotRecordInput next() throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid snapshot record length " + length);
+        }
+        if (length > bytes.length) {
+            bytes = new byte[Math.max(length, bytes.length << 1)];
+            buffer = ByteBuffer.wrap(bytes);
+        }
+        in.readFully(bytes, 0, length);
+        input.reset(buffer, 0, length);
+        return input;
+    }
+}
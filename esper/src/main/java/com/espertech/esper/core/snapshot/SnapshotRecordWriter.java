@@ -0,0 +1,57 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the length-prefixed records of a snapshot. Each record is written to a reusable buffer first so that
+ * the record length is known. Not thread-safe.
+ */
+public class SnapshotRecordWriter {
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+    private final DataOutputStream record = new DataOutputStream(bytes);
+
+    /**
+     * Ctor.
+     *
+     * @param out to write records to
+     */
+    public SnapshotRecordWriter(OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }
+
+    /**
+     * Starts a record.
+     *
+     * @return output for the record bytes
+     */
+    public DataOutput begin() {
+        bytes.reset();
+        return record;
+    }
+
+    /**
+     * Ends the record started by {@link #begin()}, writing the record length followed by the record bytes.
+     *
+     * @throws IOException when writing failed
+     */
+    public void end() throws IOException {
+        record.flush();
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+    }
+}
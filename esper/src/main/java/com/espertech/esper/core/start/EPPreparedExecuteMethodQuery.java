@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.core.start;
 
+import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.context.ContextPartitionSelector;
@@ -47,6 +48,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Starts and provides the stop method for EPL statements.
@@ -54,6 +59,7 @@ import java.util.*;
 public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
     private static final Logger QUERY_PLAN_LOG = LoggerFactory.getLogger(AuditPath.QUERYPLAN_LOG);
     private static final Logger log = LoggerFactory.getLogger(EPPreparedExecuteMethodQuery.class);
+    private static final int MIN_SEGMENT_SIZE = 16384;
 
     private final StatementSpecCompiled statementSpec;
     private final EventType resultEventType;
@@ -65,6 +71,7 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
     private JoinSetComposerPrototype joinSetComposerPrototype;
     private final QueryGraph queryGraph;
     private boolean hasTableAccess;
+    private final boolean isParallelCapable;
 
     /**
      * Ctor.
@@ -179,6 +186,13 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
                     statementSpec.getOuterJoinDescList(), statementSpec.getFilterRootNode(), typesPerStream, namesPerStream,
                     streamJoinAnalysisResult, queryPlanLogging, statementContext, new HistoricalViewableDesc(numStreams), agentInstanceContext, false, hasAggregations, services.getTableService(), true, services.getEventTableIndexService().allowInitIndex(false));
         }
+
+        // table access acquires locks per thread, and subqueries and virtual data windows are evaluated by the calling thread only
+        boolean parallelCapable = !hasTableAccess && statementSpec.getSubSelectExpressions().length == 0;
+        for (FireAndForgetProcessor processor : processors) {
+            parallelCapable &= !processor.isVirtualDataWindow();
+        }
+        isParallelCapable = parallelCapable;
     }
 
     /**
@@ -224,22 +238,27 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
             Collection<Integer> agentInstanceIds = EPPreparedExecuteMethodHelper.getAgentInstanceIds(processors[0], singleSelector, services.getContextManagementService(), statementSpec.getOptionalContextName());
 
             // collect events and agent instances
-            for (int agentInstanceId : agentInstanceIds) {
-                FireAndForgetInstance processorInstance = processors[0].getProcessorInstanceContextById(agentInstanceId);
-                if (processorInstance != null) {
-                    EPPreparedExecuteTableHelper.assignTableAccessStrategies(services, statementSpec.getTableNodes(), processorInstance.getAgentInstanceContext());
-                    Collection<EventBean> coll = processorInstance.snapshotBestEffort(this, queryGraph, statementSpec.getAnnotations());
-                    contextPartitionResults.add(new ContextPartitionResult(coll, processorInstance.getAgentInstanceContext()));
+            ForkJoinPool pool = getParallelPool();
+            if (pool != null && agentInstanceIds.size() > 1) {
+                contextPartitionResults = snapshotContextPartitionsParallel(pool, agentInstanceIds);
+            } else {
+                for (int agentInstanceId : agentInstanceIds) {
+                    FireAndForgetInstance processorInstance = processors[0].getProcessorInstanceContextById(agentInstanceId);
+                    if (processorInstance != null) {
+                        EPPreparedExecuteTableHelper.assignTableAccessStrategies(services, statementSpec.getTableNodes(), processorInstance.getAgentInstanceContext());
+                        Collection<EventBean> coll = processorInstance.snapshotBestEffort(this, queryGraph, statementSpec.getAnnotations());
+                        if (statementSpec.getFilterRootNode() != null) {
+                            coll = getFiltered(coll, Collections.singletonList(statementSpec.getFilterRootNode()));
+                        }
+                        contextPartitionResults.add(new ContextPartitionResult(coll, processorInstance.getAgentInstanceContext()));
+                    }
                 }
             }
 
-            // process context partitions
+            // process context partitions, in the order of context partitions
             ArrayDeque<EventBean[]> events = new ArrayDeque<EventBean[]>();
             for (ContextPartitionResult contextPartitionResult : contextPartitionResults) {
                 Collection<EventBean> snapshot = contextPartitionResult.getEvents();
-                if (statementSpec.getFilterRootNode() != null) {
-                    snapshot = getFiltered(snapshot, Collections.singletonList(statementSpec.getFilterRootNode()));
-                }
                 EventBean[] rows = snapshot.toArray(new EventBean[snapshot.size()]);
                 resultSetProcessor.setAgentInstanceContext(contextPartitionResult.getContext());
                 UniformPair<EventBean[]> results = resultSetProcessor.processViewResult(rows, null, true);
@@ -280,6 +299,20 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
 
         // collect events
         ArrayDeque<EventBean> events = new ArrayDeque<EventBean>();
+        ForkJoinPool pool = getParallelPool();
+        if (pool != null && contextPartitions.size() > 1) {
+            List<Callable<Collection<EventBean>>> tasks = new ArrayList<Callable<Collection<EventBean>>>(contextPartitions.size());
+            for (int agentInstanceId : contextPartitions) {
+                final FireAndForgetInstance instance = fireAndForgetProcessor.getProcessorInstanceContextById(agentInstanceId);
+                if (instance != null) {
+                    tasks.add(() -> instance.snapshotBestEffort(this, queryGraph, statementSpec.getAnnotations()));
+                }
+            }
+            for (Collection<EventBean> coll : invokeAll(pool, tasks)) {
+                events.addAll(coll);
+            }
+            return events;
+        }
         for (int agentInstanceId : contextPartitions) {
             processorInstance = fireAndForgetProcessor.getProcessorInstanceContextById(agentInstanceId);
             if (processorInstance != null) {
@@ -350,11 +383,79 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
     }
 
     private Collection<EventBean> getFiltered(Collection<EventBean> snapshot, List<ExprNode> filterExpressions) {
-        ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>(Math.min(snapshot.size(), 16));
+        ForkJoinPool pool = getParallelPool();
+        if (pool != null && snapshot.size() >= 2 * MIN_SEGMENT_SIZE && pool.getParallelism() > 1) {
+            return getFilteredSegmented(pool, snapshot, filterExpressions);
+        }
+        return getFilteredSequential(snapshot, filterExpressions);
+    }
+
+    private Collection<EventBean> getFilteredSequential(Iterable<EventBean> snapshot, List<ExprNode> filterExpressions) {
+        ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>(16);
         ExprNodeUtilityCore.applyFilterExpressionsIterable(snapshot, filterExpressions, agentInstanceContext, deque);
         return deque;
     }
 
+    private Collection<EventBean> getFilteredSegmented(ForkJoinPool pool, Collection<EventBean> snapshot, List<ExprNode> filterExpressions) {
+        final List<EventBean> events = Arrays.asList(snapshot.toArray(new EventBean[snapshot.size()]));
+        int numSegments = Math.min(pool.getParallelism(), events.size() / MIN_SEGMENT_SIZE);
+        int segmentSize = (events.size() + numSegments - 1) / numSegments;
+        List<Callable<Collection<EventBean>>> tasks = new ArrayList<Callable<Collection<EventBean>>>(numSegments);
+        for (int start = 0; start < events.size(); start += segmentSize) {
+            final List<EventBean> segment = events.subList(start, Math.min(start + segmentSize, events.size()));
+            tasks.add(() -> getFilteredSequential(segment, filterExpressions));
+        }
+
+        // segments are merged in order, the result is the same as when filtering sequentially
+        ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>();
+        for (Collection<EventBean> filtered : invokeAll(pool, tasks)) {
+            deque.addAll(filtered);
+        }
+        return deque;
+    }
+
+    private List<ContextPartitionResult> snapshotContextPartitionsParallel(ForkJoinPool pool, Collection<Integer> agentInstanceIds) {
+        final List<ExprNode> filterExpressions = statementSpec.getFilterRootNode() == null ? null : Collections.singletonList(statementSpec.getFilterRootNode());
+        List<Callable<ContextPartitionResult>> tasks = new ArrayList<Callable<ContextPartitionResult>>(agentInstanceIds.size());
+        for (int agentInstanceId : agentInstanceIds) {
+            final FireAndForgetInstance instance = processors[0].getProcessorInstanceContextById(agentInstanceId);
+            if (instance == null) {
+                continue;
+            }
+            tasks.add(() -> {
+                Collection<EventBean> coll = instance.snapshotBestEffort(this, queryGraph, statementSpec.getAnnotations());
+                if (filterExpressions != null) {
+                    coll = getFilteredSequential(coll, filterExpressions);
+                }
+                return new ContextPartitionResult(coll, instance.getAgentInstanceContext());
+            });
+        }
+        return invokeAll(pool, tasks);
+    }
+
+    private ForkJoinPool getParallelPool() {
+        return isParallelCapable ? services.getThreadingService().getFireAndForgetPool() : null;
+    }
+
+    private static <T> List<T> invokeAll(ForkJoinPool pool, List<Callable<T>> tasks) {
+        List<Future<T>> futures = pool.invokeAll(tasks);
+        List<T> results = new ArrayList<T>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new EPException("Interrupted executing fire-and-forget query", ex);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new EPException(ex.getCause().getMessage(), ex.getCause());
+            }
+        }
+        return results;
+    }
+
     public EPServicesContext getServices() {
         return services;
     }
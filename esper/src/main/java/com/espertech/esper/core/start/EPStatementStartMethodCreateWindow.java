@@ -35,6 +35,7 @@ import com.espertech.esper.core.service.speccompiled.StatementSpecCompiled;
 import com.espertech.esper.epl.view.OutputProcessViewFactory;
 import com.espertech.esper.epl.view.OutputProcessViewFactoryFactory;
 import com.espertech.esper.epl.virtualdw.VirtualDWViewFactory;
+import com.espertech.esper.event.offheap.OffHeapEventSerdeFactory;
 import com.espertech.esper.event.vaevent.ValueAddEventProcessor;
 import com.espertech.esper.metrics.instrumentation.InstrumentationAgent;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
@@ -98,6 +99,9 @@ public class EPStatementStartMethodCreateWindow extends EPStatementStartMethodBa
         boolean isBatchingDataWindow = determineBatchingDataWindow(unmaterializedViewChain.getViewFactoryChain());
         final VirtualDWViewFactory virtualDataWindowFactory = determineVirtualDataWindow(unmaterializedViewChain.getViewFactoryChain());
         Set<String> optionalUniqueKeyProps = ViewServiceHelper.getUniqueCandidateProperties(unmaterializedViewChain.getViewFactoryChain(), statementSpec.getAnnotations());
+        if (HintEnum.OFFHEAP_STORAGE.getHint(statementSpec.getAnnotations()) != null) {
+            verifyOffHeapStorage(windowName, filterStreamSpec.getFilterSpec().getResultEventType(), optionalRevisionProcessor, virtualDataWindowFactory);
+        }
         NamedWindowProcessor processor = services.getNamedWindowMgmtService().addProcessor(windowName, contextName, filterStreamSpec.getFilterSpec().getResultEventType(), statementContext.getStatementResultService(), optionalRevisionProcessor, statementContext.getExpression(), statementContext.getStatementName(), isPrioritized, isEnableSubqueryIndexShare, isBatchingDataWindow, virtualDataWindowFactory != null, optionalUniqueKeyProps,
                 statementSpec.getCreateWindowDesc().getAsEventTypeName(),
                 statementContext, services.getNamedWindowDispatchService());
@@ -212,6 +216,15 @@ public class EPStatementStartMethodCreateWindow extends EPStatementStartMethodBa
         return false;
     }
 
+    private void verifyOffHeapStorage(String windowName, EventType eventType, ValueAddEventProcessor optionalRevisionProcessor, VirtualDWViewFactory virtualDataWindowFactory) throws ExprValidationException {
+        if (optionalRevisionProcessor != null || virtualDataWindowFactory != null) {
+            throw new ExprValidationException("Hint '" + HintEnum.OFFHEAP_STORAGE + "' is not supported for revision, variant or virtual data window named window '" + windowName + "'");
+        }
+        if (OffHeapEventSerdeFactory.getSerde(eventType) == null) {
+            throw new ExprValidationException("Hint '" + HintEnum.OFFHEAP_STORAGE + "' requires an object-array or map event type with properties of string, primitive, BigDecimal or BigInteger type only for named window '" + windowName + "'");
+        }
+    }
+
     private void verifyDataWindowViewFactoryChain(List<ViewFactory> viewFactories) throws ExprValidationException {
 
         for (ViewFactory viewFactory : viewFactories) {
@@ -17,6 +17,7 @@ import com.espertech.esper.core.service.StatementAgentInstanceLock;
 import com.espertech.esper.epl.join.plan.QueryGraph;
 import com.espertech.esper.epl.named.NamedWindowProcessorInstance;
 import com.espertech.esper.epl.virtualdw.VirtualDWView;
+import com.espertech.esper.event.offheap.OffHeapEventStore;
 import com.espertech.esper.view.Viewable;
 
 import java.lang.annotation.Annotation;
@@ -43,6 +44,11 @@ public class FireAndForgetInstanceNamedWindow extends FireAndForgetInstance {
             StatementAgentInstanceLock ailock = ctx.getAgentInstanceLock();
             ailock.acquireWriteLock();
             try {
+                // with off-heap storage the rollback must refer to the event held by the named window
+                OffHeapEventStore offHeapStore = processorInstance.getRootViewInstance().getOffHeapStore();
+                if (offHeapStore != null) {
+                    inserted = offHeapStore.add(inserted);
+                }
                 processorInstance.getRootViewInstance().update(inserted, null);
             } catch (EPException ex) {
                 processorInstance.getRootViewInstance().update(null, inserted);
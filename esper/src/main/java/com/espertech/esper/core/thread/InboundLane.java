@@ -0,0 +1,144 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.EPException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-consumer lane for inbound work units: units submitted to the same lane execute in submission order
+ * by the one thread owning the lane.
+ * <p>
+ * The consumer spins briefly when the lane is empty and then parks until a producer unparks it.
+ */
+public class InboundLane implements Runnable {
+    private static final Logger log = LoggerFactory.getLogger(InboundLane.class);
+    private static final int SPIN_COUNT = 100;
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private final InboundLaneQueue queue;
+    private volatile Thread thread;
+    private volatile boolean waiting;
+    private volatile boolean running = true;
+
+    /**
+     * Ctor.
+     *
+     * @param capacity lane capacity
+     */
+    public InboundLane(int capacity) {
+        this.queue = new InboundLaneQueue(capacity);
+    }
+
+    /**
+     * Starts the lane consumer thread.
+     *
+     * @param consumer thread to run this lane, not yet started
+     */
+    public void start(Thread consumer) {
+        this.thread = consumer;
+        consumer.start();
+    }
+
+    /**
+     * Submits a unit, waiting for space when the lane is full.
+     *
+     * @param unit to execute
+     * @throws EPException if the lane is stopped or the submitting thread is interrupted while waiting, the unit is not executed
+     */
+    public void submit(Runnable unit) {
+        if (!running) {
+            throw rejected("inbound lane is stopped");
+        }
+        int spins = 0;
+        while (!queue.offer(unit)) {
+            if (!running) {
+                throw rejected("inbound lane is stopped");
+            }
+            if (spins++ < SPIN_COUNT) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+                // the interrupt flag remains set for the caller
+                if (Thread.currentThread().isInterrupted()) {
+                    throw rejected("submitting thread was interrupted");
+                }
+            }
+        }
+        if (waiting) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    public void run() {
+        int idle = 0;
+        while (running) {
+            Runnable unit = queue.poll();
+            if (unit != null) {
+                idle = 0;
+                try {
+                    unit.run();
+                } catch (Throwable t) {
+                    log.error("Unexpected error processing inbound unit: " + t.getMessage(), t);
+                }
+                continue;
+            }
+            if (idle++ < SPIN_COUNT) {
+                Thread.yield();
+                continue;
+            }
+            waiting = true;
+            if (queue.isEmpty() && running) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            waiting = false;
+        }
+    }
+
+    /**
+     * Stops the lane discarding units not yet executed, and waits for the consumer thread to finish.
+     *
+     * @param timeoutMSec max wait time
+     */
+    public void stop(long timeoutMSec) {
+        running = false;
+        Thread consumer = thread;
+        if (consumer == null) {
+            return;
+        }
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(timeoutMSec);
+        } catch (InterruptedException e) {
+            log.error("Interruped awaiting termination", e);
+        }
+    }
+
+    private static EPException rejected(String reason) {
+        String message = "Inbound unit rejected, " + reason;
+        log.warn(message);
+        return new EPException(message);
+    }
+
+    /**
+     * Returns the lane queue.
+     *
+     * @return queue
+     */
+    public InboundLaneQueue getQueue() {
+        return queue;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for use by many producer threads and a single consumer thread.
+ * <p>
+ * Producers claim a slot by compare-and-set on the producer index and then publish the element into the slot.
+ * The consumer takes elements in slot order and frees the slot before advancing the consumer index,
+ * so that a producer can never overwrite an element not yet taken.
+ */
+public class InboundLaneQueue {
+    private final AtomicReferenceArray<Runnable> buffer;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    /**
+     * Ctor.
+     *
+     * @param capacity minimum capacity, rounded up to the next power of two
+     */
+    public InboundLaneQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.buffer = new AtomicReferenceArray<Runnable>(size);
+    }
+
+    /**
+     * Adds an element, may be called by any thread.
+     *
+     * @param element to add, not null
+     * @return false if the queue is full and the element was not added
+     */
+    public boolean offer(Runnable element) {
+        while (true) {
+            long index = producerIndex.get();
+            if (index - consumerIndex.get() >= capacity) {
+                return false;
+            }
+            if (producerIndex.compareAndSet(index, index + 1)) {
+                buffer.set((int) index & mask, element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes the next element, must only be called by the consumer thread.
+     *
+     * @return element or null if the queue is empty or the next element is not yet published
+     */
+    public Runnable poll() {
+        long index = consumerIndex.get();
+        int offset = (int) index & mask;
+        Runnable element = buffer.get(offset);
+        if (element == null) {
+            return null;
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return element;
+    }
+
+    /**
+     * Returns the number of elements claimed by producers and not yet taken by the consumer.
+     *
+     * @return size
+     */
+    public int size() {
+        return (int) Math.max(0, producerIndex.get() - consumerIndex.get());
+    }
+
+    /**
+     * Returns true when there are no elements.
+     *
+     * @return empty indicator
+     */
+    public boolean isEmpty() {
+        return producerIndex.get() == consumerIndex.get();
+    }
+
+    /**
+     * Returns the capacity.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+}
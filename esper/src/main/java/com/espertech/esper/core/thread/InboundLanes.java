@@ -0,0 +1,270 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.time.TimerEvent;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.arr.ObjectArrayEventPropertyGetter;
+import com.espertech.esper.event.bean.BeanEventPropertyGetter;
+import com.espertech.esper.event.map.MapEventPropertyGetter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Partitioned inbound threading: inbound work units are assigned to one of a fixed number of single-consumer lanes
+ * by hashing a partition key.
+ * <p>
+ * The partition key is either provided by the application when sending or is the value of the partition property configured
+ * for the event type. Units with the same partition key always execute on the same lane thread and thereby in the order submitted.
+ * Units without partition key are distributed round-robin. A partition property value of null is a partition key as well.
+ */
+public class InboundLanes {
+    private static final Logger log = LoggerFactory.getLogger(InboundLanes.class);
+    private static final Object NULL_KEY = new Object();
+
+    private final InboundLane[] lanes;
+    private final Map<String, String> partitionProperties;
+    private final EventAdapterService eventAdapterService;
+    private final Map<EventType, PartitionKeyGetter> getters = new ConcurrentHashMap<EventType, PartitionKeyGetter>();
+    private final Map<Class, PartitionKeyGetter> beanGetters = new ConcurrentHashMap<Class, PartitionKeyGetter>();
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    /**
+     * Ctor.
+     *
+     * @param engineURI           engine URI
+     * @param numLanes            number of lanes and threads
+     * @param capacity            capacity of each lane
+     * @param partitionProperties partition property per event type name
+     * @param eventAdapterService event adapter service
+     */
+    public InboundLanes(String engineURI, int numLanes, int capacity, Map<String, String> partitionProperties, EventAdapterService eventAdapterService) {
+        this.partitionProperties = partitionProperties;
+        this.eventAdapterService = eventAdapterService;
+        if (log.isInfoEnabled()) {
+            log.info("Starting " + numLanes + " inbound lanes with capacity " + capacity);
+        }
+        if (engineURI == null) {
+            engineURI = "default";
+        }
+        ThreadGroup threadGroup = new ThreadGroup("com.espertech.esper." + engineURI + "-InboundLane");
+        EngineThreadFactory threadFactory = new EngineThreadFactory(engineURI, "InboundLane", threadGroup, Thread.NORM_PRIORITY);
+        lanes = new InboundLane[numLanes];
+        for (int i = 0; i < numLanes; i++) {
+            lanes[i] = new InboundLane(capacity);
+            lanes[i].start(threadFactory.newThread(lanes[i]));
+        }
+    }
+
+    /**
+     * Submits a unit to the lane determined by the partition property value configured for the event type, if any.
+     *
+     * @param unit to execute
+     * @throws com.espertech.esper.client.EPException if the lane rejects the unit
+     */
+    public void submit(InboundUnitRunnable unit) {
+        Object key = partitionProperties.isEmpty() ? null : resolveKey(unit);
+        if (key == null) {
+            lanes[(roundRobin.getAndIncrement() & 0x7fffffff) % lanes.length].submit(unit);
+        } else {
+            lanes[getLane(key)].submit(unit);
+        }
+    }
+
+    /**
+     * Submits a unit to the lane determined by the given partition key.
+     *
+     * @param unit         to execute
+     * @param partitionKey partition key, or null to use the partition property configured for the event type, if any
+     * @throws com.espertech.esper.client.EPException if the lane rejects the unit
+     */
+    public void submit(InboundUnitRunnable unit, Object partitionKey) {
+        if (partitionKey == null) {
+            submit(unit);
+        } else {
+            lanes[getLane(partitionKey)].submit(unit);
+        }
+    }
+
+    /**
+     * Returns the lane number for a key.
+     *
+     * @param partitionKey key
+     * @return lane number
+     */
+    public int getLane(Object partitionKey) {
+        int hash = partitionKey.hashCode();
+        hash ^= hash >>> 16;
+        return (hash & 0x7fffffff) % lanes.length;
+    }
+
+    /**
+     * Returns the number of units queued over all lanes.
+     *
+     * @return count
+     */
+    public int getQueueSize() {
+        int size = 0;
+        for (InboundLane lane : lanes) {
+            size += lane.getQueue().size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the lanes.
+     *
+     * @return lanes
+     */
+    public InboundLane[] getLanes() {
+        return lanes;
+    }
+
+    /**
+     * Stops all lanes.
+     */
+    public void destroy() {
+        if (log.isInfoEnabled()) {
+            log.info("Shutting down inbound lanes");
+        }
+        for (InboundLane lane : lanes) {
+            lane.stop(10000);
+        }
+    }
+
+    private Object resolveKey(InboundUnitRunnable unit) {
+        try {
+            if (unit instanceof InboundUnitSendWrapped) {
+                EventBean theEvent = ((InboundUnitSendWrapped) unit).getEventBean();
+                return getGetter(theEvent.getEventType()).get(theEvent);
+            }
+            if (unit instanceof InboundUnitSendMap) {
+                InboundUnitSendMap mapUnit = (InboundUnitSendMap) unit;
+                if (!partitionProperties.containsKey(mapUnit.getEventTypeName())) {
+                    return null;
+                }
+                EventType type = eventAdapterService.getExistsTypeByName(mapUnit.getEventTypeName());
+                PartitionKeyGetter getter = type == null ? PartitionKeyGetter.NONE : getGetter(type);
+                if (getter.getter instanceof MapEventPropertyGetter) {
+                    return nullKey(((MapEventPropertyGetter) getter.getter).getMap(mapUnit.getMap()));
+                }
+                return getter.getter == null ? null : getter.get(eventAdapterService.adapterForTypedMap(mapUnit.getMap(), type));
+            }
+            if (unit instanceof InboundUnitSendObjectArray) {
+                InboundUnitSendObjectArray arrayUnit = (InboundUnitSendObjectArray) unit;
+                if (!partitionProperties.containsKey(arrayUnit.getEventTypeName())) {
+                    return null;
+                }
+                EventType type = eventAdapterService.getExistsTypeByName(arrayUnit.getEventTypeName());
+                PartitionKeyGetter getter = type == null ? PartitionKeyGetter.NONE : getGetter(type);
+                if (getter.getter instanceof ObjectArrayEventPropertyGetter) {
+                    return nullKey(((ObjectArrayEventPropertyGetter) getter.getter).getObjectArray(arrayUnit.getProperties()));
+                }
+                return getter.getter == null ? null : getter.get(eventAdapterService.adapterForTypedObjectArray(arrayUnit.getProperties(), type));
+            }
+            if (unit instanceof InboundUnitSendAvro) {
+                InboundUnitSendAvro avroUnit = (InboundUnitSendAvro) unit;
+                if (!partitionProperties.containsKey(avroUnit.getEventTypeName())) {
+                    return null;
+                }
+                return resolveKey(avroUnit.getEventBean());
+            }
+            if (unit instanceof InboundUnitSendDOM) {
+                // the root element determines the type, the unit keeps the event bean for processing
+                return resolveKey(((InboundUnitSendDOM) unit).getEventBean());
+            }
+            if (unit instanceof InboundUnitSendEvent) {
+                InboundUnitSendEvent eventUnit = (InboundUnitSendEvent) unit;
+                Object theEvent = eventUnit.getEvent();
+                if (theEvent instanceof TimerEvent) {
+                    return null;
+                }
+                if (theEvent instanceof EventBean) {
+                    return resolveKey((EventBean) theEvent);
+                }
+                return resolveBeanKey(eventUnit, theEvent);
+            }
+        } catch (RuntimeException ex) {
+            // the unit reports the problem when it executes
+            log.debug("Failed to obtain partition key: " + ex.getMessage(), ex);
+        }
+        return null;
+    }
+
+    private Object resolveBeanKey(InboundUnitSendEvent unit, Object theEvent) {
+        PartitionKeyGetter getter = beanGetters.get(theEvent.getClass());
+        if (getter == null) {
+            // the first event of a class is wrapped to determine its type, the unit keeps the event bean for processing
+            getter = getGetter(unit.getEventBean().getEventType());
+            beanGetters.put(theEvent.getClass(), getter);
+        }
+        if (getter.getter == null) {
+            return null;
+        }
+        if (getter.getter instanceof BeanEventPropertyGetter) {
+            return nullKey(((BeanEventPropertyGetter) getter.getter).getBeanProp(theEvent));
+        }
+        return getter.get(unit.getEventBean());
+    }
+
+    private Object resolveKey(EventBean theEvent) {
+        return getGetter(theEvent.getEventType()).get(theEvent);
+    }
+
+    private PartitionKeyGetter getGetter(EventType eventType) {
+        PartitionKeyGetter getter = getters.get(eventType);
+        if (getter != null) {
+            return getter;
+        }
+        String propertyName = partitionProperties.get(eventType.getName());
+        if (propertyName == null) {
+            getter = PartitionKeyGetter.NONE;
+        } else {
+            EventPropertyGetter propertyGetter = eventType.getGetter(propertyName);
+            if (propertyGetter == null) {
+                log.warn("Partition property '" + propertyName + "' is not a valid property of event type '" + eventType.getName() + "', ignoring partition property");
+                getter = PartitionKeyGetter.NONE;
+            } else {
+                getter = new PartitionKeyGetter(propertyGetter);
+            }
+        }
+        getters.put(eventType, getter);
+        return getter;
+    }
+
+    private static Object nullKey(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    private static class PartitionKeyGetter {
+        private static final PartitionKeyGetter NONE = new PartitionKeyGetter(null);
+
+        private final EventPropertyGetter getter;
+
+        PartitionKeyGetter(EventPropertyGetter getter) {
+            this.getter = getter;
+        }
+
+        Object get(EventBean theEvent) {
+            if (getter == null) {
+                return null;
+            }
+            return nullKey(getter.get(theEvent));
+        }
+    }
+}
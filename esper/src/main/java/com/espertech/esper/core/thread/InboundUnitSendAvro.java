@@ -25,6 +25,7 @@ public class InboundUnitSendAvro implements InboundUnitRunnable {
     private final String eventTypeName;
     private final EPServicesContext services;
     private final EPRuntimeImpl runtime;
+    private EventBean eventBean;
 
     /**
      * Ctor.
@@ -43,10 +44,40 @@ public class InboundUnitSendAvro implements InboundUnitRunnable {
 
     public void run() {
         try {
-            EventBean eventBean = services.getEventAdapterService().adapterForAvro(genericRecordDotData, eventTypeName);
-            runtime.processWrappedEvent(eventBean);
+            runtime.processWrappedEvent(getEventBean());
         } catch (RuntimeException e) {
             log.error("Unexpected error processing Object-array event: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Returns the event bean, wrapping the event the first time.
+     * The unit processes the same event bean, so that an event wrapped for obtaining the partition key is not wrapped again.
+     *
+     * @return event bean
+     */
+    public EventBean getEventBean() {
+        if (eventBean == null) {
+            eventBean = services.getEventAdapterService().adapterForAvro(genericRecordDotData, eventTypeName);
+        }
+        return eventBean;
+    }
+
+    /**
+     * Returns the Avro event.
+     *
+     * @return Avro event
+     */
+    public Object getGenericRecordDotData() {
+        return genericRecordDotData;
+    }
+
+    /**
+     * Returns the event type name.
+     *
+     * @return event type name
+     */
+    public String getEventTypeName() {
+        return eventTypeName;
+    }
 }
@@ -25,6 +25,7 @@ public class InboundUnitSendDOM implements InboundUnitRunnable {
     private final org.w3c.dom.Node theEvent;
     private final EPServicesContext services;
     private final EPRuntimeImpl runtime;
+    private EventBean eventBean;
 
     /**
      * Ctor.
@@ -41,10 +42,31 @@ public class InboundUnitSendDOM implements InboundUnitRunnable {
 
     public void run() {
         try {
-            EventBean eventBean = services.getEventAdapterService().adapterForDOM(theEvent);
-            runtime.processEvent(eventBean);
+            runtime.processEvent(getEventBean());
         } catch (RuntimeException e) {
             log.error("Unexpected error processing DOM event: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Returns the event bean, wrapping the event the first time.
+     * The unit processes the same event bean, so that an event wrapped for obtaining the partition key is not wrapped again.
+     *
+     * @return event bean
+     */
+    public EventBean getEventBean() {
+        if (eventBean == null) {
+            eventBean = services.getEventAdapterService().adapterForDOM(theEvent);
+        }
+        return eventBean;
+    }
+
+    /**
+     * Returns the document.
+     *
+     * @return document
+     */
+    public org.w3c.dom.Node getEvent() {
+        return theEvent;
+    }
 }
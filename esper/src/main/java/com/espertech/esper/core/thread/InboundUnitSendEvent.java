@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.core.thread;
 
+import com.espertech.esper.client.EventBean;
 import com.espertech.esper.core.service.EPRuntimeImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +22,7 @@ public class InboundUnitSendEvent implements InboundUnitRunnable {
     private static final Logger log = LoggerFactory.getLogger(InboundUnitSendEvent.class);
     private final Object theEvent;
     private final EPRuntimeImpl runtime;
+    private EventBean eventBean;
 
     /**
      * Ctor.
@@ -35,10 +37,32 @@ public class InboundUnitSendEvent implements InboundUnitRunnable {
 
     public void run() {
         try {
-            runtime.processEvent(theEvent);
+            runtime.processEvent(eventBean != null ? eventBean : theEvent);
         } catch (Throwable t) {
             runtime.getExceptionHandlingService().handleInboundPoolException(runtime.getEngineURI(), t, theEvent);
             log.error("Unexpected error processing unwrapped event: " + t.getMessage(), t);
         }
     }
+
+    /**
+     * Returns the event bean, wrapping the event the first time unless it is an event bean already.
+     * The unit processes the same event bean, so that an event wrapped for obtaining the partition key is not wrapped again.
+     *
+     * @return event bean
+     */
+    public EventBean getEventBean() {
+        if (eventBean == null) {
+            eventBean = theEvent instanceof EventBean ? (EventBean) theEvent : runtime.wrapEvent(theEvent);
+        }
+        return eventBean;
+    }
+
+    /**
+     * Returns the event.
+     *
+     * @return event
+     */
+    public Object getEvent() {
+        return theEvent;
+    }
 }
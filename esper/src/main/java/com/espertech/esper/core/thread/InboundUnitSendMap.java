@@ -51,4 +51,22 @@ public class InboundUnitSendMap implements InboundUnitRunnable {
             log.error("Unexpected error processing Map event: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Returns the map event.
+     *
+     * @return map event
+     */
+    public Map getMap() {
+        return map;
+    }
+
+    /**
+     * Returns the event type name.
+     *
+     * @return event type name
+     */
+    public String getEventTypeName() {
+        return eventTypeName;
+    }
 }
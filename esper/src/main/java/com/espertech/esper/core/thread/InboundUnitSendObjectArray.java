@@ -49,4 +49,22 @@ public class InboundUnitSendObjectArray implements InboundUnitRunnable {
             log.error("Unexpected error processing Object-array event: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Returns the object-array event.
+     *
+     * @return object-array event
+     */
+    public Object[] getProperties() {
+        return properties;
+    }
+
+    /**
+     * Returns the event type name.
+     *
+     * @return event type name
+     */
+    public String getEventTypeName() {
+        return eventTypeName;
+    }
 }
@@ -41,4 +41,13 @@ public class InboundUnitSendWrapped implements InboundUnitRunnable {
             log.error("Unexpected error processing wrapped event: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Returns the event.
+     *
+     * @return event
+     */
+    public EventBean getEventBean() {
+        return eventBean;
+    }
 }
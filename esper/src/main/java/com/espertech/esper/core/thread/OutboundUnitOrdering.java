@@ -0,0 +1,110 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Executes outbound units such that units of the same statement execute one after another and in submission order,
+ * while units of different statements may execute concurrently.
+ * <p>
+ * Each statement that has outbound units pending has a strand that is submitted to the executor once and that executes
+ * the statement's pending units until none remain.
+ */
+public class OutboundUnitOrdering {
+    private static final Logger log = LoggerFactory.getLogger(OutboundUnitOrdering.class);
+
+    private final Executor executor;
+    private final ConcurrentHashMap<Object, Strand> strands = new ConcurrentHashMap<>();
+
+    /**
+     * Ctor.
+     *
+     * @param executor executes strands
+     */
+    public OutboundUnitOrdering(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Submits an outbound unit.
+     * <p>
+     * When the executor rejects the statement's strand, the strand and its pending units are discarded
+     * so that later units of the statement start a new strand, and the executor's exception is rethrown.
+     * </p>
+     *
+     * @param unit to execute
+     */
+    public void submit(OutboundUnitRunnable unit) {
+        Object key = unit.getStatementResultService();
+        boolean[] created = new boolean[1];
+        Strand strand = strands.compute(key, (k, existing) -> {
+            Strand result = existing;
+            if (result == null) {
+                result = new Strand(k);
+                created[0] = true;
+            }
+            result.units.add(unit);
+            return result;
+        });
+        if (created[0]) {
+            try {
+                executor.execute(strand);
+            } catch (RuntimeException e) {
+                strands.remove(key, strand);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of statements that have units pending or executing.
+     *
+     * @return count
+     */
+    public int getNumStrands() {
+        return strands.size();
+    }
+
+    private Runnable next(Strand strand) {
+        Runnable[] next = new Runnable[1];
+        strands.computeIfPresent(strand.key, (k, existing) -> {
+            next[0] = existing.units.poll();
+            return next[0] == null ? null : existing;
+        });
+        return next[0];
+    }
+
+    private class Strand implements Runnable {
+        private final Object key;
+        private final ArrayDeque<Runnable> units = new ArrayDeque<>(4);
+
+        Strand(Object key) {
+            this.key = key;
+        }
+
+        public void run() {
+            Runnable unit;
+            while ((unit = next(this)) != null) {
+                try {
+                    unit.run();
+                } catch (RuntimeException e) {
+                    log.error("Unexpected error processing dispatch: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+}
@@ -43,4 +43,13 @@ public class OutboundUnitRunnable implements Runnable {
             log.error("Unexpected error processing dispatch: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Returns the statement result service that the unit dispatches for.
+     *
+     * @return statement result service
+     */
+    public StatementResultServiceImpl getStatementResultService() {
+        return statementResultService;
+    }
 }
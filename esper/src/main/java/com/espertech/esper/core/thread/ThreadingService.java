@@ -14,6 +14,7 @@ import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
 
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadPoolExecutor;
 
 /**
@@ -61,6 +62,14 @@ public interface ThreadingService {
      */
     public void submitInbound(InboundUnitRunnable unit);
 
+    /**
+     * Submit inbound work unit with a partition key, the key determines the inbound lane if inbound threading is partitioned.
+     *
+     * @param unit         unit of work
+     * @param partitionKey partition key, or null for none
+     */
+    public void submitInbound(InboundUnitRunnable unit, Object partitionKey);
+
     /**
      * Returns true for route execution threading enabled.
      *
@@ -145,5 +154,19 @@ public interface ThreadingService {
      */
     public ThreadPoolExecutor getInboundThreadPool();
 
+    /**
+     * Returns the inbound lanes, or null if inbound threading is not partitioned.
+     *
+     * @return lanes
+     */
+    public InboundLanes getInboundLanes();
+
+    /**
+     * Returns the fork-join pool for fire-and-forget queries, or null if fire-and-forget query threading is not enabled.
+     *
+     * @return pool
+     */
+    public ForkJoinPool getFireAndForgetPool();
+
     public Thread makeEventSourceThread(String engineURI, String sourceName, Runnable runnable);
 }
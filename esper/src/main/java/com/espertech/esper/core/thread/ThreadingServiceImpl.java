@@ -11,8 +11,12 @@
 package com.espertech.esper.core.thread;
 
 import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.ConfigurationException;
+import com.espertech.esper.client.hook.ThreadingExecutorFactory;
+import com.espertech.esper.client.hook.ThreadingExecutorFactoryContext;
 import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
+import com.espertech.esper.util.JavaClassHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,6 +27,8 @@ import java.util.concurrent.*;
  */
 public class ThreadingServiceImpl implements ThreadingService {
     private static final Logger log = LoggerFactory.getLogger(ThreadingServiceImpl.class);
+    private static final int DEFAULT_LANE_CAPACITY = 16384;
+    private static final int MAX_LANE_CAPACITY = 1 << 24;
 
     private final ConfigurationEngineDefaults.Threading config;
     private final boolean isTimerThreading;
@@ -40,6 +46,14 @@ public class ThreadingServiceImpl implements ThreadingService {
     private ThreadPoolExecutor routeThreadPool;
     private ThreadPoolExecutor outboundThreadPool;
 
+    private Executor timerExecutor;
+    private Executor routeExecutor;
+    private Executor outboundExecutor;
+    private OutboundUnitOrdering outboundOrdering;
+
+    private InboundLanes inboundLanes;
+    private ForkJoinPool fireAndForgetPool;
+
     /**
      * Ctor.
      *
@@ -77,25 +91,65 @@ public class ThreadingServiceImpl implements ThreadingService {
     }
 
     public void initThreading(EPServicesContext services, EPRuntimeImpl runtime) {
-        if (isInboundThreading) {
+        if (isInboundThreading && config.isThreadPoolInboundPartitioned()) {
+            inboundLanes = new InboundLanes(services.getEngineURI(), config.getThreadPoolInboundNumThreads(), getLaneCapacity(config.getThreadPoolInboundCapacity()),
+                    config.getThreadPoolInboundPartitionProperties(), services.getEventAdapterService());
+        } else if (isInboundThreading) {
             inboundQueue = makeQueue(config.getThreadPoolInboundCapacity());
             inboundThreadPool = getThreadPool(services.getEngineURI(), "Inbound", inboundQueue, config.getThreadPoolInboundNumThreads());
         }
 
         if (isTimerThreading) {
-            timerQueue = makeQueue(config.getThreadPoolTimerExecCapacity());
-            timerThreadPool = getThreadPool(services.getEngineURI(), "TimerExec", timerQueue, config.getThreadPoolTimerExecNumThreads());
+            timerExecutor = makeExecutor(services, "TimerExec", config.getThreadPoolTimerExecExecutorFactory(), config.getThreadPoolTimerExecNumThreads(), config.getThreadPoolTimerExecCapacity());
+            if (timerExecutor == null) {
+                timerQueue = makeQueue(config.getThreadPoolTimerExecCapacity());
+                timerThreadPool = getThreadPool(services.getEngineURI(), "TimerExec", timerQueue, config.getThreadPoolTimerExecNumThreads());
+            }
         }
 
         if (isRouteThreading) {
-            routeQueue = makeQueue(config.getThreadPoolRouteExecCapacity());
-            routeThreadPool = getThreadPool(services.getEngineURI(), "RouteExec", routeQueue, config.getThreadPoolRouteExecNumThreads());
+            routeExecutor = makeExecutor(services, "RouteExec", config.getThreadPoolRouteExecExecutorFactory(), config.getThreadPoolRouteExecNumThreads(), config.getThreadPoolRouteExecCapacity());
+            if (routeExecutor == null) {
+                routeQueue = makeQueue(config.getThreadPoolRouteExecCapacity());
+                routeThreadPool = getThreadPool(services.getEngineURI(), "RouteExec", routeQueue, config.getThreadPoolRouteExecNumThreads());
+            }
         }
 
         if (isOutboundThreading) {
-            outboundQueue = makeQueue(config.getThreadPoolOutboundCapacity());
-            outboundThreadPool = getThreadPool(services.getEngineURI(), "Outbound", outboundQueue, config.getThreadPoolOutboundNumThreads());
+            outboundExecutor = makeExecutor(services, "Outbound", config.getThreadPoolOutboundExecutorFactory(), config.getThreadPoolOutboundNumThreads(), config.getThreadPoolOutboundCapacity());
+            if (outboundExecutor == null) {
+                outboundQueue = makeQueue(config.getThreadPoolOutboundCapacity());
+                outboundThreadPool = getThreadPool(services.getEngineURI(), "Outbound", outboundQueue, config.getThreadPoolOutboundNumThreads());
+            }
+            if (config.isThreadPoolOutboundOrderedPerStatement()) {
+                outboundOrdering = new OutboundUnitOrdering(outboundExecutor != null ? outboundExecutor : this::putOutbound);
+            }
+        }
+
+        // fire-and-forget queries do not run on event processing threads and therefore do not depend on the threading option
+        if (config.isThreadPoolFireAndForget()) {
+            fireAndForgetPool = makeForkJoinPool(services.getEngineURI(), "FireAndForget", config.getThreadPoolFireAndForgetNumThreads());
+        }
+    }
+
+    private Executor makeExecutor(EPServicesContext services, String name, String factoryClassName, int numThreads, Integer capacity) {
+        if (factoryClassName == null) {
+            return null;
+        }
+        Executor executor;
+        try {
+            ThreadingExecutorFactory factory = (ThreadingExecutorFactory) JavaClassHelper.instantiate(ThreadingExecutorFactory.class, factoryClassName, services.getEngineImportService().getClassForNameProvider());
+            executor = factory.makeExecutor(new ThreadingExecutorFactoryContext(services.getEngineURI(), name, numThreads, capacity));
+        } catch (RuntimeException ex) {
+            throw new ConfigurationException("Exception initializing executor for threading option " + name + " from executor factory '" + factoryClassName + "': " + ex.getMessage(), ex);
+        }
+        if (executor == null) {
+            throw new ConfigurationException("Executor factory '" + factoryClassName + "' returned a null executor for threading option " + name);
+        }
+        if (log.isInfoEnabled()) {
+            log.info("Using executor " + executor.getClass().getName() + " for " + name);
         }
+        return executor;
     }
 
     private BlockingQueue<Runnable> makeQueue(Integer threadPoolTimerExecCapacity) {
@@ -108,7 +162,18 @@ public class ThreadingServiceImpl implements ThreadingService {
         }
     }
 
+    private int getLaneCapacity(Integer capacity) {
+        if ((capacity == null) || (capacity <= 0) || (capacity > MAX_LANE_CAPACITY)) {
+            return DEFAULT_LANE_CAPACITY;
+        }
+        return capacity;
+    }
+
     public void submitRoute(RouteUnitRunnable unit) {
+        if (routeExecutor != null) {
+            execute(routeExecutor, unit);
+            return;
+        }
         try {
             routeQueue.put(unit);
         } catch (InterruptedException e) {
@@ -117,6 +182,10 @@ public class ThreadingServiceImpl implements ThreadingService {
     }
 
     public void submitInbound(InboundUnitRunnable unit) {
+        if (inboundLanes != null) {
+            inboundLanes.submit(unit);
+            return;
+        }
         try {
             inboundQueue.put(unit);
         } catch (InterruptedException e) {
@@ -124,7 +193,29 @@ public class ThreadingServiceImpl implements ThreadingService {
         }
     }
 
+    public void submitInbound(InboundUnitRunnable unit, Object partitionKey) {
+        if (inboundLanes != null) {
+            inboundLanes.submit(unit, partitionKey);
+            return;
+        }
+        submitInbound(unit);
+    }
+
     public void submitOutbound(OutboundUnitRunnable unit) {
+        if (outboundOrdering != null) {
+            try {
+                outboundOrdering.submit(unit);
+            } catch (RejectedExecutionException e) {
+                log.info("Submit rejected:" + e);
+            }
+        } else if (outboundExecutor != null) {
+            execute(outboundExecutor, unit);
+        } else {
+            putOutbound(unit);
+        }
+    }
+
+    private void putOutbound(Runnable unit) {
         try {
             outboundQueue.put(unit);
         } catch (InterruptedException e) {
@@ -132,7 +223,19 @@ public class ThreadingServiceImpl implements ThreadingService {
         }
     }
 
+    private void execute(Executor executor, Runnable unit) {
+        try {
+            executor.execute(unit);
+        } catch (RejectedExecutionException e) {
+            log.info("Submit rejected:" + e);
+        }
+    }
+
     public void submitTimerWork(TimerUnit unit) {
+        if (timerExecutor != null) {
+            execute(timerExecutor, unit);
+            return;
+        }
         try {
             timerQueue.put(unit);
         } catch (InterruptedException e) {
@@ -172,6 +275,14 @@ public class ThreadingServiceImpl implements ThreadingService {
         return inboundThreadPool;
     }
 
+    public InboundLanes getInboundLanes() {
+        return inboundLanes;
+    }
+
+    public ForkJoinPool getFireAndForgetPool() {
+        return fireAndForgetPool;
+    }
+
     public synchronized void destroy() {
         if (timerThreadPool != null) {
             stopPool(timerThreadPool, timerQueue, "TimerExec");
@@ -185,11 +296,19 @@ public class ThreadingServiceImpl implements ThreadingService {
         if (inboundThreadPool != null) {
             stopPool(inboundThreadPool, inboundQueue, "Inbound");
         }
+        if (inboundLanes != null) {
+            inboundLanes.destroy();
+        }
+        stopExecutor(timerExecutor, "TimerExec");
+        stopExecutor(routeExecutor, "RouteExec");
+        stopExecutor(outboundExecutor, "Outbound");
+        stopExecutor(fireAndForgetPool, "FireAndForget");
 
         timerThreadPool = null;
         routeThreadPool = null;
         outboundThreadPool = null;
         inboundThreadPool = null;
+        fireAndForgetPool = null;
     }
 
     private ThreadPoolExecutor getThreadPool(String engineURI, String name, BlockingQueue<Runnable> queue, int numThreads) {
@@ -209,6 +328,21 @@ public class ThreadingServiceImpl implements ThreadingService {
         return pool;
     }
 
+    private ForkJoinPool makeForkJoinPool(String engineURI, String name, int numThreads) {
+        if (log.isInfoEnabled()) {
+            log.info("Starting fork-join pool " + name + " with " + numThreads + " threads");
+        }
+
+        final String threadNamePrefix = "com.espertech.esper." + name + "-" + (engineURI == null ? "default" : engineURI) + "-";
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(threadNamePrefix + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ForkJoinPool(numThreads, factory, null, false);
+    }
+
     public Thread makeEventSourceThread(String engineURI, String sourceName, Runnable runnable) {
         if (engineURI == null) {
             engineURI = "default";
@@ -219,6 +353,22 @@ public class ThreadingServiceImpl implements ThreadingService {
         return new Thread(threadGroup, runnable);
     }
 
+    private void stopExecutor(Executor executor, String name) {
+        if (!(executor instanceof ExecutorService)) {
+            return;
+        }
+        if (log.isInfoEnabled()) {
+            log.info("Shutting down executor " + name);
+        }
+        ExecutorService executorService = (ExecutorService) executor;
+        executorService.shutdown();
+        try {
+            executorService.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            log.error("Interruped awaiting termination", e);
+        }
+    }
+
     private void stopPool(ThreadPoolExecutor threadPool, BlockingQueue<Runnable> queue, String name) {
         if (log.isInfoEnabled()) {
             log.info("Shutting down pool " + name);
@@ -38,4 +38,11 @@ public interface DispatchService {
      */
     public void dispatch();
 
+    /**
+     * Returns true if there are no Dispatchable implementations waiting for execution by the current thread.
+     *
+     * @return indicator whether the current thread has nothing to dispatch
+     */
+    public boolean isEmpty();
+
 }
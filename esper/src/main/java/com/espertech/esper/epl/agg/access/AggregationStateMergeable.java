@@ -0,0 +1,24 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.access;
+
+/**
+ * Aggregation state that can be combined with the state of another aggregation state of the same type,
+ * for use with two-phase aggregation.
+ */
+public interface AggregationStateMergeable extends AggregationState {
+    /**
+     * Merge the other aggregation state into this aggregation state, leaving the other unchanged.
+     *
+     * @param other aggregation state of the same type and configuration
+     */
+    void merge(AggregationState other);
+}
@@ -0,0 +1,24 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.aggregator;
+
+/**
+ * Aggregation method whose state is a partial aggregate that can be combined with the state of another
+ * aggregation method of the same type, for use with two-phase aggregation.
+ */
+public interface AggregationMethodMergeable extends AggregationMethod {
+    /**
+     * Merge the state of the other aggregation method into this aggregation method, leaving the other unchanged.
+     *
+     * @param other aggregation method of the same type and configuration
+     */
+    public void merge(AggregationMethod other);
+}
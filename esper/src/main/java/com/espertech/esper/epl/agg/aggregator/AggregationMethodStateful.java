@@ -0,0 +1,41 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.aggregator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Aggregation method that writes its state to and reads its state from binary form, for use with snapshot and restore.
+ * <p>
+ * The state written starts with a version of the state layout, see {@link AggregatorStateUtil#writeVersion(DataOutput, int)}.
+ * Implementations change the version when the layout changes and keep reading the layouts of earlier versions.
+ * </p>
+ */
+public interface AggregationMethodStateful extends AggregationMethod {
+    /**
+     * Write the state.
+     *
+     * @param output to write to
+     * @throws IOException when writing failed
+     */
+    public void writeState(DataOutput output) throws IOException;
+
+    /**
+     * Read the state, replacing the current state. The aggregation method has the same type and configuration
+     * as the aggregation method that wrote the state.
+     *
+     * @param input to read from
+     * @throws IOException when reading failed or the state version is not supported
+     */
+    public void readState(DataInput input) throws IOException;
+}
@@ -21,12 +21,15 @@ import com.espertech.esper.epl.expression.codegen.ExprForgeCodegenSymbol;
 import com.espertech.esper.epl.expression.core.ExprForge;
 import com.espertech.esper.util.SimpleNumberCoercerFactory;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.Map;
 
 import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
 
-public class AggregatorAvedev implements AggregationMethod {
+public class AggregatorAvedev implements AggregationMethodStateful {
     private RefCountedSet<Double> valueSet;
     private double sum;
 
@@ -145,4 +148,16 @@ public class AggregatorAvedev implements AggregationMethod {
 
         return total / datapoints;
     }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        AggregatorStateUtil.writeRefCountedSet(output, valueSet);
+        output.writeDouble(sum);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        AggregatorStateUtil.readRefCountedSet(input, valueSet);
+        sum = input.readDouble();
+    }
 }
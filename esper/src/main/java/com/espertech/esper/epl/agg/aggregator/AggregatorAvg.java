@@ -12,6 +12,10 @@ package com.espertech.esper.epl.agg.aggregator;
 
 import com.espertech.esper.codegen.base.CodegenMethodNode;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
 import static com.espertech.esper.epl.agg.aggregator.AggregatorCodegenUtil.cntRefCol;
 import static com.espertech.esper.epl.agg.aggregator.AggregatorCodegenUtil.sumRefCol;
@@ -19,7 +23,7 @@ import static com.espertech.esper.epl.agg.aggregator.AggregatorCodegenUtil.sumRe
 /**
  * Average that generates double-typed numbers.
  */
-public class AggregatorAvg implements AggregationMethod {
+public class AggregatorAvg implements AggregationMethodMergeable, AggregationMethodStateful {
     protected double sum;
     protected long cnt;
 
@@ -55,10 +59,28 @@ public class AggregatorAvg implements AggregationMethod {
         return sum / cnt;
     }
 
+    public void merge(AggregationMethod other) {
+        AggregatorAvg that = (AggregatorAvg) other;
+        sum += that.sum;
+        cnt += that.cnt;
+    }
+
     public static void getValueCodegen(int column, CodegenMethodNode method) {
         method.getBlock()
                 .ifCondition(equalsIdentity(cntRefCol(column), constant(0)))
                 .blockReturn(constantNull())
                 .methodReturn(op(sumRefCol(column), "/", cntRefCol(column)));
     }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeDouble(sum);
+        output.writeLong(cnt);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        sum = input.readDouble();
+        cnt = input.readLong();
+    }
 }
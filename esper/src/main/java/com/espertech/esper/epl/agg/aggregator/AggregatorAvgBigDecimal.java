@@ -18,9 +18,13 @@ import com.espertech.esper.collection.RefCountedSet;
 import com.espertech.esper.epl.agg.factory.AggregationMethodFactoryAvg;
 import com.espertech.esper.epl.expression.codegen.ExprForgeCodegenSymbol;
 import com.espertech.esper.epl.expression.core.ExprForge;
+import com.espertech.esper.util.DataIOUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.MathContext;
@@ -34,7 +38,7 @@ import static com.espertech.esper.epl.agg.aggregator.AggregatorCodegenUtil.sumRe
 /**
  * Average that generates a BigDecimal numbers.
  */
-public class AggregatorAvgBigDecimal implements AggregationMethod {
+public class AggregatorAvgBigDecimal implements AggregationMethodMergeable, AggregationMethodStateful {
     private static final Logger log = LoggerFactory.getLogger(AggregatorAvgBigDecimal.class);
     protected BigDecimal sum;
     protected long cnt;
@@ -138,6 +142,12 @@ public class AggregatorAvgBigDecimal implements AggregationMethod {
         return getValueBigDecimalDivide(cnt, optionalMathContext, sum);
     }
 
+    public void merge(AggregationMethod other) {
+        AggregatorAvgBigDecimal that = (AggregatorAvgBigDecimal) other;
+        sum = sum.add(that.sum);
+        cnt += that.cnt;
+    }
+
     public static void getValueCodegen(AggregationMethodFactoryAvg forge, int column, CodegenMethodNode method, CodegenClassScope classScope) {
         CodegenMember mathContext = classScope.makeAddMember(MathContext.class, forge.getOptionalMathContext());
         method.getBlock().methodReturn(staticMethod(AggregatorAvgBigDecimal.class, "getValueBigDecimalDivide", refCol("cnt", column), member(mathContext.getMemberId()), refCol("sum", column)));
@@ -171,4 +181,16 @@ public class AggregatorAvgBigDecimal implements AggregationMethod {
                 block.assignRef(refCol("sum", stateNumber), newInstance(BigDecimal.class, constant(0d)))
                         .assignRef(refCol("cnt", stateNumber), constant(0));
     }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        DataIOUtil.writeValue(output, sum);
+        output.writeLong(cnt);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        sum = (BigDecimal) DataIOUtil.readValue(input);
+        cnt = input.readLong();
+    }
 }
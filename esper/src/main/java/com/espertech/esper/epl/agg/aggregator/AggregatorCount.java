@@ -20,6 +20,9 @@ import com.espertech.esper.codegen.base.CodegenMembersColumnized;
 import com.espertech.esper.epl.expression.codegen.ExprForgeCodegenSymbol;
 import com.espertech.esper.epl.expression.core.ExprForge;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.function.Consumer;
 
 import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
@@ -28,7 +31,7 @@ import static com.espertech.esper.codegen.model.expression.CodegenExpressionRela
 /**
  * Counts all datapoints including null values.
  */
-public class AggregatorCount implements AggregationMethod {
+public class AggregatorCount implements AggregationMethodMergeable, AggregationMethodStateful {
     protected long cnt;
 
     public static void rowMemberCodegen(boolean distinct, int column, CodegenCtor ctor, CodegenMembersColumnized membersColumnized) {
@@ -114,7 +117,21 @@ public class AggregatorCount implements AggregationMethod {
         return cnt;
     }
 
+    public void merge(AggregationMethod other) {
+        cnt += ((AggregatorCount) other).cnt;
+    }
+
     public static void getValueCodegen(int column, CodegenMethodNode method) {
         method.getBlock().methodReturn(refCol("cnt", column));
     }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeLong(cnt);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        cnt = input.readLong();
+    }
 }
@@ -10,10 +10,14 @@
  */
 package com.espertech.esper.epl.agg.aggregator;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Aggregator for count-ever value.
  */
-public class AggregatorCountEver implements AggregationMethod {
+public class AggregatorCountEver implements AggregationMethodMergeable, AggregationMethodStateful {
     protected long count;
 
     /**
@@ -37,6 +41,10 @@ public class AggregatorCountEver implements AggregationMethod {
         return count;
     }
 
+    public void merge(AggregationMethod other) {
+        count += ((AggregatorCountEver) other).count;
+    }
+
     public long getCount() {
         return count;
     }
@@ -44,4 +52,14 @@ public class AggregatorCountEver implements AggregationMethod {
     public void setCount(long count) {
         this.count = count;
     }
-}
\ No newline at end of file
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeLong(count);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        count = input.readLong();
+    }
+}
@@ -10,10 +10,14 @@
  */
 package com.espertech.esper.epl.agg.aggregator;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Aggregator for count-ever value.
  */
-public class AggregatorCountEverNonNull implements AggregationMethod {
+public class AggregatorCountEverNonNull implements AggregationMethodMergeable, AggregationMethodStateful {
     protected long count;
 
     /**
@@ -40,6 +44,10 @@ public class AggregatorCountEverNonNull implements AggregationMethod {
         return count;
     }
 
+    public void merge(AggregationMethod other) {
+        count += ((AggregatorCountEverNonNull) other).count;
+    }
+
     public long getCount() {
         return count;
     }
@@ -47,4 +55,14 @@ public class AggregatorCountEverNonNull implements AggregationMethod {
     public void setCount(long count) {
         this.count = count;
     }
-}
\ No newline at end of file
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeLong(count);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        count = input.readLong();
+    }
+}
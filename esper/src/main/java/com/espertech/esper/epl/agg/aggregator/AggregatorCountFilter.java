@@ -10,10 +10,14 @@
  */
 package com.espertech.esper.epl.agg.aggregator;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Counts all datapoints including null values.
  */
-public class AggregatorCountFilter implements AggregationMethod {
+public class AggregatorCountFilter implements AggregationMethodMergeable, AggregationMethodStateful {
     protected long numDataPoints;
 
     public void clear() {
@@ -38,6 +42,10 @@ public class AggregatorCountFilter implements AggregationMethod {
         return numDataPoints;
     }
 
+    public void merge(AggregationMethod other) {
+        numDataPoints += ((AggregatorCountFilter) other).numDataPoints;
+    }
+
     private boolean checkPass(Object object) {
         Boolean first = (Boolean) object;
         if (first != null) {
@@ -45,4 +53,14 @@ public class AggregatorCountFilter implements AggregationMethod {
         }
         return false;
     }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeLong(numDataPoints);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        numDataPoints = input.readLong();
+    }
 }
@@ -10,10 +10,14 @@
  */
 package com.espertech.esper.epl.agg.aggregator;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Count all non-null values.
  */
-public class AggregatorCountNonNull implements AggregationMethod {
+public class AggregatorCountNonNull implements AggregationMethodMergeable, AggregationMethodStateful {
     protected long cnt;
 
     public AggregatorCountNonNull() {
@@ -42,4 +46,18 @@ public class AggregatorCountNonNull implements AggregationMethod {
     public Object getValue() {
         return cnt;
     }
+
+    public void merge(AggregationMethod other) {
+        cnt += ((AggregatorCountNonNull) other).cnt;
+    }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeLong(cnt);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        cnt = input.readLong();
+    }
 }
@@ -10,12 +10,15 @@
  */
 package com.espertech.esper.epl.agg.aggregator;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.lang.reflect.Array;
 
 /**
  * Count all non-null values.
  */
-public class AggregatorCountNonNullFilter implements AggregationMethod {
+public class AggregatorCountNonNullFilter implements AggregationMethodMergeable, AggregationMethodStateful {
     protected long numDataPoints;
 
     public void clear() {
@@ -40,6 +43,10 @@ public class AggregatorCountNonNullFilter implements AggregationMethod {
         return numDataPoints;
     }
 
+    public void merge(AggregationMethod other) {
+        numDataPoints += ((AggregatorCountNonNullFilter) other).numDataPoints;
+    }
+
     private boolean checkPass(Object object) {
         Boolean first = (Boolean) Array.get(object, 1);
         if (first != null) {
@@ -47,4 +54,14 @@ public class AggregatorCountNonNullFilter implements AggregationMethod {
         }
         return false;
     }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeLong(numDataPoints);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        numDataPoints = input.readLong();
+    }
 }
@@ -12,11 +12,15 @@ package com.espertech.esper.epl.agg.aggregator;
 
 import com.espertech.esper.collection.RefCountedSet;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * AggregationMethod for use on top of another aggregator that handles unique value aggregation (versus all-value aggregation)
  * for the underlying aggregator.
  */
-public class AggregatorDistinctValue implements AggregationMethod {
+public class AggregatorDistinctValue implements AggregationMethodStateful {
     protected final AggregationMethod inner;
     protected final RefCountedSet<Object> valueSet;
 
@@ -52,4 +56,16 @@ public class AggregatorDistinctValue implements AggregationMethod {
     public Object getValue() {
         return inner.getValue();
     }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        AggregatorStateUtil.writeRefCountedSet(output, valueSet);
+        ((AggregationMethodStateful) inner).writeState(output);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        AggregatorStateUtil.readRefCountedSet(input, valueSet);
+        ((AggregationMethodStateful) inner).readState(input);
+    }
 }
@@ -17,13 +17,18 @@ import com.espertech.esper.codegen.model.expression.CodegenExpressionRef;
 import com.espertech.esper.codegen.base.CodegenMembersColumnized;
 import com.espertech.esper.epl.expression.codegen.ExprForgeCodegenSymbol;
 import com.espertech.esper.epl.expression.core.ExprForge;
+import com.espertech.esper.util.DataIOUtil;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
 
 /**
  * Aggregator for the very first value.
  */
-public class AggregatorFirstEver implements AggregationMethod {
+public class AggregatorFirstEver implements AggregationMethodStateful {
     protected boolean isSet;
     protected Object firstValue;
 
@@ -85,4 +90,16 @@ public class AggregatorFirstEver implements AggregationMethod {
     public void setFirstValue(Object firstValue) {
         this.firstValue = firstValue;
     }
-}
\ No newline at end of file
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeBoolean(isSet);
+        DataIOUtil.writeValue(output, firstValue);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        isSet = input.readBoolean();
+        firstValue = DataIOUtil.readValue(input);
+    }
+}
@@ -16,6 +16,11 @@ import com.espertech.esper.codegen.core.CodegenCtor;
 import com.espertech.esper.codegen.base.CodegenMembersColumnized;
 import com.espertech.esper.epl.expression.codegen.ExprForgeCodegenSymbol;
 import com.espertech.esper.epl.expression.core.ExprForge;
+import com.espertech.esper.util.DataIOUtil;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.constantNull;
 import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.refCol;
@@ -23,7 +28,7 @@ import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuil
 /**
  * Aggregator for the very last value.
  */
-public class AggregatorLastEver implements AggregationMethod {
+public class AggregatorLastEver implements AggregationMethodStateful {
     protected Object lastValue;
 
     public static void rowMemberCodegen(int column, CodegenCtor ctor, CodegenMembersColumnized membersColumnized) {
@@ -59,4 +64,14 @@ public class AggregatorLastEver implements AggregationMethod {
     public static void getValueCodegen(int column, CodegenMethodNode method) {
         method.getBlock().methodReturn(refCol("lastValue", column));
     }
-}
\ No newline at end of file
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        DataIOUtil.writeValue(output, lastValue);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        lastValue = DataIOUtil.readValue(input);
+    }
+}
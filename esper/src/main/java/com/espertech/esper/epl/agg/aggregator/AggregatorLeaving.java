@@ -17,12 +17,16 @@ import com.espertech.esper.codegen.base.CodegenMembersColumnized;
 import com.espertech.esper.epl.agg.factory.AggregationMethodFactoryLeaving;
 import com.espertech.esper.epl.expression.codegen.ExprForgeCodegenSymbol;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
 
 /**
  * For testing if a remove stream entry has been present.
  */
-public class AggregatorLeaving implements AggregationMethod {
+public class AggregatorLeaving implements AggregationMethodStateful {
 
     protected boolean leaving = false;
 
@@ -59,4 +63,14 @@ public class AggregatorLeaving implements AggregationMethod {
     public static void getValueCodegen(int column, CodegenMethodNode method) {
         method.getBlock().methodReturn(refCol("leaving", column));
     }
-}
\ No newline at end of file
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeBoolean(leaving);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        leaving = input.readBoolean();
+    }
+}
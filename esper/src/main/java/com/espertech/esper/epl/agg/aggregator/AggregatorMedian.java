@@ -22,12 +22,17 @@ import com.espertech.esper.epl.expression.codegen.ExprForgeCodegenSymbol;
 import com.espertech.esper.epl.expression.core.ExprForge;
 import com.espertech.esper.util.SimpleNumberCoercerFactory;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+
 import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
 
 /**
  * Median aggregation.
  */
-public class AggregatorMedian implements AggregationMethod {
+public class AggregatorMedian implements AggregationMethodStateful {
     protected SortedDoubleVector vector;
 
     public AggregatorMedian() {
@@ -113,4 +118,23 @@ public class AggregatorMedian implements AggregationMethod {
             return vector.getValue(middle);
         }
     }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeInt(vector.size());
+        for (int i = 0; i < vector.size(); i++) {
+            output.writeDouble(vector.getValue(i));
+        }
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        int size = input.readInt();
+        ArrayList<Double> values = new ArrayList<Double>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(input.readDouble());
+        }
+        // values were written in sort order
+        vector = new SortedDoubleVector(values);
+    }
 }
@@ -22,12 +22,17 @@ import com.espertech.esper.epl.expression.codegen.ExprForgeCodegenSymbol;
 import com.espertech.esper.epl.expression.core.ExprForge;
 import com.espertech.esper.epl.expression.core.MinMaxTypeEnum;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
 import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
 
 /**
  * Min/max aggregator for all values.
  */
-public class AggregatorMinMax implements AggregationMethod {
+public class AggregatorMinMax implements AggregationMethodMergeable, AggregationMethodStateful {
     protected final MinMaxTypeEnum minMaxTypeEnum;
 
     protected SortedRefCountedSet<Object> refSet;
@@ -94,6 +99,14 @@ public class AggregatorMinMax implements AggregationMethod {
         }
     }
 
+    public void merge(AggregationMethod other) {
+        for (Map.Entry<Object, Integer> entry : ((AggregatorMinMax) other).refSet.getRefSet().entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                refSet.add(entry.getKey());
+            }
+        }
+    }
+
     public static void getValueCodegen(AggregationMethodFactoryMinMax forge, int column, CodegenMethodNode method) {
         method.getBlock().methodReturn(exprDotMethod(refCol("refSet", column), forge.getParent().getMinMaxTypeEnum() == MinMaxTypeEnum.MAX ? "maxValue" : "minValue"));
     }
@@ -101,4 +114,14 @@ public class AggregatorMinMax implements AggregationMethod {
     public SortedRefCountedSet<Object> getRefSet() {
         return refSet;
     }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        AggregatorStateUtil.writeSortedRefCountedSet(output, refSet);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        AggregatorStateUtil.readSortedRefCountedSet(input, refSet);
+    }
 }
@@ -19,10 +19,15 @@ import com.espertech.esper.epl.agg.factory.AggregationMethodFactoryMinMax;
 import com.espertech.esper.epl.expression.codegen.ExprForgeCodegenSymbol;
 import com.espertech.esper.epl.expression.core.ExprForge;
 import com.espertech.esper.epl.expression.core.MinMaxTypeEnum;
+import com.espertech.esper.util.DataIOUtil;
 import com.espertech.esper.util.JavaClassHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
 import static com.espertech.esper.codegen.model.expression.CodegenExpressionRelational.CodegenRelational.GT;
 import static com.espertech.esper.codegen.model.expression.CodegenExpressionRelational.CodegenRelational.LT;
@@ -31,7 +36,7 @@ import static com.espertech.esper.epl.expression.core.MinMaxTypeEnum.MAX;
 /**
  * Min/max aggregator for all values, not considering events leaving the aggregation (i.e. ever).
  */
-public class AggregatorMinMaxEver implements AggregationMethod {
+public class AggregatorMinMaxEver implements AggregationMethodMergeable, AggregationMethodStateful {
     private static final Logger log = LoggerFactory.getLogger(AggregatorMinMaxEver.class);
 
     protected final MinMaxTypeEnum minMaxTypeEnum;
@@ -104,6 +109,16 @@ public class AggregatorMinMaxEver implements AggregationMethod {
         return currentMinMax;
     }
 
+    public void merge(AggregationMethod other) {
+        Comparable otherMinMax = ((AggregatorMinMaxEver) other).currentMinMax;
+        if (otherMinMax == null) {
+            return;
+        }
+        if (currentMinMax == null || (minMaxTypeEnum == MAX ? currentMinMax.compareTo(otherMinMax) < 0 : currentMinMax.compareTo(otherMinMax) > 0)) {
+            currentMinMax = otherMinMax;
+        }
+    }
+
     public static void getValueCodegen(int column, CodegenMethodNode method) {
         method.getBlock().methodReturn(refCol("currentMinMax", column));
     }
@@ -115,4 +130,14 @@ public class AggregatorMinMaxEver implements AggregationMethod {
     public Comparable getCurrentMinMax() {
         return currentMinMax;
     }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        DataIOUtil.writeValue(output, currentMinMax);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        currentMinMax = (Comparable) DataIOUtil.readValue(input);
+    }
 }
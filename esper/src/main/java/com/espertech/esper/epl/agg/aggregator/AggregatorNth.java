@@ -21,7 +21,11 @@ import com.espertech.esper.codegen.base.CodegenMembersColumnized;
 import com.espertech.esper.epl.agg.factory.AggregationMethodFactoryNth;
 import com.espertech.esper.epl.expression.codegen.ExprForgeCodegenSymbol;
 import com.espertech.esper.epl.expression.core.ExprForge;
+import com.espertech.esper.util.DataIOUtil;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.function.Consumer;
 
 import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
@@ -33,7 +37,7 @@ import static com.espertech.esper.codegen.model.expression.CodegenExpressionRela
  * A maximum N historical values are stored, so it can be safely used to compare
  * recent values in large views without incurring excessive overhead.
  */
-public class AggregatorNth implements AggregationMethod {
+public class AggregatorNth implements AggregationMethodStateful {
 
     protected final int sizeBuf;
 
@@ -193,4 +197,30 @@ public class AggregatorNth implements AggregationMethod {
                     .assignRef(refCol("currentBufferElementPointer", column), constant(0));
         };
     }
-}
\ No newline at end of file
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeBoolean(circularBuffer != null);
+        if (circularBuffer != null) {
+            for (Object value : circularBuffer) {
+                DataIOUtil.writeValue(output, value);
+            }
+        }
+        output.writeInt(currentBufferElementPointer);
+        output.writeLong(numDataPoints);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        if (input.readBoolean()) {
+            circularBuffer = new Object[sizeBuf];
+            for (int i = 0; i < sizeBuf; i++) {
+                circularBuffer[i] = DataIOUtil.readValue(input);
+            }
+        } else {
+            circularBuffer = null;
+        }
+        currentBufferElementPointer = input.readInt();
+        numDataPoints = input.readLong();
+    }
+}
@@ -21,12 +21,16 @@ import com.espertech.esper.epl.expression.codegen.ExprForgeCodegenSymbol;
 import com.espertech.esper.epl.expression.core.ExprForge;
 import com.espertech.esper.util.SimpleNumberCoercerFactory;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
 
 /**
  * Aggregation computing an event arrival rate for data windowed-events.
  */
-public class AggregatorRate implements AggregationMethod {
+public class AggregatorRate implements AggregationMethodStateful {
 
     protected final long oneSecondTime;
     protected double accumulator;
@@ -193,4 +197,20 @@ public class AggregatorRate implements AggregationMethod {
         oldest = (Long) value;
         if (!isSet) isSet = true;
     }
-}
\ No newline at end of file
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeDouble(accumulator);
+        output.writeLong(latest);
+        output.writeLong(oldest);
+        output.writeBoolean(isSet);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        accumulator = input.readDouble();
+        latest = input.readLong();
+        oldest = input.readLong();
+        isSet = input.readBoolean();
+    }
+}
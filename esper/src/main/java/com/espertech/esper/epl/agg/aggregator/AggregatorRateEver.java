@@ -21,6 +21,9 @@ import com.espertech.esper.epl.expression.codegen.ExprForgeCodegenSymbol;
 import com.espertech.esper.epl.expression.core.ExprForge;
 import com.espertech.esper.schedule.TimeProvider;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayDeque;
 
 import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
@@ -28,7 +31,7 @@ import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuil
 /**
  * Aggregation computing an event arrival rate for with and without data window.
  */
-public class AggregatorRateEver implements AggregationMethod {
+public class AggregatorRateEver implements AggregationMethodStateful {
 
     protected final long interval;
     protected final long oneSecondTime;
@@ -166,4 +169,23 @@ public class AggregatorRateEver implements AggregationMethod {
         }
         return hasLeave;
     }
-}
\ No newline at end of file
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeInt(points.size());
+        for (Long point : points) {
+            output.writeLong(point);
+        }
+        output.writeBoolean(hasLeave);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        points.clear();
+        int size = input.readInt();
+        for (int i = 0; i < size; i++) {
+            points.add(input.readLong());
+        }
+        hasLeave = input.readBoolean();
+    }
+}
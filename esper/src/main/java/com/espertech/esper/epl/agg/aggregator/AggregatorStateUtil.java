@@ -0,0 +1,136 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.collection.RefCountedSet;
+import com.espertech.esper.collection.SortedRefCountedSet;
+import com.espertech.esper.util.DataIOUtil;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Helpers for writing and reading aggregation method state, see {@link AggregationMethodStateful}.
+ */
+public class AggregatorStateUtil {
+    /**
+     * Returns indicator whether the aggregation method, including any aggregation method it delegates to,
+     * can write and read its state.
+     *
+     * @param method aggregation method
+     * @return indicator
+     */
+    public static boolean isStateful(AggregationMethod method) {
+        if (method instanceof AggregatorDistinctValue) {
+            return isStateful(((AggregatorDistinctValue) method).inner);
+        }
+        if (method instanceof AggregatorDistinctValueFilter) {
+            return isStateful(((AggregatorDistinctValueFilter) method).inner);
+        }
+        return method instanceof AggregationMethodStateful;
+    }
+
+    /**
+     * Write the version of the state layout.
+     *
+     * @param output  to write to
+     * @param version state layout version
+     * @throws IOException when writing failed
+     */
+    public static void writeVersion(DataOutput output, int version) throws IOException {
+        output.writeByte(version);
+    }
+
+    /**
+     * Read the version of the state layout and check that it is supported.
+     *
+     * @param input      to read from
+     * @param maxVersion latest version that the aggregation method can read
+     * @param method     aggregation method reading the state
+     * @return version
+     * @throws IOException when reading failed or the version is not supported
+     */
+    public static int readVersion(DataInput input, int maxVersion, AggregationMethod method) throws IOException {
+        int version = input.readByte();
+        if (version < 1 || version > maxVersion) {
+            throw new IOException("Unsupported state version " + version + " for aggregation method " + method.getClass().getSimpleName());
+        }
+        return version;
+    }
+
+    /**
+     * Write a reference-counted set.
+     *
+     * @param output to write to
+     * @param set    set
+     * @throws IOException when writing failed
+     */
+    public static void writeRefCountedSet(DataOutput output, RefCountedSet<?> set) throws IOException {
+        writeRefCounts(output, set.getRefSet());
+    }
+
+    /**
+     * Read a reference-counted set, replacing the set contents.
+     *
+     * @param input to read from
+     * @param set   set
+     * @param <K>   key type
+     * @throws IOException when reading failed
+     */
+    public static <K> void readRefCountedSet(DataInput input, RefCountedSet<K> set) throws IOException {
+        set.clear();
+        int size = input.readInt();
+        for (int i = 0; i < size; i++) {
+            K key = (K) DataIOUtil.readValue(input);
+            set.add(key, input.readInt());
+        }
+    }
+
+    /**
+     * Write a sorted reference-counted set.
+     *
+     * @param output to write to
+     * @param set    set
+     * @throws IOException when writing failed
+     */
+    public static void writeSortedRefCountedSet(DataOutput output, SortedRefCountedSet<?> set) throws IOException {
+        writeRefCounts(output, set.getRefSet());
+        output.writeLong(set.getCountPoints());
+    }
+
+    /**
+     * Read a sorted reference-counted set, replacing the set contents.
+     *
+     * @param input to read from
+     * @param set   set
+     * @param <K>   key type
+     * @throws IOException when reading failed
+     */
+    public static <K> void readSortedRefCountedSet(DataInput input, SortedRefCountedSet<K> set) throws IOException {
+        set.clear();
+        int size = input.readInt();
+        for (int i = 0; i < size; i++) {
+            K key = (K) DataIOUtil.readValue(input);
+            set.add(key, input.readInt());
+        }
+        set.setCountPoints(input.readLong());
+    }
+
+    private static void writeRefCounts(DataOutput output, Map<?, Integer> refCounts) throws IOException {
+        output.writeInt(refCounts.size());
+        for (Map.Entry<?, Integer> entry : refCounts.entrySet()) {
+            DataIOUtil.writeValue(output, entry.getKey());
+            output.writeInt(entry.getValue());
+        }
+    }
+}
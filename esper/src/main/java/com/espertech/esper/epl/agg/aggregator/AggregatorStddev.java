@@ -22,6 +22,9 @@ import com.espertech.esper.epl.expression.codegen.ExprForgeCodegenSymbol;
 import com.espertech.esper.epl.expression.core.ExprForge;
 import com.espertech.esper.util.SimpleNumberCoercerFactory;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.function.Consumer;
 
 import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
@@ -31,7 +34,7 @@ import static com.espertech.esper.codegen.model.expression.CodegenExpressionRela
 /**
  * Standard deviation always generates double-typed numbers.
  */
-public class AggregatorStddev implements AggregationMethod {
+public class AggregatorStddev implements AggregationMethodStateful {
     protected double mean;
     protected double qn;
     protected long cnt;
@@ -155,4 +158,18 @@ public class AggregatorStddev implements AggregationMethod {
                 .blockReturn(constantNull())
                 .methodReturn(staticMethod(Math.class, "sqrt", op(qn, "/", op(cnt, "-", constant(1)))));
     }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeDouble(mean);
+        output.writeDouble(qn);
+        output.writeLong(cnt);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        mean = input.readDouble();
+        qn = input.readDouble();
+        cnt = input.readLong();
+    }
 }
@@ -18,7 +18,11 @@ import com.espertech.esper.collection.RefCountedSet;
 import com.espertech.esper.codegen.base.CodegenMembersColumnized;
 import com.espertech.esper.epl.expression.codegen.ExprForgeCodegenSymbol;
 import com.espertech.esper.epl.expression.core.ExprForge;
+import com.espertech.esper.util.DataIOUtil;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.function.Consumer;
 
@@ -29,7 +33,7 @@ import static com.espertech.esper.epl.agg.aggregator.AggregatorCodegenUtil.sumAn
 /**
  * Sum for BigInteger values.
  */
-public class AggregatorSumBigDecimal implements AggregationMethod {
+public class AggregatorSumBigDecimal implements AggregationMethodMergeable, AggregationMethodStateful {
     protected BigDecimal sum;
     protected long cnt;
 
@@ -97,6 +101,12 @@ public class AggregatorSumBigDecimal implements AggregationMethod {
         return sum;
     }
 
+    public void merge(AggregationMethod other) {
+        AggregatorSumBigDecimal that = (AggregatorSumBigDecimal) other;
+        sum = sum.add(that.sum);
+        cnt += that.cnt;
+    }
+
     public static void getValueCodegen(int column, CodegenMethodNode method) {
         method.getBlock().ifCondition(equalsIdentity(refCol("cnt", column), constant(0)))
                 .blockReturn(constantNull())
@@ -107,4 +117,16 @@ public class AggregatorSumBigDecimal implements AggregationMethod {
         return block -> block.assignRef(refCol("sum", stateNumber), newInstance(BigDecimal.class, constant(0d)))
                 .assignRef(refCol("cnt", stateNumber), constant(0));
     }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        DataIOUtil.writeValue(output, sum);
+        output.writeLong(cnt);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        sum = (BigDecimal) DataIOUtil.readValue(input);
+        cnt = input.readLong();
+    }
 }
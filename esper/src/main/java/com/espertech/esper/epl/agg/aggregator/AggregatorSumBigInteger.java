@@ -18,7 +18,11 @@ import com.espertech.esper.codegen.core.CodegenCtor;
 import com.espertech.esper.collection.RefCountedSet;
 import com.espertech.esper.epl.expression.codegen.ExprForgeCodegenSymbol;
 import com.espertech.esper.epl.expression.core.ExprForge;
+import com.espertech.esper.util.DataIOUtil;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.function.Consumer;
 
@@ -29,7 +33,7 @@ import static com.espertech.esper.epl.agg.aggregator.AggregatorCodegenUtil.sumAn
 /**
  * Sum for BigInteger values.
  */
-public class AggregatorSumBigInteger implements AggregationMethod {
+public class AggregatorSumBigInteger implements AggregationMethodMergeable, AggregationMethodStateful {
     protected BigInteger sum;
     protected long cnt;
 
@@ -97,6 +101,12 @@ public class AggregatorSumBigInteger implements AggregationMethod {
         return sum;
     }
 
+    public void merge(AggregationMethod other) {
+        AggregatorSumBigInteger that = (AggregatorSumBigInteger) other;
+        sum = sum.add(that.sum);
+        cnt += that.cnt;
+    }
+
     public static void getValueCodegen(int column, CodegenMethodNode method) {
         method.getBlock().ifCondition(equalsIdentity(refCol("cnt", column), constant(0)))
                 .blockReturn(constantNull())
@@ -107,4 +117,16 @@ public class AggregatorSumBigInteger implements AggregationMethod {
         return block -> block.assignRef(refCol("sum", stateNumber), staticMethod(BigInteger.class, "valueOf", constant(0)))
                 .assignRef(refCol("cnt", stateNumber), constant(0));
     }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        DataIOUtil.writeValue(output, sum);
+        output.writeLong(cnt);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        sum = (BigInteger) DataIOUtil.readValue(input);
+        cnt = input.readLong();
+    }
 }
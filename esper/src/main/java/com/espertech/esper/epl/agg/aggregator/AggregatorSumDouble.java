@@ -10,10 +10,14 @@
  */
 package com.espertech.esper.epl.agg.aggregator;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Sum for double values.
  */
-public class AggregatorSumDouble implements AggregationMethod {
+public class AggregatorSumDouble implements AggregationMethodMergeable, AggregationMethodStateful {
     protected double sum;
     protected long numDataPoints;
 
@@ -49,6 +53,21 @@ public class AggregatorSumDouble implements AggregationMethod {
         return sum;
     }
 
-}
+    public void merge(AggregationMethod other) {
+        AggregatorSumDouble that = (AggregatorSumDouble) other;
+        sum += that.sum;
+        numDataPoints += that.numDataPoints;
+    }
 
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeDouble(sum);
+        output.writeLong(numDataPoints);
+    }
 
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        sum = input.readDouble();
+        numDataPoints = input.readLong();
+    }
+}
@@ -10,10 +10,14 @@
  */
 package com.espertech.esper.epl.agg.aggregator;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Sum for float values.
  */
-public class AggregatorSumFloat implements AggregationMethod {
+public class AggregatorSumFloat implements AggregationMethodMergeable, AggregationMethodStateful {
     protected float sum;
     protected long numDataPoints;
 
@@ -49,4 +53,21 @@ public class AggregatorSumFloat implements AggregationMethod {
         return sum;
     }
 
+    public void merge(AggregationMethod other) {
+        AggregatorSumFloat that = (AggregatorSumFloat) other;
+        sum += that.sum;
+        numDataPoints += that.numDataPoints;
+    }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeFloat(sum);
+        output.writeLong(numDataPoints);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        sum = input.readFloat();
+        numDataPoints = input.readLong();
+    }
 }
@@ -10,10 +10,14 @@
  */
 package com.espertech.esper.epl.agg.aggregator;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Sum for integer values.
  */
-public class AggregatorSumInteger implements AggregationMethod {
+public class AggregatorSumInteger implements AggregationMethodMergeable, AggregationMethodStateful {
     protected int sum;
     protected long cnt;
 
@@ -50,4 +54,21 @@ public class AggregatorSumInteger implements AggregationMethod {
         return sum;
     }
 
+    public void merge(AggregationMethod other) {
+        AggregatorSumInteger that = (AggregatorSumInteger) other;
+        sum += that.sum;
+        cnt += that.cnt;
+    }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeInt(sum);
+        output.writeLong(cnt);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        sum = input.readInt();
+        cnt = input.readLong();
+    }
 }
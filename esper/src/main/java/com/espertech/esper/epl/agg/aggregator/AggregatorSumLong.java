@@ -10,10 +10,14 @@
  */
 package com.espertech.esper.epl.agg.aggregator;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Sum for long values.
  */
-public class AggregatorSumLong implements AggregationMethod {
+public class AggregatorSumLong implements AggregationMethodMergeable, AggregationMethodStateful {
     protected long sum;
     protected long cnt;
 
@@ -48,6 +52,22 @@ public class AggregatorSumLong implements AggregationMethod {
         }
         return sum;
     }
-}
 
+    public void merge(AggregationMethod other) {
+        AggregatorSumLong that = (AggregatorSumLong) other;
+        sum += that.sum;
+        cnt += that.cnt;
+    }
 
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeLong(sum);
+        output.writeLong(cnt);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        sum = input.readLong();
+        cnt = input.readLong();
+    }
+}
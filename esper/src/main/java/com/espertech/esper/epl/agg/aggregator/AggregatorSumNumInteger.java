@@ -10,10 +10,14 @@
  */
 package com.espertech.esper.epl.agg.aggregator;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Sum for any number value.
  */
-public class AggregatorSumNumInteger implements AggregationMethod {
+public class AggregatorSumNumInteger implements AggregationMethodMergeable, AggregationMethodStateful {
     protected int sum;
     protected long numDataPoints;
 
@@ -51,4 +55,21 @@ public class AggregatorSumNumInteger implements AggregationMethod {
         return sum;
     }
 
+    public void merge(AggregationMethod other) {
+        AggregatorSumNumInteger that = (AggregatorSumNumInteger) other;
+        sum += that.sum;
+        numDataPoints += that.numDataPoints;
+    }
+
+    public void writeState(DataOutput output) throws IOException {
+        AggregatorStateUtil.writeVersion(output, 1);
+        output.writeInt(sum);
+        output.writeLong(numDataPoints);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        AggregatorStateUtil.readVersion(input, 1, this);
+        sum = input.readInt();
+        numDataPoints = input.readLong();
+    }
 }
@@ -57,7 +57,7 @@ public class AggregationServiceFactoryCompiler {
     public static AggregationServiceFactory allocate(AggregationServiceFactoryForge forge, StatementContext stmtContext, boolean isFireAndForget) {
         EngineImportService engineImportService = stmtContext.getEngineImportService();
 
-        if (!engineImportService.getByteCodeGeneration().isEnableAggregation() || isFireAndForget) {
+        if (!engineImportService.getByteCodeGeneration().isEnableAggregation() || isFireAndForget || !forge.isCodegen()) {
             return forge.getAggregationServiceFactory(stmtContext, isFireAndForget);
         }
 
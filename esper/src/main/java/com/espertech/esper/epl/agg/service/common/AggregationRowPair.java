@@ -12,6 +12,11 @@ package com.espertech.esper.epl.agg.service.common;
 
 import com.espertech.esper.epl.agg.access.AggregationState;
 import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodStateful;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 /**
  * Pair of aggregation methods and states (first/last/window) data window representations.
@@ -48,4 +53,28 @@ public class AggregationRowPair {
     public AggregationState[] getStates() {
         return states;
     }
+
+    /**
+     * Write the state of the aggregation methods. Requires that all aggregation methods are {@link AggregationMethodStateful}.
+     *
+     * @param output to write to
+     * @throws IOException when writing failed
+     */
+    public void writeMethodState(DataOutput output) throws IOException {
+        for (AggregationMethod method : methods) {
+            ((AggregationMethodStateful) method).writeState(output);
+        }
+    }
+
+    /**
+     * Read the state of the aggregation methods as written by {@link #writeMethodState(DataOutput)}.
+     *
+     * @param input to read from
+     * @throws IOException when reading failed
+     */
+    public void readMethodState(DataInput input) throws IOException {
+        for (AggregationMethod method : methods) {
+            ((AggregationMethodStateful) method).readState(input);
+        }
+    }
 }
@@ -18,6 +18,7 @@ import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.annotation.HookType;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.epl.agg.access.*;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodMergeable;
 import com.espertech.esper.epl.agg.service.groupby.*;
 import com.espertech.esper.epl.agg.util.*;
 import com.espertech.esper.epl.core.engineimport.EngineImportService;
@@ -154,6 +155,7 @@ public class AggregationServiceFactoryFactory {
                                                          boolean isUnidirectional,
                                                          boolean isFireAndForget,
                                                          boolean isOnSelect,
+                                                         boolean isPartialAggregation,
                                                          EngineImportService engineImportService,
                                                          String statementName,
                                                          TimeAbacus timeAbacus)
@@ -212,6 +214,9 @@ public class AggregationServiceFactoryFactory {
 
         // determine binding
         if (intoTableSpec != null) {
+            if (isPartialAggregation) {
+                throw getPartialAggregationEx("does not allow into-table");
+            }
 
             // obtain metadata
             TableMetadata metadata = tableService.getTableMetadata(intoTableSpec.getName());
@@ -286,14 +291,18 @@ public class AggregationServiceFactoryFactory {
 
         // Handle without a group-by clause: we group all into the same pot
         AggregationRowStateForgeDesc rowStateDesc = new AggregationRowStateForgeDesc(hasMethodAgg ? methodAggForges : null, hasMethodAgg ? methodAggFactories : null, hasAccessAgg ? accessorPairsForge : null, hasAccessAgg ? accessFactories : null);
+        if (isPartialAggregation) {
+            validatePartialAggregation(hasGroupByClause, localGroupByPlan != null, hasAccessAgg, methodAggFactories);
+        }
         if (!hasGroupByClause) {
             if (localGroupByPlan != null) {
                 serviceForge = factoryService.getGroupLocalGroupBy(false, isJoin, localGroupByPlan, isUnidirectional, isFireAndForget, isOnSelect);
             } else {
-                serviceForge = factoryService.getNoGroup(rowStateDesc, isJoin, isUnidirectional, isFireAndForget, isOnSelect);
+                serviceForge = factoryService.getNoGroup(rowStateDesc, isJoin, isUnidirectional, isFireAndForget, isOnSelect, isPartialAggregation);
             }
         } else {
             AggGroupByDesc groupDesc = new AggGroupByDesc(rowStateDesc, isJoin, isUnidirectional, isFireAndForget, isOnSelect, groupByNodes);
+            groupDesc.setColumnarDisabled(HintEnum.DISABLE_COLUMNAR_GROUP.getHint(annotations) != null);
             boolean hasNoReclaim = HintEnum.DISABLE_RECLAIM_GROUP.getHint(annotations) != null;
             Hint reclaimGroupAged = HintEnum.RECLAIM_GROUP_AGED.getHint(annotations);
             Hint reclaimGroupFrequency = HintEnum.RECLAIM_GROUP_AGED.getHint(annotations);
@@ -323,6 +332,24 @@ public class AggregationServiceFactoryFactory {
         return new AggregationServiceForgeDesc(serviceForge, aggregations, groupKeyExpressions);
     }
 
+    private static void validatePartialAggregation(boolean hasGroupByClause, boolean hasLocalGroupBy, boolean hasAccessAgg, AggregationMethodFactory[] methodAggFactories) throws ExprValidationException {
+        if (hasGroupByClause || hasLocalGroupBy) {
+            throw getPartialAggregationEx("does not allow grouping");
+        }
+        if (hasAccessAgg) {
+            throw getPartialAggregationEx("does not allow access aggregation functions");
+        }
+        for (AggregationMethodFactory factory : methodAggFactories) {
+            if (!(factory.make() instanceof AggregationMethodMergeable)) {
+                throw getPartialAggregationEx("does not allow aggregation function '" + ExprNodeUtilityCore.toExpressionStringMinPrecedenceSafe(factory.getAggregationExpression()) + "' as its state cannot be merged");
+            }
+        }
+    }
+
+    private static ExprValidationException getPartialAggregationEx(String reason) {
+        return new ExprValidationException("Hint '" + HintEnum.PARTIAL_AGGREGATION + "' " + reason);
+    }
+
     private static void compileReclaim(AggGroupByDesc groupDesc, Hint reclaimGroupAged, Hint reclaimGroupFrequency, VariableService variableService, String optionalContextName) throws ExprValidationException {
         String hintValueMaxAge = HintEnum.RECLAIM_GROUP_AGED.getHintAssignedValue(reclaimGroupAged);
         if (hintValueMaxAge == null) {
@@ -41,4 +41,14 @@ public interface AggregationServiceFactoryForge {
     void getGroupKeyCodegen(CodegenMethodNode method, CodegenClassScope classScope);
     void acceptGroupDetailCodegen(CodegenMethodNode method, CodegenClassScope classScope);
     void isGroupedCodegen(CodegenMethodNode method, CodegenClassScope classScope);
+
+    /**
+     * Returns indicator whether the service can be code-generated, or whether the factory must always be obtained
+     * from {@link #getAggregationServiceFactory(StatementContext, boolean)}.
+     *
+     * @return true when code generation applies
+     */
+    default boolean isCodegen() {
+        return true;
+    }
 }
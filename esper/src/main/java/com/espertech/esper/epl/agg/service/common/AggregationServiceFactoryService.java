@@ -25,7 +25,7 @@ import com.espertech.esper.epl.table.mgmt.TableService;
 public interface AggregationServiceFactoryService {
     public AggregationServiceFactoryForge getNullAggregationService();
 
-    public AggregationServiceFactoryForge getNoGroup(AggregationRowStateForgeDesc rowStateDesc, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect);
+    public AggregationServiceFactoryForge getNoGroup(AggregationRowStateForgeDesc rowStateDesc, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect, boolean isPartialAggregation);
 
     public AggregationServiceFactoryForge getGroupBy(AggGroupByDesc aggGroupByDesc, TimeAbacus timeAbacus, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect);
 
@@ -35,8 +35,8 @@ public class AggregationServiceFactoryServiceImpl implements AggregationServiceF
         return AggregationServiceNullFactory.AGGREGATION_SERVICE_NULL_FACTORY;
     }
 
-    public AggregationServiceFactoryForge getNoGroup(AggregationRowStateForgeDesc rowStateDesc, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
-        return new AggSvcGroupAllForge(rowStateDesc, join);
+    public AggregationServiceFactoryForge getNoGroup(AggregationRowStateForgeDesc rowStateDesc, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect, boolean isPartialAggregation) {
+        return new AggSvcGroupAllForge(rowStateDesc, join, isPartialAggregation);
     }
 
     public AggregationServiceFactoryForge getGroupBy(AggGroupByDesc aggGroupByDesc, TimeAbacus timeAbacus, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
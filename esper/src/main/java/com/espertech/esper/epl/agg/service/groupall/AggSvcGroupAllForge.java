@@ -37,16 +37,23 @@ public class AggSvcGroupAllForge implements AggregationServiceFactoryForge {
 
     protected final AggregationRowStateForgeDesc rowStateDesc;
     protected final boolean isJoin;
+    protected final boolean isPartialAggregation;
 
-    public AggSvcGroupAllForge(AggregationRowStateForgeDesc rowStateDesc, boolean isJoin) {
+    public AggSvcGroupAllForge(AggregationRowStateForgeDesc rowStateDesc, boolean isJoin, boolean isPartialAggregation) {
         this.rowStateDesc = rowStateDesc;
         this.isJoin = isJoin;
+        this.isPartialAggregation = isPartialAggregation;
     }
 
     public AggregationServiceFactory getAggregationServiceFactory(StatementContext stmtContext, boolean isFireAndForget) {
         return new AggSvcGroupAllFactory(rowStateDesc.toEval(stmtContext, isFireAndForget), isJoin);
     }
 
+    public boolean isCodegen() {
+        // partial aggregation merges the aggregators of context partitions, which requires aggregator objects rather than generated rows
+        return !isPartialAggregation;
+    }
+
     public AggregationCodegenRowLevelDesc getRowLevelDesc() {
         return AggregationCodegenRowLevelDesc.fromTopOnly(rowStateDesc);
     }
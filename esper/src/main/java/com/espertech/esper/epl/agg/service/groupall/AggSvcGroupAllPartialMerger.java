@@ -0,0 +1,87 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.service.groupall;
+
+import com.espertech.esper.core.context.factory.StatementAgentInstanceFactorySelect;
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.core.service.StatementAgentInstanceLock;
+import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodMergeable;
+import com.espertech.esper.epl.agg.service.common.AggSvcGroupByUtil;
+import com.espertech.esper.epl.agg.service.common.AggregationService;
+import com.espertech.esper.epl.agg.service.common.AggregationServiceFactory;
+import com.espertech.esper.epl.agg.service.common.AggregationServiceFactoryDesc;
+import com.espertech.esper.epl.expression.core.ExprNodeUtilityCore;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Merges the partial aggregation state that the context partitions of a statement keep when the statement
+ * specifies the partial-aggregation hint, into a single aggregation result across context partitions.
+ */
+public class AggSvcGroupAllPartialMerger {
+
+    /**
+     * Merge the aggregation state of all context partitions of the statement. Each context partition is locked
+     * only while its state is merged.
+     *
+     * @param statementContext statement context
+     * @return merged aggregation value per aggregation function expression text, in the order of aggregation functions
+     */
+    public static Map<String, Object> merge(StatementContext statementContext) {
+        AggSvcGroupAllFactory factory = getFactory(statementContext);
+        if (factory == null) {
+            return Collections.emptyMap();
+        }
+
+        AggregationMethod[] merged = AggSvcGroupByUtil.newAggregators(factory.aggregators);
+        AggregationService registry = statementContext.getStatementAgentInstanceRegistry().getAgentInstanceAggregationService();
+        AgentInstanceContext[] contexts = statementContext.getContextDescriptor().getAgentInstanceContexts(statementContext.getStatementId());
+        for (AgentInstanceContext context : contexts) {
+            StatementAgentInstanceLock lock = context.getEpStatementAgentInstanceHandle().getStatementAgentInstanceLock();
+            lock.acquireReadLock();
+            try {
+                AggregationService service = registry.getContextPartitionAggregationService(context.getAgentInstanceId());
+                if (!(service instanceof AggSvcGroupAllImplNoAccess)) {
+                    continue;
+                }
+                AggregationMethod[] partials = ((AggSvcGroupAllImplNoAccess) service).aggregators;
+                for (int i = 0; i < merged.length; i++) {
+                    ((AggregationMethodMergeable) merged[i]).merge(partials[i]);
+                }
+            } finally {
+                lock.releaseReadLock();
+            }
+        }
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < merged.length; i++) {
+            values.put(ExprNodeUtilityCore.toExpressionStringMinPrecedenceSafe(factory.aggregators[i].getAggregationExpression()), merged[i].getValue());
+        }
+        return values;
+    }
+
+    private static AggSvcGroupAllFactory getFactory(StatementContext statementContext) {
+        if (!(statementContext.getStatementAgentInstanceFactory() instanceof StatementAgentInstanceFactorySelect)) {
+            return null;
+        }
+        StatementAgentInstanceFactorySelect select = (StatementAgentInstanceFactorySelect) statementContext.getStatementAgentInstanceFactory();
+        AggregationServiceFactoryDesc desc = select.getResultSetProcessorFactoryDesc().getAggregationServiceFactoryDesc();
+        if (desc == null) {
+            return null;
+        }
+        AggregationServiceFactory factory = desc.getAggregationServiceFactory();
+        return factory instanceof AggSvcGroupAllFactory ? (AggSvcGroupAllFactory) factory : null;
+    }
+}
@@ -23,6 +23,7 @@ public class AggGroupByDesc {
 
     private boolean refcounted;
     private boolean reclaimAged;
+    private boolean columnarDisabled;
     private AggSvcGroupByReclaimAgedEvalFuncFactory reclaimEvaluationFunctionMaxAge;
     private AggSvcGroupByReclaimAgedEvalFuncFactory reclaimEvaluationFunctionFrequency;
 
@@ -75,6 +76,10 @@ public class AggGroupByDesc {
         return groupByNodes;
     }
 
+    public boolean isColumnarDisabled() {
+        return columnarDisabled;
+    }
+
     public void setRefcounted(boolean refcounted) {
         this.refcounted = refcounted;
     }
@@ -90,4 +95,8 @@ public class AggGroupByDesc {
     public void setReclaimEvaluationFunctionFrequency(AggSvcGroupByReclaimAgedEvalFuncFactory reclaimEvaluationFunctionFrequency) {
         this.reclaimEvaluationFunctionFrequency = reclaimEvaluationFunctionFrequency;
     }
+
+    public void setColumnarDisabled(boolean columnarDisabled) {
+        this.columnarDisabled = columnarDisabled;
+    }
 }
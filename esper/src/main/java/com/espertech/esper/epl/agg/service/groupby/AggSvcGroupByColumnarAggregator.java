@@ -0,0 +1,148 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.service.groupby;
+
+import com.espertech.esper.epl.agg.aggregator.*;
+import com.espertech.esper.epl.agg.factory.AggregationMethodFactoryAvg;
+import com.espertech.esper.epl.agg.factory.AggregationMethodFactoryCount;
+import com.espertech.esper.epl.agg.factory.AggregationMethodFactoryMinMax;
+import com.espertech.esper.epl.agg.factory.AggregationMethodFactorySum;
+import com.espertech.esper.epl.agg.service.common.AggregationMethodFactory;
+import com.espertech.esper.epl.expression.core.MinMaxTypeEnum;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Built-in aggregation functions that the columnar group-by aggregation service keeps in primitive columns.
+ */
+public enum AggSvcGroupByColumnarAggregator {
+    /**
+     * Count of all rows, i.e. count(*).
+     */
+    COUNT(false, false),
+
+    /**
+     * Count of non-null values.
+     */
+    COUNT_NONNULL(false, false),
+
+    /**
+     * Sum returning long.
+     */
+    SUM_LONG(true, false),
+
+    /**
+     * Sum returning int.
+     */
+    SUM_INT(true, false),
+
+    /**
+     * Sum returning double.
+     */
+    SUM_DOUBLE(false, true),
+
+    /**
+     * Average returning double.
+     */
+    AVG(false, true),
+
+    /**
+     * Minimum of an integral type, without data window.
+     */
+    MIN_LONG(true, false),
+
+    /**
+     * Maximum of an integral type, without data window.
+     */
+    MAX_LONG(true, false),
+
+    /**
+     * Minimum of a floating-point type, without data window.
+     */
+    MIN_DOUBLE(false, true),
+
+    /**
+     * Maximum of a floating-point type, without data window.
+     */
+    MAX_DOUBLE(false, true);
+
+    private final boolean longColumn;
+    private final boolean doubleColumn;
+
+    AggSvcGroupByColumnarAggregator(boolean longColumn, boolean doubleColumn) {
+        this.longColumn = longColumn;
+        this.doubleColumn = doubleColumn;
+    }
+
+    /**
+     * Returns indicator whether the aggregator keeps a long value column in addition to the count column.
+     *
+     * @return indicator
+     */
+    public boolean isLongColumn() {
+        return longColumn;
+    }
+
+    /**
+     * Returns indicator whether the aggregator keeps a double value column in addition to the count column.
+     *
+     * @return indicator
+     */
+    public boolean isDoubleColumn() {
+        return doubleColumn;
+    }
+
+    /**
+     * Determines the columnar aggregator for an aggregation function, if any.
+     * <p>
+     * Only the plain built-in aggregators qualify, i.e. aggregators with filter, distinct or data-window
+     * dependent state such as min and max with data windows keep their per-group object state.
+     *
+     * @param factory aggregation function
+     * @return columnar aggregator or null if the function cannot be kept in columns
+     */
+    public static AggSvcGroupByColumnarAggregator fromFactory(AggregationMethodFactory factory) {
+        if (!(factory instanceof AggregationMethodFactoryCount || factory instanceof AggregationMethodFactorySum ||
+                factory instanceof AggregationMethodFactoryAvg || factory instanceof AggregationMethodFactoryMinMax)) {
+            return null;
+        }
+        AggregationMethod method = factory.make();
+        Class clazz = method.getClass();
+        if (clazz == AggregatorCount.class) {
+            return COUNT;
+        }
+        if (clazz == AggregatorCountNonNull.class) {
+            return COUNT_NONNULL;
+        }
+        if (clazz == AggregatorSumLong.class) {
+            return SUM_LONG;
+        }
+        if (clazz == AggregatorSumInteger.class || clazz == AggregatorSumNumInteger.class) {
+            return SUM_INT;
+        }
+        if (clazz == AggregatorSumDouble.class) {
+            return SUM_DOUBLE;
+        }
+        if (clazz == AggregatorAvg.class) {
+            return AVG;
+        }
+        if (clazz == AggregatorMinMaxEver.class) {
+            boolean max = ((AggregationMethodFactoryMinMax) factory).getParent().getMinMaxTypeEnum() == MinMaxTypeEnum.MAX;
+            Class type = JavaClassHelper.getBoxedType(factory.getResultType());
+            if (type == Long.class || type == Integer.class || type == Short.class || type == Byte.class) {
+                return max ? MAX_LONG : MIN_LONG;
+            }
+            if (type == Double.class || type == Float.class) {
+                return max ? MAX_DOUBLE : MIN_DOUBLE;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.service.groupby;
+
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.epl.agg.service.common.AggregationMethodFactory;
+import com.espertech.esper.epl.agg.service.common.AggregationRowStateEvalDesc;
+import com.espertech.esper.epl.agg.service.common.AggregationService;
+import com.espertech.esper.epl.agg.service.common.AggregationServiceFactory;
+import com.espertech.esper.epl.core.engineimport.EngineImportService;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+
+/**
+ * Factory for the columnar group-by aggregation service.
+ */
+public class AggSvcGroupByColumnarFactory implements AggregationServiceFactory {
+    private final ExprEvaluator[] evaluators;
+    private final AggregationMethodFactory[] aggregators;
+    private final AggSvcGroupByColumnarAggregator[] columnar;
+    private final Class groupKeyType;
+    private final boolean refcounted;
+
+    /**
+     * Ctor.
+     *
+     * @param rowStateEvalDesc row state
+     * @param columnar         columnar aggregator for each aggregation function
+     * @param groupKeyType     boxed type of the group key, one of Long, Integer or String
+     * @param refcounted       true to remove groups that have no more events
+     */
+    public AggSvcGroupByColumnarFactory(AggregationRowStateEvalDesc rowStateEvalDesc, AggSvcGroupByColumnarAggregator[] columnar, Class groupKeyType, boolean refcounted) {
+        this.evaluators = rowStateEvalDesc.getMethodEvals();
+        this.aggregators = rowStateEvalDesc.getMethodFactories();
+        this.columnar = columnar;
+        this.groupKeyType = groupKeyType;
+        this.refcounted = refcounted;
+    }
+
+    public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
+        AggSvcGroupByColumnarKeys keys = groupKeyType == String.class ? new AggSvcGroupByColumnarKeysString() : new AggSvcGroupByColumnarKeysLong(groupKeyType == Integer.class);
+        return new AggSvcGroupByColumnarImpl(evaluators, aggregators, columnar, keys, refcounted);
+    }
+}
@@ -0,0 +1,412 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.service.groupby;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.agg.service.common.*;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Aggregation service for a single group-by key of type long, int or string and built-in numeric aggregation functions only.
+ * <p>
+ * Instead of a map of group key to a row of aggregator objects, group keys are kept in an open-addressing index of
+ * dense row numbers and the state of each aggregation function is kept in primitive arrays indexed by row number.
+ * When refcounted, groups are removed when their count of events reaches zero, as with {@link AggSvcGroupByRefcountedNoAccessImpl}.
+ */
+public class AggSvcGroupByColumnarImpl extends AggregationServiceBaseGrouped {
+    private final static int NONE = -1;
+    private final static int INITIAL_CAPACITY = 16;
+
+    private final AggSvcGroupByColumnarAggregator[] columnar;
+    private final Class[] resultTypes;
+    private final boolean refcounted;
+    private final AggSvcGroupByColumnarKeys keys;
+
+    // per aggregator: number of values, and the long or double value, indexed by row
+    private final long[][] counts;
+    private final long[][] longs;
+    private final double[][] doubles;
+    private int[] refcounts;
+    private int capacity;
+
+    private int currentRow = NONE;
+    private Object currentGroupKey;
+
+    private final List<Object> removedKeys;
+
+    /**
+     * Ctor.
+     *
+     * @param evaluators  evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param prototypes  aggregation function factories
+     * @param columnar    columnar aggregator for each aggregation function
+     * @param keys        group key index
+     * @param refcounted  true to remove groups that have no more events
+     */
+    public AggSvcGroupByColumnarImpl(ExprEvaluator[] evaluators, AggregationMethodFactory[] prototypes, AggSvcGroupByColumnarAggregator[] columnar, AggSvcGroupByColumnarKeys keys, boolean refcounted) {
+        super(evaluators, prototypes);
+        this.columnar = columnar;
+        this.keys = keys;
+        this.refcounted = refcounted;
+        this.resultTypes = new Class[prototypes.length];
+        for (int i = 0; i < prototypes.length; i++) {
+            resultTypes[i] = prototypes[i].getResultType();
+        }
+        this.counts = new long[columnar.length][];
+        this.longs = new long[columnar.length][];
+        this.doubles = new double[columnar.length][];
+        this.removedKeys = refcounted ? new ArrayList<Object>() : null;
+        allocateColumns(INITIAL_CAPACITY);
+    }
+
+    public void clearResults(ExprEvaluatorContext exprEvaluatorContext) {
+        keys.clear();
+        if (removedKeys != null) {
+            removedKeys.clear();
+        }
+        allocateColumns(INITIAL_CAPACITY);
+        currentRow = NONE;
+    }
+
+    public void applyEnter(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(true, aggregators.length, 0, groupByKey);
+        }
+        if (refcounted) {
+            handleRemovedKeys();
+        }
+
+        int row = keys.find(groupByKey);
+        if (row == NONE) {
+            row = addRow(groupByKey);
+        } else if (refcounted) {
+            refcounts[row]++;
+        }
+
+        currentRow = row;
+        for (int i = 0; i < columnar.length; i++) {
+            if (columnar[i] == AggSvcGroupByColumnarAggregator.COUNT) {
+                counts[i][row]++;
+                continue;
+            }
+            Object value = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
+            if (value != null) {
+                enter(i, row, (Number) value);
+            }
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(true);
+        }
+    }
+
+    public void applyLeave(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(false, aggregators.length, 0, groupByKey);
+        }
+        int row = keys.find(groupByKey);
+        if (row == NONE) {
+            row = addRow(groupByKey);
+        }
+
+        currentRow = row;
+        for (int i = 0; i < columnar.length; i++) {
+            if (columnar[i] == AggSvcGroupByColumnarAggregator.COUNT) {
+                if (counts[i][row] > 0) {
+                    counts[i][row]--;
+                }
+                continue;
+            }
+            Object value = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
+            if (value != null) {
+                leave(i, row, (Number) value);
+            }
+        }
+
+        if (refcounted) {
+            refcounts[row]--;
+            if (refcounts[row] <= 0) {
+                removedKeys.add(groupByKey);
+            }
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(false);
+        }
+    }
+
+    public void setCurrentAccess(Object groupByKey, int agentInstanceId, AggregationGroupByRollupLevel rollupLevel) {
+        currentGroupKey = groupByKey;
+        currentRow = keys.find(groupByKey);
+        if (currentRow == NONE && !refcounted) {
+            currentRow = addRow(groupByKey);
+        }
+    }
+
+    public Object getValue(int column, int agentInstanceId, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
+        AggSvcGroupByColumnarAggregator aggregator = columnar[column];
+        int row = currentRow;
+        if (row == NONE) {
+            return aggregator == AggSvcGroupByColumnarAggregator.COUNT || aggregator == AggSvcGroupByColumnarAggregator.COUNT_NONNULL ? 0L : null;
+        }
+        long count = counts[column][row];
+        switch (aggregator) {
+            case COUNT:
+            case COUNT_NONNULL:
+                return count;
+            case SUM_LONG:
+                return count == 0 ? null : longs[column][row];
+            case SUM_INT:
+                return count == 0 ? null : (int) longs[column][row];
+            case SUM_DOUBLE:
+                return count == 0 ? null : doubles[column][row];
+            case AVG:
+                return count == 0 ? null : doubles[column][row] / count;
+            case MIN_LONG:
+            case MAX_LONG:
+                return count == 0 ? null : boxIntegral(longs[column][row], resultTypes[column]);
+            default:
+                return count == 0 ? null : boxFloatingPoint(doubles[column][row], resultTypes[column]);
+        }
+    }
+
+    public Collection<EventBean> getCollectionOfEvents(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public Collection<Object> getCollectionScalar(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public EventBean getEventBean(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public void setRemovedCallback(AggregationRowRemovedCallback callback) {
+        // not applicable
+    }
+
+    public void accept(AggregationServiceVisitor visitor) {
+        visitor.visitAggregations(keys.size(), keys, counts, longs, doubles);
+    }
+
+    public void acceptGroupDetail(AggregationServiceVisitorWGroupDetail visitor) {
+        visitor.visitGrouped(keys.size());
+        int savedRow = currentRow;
+        for (int row = 0; row < keys.size(); row++) {
+            currentRow = row;
+            Object[] values = new Object[columnar.length];
+            for (int i = 0; i < columnar.length; i++) {
+                values[i] = getValue(i, 0, null, true, null);
+            }
+            visitor.visitGroup(keys.getKey(row), values);
+        }
+        currentRow = savedRow;
+    }
+
+    public boolean isGrouped() {
+        return true;
+    }
+
+    public Object getGroupKey(int agentInstanceId) {
+        return currentGroupKey;
+    }
+
+    public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
+        if (refcounted) {
+            handleRemovedKeys();
+        }
+        return keys.keys();
+    }
+
+    private void enter(int column, int row, Number value) {
+        long[] count = counts[column];
+        switch (columnar[column]) {
+            case COUNT_NONNULL:
+                count[row]++;
+                return;
+            case SUM_LONG:
+            case SUM_INT:
+                count[row]++;
+                longs[column][row] += value.longValue();
+                return;
+            case SUM_DOUBLE:
+            case AVG:
+                count[row]++;
+                doubles[column][row] += value.doubleValue();
+                return;
+            case MIN_LONG:
+            case MAX_LONG:
+                long longValue = value.longValue();
+                long[] longColumn = longs[column];
+                if (count[row] == 0) {
+                    count[row] = 1;
+                    longColumn[row] = longValue;
+                } else if (columnar[column] == AggSvcGroupByColumnarAggregator.MAX_LONG ? longValue > longColumn[row] : longValue < longColumn[row]) {
+                    longColumn[row] = longValue;
+                }
+                return;
+            default:
+                double doubleValue = value.doubleValue();
+                double[] doubleColumn = doubles[column];
+                if (count[row] == 0) {
+                    count[row] = 1;
+                    doubleColumn[row] = doubleValue;
+                } else {
+                    int compared = Double.compare(doubleValue, doubleColumn[row]);
+                    if (columnar[column] == AggSvcGroupByColumnarAggregator.MAX_DOUBLE ? compared > 0 : compared < 0) {
+                        doubleColumn[row] = doubleValue;
+                    }
+                }
+        }
+    }
+
+    private void leave(int column, int row, Number value) {
+        long[] count = counts[column];
+        switch (columnar[column]) {
+            case COUNT_NONNULL:
+                if (count[row] > 0) {
+                    count[row]--;
+                }
+                return;
+            case SUM_LONG:
+            case SUM_INT:
+                if (count[row] <= 1) {
+                    count[row] = 0;
+                    longs[column][row] = 0;
+                } else {
+                    count[row]--;
+                    longs[column][row] -= value.longValue();
+                }
+                return;
+            case SUM_DOUBLE:
+            case AVG:
+                if (count[row] <= 1) {
+                    count[row] = 0;
+                    doubles[column][row] = 0;
+                } else {
+                    count[row]--;
+                    doubles[column][row] -= value.doubleValue();
+                }
+                return;
+            default:
+                // min and max without data window ignore the remove stream
+        }
+    }
+
+    private int addRow(Object groupByKey) {
+        int row = keys.add(groupByKey);
+        if (row >= capacity) {
+            growColumns(capacity * 2);
+        }
+        if (refcounted) {
+            refcounts[row] = 1;
+        }
+        return row;
+    }
+
+    private void handleRemovedKeys() {
+        // we collect removed keys lazily on the next enter to reduce the chance of empty-group queries creating empty rows temporarily
+        if (removedKeys.isEmpty()) {
+            return;
+        }
+        for (Object removedKey : removedKeys) {
+            int last = keys.size() - 1;
+            int row = keys.remove(removedKey);
+            if (row == NONE) {
+                continue;
+            }
+            if (row != last) {
+                moveRow(last, row);
+            }
+            clearRow(last);
+        }
+        removedKeys.clear();
+        currentRow = NONE;
+    }
+
+    private void moveRow(int from, int to) {
+        for (int i = 0; i < columnar.length; i++) {
+            counts[i][to] = counts[i][from];
+            if (longs[i] != null) {
+                longs[i][to] = longs[i][from];
+            }
+            if (doubles[i] != null) {
+                doubles[i][to] = doubles[i][from];
+            }
+        }
+        refcounts[to] = refcounts[from];
+    }
+
+    private void clearRow(int row) {
+        for (int i = 0; i < columnar.length; i++) {
+            counts[i][row] = 0;
+            if (longs[i] != null) {
+                longs[i][row] = 0;
+            }
+            if (doubles[i] != null) {
+                doubles[i][row] = 0;
+            }
+        }
+        refcounts[row] = 0;
+    }
+
+    private void allocateColumns(int newCapacity) {
+        for (int i = 0; i < columnar.length; i++) {
+            counts[i] = new long[newCapacity];
+            longs[i] = columnar[i].isLongColumn() ? new long[newCapacity] : null;
+            doubles[i] = columnar[i].isDoubleColumn() ? new double[newCapacity] : null;
+        }
+        refcounts = refcounted ? new int[newCapacity] : null;
+        capacity = newCapacity;
+    }
+
+    private void growColumns(int newCapacity) {
+        for (int i = 0; i < columnar.length; i++) {
+            counts[i] = Arrays.copyOf(counts[i], newCapacity);
+            if (longs[i] != null) {
+                longs[i] = Arrays.copyOf(longs[i], newCapacity);
+            }
+            if (doubles[i] != null) {
+                doubles[i] = Arrays.copyOf(doubles[i], newCapacity);
+            }
+        }
+        if (refcounts != null) {
+            refcounts = Arrays.copyOf(refcounts, newCapacity);
+        }
+        capacity = newCapacity;
+    }
+
+    private static Object boxIntegral(long value, Class resultType) {
+        if (resultType == Integer.class || resultType == int.class) {
+            return (int) value;
+        }
+        if (resultType == Short.class || resultType == short.class) {
+            return (short) value;
+        }
+        if (resultType == Byte.class || resultType == byte.class) {
+            return (byte) value;
+        }
+        return value;
+    }
+
+    private static Object boxFloatingPoint(double value, Class resultType) {
+        if (resultType == Float.class || resultType == float.class) {
+            return (float) value;
+        }
+        return value;
+    }
+}
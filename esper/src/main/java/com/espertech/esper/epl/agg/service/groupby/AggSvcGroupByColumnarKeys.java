@@ -0,0 +1,305 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.service.groupby;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Open-addressing index of group keys to dense row numbers for the columnar group-by aggregation service.
+ * <p>
+ * Rows are numbered 0 to size-1 without gaps. Removing a key moves the key of the last row into the freed row,
+ * the caller must move the column values the same way.
+ * <p>
+ * The null key is kept outside of the table.
+ */
+public abstract class AggSvcGroupByColumnarKeys {
+    /**
+     * Indicator for an empty slot or a key not found.
+     */
+    protected final static int NONE = -1;
+
+    private final static int INITIAL_CAPACITY = 16;
+
+    /**
+     * Row number for each slot, or {@link #NONE} for an empty slot.
+     */
+    protected int[] slotRows;
+
+    /**
+     * Mask for slot index computation, the slot table length less one.
+     */
+    protected int mask;
+
+    /**
+     * Number of rows.
+     */
+    protected int size;
+
+    /**
+     * Row of the null key, or {@link #NONE}.
+     */
+    protected int nullRow = NONE;
+
+    /**
+     * Ctor.
+     */
+    protected AggSvcGroupByColumnarKeys() {
+        allocateSlots(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns the slot for the key, either the slot holding the key or the empty slot to insert it into.
+     *
+     * @param key non-null key
+     * @return slot
+     */
+    protected abstract int findSlot(Object key);
+
+    /**
+     * Returns the slot holding the key of the row.
+     *
+     * @param row row number of a non-null key
+     * @return slot
+     */
+    protected abstract int findSlotForRow(int row);
+
+    /**
+     * Returns the initial slot of the key of the row.
+     *
+     * @param row row number of a non-null key
+     * @return slot
+     */
+    protected abstract int homeSlotForRow(int row);
+
+    /**
+     * Sets the key of the row.
+     *
+     * @param row row number
+     * @param key non-null key
+     */
+    protected abstract void setRowKey(int row, Object key);
+
+    /**
+     * Moves the key of a row to another row.
+     *
+     * @param from source row
+     * @param to   target row
+     */
+    protected abstract void moveRowKey(int from, int to);
+
+    /**
+     * Releases the key of a row.
+     *
+     * @param row row number
+     */
+    protected abstract void clearRowKey(int row);
+
+    /**
+     * Returns the key of the row as provided when added.
+     *
+     * @param row row number of a non-null key
+     * @return key
+     */
+    protected abstract Object getRowKey(int row);
+
+    /**
+     * Grows the row key storage to at least the capacity.
+     *
+     * @param capacity row capacity
+     */
+    protected abstract void ensureRowCapacity(int capacity);
+
+    /**
+     * Returns the row of the key.
+     *
+     * @param key group key
+     * @return row or -1 if not found
+     */
+    public int find(Object key) {
+        if (key == null) {
+            return nullRow;
+        }
+        return slotRows[findSlot(key)];
+    }
+
+    /**
+     * Adds a key that is not already present.
+     *
+     * @param key group key
+     * @return the new row, which is the previous size
+     */
+    public int add(Object key) {
+        int row = size;
+        ensureRowCapacity(row + 1);
+        if (key == null) {
+            nullRow = row;
+        } else {
+            if ((size + 1) * 4 > slotRows.length * 3) {
+                rehash(slotRows.length * 2);
+            }
+            setRowKey(row, key);
+            slotRows[findSlot(key)] = row;
+        }
+        size++;
+        return row;
+    }
+
+    /**
+     * Removes the key, moving the key of the last row into its row.
+     *
+     * @param key group key
+     * @return the row the key occupied, or -1 if not found
+     */
+    public int remove(Object key) {
+        int row;
+        if (key == null) {
+            row = nullRow;
+            if (row == NONE) {
+                return NONE;
+            }
+            nullRow = NONE;
+        } else {
+            int slot = findSlot(key);
+            row = slotRows[slot];
+            if (row == NONE) {
+                return NONE;
+            }
+            deleteSlot(slot);
+        }
+
+        int last = size - 1;
+        if (row != last) {
+            if (nullRow == last) {
+                nullRow = row;
+            } else {
+                slotRows[findSlotForRow(last)] = row;
+            }
+            moveRowKey(last, row);
+        }
+        clearRowKey(last);
+        size--;
+        return row;
+    }
+
+    /**
+     * Returns the key of the row.
+     *
+     * @param row row number
+     * @return key
+     */
+    public Object getKey(int row) {
+        if (row == nullRow) {
+            return null;
+        }
+        return getRowKey(row);
+    }
+
+    /**
+     * Returns the number of keys.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all keys.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            clearRowKey(i);
+        }
+        allocateSlots(INITIAL_CAPACITY);
+        nullRow = NONE;
+        size = 0;
+    }
+
+    /**
+     * Returns a view of the keys.
+     *
+     * @return keys
+     */
+    public Collection<Object> keys() {
+        return new AbstractCollection<Object>() {
+            public Iterator<Object> iterator() {
+                return new Iterator<Object>() {
+                    private int row;
+
+                    public boolean hasNext() {
+                        return row < size;
+                    }
+
+                    public Object next() {
+                        if (row >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        return getKey(row++);
+                    }
+                };
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private void allocateSlots(int capacity) {
+        slotRows = new int[capacity];
+        Arrays.fill(slotRows, NONE);
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        allocateSlots(capacity);
+        for (int row = 0; row < size; row++) {
+            if (row == nullRow) {
+                continue;
+            }
+            int slot = homeSlotForRow(row);
+            while (slotRows[slot] != NONE) {
+                slot = (slot + 1) & mask;
+            }
+            slotRows[slot] = row;
+        }
+    }
+
+    // backward-shift deletion for linear probing, so no tombstones are needed
+    private void deleteSlot(int slot) {
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (slotRows[next] != NONE) {
+            int home = homeSlotForRow(slotRows[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slotRows[hole] = slotRows[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slotRows[hole] = NONE;
+    }
+
+    /**
+     * Spreads a hash code over the slot mask.
+     *
+     * @param hash hash code
+     * @return spread hash code
+     */
+    protected static int spread(long hash) {
+        long h = hash * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.service.groupby;
+
+import java.util.Arrays;
+
+/**
+ * Group key index for long and int keys, keeping keys as primitive long values.
+ */
+public class AggSvcGroupByColumnarKeysLong extends AggSvcGroupByColumnarKeys {
+    private final boolean intKeys;
+    private long[] rowKeys = new long[16];
+
+    /**
+     * Ctor.
+     *
+     * @param intKeys true for int keys, false for long keys, determines the type of keys returned
+     */
+    public AggSvcGroupByColumnarKeysLong(boolean intKeys) {
+        this.intKeys = intKeys;
+    }
+
+    protected int findSlot(Object key) {
+        long value = ((Number) key).longValue();
+        int slot = spread(value) & mask;
+        while (true) {
+            int row = slotRows[slot];
+            if (row == NONE || rowKeys[row] == value) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    protected int findSlotForRow(int row) {
+        int slot = homeSlotForRow(row);
+        while (slotRows[slot] != row) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    protected int homeSlotForRow(int row) {
+        return spread(rowKeys[row]) & mask;
+    }
+
+    protected void setRowKey(int row, Object key) {
+        rowKeys[row] = ((Number) key).longValue();
+    }
+
+    protected void moveRowKey(int from, int to) {
+        rowKeys[to] = rowKeys[from];
+    }
+
+    protected void clearRowKey(int row) {
+        rowKeys[row] = 0;
+    }
+
+    protected Object getRowKey(int row) {
+        if (intKeys) {
+            return (int) rowKeys[row];
+        }
+        return rowKeys[row];
+    }
+
+    protected void ensureRowCapacity(int capacity) {
+        if (capacity > rowKeys.length) {
+            rowKeys = Arrays.copyOf(rowKeys, Math.max(capacity, rowKeys.length * 2));
+        }
+    }
+}
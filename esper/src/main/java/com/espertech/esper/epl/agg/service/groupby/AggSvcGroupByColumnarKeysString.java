@@ -0,0 +1,74 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.service.groupby;
+
+import java.util.Arrays;
+
+/**
+ * Group key index for string keys, keeping the hash code of each key to avoid recomputing it when probing.
+ */
+public class AggSvcGroupByColumnarKeysString extends AggSvcGroupByColumnarKeys {
+    private String[] rowKeys = new String[16];
+    private int[] rowHashes = new int[16];
+
+    protected int findSlot(Object key) {
+        String value = (String) key;
+        int hash = value.hashCode();
+        int slot = spread(hash) & mask;
+        while (true) {
+            int row = slotRows[slot];
+            if (row == NONE || (rowHashes[row] == hash && value.equals(rowKeys[row]))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    protected int findSlotForRow(int row) {
+        int slot = homeSlotForRow(row);
+        while (slotRows[slot] != row) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    protected int homeSlotForRow(int row) {
+        return spread(rowHashes[row]) & mask;
+    }
+
+    protected void setRowKey(int row, Object key) {
+        String value = (String) key;
+        rowKeys[row] = value;
+        rowHashes[row] = value.hashCode();
+    }
+
+    protected void moveRowKey(int from, int to) {
+        rowKeys[to] = rowKeys[from];
+        rowHashes[to] = rowHashes[from];
+    }
+
+    protected void clearRowKey(int row) {
+        rowKeys[row] = null;
+        rowHashes[row] = 0;
+    }
+
+    protected Object getRowKey(int row) {
+        return rowKeys[row];
+    }
+
+    protected void ensureRowCapacity(int capacity) {
+        if (capacity > rowKeys.length) {
+            int newCapacity = Math.max(capacity, rowKeys.length * 2);
+            rowKeys = Arrays.copyOf(rowKeys, newCapacity);
+            rowHashes = Arrays.copyOf(rowHashes, newCapacity);
+        }
+    }
+}
@@ -21,11 +21,14 @@ import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.epl.agg.codegen.AggregationCodegenRowLevelDesc;
 import com.espertech.esper.epl.agg.codegen.AggregationServiceCodegenNames;
+import com.espertech.esper.epl.agg.service.common.AggregationMethodFactory;
 import com.espertech.esper.epl.agg.service.common.AggregationRowStateEvalDesc;
+import com.espertech.esper.epl.agg.service.common.AggregationRowStateForgeDesc;
 import com.espertech.esper.epl.agg.service.common.AggregationServiceCodegenUtil;
 import com.espertech.esper.epl.agg.service.common.AggregationServiceFactory;
 import com.espertech.esper.epl.agg.service.common.AggregationServiceFactoryForge;
 import com.espertech.esper.epl.expression.time.TimeAbacus;
+import com.espertech.esper.util.JavaClassHelper;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -51,14 +54,21 @@ public class AggSvcGroupByForge implements AggregationServiceFactoryForge {
 
     protected final AggGroupByDesc aggGroupByDesc;
     protected final TimeAbacus timeAbacus;
+    private final AggSvcGroupByColumnarAggregator[] columnar;
+    private final Class columnarGroupKeyType;
 
     public AggSvcGroupByForge(AggGroupByDesc aggGroupByDesc, TimeAbacus timeAbacus) {
         this.aggGroupByDesc = aggGroupByDesc;
         this.timeAbacus = timeAbacus;
+        this.columnarGroupKeyType = getColumnarGroupKeyType(aggGroupByDesc);
+        this.columnar = columnarGroupKeyType == null ? null : getColumnarAggregators(aggGroupByDesc);
     }
 
     public AggregationServiceFactory getAggregationServiceFactory(StatementContext stmtContext, boolean isFireAndForget) {
         AggregationRowStateEvalDesc rowStateEvalDesc = aggGroupByDesc.getRowStateForgeDescs().toEval(stmtContext, isFireAndForget);
+        if (columnar != null) {
+            return new AggSvcGroupByColumnarFactory(rowStateEvalDesc, columnar, columnarGroupKeyType, aggGroupByDesc.isRefcounted());
+        }
         if (aggGroupByDesc.isRefcounted()) {
             return new AggSvcGroupByRefcountedFactory(rowStateEvalDesc, aggGroupByDesc.isJoin());
         } else {
@@ -69,6 +79,11 @@ public class AggSvcGroupByForge implements AggregationServiceFactoryForge {
         }
     }
 
+    public boolean isCodegen() {
+        // the columnar service keeps state in primitive columns rather than in generated rows
+        return columnar == null;
+    }
+
     public void rowCtorCodegen(CodegenClassScope classScope, CodegenCtor rowCtor, List<CodegenTypedParam> rowMembers, CodegenNamedMethods namedMethods) {
         AggregationServiceCodegenUtil.generateRefCount(hasRefCounting(), namedMethods, rowCtor, rowMembers, classScope);
         if (aggGroupByDesc.isReclaimAged()) {
@@ -204,6 +219,36 @@ public class AggSvcGroupByForge implements AggregationServiceFactoryForge {
         method.getBlock().methodReturn(constantTrue());
     }
 
+    private static Class getColumnarGroupKeyType(AggGroupByDesc desc) {
+        if (desc.isColumnarDisabled() || desc.isReclaimAged() || desc.getGroupByNodes() == null || desc.getGroupByNodes().length != 1) {
+            return null;
+        }
+        Class keyType = JavaClassHelper.getBoxedType(desc.getGroupByNodes()[0].getForge().getEvaluationType());
+        if (keyType == Long.class || keyType == Integer.class || keyType == String.class) {
+            return keyType;
+        }
+        return null;
+    }
+
+    private static AggSvcGroupByColumnarAggregator[] getColumnarAggregators(AggGroupByDesc desc) {
+        AggregationRowStateForgeDesc rowState = desc.getRowStateForgeDescs();
+        if (rowState.getAccessFactoriesForges() != null && rowState.getAccessFactoriesForges().length != 0) {
+            return null;
+        }
+        AggregationMethodFactory[] factories = rowState.getMethodFactories();
+        if (factories == null || factories.length == 0) {
+            return null;
+        }
+        AggSvcGroupByColumnarAggregator[] columnar = new AggSvcGroupByColumnarAggregator[factories.length];
+        for (int i = 0; i < factories.length; i++) {
+            columnar[i] = AggSvcGroupByColumnarAggregator.fromFactory(factories[i]);
+            if (columnar[i] == null) {
+                return null;
+            }
+        }
+        return columnar;
+    }
+
     private boolean hasRefCounting() {
         return aggGroupByDesc.isRefcounted() || aggGroupByDesc.isReclaimAged();
     }
@@ -13,12 +13,13 @@ package com.espertech.esper.epl.approx;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.util.*;
 import com.espertech.esper.epl.agg.access.AggregationState;
+import com.espertech.esper.epl.agg.access.AggregationStateMergeable;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 
 import java.nio.ByteBuffer;
 import java.util.Collection;
 
-public class CountMinSketchAggState implements AggregationState {
+public class CountMinSketchAggState implements AggregationStateMergeable {
 
     protected final CountMinSketchState state;
     private final CountMinSketchAgent agent;
@@ -57,6 +58,10 @@ public class CountMinSketchAggState implements AggregationState {
         throw new UnsupportedOperationException();
     }
 
+    public void merge(AggregationState other) {
+        state.merge(((CountMinSketchAggState) other).state);
+    }
+
     public CountMinSketchTopK[] getFromBytes() {
         Collection<ByteBuffer> bytes = state.getTopKValues();
         if (bytes.isEmpty()) {
@@ -13,6 +13,7 @@ package com.espertech.esper.epl.approx;
 import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 public class CountMinSketchState {
 
@@ -41,6 +42,25 @@ public class CountMinSketchState {
         }
     }
 
+    /**
+     * Merge another sketch into this sketch. The top-k is re-ranked using the merged frequencies of the
+     * top-k values of both sketches.
+     *
+     * @param other sketch to merge
+     */
+    public void merge(CountMinSketchState other) {
+        hashes.merge(other.hashes);
+        if (topk == null) {
+            return;
+        }
+        List<ByteBuffer> candidates = topk.getTopKValues();
+        candidates.addAll(other.getTopKValues());
+        for (ByteBuffer candidate : candidates) {
+            byte[] bytes = candidate.array();
+            topk.updateExpectIncreasing(bytes, hashes.estimateCount(bytes));
+        }
+    }
+
     public long frequency(byte[] bytes) {
         return hashes.estimateCount(bytes);
     }
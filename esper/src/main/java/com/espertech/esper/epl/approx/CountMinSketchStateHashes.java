@@ -12,6 +12,7 @@ package com.espertech.esper.epl.approx;
 
 import com.espertech.esper.util.MurmurHash;
 
+import java.util.Arrays;
 import java.util.Random;
 
 /**
@@ -101,6 +102,23 @@ public class CountMinSketchStateHashes {
         total += count;
     }
 
+    /**
+     * Add the counts of another sketch, which must have the same dimensions and hash seeds, to this sketch.
+     *
+     * @param other sketch to merge
+     */
+    public void merge(CountMinSketchStateHashes other) {
+        if (depth != other.depth || width != other.width || !Arrays.equals(hash, other.hash)) {
+            throw new IllegalArgumentException("Count-min sketch states to merge have different dimensions or seeds");
+        }
+        for (int i = 0; i < depth; ++i) {
+            for (int j = 0; j < width; ++j) {
+                table[i][j] += other.table[i][j];
+            }
+        }
+        total += other.total;
+    }
+
     private int[] getHashBuckets(byte[] b, int hashCount, int max) {
         int[] result = new int[hashCount];
         int hash1 = MurmurHash.hash(b, 0, b.length, 0);
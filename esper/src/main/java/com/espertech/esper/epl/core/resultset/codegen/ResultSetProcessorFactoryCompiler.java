@@ -99,7 +99,7 @@ public class ResultSetProcessorFactoryCompiler {
             OrderByProcessorCompiler.makeOrderByProcessors(orderByProcessorForge, classScope, innerClasses, providerExplicitMembers, providerCtor, providerClassName, MEMBERNAME_ORDERBYFACTORY);
 
             providerExplicitMembers.add(new CodegenTypedParam(AggregationServiceFactory.class, MEMBERNAME_AGGREGATIONSVCFACTORY));
-            if (!engineImportService.getByteCodeGeneration().isEnableAggregation()) {
+            if (!engineImportService.getByteCodeGeneration().isEnableAggregation() || !aggregationServiceForgeDesc.getAggregationServiceFactoryForge().isCodegen()) {
                 AggregationServiceFactory factory = aggregationServiceForgeDesc.getAggregationServiceFactoryForge().getAggregationServiceFactory(stmtContext, isFireAndForget);
                 CodegenMember memberAggFactory = classScope.makeAddMember(AggregationServiceFactory.class, factory);
                 providerCtor.getBlock().assignRef(MEMBERNAME_AGGREGATIONSVCFACTORY, member(memberAggFactory.getMemberId()));
@@ -13,6 +13,7 @@ package com.espertech.esper.epl.core.resultset.core;
 import com.espertech.esper.client.ConfigurationInformation;
 import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.annotation.HookType;
 import com.espertech.esper.client.annotation.IterableUnbound;
 import com.espertech.esper.collection.Pair;
@@ -310,13 +311,19 @@ public class ResultSetProcessorFactoryFactory {
         ExprNode[] groupByNodesValidated = groupByRollupInfo == null ? ExprNodeUtilityCore.EMPTY_EXPR_ARRAY : groupByRollupInfo.getExprNodes();
         AggregationGroupByRollupDesc groupByRollupDesc = groupByRollupInfo == null ? null : groupByRollupInfo.getRollupDesc();
 
+        // Partial aggregation keeps mergeable aggregation state per partition of a hash-segmented context
+        boolean isPartialAggregation = HintEnum.PARTIAL_AGGREGATION.getHint(statementSpec.getAnnotations()) != null;
+        if (isPartialAggregation && (stmtContext.getContextDescriptor() == null || !(stmtContext.getContextDescriptor().getContextDetail() instanceof ContextDetailHash))) {
+            throw new ExprValidationException("Hint '" + HintEnum.PARTIAL_AGGREGATION + "' requires a statement declared under a hash-segmented context");
+        }
+
         // Construct the appropriate aggregation service
         boolean hasGroupBy = groupByNodesValidated.length > 0;
         AggregationServiceForgeDesc aggregationServiceForgeDesc = AggregationServiceFactoryFactory.getService(
                 selectAggregateExprNodes, selectAggregationNodesNamed, declaredNodes, groupByNodesValidated, havingAggregateExprNodes, orderByAggregateExprNodes, Collections.<ExprAggregateNodeGroupKey>emptyList(), hasGroupBy, statementSpec.getAnnotations(), stmtContext.getVariableService(), typeService.getEventTypes().length > 1, false,
                 statementSpec.getFilterRootNode(), statementSpec.getHavingExprRootNode(),
                 stmtContext.getAggregationServiceFactoryService(), typeService.getEventTypes(), groupByRollupDesc,
-                statementSpec.getOptionalContextName(), statementSpec.getIntoTableSpec(), stmtContext.getTableService(), isUnidirectional, isFireAndForget, isOnSelect, stmtContext.getEngineImportService(), stmtContext.getStatementName(), stmtContext.getTimeAbacus());
+                statementSpec.getOptionalContextName(), statementSpec.getIntoTableSpec(), stmtContext.getTableService(), isUnidirectional, isFireAndForget, isOnSelect, isPartialAggregation, stmtContext.getEngineImportService(), stmtContext.getStatementName(), stmtContext.getTimeAbacus());
 
         // Compare local-aggregation versus group-by
         boolean localGroupByMatchesGroupBy = analyzeLocalGroupBy(groupByNodesValidated, selectAggregateExprNodes, havingAggregateExprNodes, orderByAggregateExprNodes);
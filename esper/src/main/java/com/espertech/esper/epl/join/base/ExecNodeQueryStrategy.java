@@ -25,6 +25,7 @@ public class ExecNodeQueryStrategy implements QueryStrategy {
     private int forStream;
     private int numStreams;
     private ExecNode execNode;
+    private final ArrayDeque<EventBean[]> results = new ArrayDeque<EventBean[]>();
 
     /**
      * CTor.
@@ -44,7 +45,8 @@ public class ExecNodeQueryStrategy implements QueryStrategy {
             return;
         }
 
-        ArrayDeque<EventBean[]> results = new ArrayDeque<EventBean[]>();
+        // the row buffer is reused, discard rows left by a lookup that did not complete
+        results.clear();
         for (EventBean theEvent : lookupEvents) {
             // Set up prototype row
             EventBean[] prototype = new EventBean[numStreams];
@@ -11,6 +11,7 @@
 package com.espertech.esper.epl.join.base;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.ArrayBackedSet;
 import com.espertech.esper.collection.MultiKey;
 import com.espertech.esper.collection.UniformPair;
 import com.espertech.esper.core.context.factory.StatementAgentInstancePostLoadIndexVisitor;
@@ -40,14 +41,20 @@ public class JoinSetComposerImpl implements JoinSetComposer {
     protected Set<MultiKey<EventBean>> oldResults = new LinkedHashSet<MultiKey<EventBean>>();
     protected Set<MultiKey<EventBean>> newResults = new LinkedHashSet<MultiKey<EventBean>>();
 
+    // When the query plan produces unique rows and a single stream provides lookup events, rows are distinct without hashing
+    private final ArrayBackedSet<MultiKey<EventBean>> oldResultsUnique;
+    private final ArrayBackedSet<MultiKey<EventBean>> newResultsUnique;
+
     public JoinSetComposerImpl(boolean allowInitIndex, Map<TableLookupIndexReqKey, EventTable>[] repositories, QueryStrategy[] queryStrategies, boolean isPureSelfJoin,
-                               ExprEvaluatorContext exprEvaluatorContext, boolean joinRemoveStream) {
+                               ExprEvaluatorContext exprEvaluatorContext, boolean joinRemoveStream, boolean uniqueRows) {
         this.allowInitIndex = allowInitIndex;
         this.repositories = JoinSetComposerUtil.toArray(repositories);
         this.queryStrategies = queryStrategies;
         this.isPureSelfJoin = isPureSelfJoin;
         this.exprEvaluatorContext = exprEvaluatorContext;
         this.joinRemoveStream = joinRemoveStream;
+        this.oldResultsUnique = uniqueRows && joinRemoveStream ? new ArrayBackedSet<MultiKey<EventBean>>(16) : null;
+        this.newResultsUnique = uniqueRows ? new ArrayBackedSet<MultiKey<EventBean>>(16) : null;
     }
 
     public boolean allowsInit() {
@@ -85,6 +92,20 @@ public class JoinSetComposerImpl implements JoinSetComposer {
 
         oldResults.clear();
         newResults.clear();
+        Set<MultiKey<EventBean>> oldRows = oldResults;
+        Set<MultiKey<EventBean>> newRows = newResults;
+        if (newResultsUnique != null) {
+            newResultsUnique.clear();
+            if (isSingleStream(newDataPerStream)) {
+                newRows = newResultsUnique;
+            }
+        }
+        if (oldResultsUnique != null) {
+            oldResultsUnique.clear();
+            if (isSingleStream(oldDataPerStream)) {
+                oldRows = oldResultsUnique;
+            }
+        }
 
         // join old data
         if (joinRemoveStream) {
@@ -93,7 +114,7 @@ public class JoinSetComposerImpl implements JoinSetComposer {
                     if (InstrumentationHelper.ENABLED) {
                         InstrumentationHelper.get().qJoinCompositionQueryStrategy(false, i, oldDataPerStream[i]);
                     }
-                    queryStrategies[i].lookup(oldDataPerStream[i], oldResults, exprEvaluatorContext);
+                    queryStrategies[i].lookup(oldDataPerStream[i], oldRows, exprEvaluatorContext);
                     if (InstrumentationHelper.ENABLED) {
                         InstrumentationHelper.get().aJoinCompositionQueryStrategy();
                     }
@@ -122,7 +143,7 @@ public class JoinSetComposerImpl implements JoinSetComposer {
                 if (InstrumentationHelper.ENABLED) {
                     InstrumentationHelper.get().qJoinCompositionQueryStrategy(true, i, newDataPerStream[i]);
                 }
-                queryStrategies[i].lookup(newDataPerStream[i], newResults, exprEvaluatorContext);
+                queryStrategies[i].lookup(newDataPerStream[i], newRows, exprEvaluatorContext);
                 if (InstrumentationHelper.ENABLED) {
                     InstrumentationHelper.get().aJoinCompositionQueryStrategy();
                 }
@@ -139,9 +160,23 @@ public class JoinSetComposerImpl implements JoinSetComposer {
         }
 
         if (InstrumentationHelper.ENABLED) {
-            InstrumentationHelper.get().aJoinCompositionWinToWin(newResults, oldResults);
+            InstrumentationHelper.get().aJoinCompositionWinToWin(newRows, oldRows);
+        }
+        return new UniformPair<Set<MultiKey<EventBean>>>(newRows, oldRows);
+    }
+
+    // Rows are distinct when at most one stream provides lookup events, as each row holds the lookup event of that stream
+    private static boolean isSingleStream(EventBean[][] dataPerStream) {
+        boolean found = false;
+        for (EventBean[] data : dataPerStream) {
+            if (data != null && data.length > 0) {
+                if (found) {
+                    return false;
+                }
+                found = true;
+            }
         }
-        return new UniformPair<Set<MultiKey<EventBean>>>(newResults, oldResults);
+        return true;
     }
 
     /**
@@ -62,6 +62,7 @@ public class JoinSetComposerPrototypeImpl implements JoinSetComposerPrototype {
     private final TableService tableService;
     private final EventTableIndexService eventTableIndexService;
     private final ExprEvaluator postJoinFilterEvaluator;
+    private final boolean uniqueRows;
 
     public JoinSetComposerPrototypeImpl(String statementName,
                                         int statementId,
@@ -98,6 +99,7 @@ public class JoinSetComposerPrototypeImpl implements JoinSetComposerPrototype {
         this.isOuterJoins = isOuterJoins;
         this.tableService = tableService;
         this.eventTableIndexService = eventTableIndexService;
+        this.uniqueRows = QueryPlanBuilder.isUniqueRows(queryPlan.getExecNodeSpecs());
 
         ExprNode filterExpression;
         if (isNonUnidirectionalNonSelf()) {
@@ -195,7 +197,7 @@ public class JoinSetComposerPrototypeImpl implements JoinSetComposerPrototype {
                 if (isFireAndForget) {
                     composer = new JoinSetComposerFAFImpl(indexesPerStream, queryStrategies, streamJoinAnalysisResult.isPureSelfJoin(), exprEvaluatorContext, joinRemoveStream, isOuterJoins);
                 } else {
-                    composer = new JoinSetComposerImpl(eventTableIndexService.allowInitIndex(isRecoveringResilient), indexesPerStream, queryStrategies, streamJoinAnalysisResult.isPureSelfJoin(), exprEvaluatorContext, joinRemoveStream);
+                    composer = new JoinSetComposerImpl(eventTableIndexService.allowInitIndex(isRecoveringResilient), indexesPerStream, queryStrategies, streamJoinAnalysisResult.isPureSelfJoin(), exprEvaluatorContext, joinRemoveStream, uniqueRows);
                 }
             }
 
@@ -122,6 +122,39 @@ public class QueryPlanBuilder {
         return queryPlan;
     }
 
+    /**
+     * Determines whether the execution nodes of a query plan produce distinct result rows when a single stream
+     * provides the lookup events. This is the case when each node only performs index lookups, outer lookups and
+     * nested iterations thereof, since each index lookup returns distinct events and each row contains the lookup event.
+     * Lookup-instruction plans, which combine partial results across streams, and historical data are not considered unique.
+     *
+     * @param execNodeSpecs execution node specs per stream
+     * @return indicator whether rows produced per lookup stream are known to be unique
+     */
+    public static boolean isUniqueRows(QueryPlanNode[] execNodeSpecs) {
+        for (QueryPlanNode node : execNodeSpecs) {
+            if (node != null && !isUniqueRows(node)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isUniqueRows(QueryPlanNode node) {
+        if (node instanceof TableLookupNode || node instanceof TableOuterLookupNode || node instanceof QueryPlanNodeNoOp) {
+            return true;
+        }
+        if (node instanceof NestedIterationNode) {
+            for (QueryPlanNode child : ((NestedIterationNode) node).getChildNodes()) {
+                if (!isUniqueRows(child)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
     // Remove plans for non-unidirectional streams
     private static void removeUnidirectionalAndTable(QueryPlan queryPlan, StreamJoinAnalysisResult streamJoinAnalysisResult) {
         boolean allUnidirectional = streamJoinAnalysisResult.isUnidirectionalAll();
@@ -0,0 +1,112 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.metric;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear histogram of latencies in nanoseconds, for use by any number of recording and reading threads.
+ * <p>
+ * Values below 16 each have their own bucket. Larger values are bucketed by power of two, with each power of two
+ * divided into 16 linear sub-buckets, so that a bucket covers at most 1/16 of its lowest value.
+ * Values of 2^41 nanoseconds (about 36 minutes) and more are counted in the last bucket.
+ * </p>
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MAX_EXP = 40;
+
+    /**
+     * Number of buckets.
+     */
+    public static final int NUM_BUCKETS = SUB_COUNT + (MAX_EXP - SUB_BITS + 1) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+
+    /**
+     * Record a value.
+     *
+     * @param nanos latency in nanoseconds
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(index(nanos));
+    }
+
+    /**
+     * Adds the counts recorded so far to the given totals.
+     *
+     * @param totals totals per bucket
+     */
+    public void addTo(long[] totals) {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            totals[i] += counts.get(i);
+        }
+    }
+
+    /**
+     * Returns the bucket index for a value.
+     *
+     * @param value value
+     * @return bucket index
+     */
+    public static int index(long value) {
+        if (value < SUB_COUNT) {
+            return value < 0 ? 0 : (int) value;
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        if (exp > MAX_EXP) {
+            return NUM_BUCKETS - 1;
+        }
+        int shift = exp - SUB_BITS;
+        int sub = (int) (value >>> shift) - SUB_COUNT;
+        return SUB_COUNT + shift * SUB_COUNT + sub;
+    }
+
+    /**
+     * Returns the highest value that falls into the bucket.
+     *
+     * @param index bucket index
+     * @return highest value of bucket
+     */
+    public static long highestValue(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_COUNT) / SUB_COUNT;
+        long sub = SUB_COUNT + (index - SUB_COUNT) % SUB_COUNT;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * Returns the value at the given percentile of the bucket counts, as the highest value of the bucket
+     * that the percentile falls into.
+     *
+     * @param counts   counts per bucket
+     * @param total    total of counts
+     * @param fraction percentile as a fraction between zero and one
+     * @return value at percentile, or zero if there are no counts
+     */
+    public static long valueAtPercentile(long[] counts, long total, double fraction) {
+        if (total <= 0) {
+            return 0;
+        }
+        long threshold = Math.max(1, (long) Math.ceil(fraction * total));
+        long sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            sum += counts[i];
+            if (sum >= threshold) {
+                return highestValue(i);
+            }
+        }
+        return highestValue(counts.length - 1);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.metric;
+
+import com.espertech.esper.client.metric.LatencyMetric;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records latencies into a fixed number of histogram stripes, selected by a hash of the recording thread id,
+ * so that recording rarely contends between threads, and reports the percentiles of the latencies recorded since the last report.
+ * <p>
+ * A stripe histogram is allocated when a thread first records into the stripe. The number of stripes does not depend
+ * on the number of threads that ever recorded, so short-lived threads do not add histograms.
+ * </p>
+ */
+public class LatencyRecorder {
+    private static final int NUM_STRIPES = numStripes(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicReferenceArray<LatencyHistogram> stripes = new AtomicReferenceArray<LatencyHistogram>(NUM_STRIPES);
+    private long[] lastTotals = new long[LatencyHistogram.NUM_BUCKETS];
+    private LatencyMetric last;
+
+    /**
+     * Record a latency.
+     *
+     * @param nanos latency in nanoseconds
+     */
+    public void record(long nanos) {
+        int stripe = stripe(Thread.currentThread().getId());
+        LatencyHistogram histogram = stripes.get(stripe);
+        if (histogram == null) {
+            stripes.compareAndSet(stripe, null, new LatencyHistogram());
+            histogram = stripes.get(stripe);
+        }
+        histogram.record(nanos);
+    }
+
+    /**
+     * Computes the percentiles of the latencies recorded since the last call to this method.
+     *
+     * @return latency metric for the interval
+     */
+    public synchronized LatencyMetric reportInterval() {
+        long[] totals = new long[LatencyHistogram.NUM_BUCKETS];
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            LatencyHistogram histogram = stripes.get(i);
+            if (histogram != null) {
+                histogram.addTo(totals);
+            }
+        }
+
+        long[] interval = new long[LatencyHistogram.NUM_BUCKETS];
+        long count = 0;
+        int highest = -1;
+        for (int i = 0; i < interval.length; i++) {
+            interval[i] = totals[i] - lastTotals[i];
+            if (interval[i] > 0) {
+                count += interval[i];
+                highest = i;
+            }
+        }
+        lastTotals = totals;
+
+        last = new LatencyMetric(count,
+                LatencyHistogram.valueAtPercentile(interval, count, 0.5),
+                LatencyHistogram.valueAtPercentile(interval, count, 0.99),
+                LatencyHistogram.valueAtPercentile(interval, count, 0.999),
+                highest == -1 ? 0 : LatencyHistogram.highestValue(highest));
+        return last;
+    }
+
+    /**
+     * Returns the latency metric of the last report, or null if not reported yet.
+     *
+     * @return last latency metric
+     */
+    public synchronized LatencyMetric getLast() {
+        return last;
+    }
+
+    /**
+     * Returns the number of histogram stripes allocated.
+     *
+     * @return number of histograms
+     */
+    int getNumHistograms() {
+        int count = 0;
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            if (stripes.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int stripe(long threadId) {
+        // thread ids are sequential, spread them so that pool threads use different stripes
+        long hash = threadId * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (NUM_STRIPES - 1);
+    }
+
+    private static int numStripes(int processors) {
+        // power of two at least twice the number of processors, at most 64
+        int stripes = Integer.highestOneBit(Math.max(1, processors * 2 - 1)) << 1;
+        return Math.min(stripes, 64);
+    }
+}
@@ -11,6 +11,8 @@
 package com.espertech.esper.epl.metric;
 
 import com.espertech.esper.client.metric.EngineMetric;
+import com.espertech.esper.codegen.compile.CodegenClassCache;
+import com.espertech.esper.codegen.compile.CodegenCompiler;
 
 /**
  * Metrics execution producing engine metric events.
@@ -20,6 +22,7 @@ public class MetricExecEngine implements MetricExec {
     private final String engineURI;
     private final MetricScheduleService metricScheduleService;
     private final long interval;
+    private final MetricLatencyService latencyService;
     private EngineMetric lastMetric;
 
     /**
@@ -29,19 +32,31 @@ public class MetricExecEngine implements MetricExec {
      * @param engineURI             engine uri
      * @param metricScheduleService for scheduling a new execution
      * @param interval              for rescheduling the execution
+     * @param latencyService        latency histograms, or null if latency histograms are not enabled
      */
-    public MetricExecEngine(MetricEventRouter metricEventRouter, String engineURI, MetricScheduleService metricScheduleService, long interval) {
+    public MetricExecEngine(MetricEventRouter metricEventRouter, String engineURI, MetricScheduleService metricScheduleService, long interval, MetricLatencyService latencyService) {
         this.metricEventRouter = metricEventRouter;
         this.engineURI = engineURI;
         this.metricScheduleService = metricScheduleService;
         this.interval = interval;
+        this.latencyService = latencyService;
     }
 
     public void execute(MetricExecutionContext context) {
         long inputCount = context.getServices().getFilterService().getNumEventsEvaluated();
         long schedDepth = context.getServices().getSchedulingService().getScheduleHandleCount();
         long deltaInputCount = lastMetric == null ? inputCount : inputCount - lastMetric.getInputCount();
-        EngineMetric metric = new EngineMetric(engineURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth);
+        CodegenCompiler codegenCompiler = context.getServices().getEngineImportService().getCodegenCompiler();
+        CodegenClassCache classCache = codegenCompiler == null ? null : codegenCompiler.getClassCache();
+        long cacheHits = classCache == null ? 0 : classCache.getHitCount();
+        long cacheMisses = classCache == null ? 0 : classCache.getMissCount();
+        EngineMetric metric;
+        if (latencyService == null) {
+            metric = new EngineMetric(engineURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth, cacheHits, cacheMisses);
+        } else {
+            metric = new EngineMetric(engineURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth, cacheHits, cacheMisses,
+                    latencyService.getFilter().reportInterval(), latencyService.getStatement().reportInterval(), latencyService.getDispatch().reportInterval());
+        }
         lastMetric = metric;
         metricEventRouter.route(metric);
         metricScheduleService.add(interval, this);
@@ -0,0 +1,108 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.metric;
+
+import com.espertech.esper.client.metric.LatencyMetric;
+import com.espertech.esper.metrics.jmx.JmxGetter;
+
+/**
+ * Engine-wide latency histograms per processing stage, i.e. filter evaluation, statement processing and dispatch,
+ * available to engine metrics and to JMX.
+ */
+public class MetricLatencyService {
+    private final LatencyRecorder filter = new LatencyRecorder();
+    private final LatencyRecorder statement = new LatencyRecorder();
+    private final LatencyRecorder dispatch = new LatencyRecorder();
+
+    /**
+     * Returns the recorder for filter evaluation per event.
+     *
+     * @return recorder
+     */
+    public LatencyRecorder getFilter() {
+        return filter;
+    }
+
+    /**
+     * Returns the recorder for statement processing per statement and event.
+     *
+     * @return recorder
+     */
+    public LatencyRecorder getStatement() {
+        return statement;
+    }
+
+    /**
+     * Returns the recorder for dispatch to listeners and subscribers.
+     *
+     * @return recorder
+     */
+    public LatencyRecorder getDispatch() {
+        return dispatch;
+    }
+
+    @JmxGetter(name = "FilterLatencyP50", description = "Median filter evaluation latency in nanoseconds, as of last engine metric")
+    public long getFilterLatencyP50() {
+        return p50(filter.getLast());
+    }
+
+    @JmxGetter(name = "FilterLatencyP99", description = "99th percentile filter evaluation latency in nanoseconds, as of last engine metric")
+    public long getFilterLatencyP99() {
+        return p99(filter.getLast());
+    }
+
+    @JmxGetter(name = "FilterLatencyP999", description = "99.9th percentile filter evaluation latency in nanoseconds, as of last engine metric")
+    public long getFilterLatencyP999() {
+        return p999(filter.getLast());
+    }
+
+    @JmxGetter(name = "StatementLatencyP50", description = "Median statement processing latency in nanoseconds, as of last engine metric")
+    public long getStatementLatencyP50() {
+        return p50(statement.getLast());
+    }
+
+    @JmxGetter(name = "StatementLatencyP99", description = "99th percentile statement processing latency in nanoseconds, as of last engine metric")
+    public long getStatementLatencyP99() {
+        return p99(statement.getLast());
+    }
+
+    @JmxGetter(name = "StatementLatencyP999", description = "99.9th percentile statement processing latency in nanoseconds, as of last engine metric")
+    public long getStatementLatencyP999() {
+        return p999(statement.getLast());
+    }
+
+    @JmxGetter(name = "DispatchLatencyP50", description = "Median dispatch latency in nanoseconds, as of last engine metric")
+    public long getDispatchLatencyP50() {
+        return p50(dispatch.getLast());
+    }
+
+    @JmxGetter(name = "DispatchLatencyP99", description = "99th percentile dispatch latency in nanoseconds, as of last engine metric")
+    public long getDispatchLatencyP99() {
+        return p99(dispatch.getLast());
+    }
+
+    @JmxGetter(name = "DispatchLatencyP999", description = "99.9th percentile dispatch latency in nanoseconds, as of last engine metric")
+    public long getDispatchLatencyP999() {
+        return p999(dispatch.getLast());
+    }
+
+    private static long p50(LatencyMetric metric) {
+        return metric == null ? 0 : metric.getP50();
+    }
+
+    private static long p99(LatencyMetric metric) {
+        return metric == null ? 0 : metric.getP99();
+    }
+
+    private static long p999(LatencyMetric metric) {
+        return metric == null ? 0 : metric.getP999();
+    }
+}
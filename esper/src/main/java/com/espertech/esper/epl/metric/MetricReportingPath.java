@@ -24,6 +24,11 @@ public class MetricReportingPath {
      */
     public static boolean isMetricsEnabled = false;
 
+    /**
+     * Public access.
+     */
+    public static boolean isLatencyEnabled = false;
+
     /**
      * Sets execution path debug logging.
      *
@@ -37,4 +42,13 @@ public class MetricReportingPath {
         }
         isMetricsEnabled = metricsEnabled;
     }
+
+    /**
+     * Sets whether filter evaluation and dispatch latencies are recorded into latency histograms.
+     *
+     * @param latencyEnabled true if latency histograms should be recorded
+     */
+    public static void setLatencyEnabled(boolean latencyEnabled) {
+        isLatencyEnabled = latencyEnabled;
+    }
 }
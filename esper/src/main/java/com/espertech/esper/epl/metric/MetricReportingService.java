@@ -56,6 +56,27 @@ public interface MetricReportingService {
      */
     public void accountOutput(StatementMetricHandle handle, int numIStream, int numRStream);
 
+    /**
+     * Account for the latency of evaluating filters for an event, if latency histograms are enabled.
+     *
+     * @param deltaWall wall time nsec
+     */
+    public void accountFilterLatency(long deltaWall);
+
+    /**
+     * Account for the latency of dispatching to listeners and subscribers, if latency histograms are enabled.
+     *
+     * @param deltaWall wall time nsec
+     */
+    public void accountDispatchLatency(long deltaWall);
+
+    /**
+     * Returns the engine-wide latency histograms.
+     *
+     * @return latency service, or null if latency histograms are not enabled
+     */
+    public MetricLatencyService getLatencyService();
+
     /**
      * Returns for a new statement a handle for later accounting.
      *
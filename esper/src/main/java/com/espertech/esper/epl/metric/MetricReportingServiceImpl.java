@@ -41,6 +41,7 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
     private boolean isScheduled;
     private final MetricScheduleService schedule;
     private final StatementMetricRepository stmtMetricRepository;
+    private final MetricLatencyService latencyService;
 
     private MetricExecEngine metricExecEngine;
     private MetricExecStatement metricExecStmtGroupDefault;
@@ -66,6 +67,7 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
         schedule = new MetricScheduleService();
 
         stmtMetricRepository = new StatementMetricRepository(engineUri, specification);
+        latencyService = specification.isLatencyHistograms() ? new MetricLatencyService() : null;
         statementGroupExecutions = new LinkedHashMap<String, MetricExecStatement>();
         statementMetricHandles = new HashMap<String, StatementMetricHandle>();
         statementOutputHooks = new CopyOnWriteArraySet<StatementResultListener>();
@@ -93,7 +95,7 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
         MetricExecutionContext metricsExecutionContext = new MetricExecutionContext(servicesContext, runtime, stmtMetricRepository);
 
         // create all engine and statement executions
-        metricExecEngine = new MetricExecEngine(this, engineUri, schedule, specification.getEngineInterval());
+        metricExecEngine = new MetricExecEngine(this, engineUri, schedule, specification.getEngineInterval(), latencyService);
         metricExecStmtGroupDefault = new MetricExecStatement(this, schedule, specification.getStatementInterval(), 0);
 
         int countGroups = 1;
@@ -158,6 +160,25 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
 
     public void accountTime(StatementMetricHandle metricsHandle, long deltaCPU, long deltaWall, int numInputEvents) {
         stmtMetricRepository.accountTimes(metricsHandle, deltaCPU, deltaWall, numInputEvents);
+        if (latencyService != null) {
+            latencyService.getStatement().record(deltaWall);
+        }
+    }
+
+    public void accountFilterLatency(long deltaWall) {
+        if (latencyService != null) {
+            latencyService.getFilter().record(deltaWall);
+        }
+    }
+
+    public void accountDispatchLatency(long deltaWall) {
+        if (latencyService != null) {
+            latencyService.getDispatch().record(deltaWall);
+        }
+    }
+
+    public MetricLatencyService getLatencyService() {
+        return latencyService;
     }
 
     public void accountOutput(StatementMetricHandle handle, int numIStream, int numRStream) {
@@ -46,6 +46,9 @@ public class StatementMetricArray {
     // Active statements
     private String[] statementNames;
 
+    // Latency recorder per statement, if latency histograms are enabled
+    private LatencyRecorder[] latencies;
+
     // Count of active statements
     private int currentLastElement;
 
@@ -69,6 +72,7 @@ public class StatementMetricArray {
 
         metrics = new StatementMetric[initialSize];
         statementNames = new String[initialSize];
+        latencies = new LatencyRecorder[initialSize];
         currentLastElement = -1;
         rwLock = new ManagedReadWriteLock("StatementMetricArray-" + name, true);
         removedStatementNames = new HashSet<String>();
@@ -90,6 +94,7 @@ public class StatementMetricArray {
                 for (int i = 0; i <= currentLastElement; i++) {
                     if (removedStatementNames.contains(statementNames[i])) {
                         statementNames[i] = null;
+                        latencies[i] = null;
                     }
                 }
                 removedStatementNames.clear();
@@ -108,12 +113,24 @@ public class StatementMetricArray {
      * @return index added to
      */
     public int addStatementGetIndex(String statementName) {
+        return addStatementGetIndex(statementName, null);
+    }
+
+    /**
+     * Adds a statement and returns the index added at.
+     *
+     * @param statementName to add
+     * @param latency       latency recorder of the statement, or null if latency histograms are not enabled
+     * @return index added to
+     */
+    public int addStatementGetIndex(String statementName, LatencyRecorder latency) {
         rwLock.acquireWriteLock();
         try {
             // see if there is room
             if ((currentLastElement + 1) < metrics.length) {
                 currentLastElement++;
                 statementNames[currentLastElement] = statementName;
+                latencies[currentLastElement] = latency;
                 return currentLastElement;
             }
 
@@ -121,6 +138,7 @@ public class StatementMetricArray {
             for (int i = 0; i < statementNames.length; i++) {
                 if (statementNames[i] == null) {
                     statementNames[i] = statementName;
+                    latencies[i] = latency;
                     if ((i + 1) > currentLastElement) {
                         currentLastElement = i;
                     }
@@ -132,14 +150,18 @@ public class StatementMetricArray {
             int newSize = (int) (metrics.length * 1.5);
             String[] newStatementNames = new String[newSize];
             StatementMetric[] newMetrics = new StatementMetric[newSize];
+            LatencyRecorder[] newLatencies = new LatencyRecorder[newSize];
             System.arraycopy(statementNames, 0, newStatementNames, 0, statementNames.length);
             System.arraycopy(metrics, 0, newMetrics, 0, metrics.length);
+            System.arraycopy(latencies, 0, newLatencies, 0, latencies.length);
 
             statementNames = newStatementNames;
             metrics = newMetrics;
+            latencies = newLatencies;
 
             currentLastElement++;
             statementNames[currentLastElement] = statementName;
+            latencies[currentLastElement] = latency;
 
             return currentLastElement;
         } finally {
@@ -173,11 +195,19 @@ public class StatementMetricArray {
                 }
             }
 
+            // merge the latencies recorded during the interval
+            for (int i = 0; i <= currentLastElement; i++) {
+                if (metrics[i] != null && latencies[i] != null) {
+                    metrics[i].setLatency(latencies[i].reportInterval());
+                }
+            }
+
             // remove statement ids that disappeared during the interval
             if ((currentLastElement > -1) && (!removedStatementNames.isEmpty())) {
                 for (int i = 0; i <= currentLastElement; i++) {
                     if (removedStatementNames.contains(statementNames[i])) {
                         statementNames[i] = null;
+                        latencies[i] = null;
                     }
                 }
             }
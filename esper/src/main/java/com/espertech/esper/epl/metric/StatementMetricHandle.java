@@ -16,6 +16,7 @@ package com.espertech.esper.epl.metric;
 public class StatementMetricHandle {
     private final int groupNum;
     private final int index;
+    private final LatencyRecorder latency;
     private boolean isEnabled;
 
     /**
@@ -25,8 +26,20 @@ public class StatementMetricHandle {
      * @param index    index slot
      */
     public StatementMetricHandle(int groupNum, int index) {
+        this(groupNum, index, null);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param groupNum group number, zero for default group
+     * @param index    index slot
+     * @param latency  latency recorder, or null if latency histograms are not enabled
+     */
+    public StatementMetricHandle(int groupNum, int index, LatencyRecorder latency) {
         this.groupNum = groupNum;
         this.index = index;
+        this.latency = latency;
         this.isEnabled = true;
     }
 
@@ -48,6 +61,15 @@ public class StatementMetricHandle {
         return index;
     }
 
+    /**
+     * Returns the latency recorder for the statement, or null if latency histograms are not enabled.
+     *
+     * @return latency recorder
+     */
+    public LatencyRecorder getLatency() {
+        return latency;
+    }
+
     /**
      * Returns true if enabled for statement.
      *
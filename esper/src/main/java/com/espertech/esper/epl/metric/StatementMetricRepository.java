@@ -86,11 +86,12 @@ public class StatementMetricRepository {
             groupNumber = 0;
         }
 
-        int index = groupMetrics[groupNumber].addStatementGetIndex(stmtName);
+        LatencyRecorder latency = specification.isLatencyHistograms() ? new LatencyRecorder() : null;
+        int index = groupMetrics[groupNumber].addStatementGetIndex(stmtName, latency);
 
         statementGroups.put(stmtName, groupNumber);
 
-        return new StatementMetricHandle(groupNumber, index);
+        return new StatementMetricHandle(groupNumber, index, latency);
     }
 
     /**
@@ -121,6 +122,9 @@ public class StatementMetricRepository {
             metric.addCPUTime(cpu);
             metric.addWallTime(wall);
             metric.addNumInput(numInput);
+            if (handle.getLatency() != null) {
+                handle.getLatency().record(wall);
+            }
         } finally {
             array.getRwLock().releaseReadLock();
         }
@@ -39,6 +39,13 @@ public interface NamedWindowDispatchService {
      */
     boolean dispatch();
 
+    /**
+     * Returns true if the current thread has named window results waiting to be dispatched to consuming views.
+     *
+     * @return indicator whether a dispatch is outstanding
+     */
+    boolean hasDispatches();
+
     /**
      * For use to add a result of a named window that must be dispatched to consuming views.
      *
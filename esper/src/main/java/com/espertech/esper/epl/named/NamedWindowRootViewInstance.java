@@ -22,6 +22,8 @@ import com.espertech.esper.epl.join.table.EventTable;
 import com.espertech.esper.epl.join.table.EventTableUtil;
 import com.espertech.esper.epl.lookup.*;
 import com.espertech.esper.epl.virtualdw.VirtualDWView;
+import com.espertech.esper.event.offheap.OffHeapEventSerdeFactory;
+import com.espertech.esper.event.offheap.OffHeapEventStore;
 import com.espertech.esper.util.CollectionUtil;
 import com.espertech.esper.view.ViewSupport;
 import com.espertech.esper.view.Viewable;
@@ -43,6 +45,7 @@ public class NamedWindowRootViewInstance extends ViewSupport {
 
     private final EventTableIndexRepository indexRepository;
     private final Map<SubordWMatchExprLookupStrategy, EventTable[]> tablePerMultiLookup;
+    private final OffHeapEventStore offHeapStore;
 
     private Iterable<EventBean> dataWindowContents;
 
@@ -59,6 +62,12 @@ public class NamedWindowRootViewInstance extends ViewSupport {
         }
 
         this.tablePerMultiLookup = new HashMap<SubordWMatchExprLookupStrategy, EventTable[]>();
+
+        if (rootView.isOffHeapStorage()) {
+            offHeapStore = new OffHeapEventStore(OffHeapEventSerdeFactory.getSerde(rootView.getEventType()), OffHeapEventStore.DEFAULT_SEGMENT_SIZE);
+        } else {
+            offHeapStore = null;
+        }
     }
 
     public AgentInstanceContext getAgentInstanceContext() {
@@ -73,6 +82,15 @@ public class NamedWindowRootViewInstance extends ViewSupport {
         return indexRepository.getIndexDescriptors();
     }
 
+    /**
+     * Returns the off-heap storage for events held, or null when events are held on the heap.
+     *
+     * @return off-heap store
+     */
+    public OffHeapEventStore getOffHeapStore() {
+        return offHeapStore;
+    }
+
     public Iterable<EventBean> getDataWindowContents() {
         return dataWindowContents;
     }
@@ -99,6 +117,9 @@ public class NamedWindowRootViewInstance extends ViewSupport {
                 table.remove(oldData, agentInstanceContext);
             }
         }
+        if (offHeapStore != null) {
+            offHeapStore.remove(oldData);
+        }
     }
 
     /**
@@ -120,6 +141,11 @@ public class NamedWindowRootViewInstance extends ViewSupport {
         if (rootView.getRevisionProcessor() != null) {
             rootView.getRevisionProcessor().onUpdate(newData, oldData, this, indexRepository);
         } else {
+            // Move new events to off-heap storage, the data window and indexes hold the off-heap events
+            if (offHeapStore != null && newData != null) {
+                newData = offHeapStore.add(newData);
+            }
+
             // Update indexes for fast deletion, if there are any
             for (EventTable table : indexRepository.getTables()) {
                 if (rootView.isChildBatching()) {
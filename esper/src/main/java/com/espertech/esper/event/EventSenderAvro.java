@@ -12,7 +12,8 @@ package com.espertech.esper.event;
 
 import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
-import com.espertech.esper.client.EventSender;
+import com.espertech.esper.client.EventSenderBatch;
+import com.espertech.esper.client.EventSenderKeyed;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.core.service.EPRuntimeEventSender;
 import com.espertech.esper.core.thread.InboundUnitSendWrapped;
@@ -24,7 +25,7 @@ import com.espertech.esper.core.thread.ThreadingService;
  * <p>
  * Allows sending only event objects of type GenericData.Record, does not check contents. Any other event object generates an error.
  */
-public class EventSenderAvro implements EventSender {
+public class EventSenderAvro implements EventSenderBatch, EventSenderKeyed {
     private final EPRuntimeEventSender runtimeEventSender;
     private final EventAdapterService eventAdapterService;
     private final EventType eventType;
@@ -46,15 +47,27 @@ public class EventSenderAvro implements EventSender {
     }
 
     public void sendEvent(Object theEvent) {
+        sendEvent(theEvent, null);
+    }
+
+    public void sendEvent(Object theEvent, Object partitionKey) {
         EventBean eventBean = eventAdapterService.adapterForTypedAvro(theEvent, eventType);
 
         if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
-            threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, runtimeEventSender));
+            threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, runtimeEventSender), partitionKey);
         } else {
             runtimeEventSender.processWrappedEvent(eventBean);
         }
     }
 
+    public void sendEvents(Object[] theEvents) {
+        EventBean[] eventBeans = new EventBean[theEvents.length];
+        for (int i = 0; i < theEvents.length; i++) {
+            eventBeans[i] = eventAdapterService.adapterForTypedAvro(theEvents[i], eventType);
+        }
+        EventSenderBatchHelper.processBatch(eventBeans, runtimeEventSender, threadingService);
+    }
+
     public void route(Object theEvent) {
         if (!(theEvent.getClass().isArray())) {
             throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected Object[]");
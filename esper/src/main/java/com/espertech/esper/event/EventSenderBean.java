@@ -12,7 +12,8 @@ package com.espertech.esper.event;
 
 import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
-import com.espertech.esper.client.EventSender;
+import com.espertech.esper.client.EventSenderBatch;
+import com.espertech.esper.client.EventSenderKeyed;
 import com.espertech.esper.client.time.CurrentTimeEvent;
 import com.espertech.esper.core.service.EPRuntimeEventSender;
 import com.espertech.esper.core.thread.InboundUnitSendWrapped;
@@ -33,7 +34,7 @@ import java.util.Set;
  * Allows sending only event objects of the underlying type matching the event type, or
  * implementing the interface or extending the type. Any other event object generates an error.
  */
-public class EventSenderBean implements EventSender {
+public class EventSenderBean implements EventSenderBatch, EventSenderKeyed {
     private static final Logger log = LoggerFactory.getLogger(EventSenderBean.class);
     private final EPRuntimeEventSender runtime;
     private final BeanEventType beanEventType;
@@ -58,6 +59,10 @@ public class EventSenderBean implements EventSender {
     }
 
     public void sendEvent(Object theEvent) {
+        sendEvent(theEvent, null);
+    }
+
+    public void sendEvent(Object theEvent, Object partitionKey) {
         if (theEvent == null) {
             throw new NullPointerException("No event object provided to sendEvent method");
         }
@@ -72,12 +77,23 @@ public class EventSenderBean implements EventSender {
 
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
-            threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, runtime));
+            threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, runtime), partitionKey);
         } else {
             runtime.processWrappedEvent(eventBean);
         }
     }
 
+    public void sendEvents(Object[] theEvents) {
+        EventBean[] eventBeans = new EventBean[theEvents.length];
+        for (int i = 0; i < theEvents.length; i++) {
+            if (theEvents[i] == null) {
+                throw new NullPointerException("No event object provided to sendEvents method");
+            }
+            eventBeans[i] = getEventBean(theEvents[i]);
+        }
+        EventSenderBatchHelper.processBatch(eventBeans, runtime, threadingService);
+    }
+
     public void route(Object theEvent) throws EPException {
         EventBean eventBean = getEventBean(theEvent);
         runtime.routeEventBean(eventBean);
@@ -12,7 +12,8 @@ package com.espertech.esper.event;
 
 import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
-import com.espertech.esper.client.EventSender;
+import com.espertech.esper.client.EventSenderBatch;
+import com.espertech.esper.client.EventSenderKeyed;
 import com.espertech.esper.core.service.EPRuntimeEventSender;
 import com.espertech.esper.core.thread.InboundUnitSendWrapped;
 import com.espertech.esper.core.thread.ThreadingOption;
@@ -26,7 +27,7 @@ import java.util.Map;
  * <p>
  * Allows sending only event objects of type map, does not check map contents. Any other event object generates an error.
  */
-public class EventSenderMap implements EventSender {
+public class EventSenderMap implements EventSenderBatch, EventSenderKeyed {
     private final EPRuntimeEventSender runtimeEventSender;
     private final EventAdapterService eventAdapterService;
     private final MapEventType mapEventType;
@@ -48,6 +49,10 @@ public class EventSenderMap implements EventSender {
     }
 
     public void sendEvent(Object theEvent) {
+        sendEvent(theEvent, null);
+    }
+
+    public void sendEvent(Object theEvent, Object partitionKey) {
         if (!(theEvent instanceof Map)) {
             throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected " + Map.class.getName());
         }
@@ -56,12 +61,23 @@ public class EventSenderMap implements EventSender {
         EventBean mapEvent = eventAdapterService.adapterForTypedMap(map, mapEventType);
 
         if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
-            threadingService.submitInbound(new InboundUnitSendWrapped(mapEvent, runtimeEventSender));
+            threadingService.submitInbound(new InboundUnitSendWrapped(mapEvent, runtimeEventSender), partitionKey);
         } else {
             runtimeEventSender.processWrappedEvent(mapEvent);
         }
     }
 
+    public void sendEvents(Object[] theEvents) {
+        EventBean[] eventBeans = new EventBean[theEvents.length];
+        for (int i = 0; i < theEvents.length; i++) {
+            if (!(theEvents[i] instanceof Map)) {
+                throw new EPException("Unexpected event object of type " + (theEvents[i] == null ? "null" : theEvents[i].getClass().getName()) + ", expected " + Map.class.getName());
+            }
+            eventBeans[i] = eventAdapterService.adapterForTypedMap((Map<String, Object>) theEvents[i], mapEventType);
+        }
+        EventSenderBatchHelper.processBatch(eventBeans, runtimeEventSender, threadingService);
+    }
+
     public void route(Object theEvent) {
         if (!(theEvent instanceof Map)) {
             throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected " + Map.class.getName());
@@ -12,7 +12,8 @@ package com.espertech.esper.event;
 
 import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
-import com.espertech.esper.client.EventSender;
+import com.espertech.esper.client.EventSenderBatch;
+import com.espertech.esper.client.EventSenderKeyed;
 import com.espertech.esper.core.service.EPRuntimeEventSender;
 import com.espertech.esper.core.thread.InboundUnitSendWrapped;
 import com.espertech.esper.core.thread.ThreadingOption;
@@ -24,7 +25,7 @@ import com.espertech.esper.event.arr.ObjectArrayEventType;
  * <p>
  * Allows sending only event objects of type map, does not check map contents. Any other event object generates an error.
  */
-public class EventSenderObjectArray implements EventSender {
+public class EventSenderObjectArray implements EventSenderBatch, EventSenderKeyed {
     private final EPRuntimeEventSender runtimeEventSender;
     private final EventAdapterService eventAdapterService;
     private final ObjectArrayEventType objectArrayEventType;
@@ -46,6 +47,10 @@ public class EventSenderObjectArray implements EventSender {
     }
 
     public void sendEvent(Object theEvent) {
+        sendEvent(theEvent, null);
+    }
+
+    public void sendEvent(Object theEvent, Object partitionKey) {
         if (!(theEvent.getClass().isArray())) {
             throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected Object[]");
         }
@@ -54,12 +59,23 @@ public class EventSenderObjectArray implements EventSender {
         EventBean objectArrayEvent = eventAdapterService.adapterForTypedObjectArray(arr, objectArrayEventType);
 
         if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
-            threadingService.submitInbound(new InboundUnitSendWrapped(objectArrayEvent, runtimeEventSender));
+            threadingService.submitInbound(new InboundUnitSendWrapped(objectArrayEvent, runtimeEventSender), partitionKey);
         } else {
             runtimeEventSender.processWrappedEvent(objectArrayEvent);
         }
     }
 
+    public void sendEvents(Object[] theEvents) {
+        EventBean[] eventBeans = new EventBean[theEvents.length];
+        for (int i = 0; i < theEvents.length; i++) {
+            if (!(theEvents[i] instanceof Object[])) {
+                throw new EPException("Unexpected event object of type " + (theEvents[i] == null ? "null" : theEvents[i].getClass().getName()) + ", expected Object[]");
+            }
+            eventBeans[i] = eventAdapterService.adapterForTypedObjectArray((Object[]) theEvents[i], objectArrayEventType);
+        }
+        EventSenderBatchHelper.processBatch(eventBeans, runtimeEventSender, threadingService);
+    }
+
     public void route(Object theEvent) {
         if (!(theEvent.getClass().isArray())) {
             throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected Object[]");
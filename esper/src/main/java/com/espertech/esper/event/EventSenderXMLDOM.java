@@ -12,7 +12,8 @@ package com.espertech.esper.event;
 
 import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
-import com.espertech.esper.client.EventSender;
+import com.espertech.esper.client.EventSenderBatch;
+import com.espertech.esper.client.EventSenderKeyed;
 import com.espertech.esper.core.service.EPRuntimeEventSender;
 import com.espertech.esper.core.thread.InboundUnitSendWrapped;
 import com.espertech.esper.core.thread.ThreadingOption;
@@ -28,7 +29,7 @@ import org.w3c.dom.Node;
  * Allows sending only event objects of type Node or Document, does check the root name of the XML document
  * which must match the event type root name as configured. Any other event object generates an error.
  */
-public class EventSenderXMLDOM implements EventSender {
+public class EventSenderXMLDOM implements EventSenderBatch, EventSenderKeyed {
     private final EPRuntimeEventSender runtimeEventSender;
     private final BaseXMLEventType baseXMLEventType;
     private final boolean validateRootElement;
@@ -52,14 +53,39 @@ public class EventSenderXMLDOM implements EventSender {
     }
 
     public void sendEvent(Object theEvent) throws EPException {
-        sendEvent(theEvent, false);
+        sendEvent(theEvent, null, false);
+    }
+
+    public void sendEvent(Object theEvent, Object partitionKey) throws EPException {
+        sendEvent(theEvent, partitionKey, false);
     }
 
     public void route(Object theEvent) throws EPException {
-        sendEvent(theEvent, true);
+        sendEvent(theEvent, null, true);
+    }
+
+    public void sendEvents(Object[] theEvents) throws EPException {
+        EventBean[] eventBeans = new EventBean[theEvents.length];
+        for (int i = 0; i < theEvents.length; i++) {
+            eventBeans[i] = getEventBean(theEvents[i]);
+        }
+        EventSenderBatchHelper.processBatch(eventBeans, runtimeEventSender, threadingService);
     }
 
-    private void sendEvent(Object node, boolean isRoute) throws EPException {
+    private void sendEvent(Object node, Object partitionKey, boolean isRoute) throws EPException {
+        EventBean theEvent = getEventBean(node);
+        if (isRoute) {
+            runtimeEventSender.routeEventBean(theEvent);
+        } else {
+            if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
+                threadingService.submitInbound(new InboundUnitSendWrapped(theEvent, runtimeEventSender), partitionKey);
+            } else {
+                runtimeEventSender.processWrappedEvent(theEvent);
+            }
+        }
+    }
+
+    private EventBean getEventBean(Object node) throws EPException {
         Node namedNode;
         if (node instanceof Document) {
             namedNode = ((Document) node).getDocumentElement();
@@ -80,15 +106,6 @@ public class EventSenderXMLDOM implements EventSender {
             }
         }
 
-        EventBean theEvent = eventAdapterService.adapterForTypedDOM(namedNode, baseXMLEventType);
-        if (isRoute) {
-            runtimeEventSender.routeEventBean(theEvent);
-        } else {
-            if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
-                threadingService.submitInbound(new InboundUnitSendWrapped(theEvent, runtimeEventSender));
-            } else {
-                runtimeEventSender.processWrappedEvent(theEvent);
-            }
-        }
+        return eventAdapterService.adapterForTypedDOM(namedNode, baseXMLEventType);
     }
 }
@@ -0,0 +1,102 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.PropertyAccessException;
+
+/**
+ * Event bean that keeps its underlying in off-heap storage and materializes the underlying on each access.
+ * <p>
+ * The state is either the storage location or, after the event is removed from storage, the underlying kept on the heap
+ * so that the event remains accessible to consumers of the remove stream. The store replaces the state when it relocates
+ * the encoded event. Readers do not lock: a location refers to bytes that the store never overwrites.
+ */
+public class OffHeapEventBean implements EventBean {
+    private final EventType eventType;
+    private final OffHeapEventStore store;
+    private volatile Object state;
+
+    /**
+     * Ctor.
+     *
+     * @param eventType type
+     * @param store     owning store
+     */
+    public OffHeapEventBean(EventType eventType, OffHeapEventStore store) {
+        this.eventType = eventType;
+        this.store = store;
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    public Object get(String property) throws PropertyAccessException {
+        Object current = state;
+        if (current instanceof OffHeapEventStore.Location) {
+            // decode the single property value only
+            int index = store.getSerde().getPropertyIndex(property);
+            if (index != -1) {
+                return store.readProperty((OffHeapEventStore.Location) current, index);
+            }
+        }
+        EventPropertyGetter getter = eventType.getGetter(property);
+        if (getter == null) {
+            throw new PropertyAccessException("Property named '" + property + "' is not a valid property name for this type");
+        }
+        return getter.get(this);
+    }
+
+    public Object getUnderlying() {
+        Object current = state;
+        if (current instanceof OffHeapEventStore.Location) {
+            return store.read((OffHeapEventStore.Location) current);
+        }
+        return current;
+    }
+
+    public Object getFragment(String propertyExpression) throws PropertyAccessException {
+        EventPropertyGetter getter = eventType.getGetter(propertyExpression);
+        if (getter == null) {
+            throw PropertyAccessException.notAValidProperty(propertyExpression);
+        }
+        return getter.getFragment(this);
+    }
+
+    /**
+     * Returns the owning store.
+     *
+     * @return store
+     */
+    public OffHeapEventStore getStore() {
+        return store;
+    }
+
+    /**
+     * Returns indicator whether the event is held in off-heap storage, or false when the event was removed from storage.
+     *
+     * @return indicator
+     */
+    public boolean isStored() {
+        return state instanceof OffHeapEventStore.Location;
+    }
+
+    Object getState() {
+        return state;
+    }
+
+    void setState(Object state) {
+        this.state = state;
+    }
+}
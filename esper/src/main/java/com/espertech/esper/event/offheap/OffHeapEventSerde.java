@@ -0,0 +1,61 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+/**
+ * Encodes and decodes the underlying of events of a given event type for off-heap storage,
+ * and makes the event beans that materialize the underlying from off-heap storage.
+ * <p>
+ * An encoded event starts with a table of the offsets of each property value relative to the start of the encoded event,
+ * so that a single property value can be decoded without decoding the whole underlying.
+ */
+public interface OffHeapEventSerde {
+    /**
+     * Encode the event underlying.
+     *
+     * @param underlying to encode
+     * @param out        buffer to write to
+     */
+    void write(Object underlying, OffHeapWriteBuffer out);
+
+    /**
+     * Decode the event underlying.
+     *
+     * @param in cursor positioned at the start of the encoded event
+     * @return underlying
+     */
+    Object read(OffHeapReadCursor in);
+
+    /**
+     * Returns the index of a property that can be decoded by itself, or -1 if the property name is not a simple property of the type.
+     *
+     * @param propertyName property name
+     * @return index or -1
+     */
+    int getPropertyIndex(String propertyName);
+
+    /**
+     * Decode a single property value.
+     *
+     * @param in    cursor positioned at the start of the encoded event
+     * @param index property index
+     * @return value
+     */
+    Object readProperty(OffHeapReadCursor in, int index);
+
+    /**
+     * Make an event bean that is not yet assigned to storage.
+     *
+     * @param store owning store
+     * @return event bean
+     */
+    OffHeapEventBean makeEvent(OffHeapEventStore store);
+}
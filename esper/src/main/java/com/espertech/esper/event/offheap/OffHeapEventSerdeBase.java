@@ -0,0 +1,77 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EventType;
+
+import java.util.Map;
+
+/**
+ * Base serde writing the property offset table followed by the property values in property index order.
+ */
+public abstract class OffHeapEventSerdeBase implements OffHeapEventSerde {
+    protected final EventType eventType;
+    private final Map<String, Integer> propertyIndexes;
+    private final int numProperties;
+
+    /**
+     * Returns the value of the property at the index.
+     *
+     * @param underlying underlying
+     * @param index      property index
+     * @return value
+     */
+    protected abstract Object getValue(Object underlying, int index);
+
+    /**
+     * Make the underlying from the property values.
+     *
+     * @param values property values in property index order
+     * @return underlying
+     */
+    protected abstract Object makeUnderlying(Object[] values);
+
+    protected OffHeapEventSerdeBase(EventType eventType, Map<String, Integer> propertyIndexes) {
+        this.eventType = eventType;
+        this.propertyIndexes = propertyIndexes;
+        this.numProperties = propertyIndexes.size();
+    }
+
+    public void write(Object underlying, OffHeapWriteBuffer out) {
+        int start = out.size();
+        out.skip(numProperties * 4);
+        for (int i = 0; i < numProperties; i++) {
+            out.putIntAt(start + i * 4, out.size() - start);
+            OffHeapValueCodec.write(getValue(underlying, i), out);
+        }
+    }
+
+    public Object read(OffHeapReadCursor in) {
+        // values follow the offset table in property index order
+        Object[] values = new Object[numProperties];
+        in.setPosition(in.getPosition() + numProperties * 4);
+        for (int i = 0; i < numProperties; i++) {
+            values[i] = OffHeapValueCodec.read(in);
+        }
+        return makeUnderlying(values);
+    }
+
+    public int getPropertyIndex(String propertyName) {
+        Integer index = propertyIndexes.get(propertyName);
+        return index == null ? -1 : index;
+    }
+
+    public Object readProperty(OffHeapReadCursor in, int index) {
+        int start = in.getPosition();
+        in.setPosition(start + in.getIntAt(start + index * 4));
+        return OffHeapValueCodec.read(in);
+    }
+}
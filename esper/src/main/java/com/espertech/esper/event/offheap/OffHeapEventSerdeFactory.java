@@ -0,0 +1,44 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EventPropertyDescriptor;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.map.MapEventType;
+
+/**
+ * Factory for off-heap serdes.
+ */
+public class OffHeapEventSerdeFactory {
+    /**
+     * Returns the serde for the event type, or null if events of the type cannot be stored off-heap.
+     * Object-array and map event types are supported when all properties have a type supported by {@link OffHeapValueCodec}
+     * and there are no fragment properties.
+     *
+     * @param eventType type
+     * @return serde or null if not supported
+     */
+    public static OffHeapEventSerde getSerde(EventType eventType) {
+        if (!(eventType instanceof ObjectArrayEventType) && !(eventType instanceof MapEventType)) {
+            return null;
+        }
+        for (EventPropertyDescriptor desc : eventType.getPropertyDescriptors()) {
+            if (desc.isFragment() || !OffHeapValueCodec.isSupportedType(desc.getPropertyType())) {
+                return null;
+            }
+        }
+        if (eventType instanceof ObjectArrayEventType) {
+            return new OffHeapEventSerdeObjectArray((ObjectArrayEventType) eventType);
+        }
+        return new OffHeapEventSerdeMap((MapEventType) eventType);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.event.map.MapEventType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Serde for map event types. Only the properties declared by the event type are stored, other map entries are not kept.
+ */
+public class OffHeapEventSerdeMap extends OffHeapEventSerdeBase {
+    private final String[] propertyNames;
+
+    public OffHeapEventSerdeMap(MapEventType eventType) {
+        this(eventType, eventType.getPropertyNames());
+    }
+
+    private OffHeapEventSerdeMap(MapEventType eventType, String[] propertyNames) {
+        super(eventType, makeIndexes(propertyNames));
+        this.propertyNames = propertyNames;
+    }
+
+    protected Object getValue(Object underlying, int index) {
+        return ((Map<String, Object>) underlying).get(propertyNames[index]);
+    }
+
+    protected Object makeUnderlying(Object[] values) {
+        Map<String, Object> props = new HashMap<String, Object>((int) (values.length / 0.75f) + 1);
+        for (int i = 0; i < values.length; i++) {
+            props.put(propertyNames[i], values[i]);
+        }
+        return props;
+    }
+
+    public OffHeapEventBean makeEvent(OffHeapEventStore store) {
+        return new OffHeapMapEventBean(eventType, store);
+    }
+
+    private static Map<String, Integer> makeIndexes(String[] propertyNames) {
+        Map<String, Integer> indexes = new HashMap<String, Integer>();
+        for (int i = 0; i < propertyNames.length; i++) {
+            indexes.put(propertyNames[i], i);
+        }
+        return indexes;
+    }
+}
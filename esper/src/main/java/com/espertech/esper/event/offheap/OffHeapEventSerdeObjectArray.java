@@ -0,0 +1,35 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+
+/**
+ * Serde for object-array event types.
+ */
+public class OffHeapEventSerdeObjectArray extends OffHeapEventSerdeBase {
+    public OffHeapEventSerdeObjectArray(ObjectArrayEventType eventType) {
+        super(eventType, eventType.getPropertiesIndexes());
+    }
+
+    protected Object getValue(Object underlying, int index) {
+        Object[] props = (Object[]) underlying;
+        return index < props.length ? props[index] : null;
+    }
+
+    protected Object makeUnderlying(Object[] values) {
+        return values;
+    }
+
+    public OffHeapEventBean makeEvent(OffHeapEventStore store) {
+        return new OffHeapObjectArrayEventBean(eventType, store);
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Stores encoded events in segments of direct byte buffers, outside of the Java heap.
+ * <p>
+ * Adding an event encodes its underlying into the current segment and returns an {@link OffHeapEventBean}
+ * that decodes the underlying on access. The event bean is small and is what data windows and indexes hold on to.
+ * Removing an event moves the decoded underlying back onto the event bean and frees the storage.
+ * <p>
+ * Segments are only appended to and bytes once written are never overwritten. A segment that no longer holds any events is released.
+ * A segment that is not the current segment and that falls below a quarter of its capacity in use
+ * gets compacted by copying its remaining events to the current segment. Released segments are not reused,
+ * the memory is reclaimed by garbage collection once no reader refers to the segment.
+ * <p>
+ * Adding, removing and replacing events requires a single writer, the named window holds the agent instance write lock for that.
+ * Reading events is thread-safe without locking.
+ */
+public class OffHeapEventStore {
+    /**
+     * Default segment size in bytes.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 8 * 1024 * 1024;
+
+    private final OffHeapEventSerde serde;
+    private final int segmentSize;
+    private final OffHeapWriteBuffer writeBuffer = new OffHeapWriteBuffer(256);
+
+    private Segment current;
+    private int numEvents;
+    private int numSegments;
+    private long allocatedBytes;
+    private long usedBytes;
+
+    /**
+     * Ctor.
+     *
+     * @param serde       serde for events
+     * @param segmentSize segment size in bytes
+     */
+    public OffHeapEventStore(OffHeapEventSerde serde, int segmentSize) {
+        this.serde = serde;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Adds events, returning the event beans backed by off-heap storage.
+     *
+     * @param events to add
+     * @return off-heap event beans in the same order
+     */
+    public EventBean[] add(EventBean[] events) {
+        EventBean[] result = new EventBean[events.length];
+        for (int i = 0; i < events.length; i++) {
+            result[i] = add(events[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Adds an event, returning the event bean backed by off-heap storage.
+     * Returns the same event when the event is already held by this store.
+     *
+     * @param theEvent to add
+     * @return off-heap event bean
+     * @throws EPException if the event has a property value that cannot be stored off-heap
+     */
+    public EventBean add(EventBean theEvent) {
+        if (theEvent instanceof OffHeapEventBean) {
+            OffHeapEventBean existing = (OffHeapEventBean) theEvent;
+            if (existing.getStore() == this && existing.isStored()) {
+                return existing;
+            }
+        }
+        encode(theEvent.getUnderlying());
+        OffHeapEventBean bean = serde.makeEvent(this);
+        bean.setState(store(bean, writeBuffer.getBuffer(), 0, writeBuffer.size()));
+        numEvents++;
+        return bean;
+    }
+
+    /**
+     * Removes events, keeping the underlying of each removed event on the heap.
+     * Ignores events that are not held by this store.
+     *
+     * @param events to remove
+     */
+    public void remove(EventBean[] events) {
+        for (EventBean theEvent : events) {
+            remove(theEvent);
+        }
+    }
+
+    /**
+     * Removes an event, keeping the underlying of the removed event on the heap.
+     * Ignores an event that is not held by this store.
+     *
+     * @param theEvent to remove
+     */
+    public void remove(EventBean theEvent) {
+        if (!(theEvent instanceof OffHeapEventBean)) {
+            return;
+        }
+        OffHeapEventBean bean = (OffHeapEventBean) theEvent;
+        Object state = bean.getState();
+        if (bean.getStore() != this || !(state instanceof Location)) {
+            return;
+        }
+        Location location = (Location) state;
+        bean.setState(read(location));
+        free(location);
+        numEvents--;
+    }
+
+    /**
+     * Replaces the underlying of an event.
+     *
+     * @param bean       event
+     * @param underlying new underlying
+     */
+    public void replace(OffHeapEventBean bean, Object underlying) {
+        Object state = bean.getState();
+        if (!(state instanceof Location)) {
+            bean.setState(underlying);
+            return;
+        }
+        encode(underlying);
+        // readers continue to see the previous location until the new location is published
+        free((Location) state);
+        bean.setState(store(bean, writeBuffer.getBuffer(), 0, writeBuffer.size()));
+    }
+
+    /**
+     * Decodes the underlying at the location.
+     *
+     * @param location location
+     * @return underlying
+     */
+    public Object read(Location location) {
+        OffHeapReadCursor cursor = new OffHeapReadCursor();
+        cursor.reset(location.segment.buffer, location.offset);
+        return serde.read(cursor);
+    }
+
+    /**
+     * Decodes a single property value at the location.
+     *
+     * @param location location
+     * @param index    property index as returned by the serde
+     * @return value
+     */
+    public Object readProperty(Location location, int index) {
+        OffHeapReadCursor cursor = new OffHeapReadCursor();
+        cursor.reset(location.segment.buffer, location.offset);
+        return serde.readProperty(cursor, index);
+    }
+
+    /**
+     * Returns the serde.
+     *
+     * @return serde
+     */
+    public OffHeapEventSerde getSerde() {
+        return serde;
+    }
+
+    /**
+     * Returns the number of events held.
+     *
+     * @return count
+     */
+    public int getNumEvents() {
+        return numEvents;
+    }
+
+    /**
+     * Returns the number of segments allocated.
+     *
+     * @return count
+     */
+    public int getNumSegments() {
+        return numSegments;
+    }
+
+    /**
+     * Returns the number of off-heap bytes allocated for segments.
+     *
+     * @return bytes
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns the number of off-heap bytes in use by events held.
+     *
+     * @return bytes
+     */
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    private void encode(Object underlying) {
+        writeBuffer.clear();
+        try {
+            serde.write(underlying, writeBuffer);
+        } catch (EPException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new EPException("Failed to encode event for off-heap storage: " + ex.getMessage(), ex);
+        }
+    }
+
+    private Location store(OffHeapEventBean bean, ByteBuffer source, int sourceOffset, int length) {
+        if (current == null || current.buffer.capacity() - current.writePosition < length) {
+            Segment previous = current;
+            current = new Segment(Math.max(segmentSize, length));
+            numSegments++;
+            allocatedBytes += current.buffer.capacity();
+            if (previous != null) {
+                compactIfSparse(previous);
+            }
+        }
+        Segment segment = current;
+        ByteBuffer target = segment.buffer.duplicate();
+        target.position(segment.writePosition);
+        ByteBuffer sourceDuplicate = source.duplicate();
+        sourceDuplicate.limit(sourceOffset + length);
+        sourceDuplicate.position(sourceOffset);
+        target.put(sourceDuplicate);
+
+        Location location = new Location(segment, segment.writePosition, length, segment.addResident(bean));
+        segment.writePosition += length;
+        segment.usedBytes += length;
+        usedBytes += length;
+        return location;
+    }
+
+    private void free(Location location) {
+        Segment segment = location.segment;
+        segment.removeResident(location.residentIndex);
+        segment.usedBytes -= location.length;
+        usedBytes -= location.length;
+        if (segment != current) {
+            compactIfSparse(segment);
+        }
+    }
+
+    private void compactIfSparse(Segment segment) {
+        if (segment.numResidents == 0) {
+            release(segment);
+            return;
+        }
+        if (segment.usedBytes >= segment.buffer.capacity() / 4) {
+            return;
+        }
+        // copy remaining events, the segment is released after the last event moved out
+        OffHeapEventBean[] residents = Arrays.copyOf(segment.residents, segment.residentCount);
+        for (OffHeapEventBean resident : residents) {
+            if (resident == null) {
+                continue;
+            }
+            Object state = resident.getState();
+            if (!(state instanceof Location) || ((Location) state).segment != segment) {
+                continue;
+            }
+            Location location = (Location) state;
+            segment.removeResident(location.residentIndex);
+            segment.usedBytes -= location.length;
+            usedBytes -= location.length;
+            resident.setState(store(resident, segment.buffer, location.offset, location.length));
+        }
+        release(segment);
+    }
+
+    private void release(Segment segment) {
+        if (segment.released) {
+            return;
+        }
+        segment.released = true;
+        segment.residents = null;
+        numSegments--;
+        allocatedBytes -= segment.buffer.capacity();
+        if (segment == current) {
+            current = null;
+        }
+    }
+
+    /**
+     * Location of an encoded event. Immutable.
+     */
+    public static class Location {
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+        private final int residentIndex;
+
+        private Location(Segment segment, int offset, int length, int residentIndex) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.residentIndex = residentIndex;
+        }
+    }
+
+    /**
+     * Segment of off-heap memory.
+     */
+    static class Segment {
+        private final ByteBuffer buffer;
+        private int writePosition;
+        private int usedBytes;
+        private OffHeapEventBean[] residents = new OffHeapEventBean[64];
+        private int residentCount;
+        private int numResidents;
+        private boolean released;
+
+        Segment(int capacity) {
+            this.buffer = ByteBuffer.allocateDirect(capacity);
+        }
+
+        private int addResident(OffHeapEventBean bean) {
+            if (residentCount == residents.length) {
+                residents = Arrays.copyOf(residents, residentCount << 1);
+            }
+            residents[residentCount] = bean;
+            numResidents++;
+            return residentCount++;
+        }
+
+        private void removeResident(int index) {
+            residents[index] = null;
+            numResidents--;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.event.MappedEventBean;
+
+import java.util.Map;
+
+/**
+ * Off-heap event bean for map event types. The property map returned is a copy.
+ */
+public class OffHeapMapEventBean extends OffHeapEventBean implements MappedEventBean {
+    public OffHeapMapEventBean(EventType eventType, OffHeapEventStore store) {
+        super(eventType, store);
+    }
+
+    public Map<String, Object> getProperties() {
+        return (Map<String, Object>) getUnderlying();
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+
+/**
+ * Off-heap event bean for object-array event types. The property array returned is a copy,
+ * changes to the property values must be made via {@link #setPropertyValues(Object[])}.
+ */
+public class OffHeapObjectArrayEventBean extends OffHeapEventBean implements ObjectArrayBackedEventBean {
+    public OffHeapObjectArrayEventBean(EventType eventType, OffHeapEventStore store) {
+        super(eventType, store);
+    }
+
+    public Object[] getProperties() {
+        return (Object[]) getUnderlying();
+    }
+
+    public void setPropertyValues(Object[] objects) {
+        getStore().replace(this, objects);
+    }
+}
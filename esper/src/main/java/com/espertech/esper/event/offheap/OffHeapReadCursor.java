@@ -0,0 +1,130 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads an encoded event from a segment buffer using absolute gets, so that the position of the shared buffer is not changed.
+ * Not thread-safe, each reader uses its own cursor.
+ */
+public class OffHeapReadCursor {
+    private ByteBuffer buffer;
+    private int position;
+
+    /**
+     * Positions the cursor.
+     *
+     * @param buffer   buffer to read
+     * @param position position to read from
+     */
+    public void reset(ByteBuffer buffer, int position) {
+        this.buffer = buffer;
+        this.position = position;
+    }
+
+    /**
+     * Returns the read position.
+     *
+     * @return position
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Moves the read position.
+     *
+     * @param position position to read from
+     */
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    /**
+     * Reads an int at the given index without changing the read position.
+     *
+     * @param index index to read
+     * @return value
+     */
+    public int getIntAt(int index) {
+        return buffer.getInt(index);
+    }
+
+    public byte getByte() {
+        return buffer.get(position++);
+    }
+
+    public short getShort() {
+        short value = buffer.getShort(position);
+        position += 2;
+        return value;
+    }
+
+    public char getChar() {
+        char value = buffer.getChar(position);
+        position += 2;
+        return value;
+    }
+
+    public int getInt() {
+        int value = buffer.getInt(position);
+        position += 4;
+        return value;
+    }
+
+    public long getLong() {
+        long value = buffer.getLong(position);
+        position += 8;
+        return value;
+    }
+
+    public float getFloat() {
+        float value = buffer.getFloat(position);
+        position += 4;
+        return value;
+    }
+
+    public double getDouble() {
+        double value = buffer.getDouble(position);
+        position += 8;
+        return value;
+    }
+
+    /**
+     * Reads a string written by {@link OffHeapWriteBuffer#putString(String)}.
+     *
+     * @return string
+     */
+    public String getString() {
+        int length = getInt();
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = buffer.getChar(position);
+            position += 2;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Reads a byte array written by {@link OffHeapWriteBuffer#putBytes(byte[])}.
+     *
+     * @return bytes
+     */
+    public byte[] getBytes() {
+        int length = getInt();
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(position++);
+        }
+        return bytes;
+    }
+}
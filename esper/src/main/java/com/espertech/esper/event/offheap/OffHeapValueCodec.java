@@ -0,0 +1,145 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Encodes property values as a type tag followed by the value.
+ * <p>
+ * Supports null, strings, boxed primitives, {@link BigDecimal} and {@link BigInteger}. Other values cannot be stored off-heap,
+ * see {@link #isSupportedType(Class)}.
+ */
+public class OffHeapValueCodec {
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN_TRUE = 5;
+    private static final byte BOOLEAN_FALSE = 6;
+    private static final byte FLOAT = 7;
+    private static final byte SHORT = 8;
+    private static final byte BYTE = 9;
+    private static final byte CHARACTER = 10;
+    private static final byte BIG_DECIMAL = 11;
+    private static final byte BIG_INTEGER = 12;
+
+    /**
+     * Returns indicator whether values of the property type can be stored off-heap.
+     *
+     * @param type property type
+     * @return indicator
+     */
+    public static boolean isSupportedType(Class type) {
+        if (type == null) {
+            return true;
+        }
+        Class boxed = JavaClassHelper.getBoxedType(type);
+        return boxed == String.class || boxed == Integer.class || boxed == Long.class || boxed == Double.class || boxed == Boolean.class ||
+                boxed == Float.class || boxed == Short.class || boxed == Byte.class || boxed == Character.class ||
+                boxed == BigDecimal.class || boxed == BigInteger.class;
+    }
+
+    /**
+     * Write a value.
+     *
+     * @param value value, can be null
+     * @param out   buffer
+     * @throws EPException if the value is of an unsupported type
+     */
+    public static void write(Object value, OffHeapWriteBuffer out) {
+        if (value == null) {
+            out.putByte(NULL);
+        } else if (value instanceof String) {
+            out.putByte(STRING);
+            out.putString((String) value);
+        } else if (value instanceof Integer) {
+            out.putByte(INTEGER);
+            out.putInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.putByte(LONG);
+            out.putLong((Long) value);
+        } else if (value instanceof Double) {
+            out.putByte(DOUBLE);
+            out.putDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.putByte((Boolean) value ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+        } else if (value instanceof Float) {
+            out.putByte(FLOAT);
+            out.putFloat((Float) value);
+        } else if (value instanceof Short) {
+            out.putByte(SHORT);
+            out.putShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.putByte(BYTE);
+            out.putByte((Byte) value);
+        } else if (value instanceof Character) {
+            out.putByte(CHARACTER);
+            out.putChar((Character) value);
+        } else if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) value;
+            out.putByte(BIG_DECIMAL);
+            out.putInt(decimal.scale());
+            out.putBytes(decimal.unscaledValue().toByteArray());
+        } else if (value instanceof BigInteger) {
+            out.putByte(BIG_INTEGER);
+            out.putBytes(((BigInteger) value).toByteArray());
+        } else {
+            throw new EPException("Value of type '" + value.getClass().getName() + "' cannot be stored off-heap");
+        }
+    }
+
+    /**
+     * Read a value.
+     *
+     * @param in cursor
+     * @return value
+     */
+    public static Object read(OffHeapReadCursor in) {
+        byte tag = in.getByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return in.getString();
+            case INTEGER:
+                return in.getInt();
+            case LONG:
+                return in.getLong();
+            case DOUBLE:
+                return in.getDouble();
+            case BOOLEAN_TRUE:
+                return Boolean.TRUE;
+            case BOOLEAN_FALSE:
+                return Boolean.FALSE;
+            case FLOAT:
+                return in.getFloat();
+            case SHORT:
+                return in.getShort();
+            case BYTE:
+                return in.getByte();
+            case CHARACTER:
+                return in.getChar();
+            case BIG_DECIMAL:
+                int scale = in.getInt();
+                return new BigDecimal(new BigInteger(in.getBytes()), scale);
+            case BIG_INTEGER:
+                return new BigInteger(in.getBytes());
+            default:
+                throw new IllegalStateException("Unrecognized value tag " + tag);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Growable heap buffer that an event is encoded into before the encoded bytes are copied into an off-heap segment.
+ * Not thread-safe.
+ */
+public class OffHeapWriteBuffer {
+    private ByteBuffer buffer;
+
+    /**
+     * Ctor.
+     *
+     * @param initialCapacity initial capacity in bytes
+     */
+    public OffHeapWriteBuffer(int initialCapacity) {
+        buffer = ByteBuffer.allocate(initialCapacity);
+    }
+
+    /**
+     * Discards the buffer contents.
+     */
+    public void clear() {
+        buffer.clear();
+    }
+
+    /**
+     * Returns the number of bytes written.
+     *
+     * @return size
+     */
+    public int size() {
+        return buffer.position();
+    }
+
+    /**
+     * Returns the backing buffer, holding the written bytes from index zero to the size.
+     *
+     * @return buffer
+     */
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Reserves bytes to be written later by {@link #putIntAt(int, int)}.
+     *
+     * @param bytes number of bytes to skip
+     */
+    public void skip(int bytes) {
+        ensure(bytes);
+        buffer.position(buffer.position() + bytes);
+    }
+
+    /**
+     * Writes an int at the given index without changing the size.
+     *
+     * @param index index written to, must be less than the size
+     * @param value to write
+     */
+    public void putIntAt(int index, int value) {
+        buffer.putInt(index, value);
+    }
+
+    public void putByte(byte value) {
+        ensure(1);
+        buffer.put(value);
+    }
+
+    public void putShort(short value) {
+        ensure(2);
+        buffer.putShort(value);
+    }
+
+    public void putChar(char value) {
+        ensure(2);
+        buffer.putChar(value);
+    }
+
+    public void putInt(int value) {
+        ensure(4);
+        buffer.putInt(value);
+    }
+
+    public void putLong(long value) {
+        ensure(8);
+        buffer.putLong(value);
+    }
+
+    public void putFloat(float value) {
+        ensure(4);
+        buffer.putFloat(value);
+    }
+
+    public void putDouble(double value) {
+        ensure(8);
+        buffer.putDouble(value);
+    }
+
+    /**
+     * Writes the string length followed by the characters.
+     *
+     * @param value to write
+     */
+    public void putString(String value) {
+        int length = value.length();
+        ensure(4 + length * 2);
+        buffer.putInt(length);
+        for (int i = 0; i < length; i++) {
+            buffer.putChar(value.charAt(i));
+        }
+    }
+
+    /**
+     * Writes the byte array length followed by the bytes.
+     *
+     * @param value to write
+     */
+    public void putBytes(byte[] value) {
+        ensure(4 + value.length);
+        buffer.putInt(value.length);
+        buffer.put(value);
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        int capacity = Math.max(buffer.capacity() << 1, buffer.position() + bytes);
+        ByteBuffer larger = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+/**
+ * The part of a boolean expression filter that remains to be evaluated given the value of its shared subexpression.
+ */
+public interface FilterBooleanExprResidual {
+    /**
+     * Evaluate the filter.
+     *
+     * @param sharedValue value of the shared subexpression for the current event
+     * @return true for match
+     */
+    public boolean evaluate(Object sharedValue);
+}
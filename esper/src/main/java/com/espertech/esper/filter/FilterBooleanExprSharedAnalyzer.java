@@ -0,0 +1,190 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.epl.expression.core.ExprConstantNodeImpl;
+import com.espertech.esper.epl.expression.core.ExprIdentNodeEvaluatorImpl;
+import com.espertech.esper.epl.expression.core.ExprIdentNodeImpl;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtilityCore;
+import com.espertech.esper.epl.expression.ops.*;
+import com.espertech.esper.filterspec.ExprNodeAdapterBase;
+import com.espertech.esper.type.RelationalOpEnum;
+import com.espertech.esper.util.SimpleNumberCoercer;
+
+/**
+ * Analyzes boolean expression filters for a subexpression that can be evaluated once per event and shared by
+ * filters of the same shape that differ only by constant.
+ * <p>
+ * Applies to filters that compare, using a relational operator or equals, a constant against an expression
+ * of event properties of the filtered event, arithmetic and concatenation, for example "price * volume &gt; 1000".
+ * The expression is shared by all filters that have the same expression text and type. The remaining comparison
+ * against the constant uses the comparison semantics, including coercion, of the filter expression itself.
+ * </p>
+ * <p>
+ * Filters that use variables, tables, subqueries, pattern events or audit logging are not analyzed and
+ * remain evaluated individually.
+ * </p>
+ */
+public class FilterBooleanExprSharedAnalyzer {
+
+    /**
+     * Analyze the filter.
+     *
+     * @param adapter filter expression
+     * @return shared subexpression and residual comparison, or null if the filter does not qualify
+     */
+    public static FilterBooleanExprSharedDesc analyze(ExprNodeAdapterBase adapter) {
+        if (adapter.getClass() != ExprNodeAdapterBase.class) {
+            return null;
+        }
+        ExprNode node = adapter.getExprNode();
+        if (!(node instanceof ExprRelationalOpNodeImpl) && !(node instanceof ExprEqualsNodeImpl)) {
+            return null;
+        }
+        if (node.getChildNodes().length != 2) {
+            return null;
+        }
+
+        ExprNode lhs = node.getChildNodes()[0];
+        ExprNode rhs = node.getChildNodes()[1];
+        boolean sharedIsLeft;
+        ExprNode shared;
+        Object constant;
+        if (rhs instanceof ExprConstantNodeImpl && isShareable(lhs) && !(lhs instanceof ExprConstantNodeImpl)) {
+            sharedIsLeft = true;
+            shared = lhs;
+            constant = ((ExprConstantNodeImpl) rhs).getConstantValue(null);
+        } else if (lhs instanceof ExprConstantNodeImpl && isShareable(rhs) && !(rhs instanceof ExprConstantNodeImpl)) {
+            sharedIsLeft = false;
+            shared = rhs;
+            constant = ((ExprConstantNodeImpl) lhs).getConstantValue(null);
+        } else {
+            return null;
+        }
+
+        FilterBooleanExprResidual residual;
+        if (node instanceof ExprRelationalOpNodeImpl) {
+            if (!(node.getForge() instanceof ExprRelationalOpNodeForge)) {
+                return null;
+            }
+            residual = new ResidualRelOp(((ExprRelationalOpNodeForge) node.getForge()).getComputer(), constant, sharedIsLeft);
+        } else {
+            ExprEqualsNodeImpl equals = (ExprEqualsNodeImpl) node;
+            if (node.getForge() instanceof ExprEqualsNodeForgeNC) {
+                residual = new ResidualEqualsNC(constant, sharedIsLeft, equals.isIs(), equals.isNotEquals());
+            } else if (node.getForge() instanceof ExprEqualsNodeForgeCoercion) {
+                ExprEqualsNodeForgeCoercion forge = (ExprEqualsNodeForgeCoercion) node.getForge();
+                residual = new ResidualEqualsCoercion(constant, sharedIsLeft, equals.isIs(), equals.isNotEquals(), forge.getNumberCoercerLHS(), forge.getNumberCoercerRHS());
+            } else {
+                return null;
+            }
+        }
+
+        Class type = shared.getForge().getEvaluationType();
+        String key = (type == null ? "null" : type.getName()) + " " + ExprNodeUtilityCore.toExpressionStringMinPrecedenceSafe(shared);
+        return new FilterBooleanExprSharedDesc(key, shared.getForge().getExprEvaluator(), residual);
+    }
+
+    private static boolean isShareable(ExprNode node) {
+        if (node instanceof ExprIdentNodeImpl) {
+            ExprIdentNodeImpl ident = (ExprIdentNodeImpl) node;
+            return ident.getExprEvaluatorIdent() instanceof ExprIdentNodeEvaluatorImpl && ident.getStreamId() == 0;
+        }
+        if (node instanceof ExprConstantNodeImpl) {
+            return true;
+        }
+        if (!(node instanceof ExprMathNode) && !(node instanceof ExprConcatNode)) {
+            return false;
+        }
+        for (ExprNode child : node.getChildNodes()) {
+            if (!isShareable(child)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class ResidualRelOp implements FilterBooleanExprResidual {
+        private final RelationalOpEnum.Computer computer;
+        private final Object constant;
+        private final boolean sharedIsLeft;
+
+        ResidualRelOp(RelationalOpEnum.Computer computer, Object constant, boolean sharedIsLeft) {
+            this.computer = computer;
+            this.constant = constant;
+            this.sharedIsLeft = sharedIsLeft;
+        }
+
+        public boolean evaluate(Object sharedValue) {
+            if (sharedValue == null || constant == null) {
+                return false;
+            }
+            return sharedIsLeft ? computer.compare(sharedValue, constant) : computer.compare(constant, sharedValue);
+        }
+    }
+
+    private static class ResidualEqualsNC implements FilterBooleanExprResidual {
+        private final Object constant;
+        private final boolean sharedIsLeft;
+        private final boolean isIs;
+        private final boolean isNotEquals;
+
+        ResidualEqualsNC(Object constant, boolean sharedIsLeft, boolean isIs, boolean isNotEquals) {
+            this.constant = constant;
+            this.sharedIsLeft = sharedIsLeft;
+            this.isIs = isIs;
+            this.isNotEquals = isNotEquals;
+        }
+
+        public boolean evaluate(Object sharedValue) {
+            Object left = sharedIsLeft ? sharedValue : constant;
+            Object right = sharedIsLeft ? constant : sharedValue;
+            if (left == null || right == null) {
+                if (!isIs) {
+                    return false;
+                }
+                return (left == right) ^ isNotEquals;
+            }
+            return left.equals(right) ^ isNotEquals;
+        }
+    }
+
+    private static class ResidualEqualsCoercion implements FilterBooleanExprResidual {
+        private final Object constant;
+        private final boolean sharedIsLeft;
+        private final boolean isIs;
+        private final boolean isNotEquals;
+        private final SimpleNumberCoercer numberCoercerLHS;
+        private final SimpleNumberCoercer numberCoercerRHS;
+
+        ResidualEqualsCoercion(Object constant, boolean sharedIsLeft, boolean isIs, boolean isNotEquals, SimpleNumberCoercer numberCoercerLHS, SimpleNumberCoercer numberCoercerRHS) {
+            this.constant = constant;
+            this.sharedIsLeft = sharedIsLeft;
+            this.isIs = isIs;
+            this.isNotEquals = isNotEquals;
+            this.numberCoercerLHS = numberCoercerLHS;
+            this.numberCoercerRHS = numberCoercerRHS;
+        }
+
+        public boolean evaluate(Object sharedValue) {
+            Object leftResult = sharedIsLeft ? sharedValue : constant;
+            Object rightResult = sharedIsLeft ? constant : sharedValue;
+            if (leftResult == null || rightResult == null) {
+                // same as the coercing equals evaluator, which does not apply "not" for null values
+                return isIs && leftResult == rightResult;
+            }
+            Number left = numberCoercerLHS.coerceBoxed((Number) leftResult);
+            Number right = numberCoercerRHS.coerceBoxed((Number) rightResult);
+            return left.equals(right) ^ isNotEquals;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+
+/**
+ * Result of analyzing a boolean expression filter for a shared subexpression.
+ */
+public class FilterBooleanExprSharedDesc {
+    private final String key;
+    private final ExprEvaluator sharedEvaluator;
+    private final FilterBooleanExprResidual residual;
+
+    public FilterBooleanExprSharedDesc(String key, ExprEvaluator sharedEvaluator, FilterBooleanExprResidual residual) {
+        this.key = key;
+        this.sharedEvaluator = sharedEvaluator;
+        this.residual = residual;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public ExprEvaluator getSharedEvaluator() {
+        return sharedEvaluator;
+    }
+
+    public FilterBooleanExprResidual getResidual() {
+        return residual;
+    }
+}
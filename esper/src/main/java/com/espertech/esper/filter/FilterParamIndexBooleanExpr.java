@@ -11,42 +11,89 @@
 package com.espertech.esper.filter;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.filterspec.ExprNodeAdapterBase;
 import com.espertech.esper.filterspec.FilterOperator;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
-import java.util.Collection;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
  * Index that simply maintains a list of boolean expressions.
+ * <p>
+ * Boolean expressions of the same shape that differ by constant, such as "price * volume &gt; 1000" and
+ * "price * volume &gt; 5000", share the evaluation of their common subexpression: it is evaluated at most once
+ * per event and each expression only compares the shared value against its constant,
+ * see {@link FilterBooleanExprSharedAnalyzer}.
+ * </p>
+ * <p>
+ * The shared subexpression evaluates using the evaluator and evaluator context of one of the filter expressions that share it.
+ * When that filter expression is removed, for example because its statement is destroyed, the shared subexpression
+ * moves to the evaluator and evaluator context of a remaining filter expression.
+ * </p>
  */
 public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase {
-    private final Map<ExprNodeAdapterBase, EventEvaluator> evaluatorsMap;
+    private static final Object NULL_VALUE = new Object();
+    private static final Object FAILED_VALUE = new Object();
+
+    private final Map<ExprNodeAdapterBase, BooleanExprEntry> evaluatorsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private final Map<String, SharedSubexpression> sharedByKey;
+    private final ArrayDeque<Integer> freeSlots;
+    private int numSlots;
 
     public FilterParamIndexBooleanExpr(ReadWriteLock readWriteLock) {
         super(FilterOperator.BOOLEAN_EXPRESSION);
 
-        evaluatorsMap = new LinkedHashMap<ExprNodeAdapterBase, EventEvaluator>();
+        evaluatorsMap = new LinkedHashMap<ExprNodeAdapterBase, BooleanExprEntry>();
         constantsMapRWLock = readWriteLock;
+        sharedByKey = new HashMap<String, SharedSubexpression>();
+        freeSlots = new ArrayDeque<Integer>();
     }
 
     public final EventEvaluator get(Object filterConstant) {
         ExprNodeAdapterBase keyValues = (ExprNodeAdapterBase) filterConstant;
-        return evaluatorsMap.get(keyValues);
+        BooleanExprEntry entry = evaluatorsMap.get(keyValues);
+        return entry == null ? null : entry.evaluator;
     }
 
     public final void put(Object filterConstant, EventEvaluator evaluator) {
         ExprNodeAdapterBase keys = (ExprNodeAdapterBase) filterConstant;
-        evaluatorsMap.put(keys, evaluator);
+        BooleanExprEntry existing = evaluatorsMap.get(keys);
+        if (existing != null) {
+            existing.evaluator = evaluator;
+            return;
+        }
+
+        SharedSubexpression shared = null;
+        FilterBooleanExprResidual residual = null;
+        FilterBooleanExprSharedDesc desc = FilterBooleanExprSharedAnalyzer.analyze(keys);
+        if (desc != null) {
+            shared = sharedByKey.get(desc.getKey());
+            if (shared == null) {
+                int slot = freeSlots.isEmpty() ? numSlots++ : freeSlots.pop();
+                shared = new SharedSubexpression(desc.getKey(), slot);
+                sharedByKey.put(desc.getKey(), shared);
+            }
+            shared.addRegistrant(keys, desc.getSharedEvaluator());
+            residual = desc.getResidual();
+        }
+        evaluatorsMap.put(keys, new BooleanExprEntry(evaluator, shared, residual));
     }
 
     public final void remove(Object filterConstant) {
         ExprNodeAdapterBase keys = (ExprNodeAdapterBase) filterConstant;
-        evaluatorsMap.remove(keys);
+        BooleanExprEntry entry = evaluatorsMap.remove(keys);
+        if (entry == null || entry.shared == null) {
+            return;
+        }
+        entry.shared.removeRegistrant(keys);
+        if (entry.shared.registrants.isEmpty()) {
+            sharedByKey.remove(entry.shared.key);
+            freeSlots.push(entry.shared.slot);
+        }
     }
 
     public final int sizeExpensive() {
@@ -70,19 +117,37 @@ public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase {
 
             if (InstrumentationHelper.ENABLED) {
                 int i = -1;
-                for (Map.Entry<ExprNodeAdapterBase, EventEvaluator> evals : evaluatorsMap.entrySet()) {
+                for (Map.Entry<ExprNodeAdapterBase, BooleanExprEntry> evals : evaluatorsMap.entrySet()) {
                     i++;
-                    InstrumentationHelper.get().qFilterBooleanExpr(i, evals);
+                    InstrumentationHelper.get().qFilterBooleanExpr(i, new AbstractMap.SimpleImmutableEntry<ExprNodeAdapterBase, EventEvaluator>(evals.getKey(), evals.getValue().evaluator));
                     boolean result = evals.getKey().evaluate(theEvent);
                     InstrumentationHelper.get().aFilterBooleanExpr(result);
                     if (result) {
-                        evals.getValue().matchEvent(theEvent, matches);
+                        evals.getValue().evaluator.matchEvent(theEvent, matches);
                     }
                 }
             } else {
-                for (Map.Entry<ExprNodeAdapterBase, EventEvaluator> evals : evaluatorsMap.entrySet()) {
-                    if (evals.getKey().evaluate(theEvent)) {
-                        evals.getValue().matchEvent(theEvent, matches);
+                // shared subexpression values for this event, computed when first needed
+                Object[] sharedValues = sharedByKey.isEmpty() ? null : new Object[numSlots];
+                EventBean[] eventsPerStream = null;
+                for (Map.Entry<ExprNodeAdapterBase, BooleanExprEntry> evals : evaluatorsMap.entrySet()) {
+                    BooleanExprEntry entry = evals.getValue();
+                    boolean result;
+                    if (entry.shared == null) {
+                        result = evals.getKey().evaluate(theEvent);
+                    } else {
+                        Object value = sharedValues[entry.shared.slot];
+                        if (value == null) {
+                            if (eventsPerStream == null) {
+                                eventsPerStream = new EventBean[]{theEvent};
+                            }
+                            value = entry.shared.evaluate(eventsPerStream);
+                            sharedValues[entry.shared.slot] = value;
+                        }
+                        result = evaluateResidual(evals.getKey(), entry.residual, value, theEvent);
+                    }
+                    if (result) {
+                        entry.evaluator.matchEvent(theEvent, matches);
                     }
                 }
             }
@@ -93,4 +158,78 @@ public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase {
             InstrumentationHelper.get().aFilterBoolean();
         }
     }
+
+    private static boolean evaluateResidual(ExprNodeAdapterBase adapter, FilterBooleanExprResidual residual, Object value, EventBean theEvent) {
+        if (value == FAILED_VALUE) {
+            // evaluate individually for the filter's own exception handling
+            return adapter.evaluate(theEvent);
+        }
+        try {
+            return residual.evaluate(value == NULL_VALUE ? null : value);
+        } catch (RuntimeException ex) {
+            return adapter.evaluate(theEvent);
+        }
+    }
+
+    private static final class BooleanExprEntry {
+        private EventEvaluator evaluator;
+        private final SharedSubexpression shared;
+        private final FilterBooleanExprResidual residual;
+
+        private BooleanExprEntry(EventEvaluator evaluator, SharedSubexpression shared, FilterBooleanExprResidual residual) {
+            this.evaluator = evaluator;
+            this.shared = shared;
+            this.residual = residual;
+        }
+    }
+
+    private static final class SharedSubexpression {
+        private final String key;
+        private final int slot;
+        private final Map<ExprNodeAdapterBase, ExprEvaluator> registrants = new LinkedHashMap<ExprNodeAdapterBase, ExprEvaluator>(4);
+        private ExprNodeAdapterBase owner;
+        private ExprEvaluator evaluator;
+        private ExprEvaluatorContext evaluatorContext;
+
+        private SharedSubexpression(String key, int slot) {
+            this.key = key;
+            this.slot = slot;
+        }
+
+        private void addRegistrant(ExprNodeAdapterBase adapter, ExprEvaluator sharedEvaluator) {
+            registrants.put(adapter, sharedEvaluator);
+            if (owner == null) {
+                setOwner(adapter, sharedEvaluator);
+            }
+        }
+
+        private void removeRegistrant(ExprNodeAdapterBase adapter) {
+            registrants.remove(adapter);
+            if (owner != adapter) {
+                return;
+            }
+            // do not retain the evaluator and context of a removed filter, such as of a destroyed statement
+            if (registrants.isEmpty()) {
+                setOwner(null, null);
+            } else {
+                Map.Entry<ExprNodeAdapterBase, ExprEvaluator> next = registrants.entrySet().iterator().next();
+                setOwner(next.getKey(), next.getValue());
+            }
+        }
+
+        private void setOwner(ExprNodeAdapterBase adapter, ExprEvaluator sharedEvaluator) {
+            owner = adapter;
+            evaluator = sharedEvaluator;
+            evaluatorContext = adapter == null ? null : adapter.getEvaluatorContext();
+        }
+
+        private Object evaluate(EventBean[] eventsPerStream) {
+            try {
+                Object value = evaluator.evaluate(eventsPerStream, true, evaluatorContext);
+                return value == null ? NULL_VALUE : value;
+            } catch (RuntimeException ex) {
+                return FAILED_VALUE;
+            }
+        }
+    }
 }
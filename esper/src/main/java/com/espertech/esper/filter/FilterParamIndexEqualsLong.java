@@ -0,0 +1,43 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprFilterSpecLookupable;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants to match using the equals (=) operator, for long and Long properties.
+ */
+public final class FilterParamIndexEqualsLong extends FilterParamIndexEqualsPrimitiveBase {
+    public FilterParamIndexEqualsLong(ExprFilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
+        super(lookupable, readWriteLock);
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        Object value = lookupable.getGetter().get(theEvent);
+        if (value instanceof Long) {
+            matchPrimitive(((Long) value).longValue(), value, theEvent, matches);
+        } else {
+            matchOther(value, theEvent, matches);
+        }
+    }
+
+    protected boolean isPrimitiveKey(Object value) {
+        return value instanceof Long;
+    }
+
+    protected long toPrimitiveKey(Object value) {
+        return ((Long) value).longValue();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.LongHashMap;
+import com.espertech.esper.epl.expression.core.ExprFilterSpecLookupable;
+import com.espertech.esper.filterspec.FilterOperator;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants to match using the equals (=) operator, for properties of a primitive
+ * or boxed-primitive type.
+ * <p>
+ * Constants of the boxed type of the property are kept in a map of primitive long keys. Constants of any other type
+ * are kept in a regular HashMap, so that matching is the same as with {@link FilterParamIndexEquals}.
+ */
+public abstract class FilterParamIndexEqualsPrimitiveBase extends FilterParamIndexLookupableBase {
+    protected final LongHashMap<EventEvaluator> primitiveConstantsMap;
+    protected final Map<Object, EventEvaluator> otherConstantsMap;
+    protected final ReadWriteLock constantsMapRWLock;
+
+    protected FilterParamIndexEqualsPrimitiveBase(ExprFilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
+        super(FilterOperator.EQUAL, lookupable);
+        primitiveConstantsMap = new LongHashMap<EventEvaluator>();
+        otherConstantsMap = new HashMap<Object, EventEvaluator>();
+        constantsMapRWLock = readWriteLock;
+    }
+
+    /**
+     * Returns true if the value is of the boxed type that the primitive map keeps.
+     *
+     * @param value value, not null
+     * @return indicator
+     */
+    protected abstract boolean isPrimitiveKey(Object value);
+
+    /**
+     * Returns the primitive map key of a value for which {@link #isPrimitiveKey(Object)} returned true.
+     *
+     * @param value value
+     * @return key
+     */
+    protected abstract long toPrimitiveKey(Object value);
+
+    public final EventEvaluator get(Object filterConstant) {
+        if (filterConstant != null && isPrimitiveKey(filterConstant)) {
+            return primitiveConstantsMap.get(toPrimitiveKey(filterConstant));
+        }
+        return otherConstantsMap.get(filterConstant);
+    }
+
+    public final void put(Object filterConstant, EventEvaluator evaluator) {
+        if (filterConstant != null && isPrimitiveKey(filterConstant)) {
+            primitiveConstantsMap.put(toPrimitiveKey(filterConstant), evaluator);
+        } else {
+            otherConstantsMap.put(filterConstant, evaluator);
+        }
+    }
+
+    public final void remove(Object filterConstant) {
+        if (filterConstant != null && isPrimitiveKey(filterConstant)) {
+            primitiveConstantsMap.remove(toPrimitiveKey(filterConstant));
+        } else {
+            otherConstantsMap.remove(filterConstant);
+        }
+    }
+
+    public final int sizeExpensive() {
+        return primitiveConstantsMap.size() + otherConstantsMap.size();
+    }
+
+    public boolean isEmpty() {
+        return primitiveConstantsMap.isEmpty() && otherConstantsMap.isEmpty();
+    }
+
+    public final ReadWriteLock getReadWriteLock() {
+        return constantsMapRWLock;
+    }
+
+    /**
+     * Match a property value of the boxed type of the primitive map.
+     *
+     * @param key            primitive key of the property value
+     * @param attributeValue property value
+     * @param theEvent       event
+     * @param matches        matches
+     */
+    protected final void matchPrimitive(long key, Object attributeValue, EventBean theEvent, Collection<FilterHandle> matches) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilterReverseIndex(this, attributeValue);
+        }
+
+        EventEvaluator evaluator;
+        constantsMapRWLock.readLock().lock();
+        try {
+            evaluator = primitiveConstantsMap.get(key);
+        } finally {
+            constantsMapRWLock.readLock().unlock();
+        }
+
+        matchEvaluator(evaluator, theEvent, matches);
+    }
+
+    /**
+     * Match a property value that is null or not of the boxed type of the primitive map.
+     *
+     * @param attributeValue property value
+     * @param theEvent       event
+     * @param matches        matches
+     */
+    protected final void matchOther(Object attributeValue, EventBean theEvent, Collection<FilterHandle> matches) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilterReverseIndex(this, attributeValue);
+        }
+
+        if (attributeValue == null) {   //  null cannot match, not even null: requires use of "is"
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(false);
+            }
+            return;
+        }
+
+        EventEvaluator evaluator;
+        constantsMapRWLock.readLock().lock();
+        try {
+            evaluator = otherConstantsMap.get(attributeValue);
+        } finally {
+            constantsMapRWLock.readLock().unlock();
+        }
+
+        matchEvaluator(evaluator, theEvent, matches);
+    }
+
+    private void matchEvaluator(EventEvaluator evaluator, EventBean theEvent, Collection<FilterHandle> matches) {
+        // No listener found for the value, return
+        if (evaluator == null) {
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(false);
+            }
+            return;
+        }
+
+        evaluator.matchEvent(theEvent, matches);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aFilterReverseIndex(true);
+        }
+    }
+}
@@ -0,0 +1,494 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.filterspec.FilterValueSet;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.metrics.jmx.JmxGetter;
+import com.espertech.esper.metrics.jmx.JmxOperation;
+import com.espertech.esper.util.AuditPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Filter service that evaluates events against immutable filter trees, for filters that change rarely and
+ * events that are evaluated by many threads.
+ * <p>
+ * Adding and removing filters only changes the set of filters of an event type and marks the event type as changed.
+ * The next evaluation publishes a new immutable snapshot. Any number of filter changes between evaluations
+ * therefore publish only once. Evaluation does not lock unless there are unpublished changes.
+ * <p>
+ * The published filters of an event type consist of a base tree, a small tree of the filters added since the base tree
+ * was built, and the set of filter callbacks removed from the base tree since it was built.
+ * Publishing changes only rebuilds the small tree, using {@link IndexTreeBuilder}. The base tree is rebuilt from all filters
+ * of the event type once more than {@link #MAX_PENDING_CHANGES} filters were added or removed since it was built.
+ * <p>
+ * Does not allow the same filter callback to be added more then once.
+ */
+public final class FilterServiceCopyOnWrite implements FilterServiceSPI {
+    private static final Logger log = LoggerFactory.getLogger(FilterServiceCopyOnWrite.class);
+
+    /**
+     * Number of filters added or removed since building the base tree of an event type after which publishing rebuilds the base tree.
+     */
+    public final static int MAX_PENDING_CHANGES = 64;
+
+    private final boolean allowIsolation;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<FilterHandle, FilterValueSet> filters = new LinkedHashMap<FilterHandle, FilterValueSet>();
+    private final Map<EventType, TypeFilters> filtersPerType = new HashMap<EventType, TypeFilters>();
+    private final Set<EventType> changedTypes = new HashSet<EventType>();
+    private final LongAdder numEventsEvaluated = new LongAdder();
+    private final CopyOnWriteArraySet<FilterServiceListener> filterServiceListeners = new CopyOnWriteArraySet<FilterServiceListener>();
+
+    private volatile Map<EventType, TypeSnapshot> snapshot = Collections.emptyMap();
+    private volatile boolean changed;
+    private volatile long filtersVersion = 1;
+    private long numSnapshotsPublished;
+    private long numBaseTreesBuilt;
+
+    public FilterServiceCopyOnWrite(boolean allowIsolation) {
+        this.allowIsolation = allowIsolation;
+    }
+
+    public boolean isSupportsTakeApply() {
+        return allowIsolation;
+    }
+
+    public long getFiltersVersion() {
+        return filtersVersion;
+    }
+
+    public void destroy() {
+        log.debug("Destroying filter service");
+        writeLock.lock();
+        try {
+            filters.clear();
+            filtersPerType.clear();
+            changedTypes.clear();
+            snapshot = Collections.emptyMap();
+            changed = false;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void acquireWriteLock() {
+        writeLock.lock();
+    }
+
+    public void releaseWriteLock() {
+        writeLock.unlock();
+    }
+
+    public FilterServiceEntry add(FilterValueSet filterValueSet, FilterHandle callback) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilterAdd(filterValueSet, callback);
+        }
+        writeLock.lock();
+        try {
+            addInternal(filterValueSet, callback);
+        } finally {
+            writeLock.unlock();
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aFilterAdd();
+        }
+        return null;
+    }
+
+    public void remove(FilterHandle callback, FilterServiceEntry filterServiceEntry) {
+        writeLock.lock();
+        try {
+            removeInternal(callback);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void removeType(EventType type) {
+        writeLock.lock();
+        try {
+            TypeFilters typeFilters = filtersPerType.remove(type);
+            if (typeFilters != null) {
+                filters.keySet().removeAll(typeFilters.all.keySet());
+            }
+            markChanged(type);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public FilterSet take(Set<Integer> statementIds) {
+        if (!allowIsolation) {
+            throw new EPException("Operation not supported, please enable isolation in the engine configuration");
+        }
+        List<FilterSetEntry> list = new ArrayList<FilterSetEntry>();
+        writeLock.lock();
+        try {
+            for (Map.Entry<FilterHandle, FilterValueSet> entry : filters.entrySet()) {
+                if (statementIds.contains(entry.getKey().getStatementId())) {
+                    list.add(new FilterSetEntry(entry.getKey(), entry.getValue()));
+                }
+            }
+            for (FilterSetEntry entry : list) {
+                removeInternal(entry.getHandle());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        return new FilterSet(list);
+    }
+
+    public void apply(FilterSet filterSet) {
+        writeLock.lock();
+        try {
+            for (FilterSetEntry entry : filterSet.getFilters()) {
+                addInternal(entry.getFilterValueSet(), entry.getHandle());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilter(theEvent);
+        }
+
+        long version = filtersVersion;
+        numEventsEvaluated.increment();
+
+        // Finds all matching filters and return their callbacks.
+        retryableMatchEvent(theEvent, matches);
+
+        if ((AuditPath.isAuditEnabled) && (!filterServiceListeners.isEmpty())) {
+            for (FilterServiceListener listener : filterServiceListeners) {
+                listener.filtering(theEvent, matches, null);
+            }
+        }
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aFilter(matches);
+        }
+
+        return version;
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches, int statementId) {
+        long version = filtersVersion;
+        numEventsEvaluated.increment();
+
+        ArrayDeque<FilterHandle> allMatches = new ArrayDeque<FilterHandle>();
+
+        // Finds all matching filters
+        retryableMatchEvent(theEvent, allMatches);
+
+        // Add statement matches to collection passed
+        for (FilterHandle match : allMatches) {
+            if (match.getStatementId() == statementId) {
+                matches.add(match);
+            }
+        }
+
+        if ((AuditPath.isAuditEnabled) && (!filterServiceListeners.isEmpty())) {
+            for (FilterServiceListener listener : filterServiceListeners) {
+                listener.filtering(theEvent, matches, statementId);
+            }
+        }
+
+        return version;
+    }
+
+    @JmxGetter(name = "NumEventsEvaluated", description = "Number of events evaluated (main)")
+    public long getNumEventsEvaluated() {
+        return numEventsEvaluated.sum();
+    }
+
+    @JmxGetter(name = "NumSnapshotsPublished", description = "Number of filter snapshots published")
+    public long getNumSnapshotsPublished() {
+        writeLock.lock();
+        try {
+            return numSnapshotsPublished;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @JmxGetter(name = "NumBaseTreesBuilt", description = "Number of filter trees built from all filters of an event type")
+    public long getNumBaseTreesBuilt() {
+        writeLock.lock();
+        try {
+            return numBaseTreesBuilt;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @JmxOperation(description = "Reset number of events evaluated")
+    public void resetStats() {
+        numEventsEvaluated.reset();
+    }
+
+    public void addFilterServiceListener(FilterServiceListener filterServiceListener) {
+        filterServiceListeners.add(filterServiceListener);
+    }
+
+    public void removeFilterServiceListener(FilterServiceListener filterServiceListener) {
+        filterServiceListeners.remove(filterServiceListener);
+    }
+
+    @JmxGetter(name = "NumFiltersApprox", description = "Number of filters managed (approximately)")
+    public int getFilterCountApprox() {
+        writeLock.lock();
+        try {
+            return filters.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @JmxGetter(name = "NumEventTypes", description = "Number of event types considered")
+    public int getCountTypes() {
+        return currentSnapshot().size();
+    }
+
+    public void init() {
+        // no initialization required
+    }
+
+    private void addInternal(FilterValueSet filterValueSet, FilterHandle callback) {
+        EventType eventType = filterValueSet.getEventType();
+        FilterValueSet existing = filters.put(callback, filterValueSet);
+        if (existing != null && existing.getEventType() != eventType) {
+            removeFromType(existing.getEventType(), callback);
+        }
+        TypeFilters typeFilters = filtersPerType.get(eventType);
+        if (typeFilters == null) {
+            typeFilters = new TypeFilters();
+            filtersPerType.put(eventType, typeFilters);
+        }
+        typeFilters.add(callback, filterValueSet);
+        markChanged(eventType);
+    }
+
+    private void removeInternal(FilterHandle callback) {
+        // If it already has been removed then that's fine
+        FilterValueSet filterValueSet = filters.remove(callback);
+        if (filterValueSet == null) {
+            return;
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilterRemove(callback, new EventTypeIndexBuilderValueIndexesPair(filterValueSet, new EventTypeIndexBuilderIndexLookupablePair[0][]));
+        }
+        removeFromType(filterValueSet.getEventType(), callback);
+        markChanged(filterValueSet.getEventType());
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aFilterRemove();
+        }
+    }
+
+    private void removeFromType(EventType eventType, FilterHandle callback) {
+        TypeFilters typeFilters = filtersPerType.get(eventType);
+        if (typeFilters == null) {
+            return;
+        }
+        typeFilters.remove(callback);
+        if (typeFilters.all.isEmpty()) {
+            filtersPerType.remove(eventType);
+        }
+    }
+
+    private void markChanged(EventType eventType) {
+        changedTypes.add(eventType);
+        filtersVersion++;
+        changed = true;
+    }
+
+    /**
+     * Returns the snapshot to evaluate against, publishing a new snapshot first if there are changes.
+     *
+     * @return snapshot of filter trees per event type
+     */
+    private Map<EventType, TypeSnapshot> currentSnapshot() {
+        if (changed) {
+            writeLock.lock();
+            try {
+                if (changed) {
+                    publish();
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    private void publish() {
+        Map<EventType, TypeSnapshot> next = new HashMap<EventType, TypeSnapshot>(snapshot);
+        for (EventType eventType : changedTypes) {
+            TypeFilters typeFilters = filtersPerType.get(eventType);
+            if (typeFilters == null) {
+                next.remove(eventType);
+            } else {
+                if (typeFilters.base == null || typeFilters.added.size() + typeFilters.removed.size() > MAX_PENDING_CHANGES) {
+                    typeFilters.buildBase();
+                    numBaseTreesBuilt++;
+                }
+                next.put(eventType, typeFilters.snapshot());
+            }
+        }
+        changedTypes.clear();
+        numSnapshotsPublished++;
+
+        // publish the snapshot before clearing the indicator so that evaluation never sees a stale snapshot
+        snapshot = next;
+        changed = false;
+    }
+
+    private void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        Map<EventType, TypeSnapshot> trees = currentSnapshot();
+        EventType eventType = theEvent.getEventType();
+
+        // Attempt to match exact type
+        TypeSnapshot rootNode = trees.get(eventType);
+        if (rootNode != null) {
+            rootNode.matchEvent(theEvent, matches);
+        }
+
+        // No supertype means we are done
+        if (eventType.getSuperTypes() == null) {
+            return;
+        }
+
+        for (Iterator<EventType> it = eventType.getDeepSuperTypes(); it.hasNext(); ) {
+            rootNode = trees.get(it.next());
+            if (rootNode != null) {
+                rootNode.matchEvent(theEvent, matches);
+            }
+        }
+    }
+
+    private void retryableMatchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        // Install lock backoff exception handler that retries the evaluation.
+        try {
+            matchEvent(theEvent, matches);
+        } catch (FilterLockBackoffException ex) {
+            // retry on lock back-off, see FilterServiceBase
+            long delayNs = 10;
+            while (true) {
+                try {
+                    // yield
+                    try {
+                        Thread.sleep(0);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    // delay
+                    LockSupport.parkNanos(delayNs);
+                    if (delayNs < 1000000000) {
+                        delayNs = delayNs * 2;
+                    }
+
+                    // evaluate
+                    matches.clear();
+                    matchEvent(theEvent, matches);
+                    break;
+                } catch (FilterLockBackoffException ex2) {
+                    // retried
+                }
+            }
+        }
+    }
+
+    /**
+     * Filters of an event type, changed only under the write lock.
+     */
+    private static class TypeFilters {
+        private final Map<FilterHandle, FilterValueSet> all = new LinkedHashMap<FilterHandle, FilterValueSet>();
+        private final Map<FilterHandle, FilterValueSet> added = new LinkedHashMap<FilterHandle, FilterValueSet>();
+        private final Set<FilterHandle> removed = new HashSet<FilterHandle>();
+        private Set<FilterHandle> baseHandles = Collections.emptySet();
+        private FilterHandleSetNode base;
+
+        void add(FilterHandle callback, FilterValueSet filterValueSet) {
+            all.put(callback, filterValueSet);
+            added.put(callback, filterValueSet);
+            if (baseHandles.contains(callback)) {
+                // the base tree holds the callback's previous filter
+                removed.add(callback);
+            }
+        }
+
+        void remove(FilterHandle callback) {
+            all.remove(callback);
+            added.remove(callback);
+            if (baseHandles.contains(callback)) {
+                removed.add(callback);
+            }
+        }
+
+        void buildBase() {
+            base = IndexTreeBuilder.build(all);
+            baseHandles = new HashSet<FilterHandle>(all.keySet());
+            added.clear();
+            removed.clear();
+        }
+
+        TypeSnapshot snapshot() {
+            FilterHandleSetNode addedNode = added.isEmpty() ? null : IndexTreeBuilder.build(added);
+            Set<FilterHandle> removedCopy = removed.isEmpty() ? Collections.<FilterHandle>emptySet() : new HashSet<FilterHandle>(removed);
+            return new TypeSnapshot(base, addedNode, removedCopy);
+        }
+    }
+
+    /**
+     * Immutable published filters of an event type.
+     */
+    private static class TypeSnapshot {
+        private final FilterHandleSetNode base;
+        private final FilterHandleSetNode added;
+        private final Set<FilterHandle> removed;
+
+        TypeSnapshot(FilterHandleSetNode base, FilterHandleSetNode added, Set<FilterHandle> removed) {
+            this.base = base;
+            this.added = added;
+            this.removed = removed;
+        }
+
+        void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+            if (removed.isEmpty()) {
+                base.matchEvent(theEvent, matches);
+            } else {
+                ArrayDeque<FilterHandle> baseMatches = new ArrayDeque<FilterHandle>();
+                base.matchEvent(theEvent, baseMatches);
+                for (FilterHandle match : baseMatches) {
+                    if (!removed.contains(match)) {
+                        matches.add(match);
+                    }
+                }
+            }
+            if (added != null) {
+                added.matchEvent(theEvent, matches);
+            }
+        }
+    }
+}
@@ -26,6 +26,8 @@ public final class FilterServiceProvider {
     public static FilterServiceSPI newService(ConfigurationEngineDefaults.FilterServiceProfile filterServiceProfile, boolean allowIsolation) {
         if (filterServiceProfile == ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY) {
             return new FilterServiceLockCoarse(allowIsolation);
+        } else if (filterServiceProfile == ConfigurationEngineDefaults.FilterServiceProfile.COPYONWRITE) {
+            return new FilterServiceCopyOnWrite(allowIsolation);
         } else {
             return new FilterServiceLockFine(allowIsolation);
         }
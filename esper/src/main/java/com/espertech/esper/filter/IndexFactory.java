@@ -14,6 +14,7 @@ import com.espertech.esper.epl.index.quadtree.EngineImportApplicationDotMethodPo
 import com.espertech.esper.epl.index.quadtree.EngineImportApplicationDotMethodRectangeIntersectsRectangle;
 import com.espertech.esper.filterspec.FilterOperator;
 import com.espertech.esper.epl.expression.core.ExprFilterSpecLookupable;
+import com.espertech.esper.util.JavaClassHelper;
 
 /**
  * Factory for {@link FilterParamIndexBase} instances based on event property name and filter operator type.
@@ -35,7 +36,16 @@ public class IndexFactory {
 
         // Handle all EQUAL comparisons
         if (filterOperator == FilterOperator.EQUAL) {
-            index = new FilterParamIndexEquals(lookupable, lockFactory.obtainNew());
+            Class boxedType = JavaClassHelper.getBoxedType(returnValueType);
+            if (boxedType == Long.class) {
+                index = new FilterParamIndexEqualsLong(lookupable, lockFactory.obtainNew());
+            } else if (boxedType == Integer.class) {
+                index = new FilterParamIndexEqualsInt(lookupable, lockFactory.obtainNew());
+            } else if (boxedType == Double.class) {
+                index = new FilterParamIndexEqualsDouble(lookupable, lockFactory.obtainNew());
+            } else {
+                index = new FilterParamIndexEquals(lookupable, lockFactory.obtainNew());
+            }
             return index;
         }
 
@@ -20,6 +20,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Map;
 
 /**
  * Builder manipulates a tree structure consisting of {@link FilterHandleSetNode} and {@link FilterParamIndexBase} instances.
@@ -71,6 +72,22 @@ public final class IndexTreeBuilder {
         return treePathInfo;
     }
 
+    /**
+     * Build a new tree for the given filters, for use as an immutable snapshot.
+     * The nodes and indexes of the tree do not lock and the tree must not be changed after it has been published.
+     *
+     * @param filters filter callbacks and their filter definition, in the order of adding
+     * @return top node
+     */
+    public static FilterHandleSetNode build(Map<FilterHandle, FilterValueSet> filters) {
+        FilterServiceGranularLockFactory lockFactory = FilterServiceGranularLockFactoryNone.INSTANCE;
+        FilterHandleSetNode topNode = new FilterHandleSetNode(lockFactory.obtainNew());
+        for (Map.Entry<FilterHandle, FilterValueSet> entry : filters.entrySet()) {
+            add(entry.getValue(), entry.getKey(), topNode, lockFactory);
+        }
+        return topNode;
+    }
+
     /**
      * Remove an filterCallback from the given top node. The IndexTreePath instance passed in must be the
      * same as obtained when the same filterCallback was added.
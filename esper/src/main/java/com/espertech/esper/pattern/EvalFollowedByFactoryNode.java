@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.pattern;
 
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.epl.expression.core.ExprNodeUtilityCore;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
@@ -28,6 +29,7 @@ public class EvalFollowedByFactoryNode extends EvalNodeFactoryBase {
     protected EvalFollowedByNodeOpType opType;
     private Integer[] cachedMaxPerChild;
     private transient ExprEvaluator[] cachedMaxEvaluatorPerChild;
+    private transient EvalFollowedByKeyedDesc keyedDesc;
 
     protected EvalFollowedByFactoryNode(List<ExprNode> optionalMaxExpressions, boolean hasEngineWidePatternCount) {
         this.optionalMaxExpressions = optionalMaxExpressions;
@@ -36,6 +38,9 @@ public class EvalFollowedByFactoryNode extends EvalNodeFactoryBase {
 
     public EvalNode makeEvalNode(PatternAgentInstanceContext agentInstanceContext, EvalNode parentNode) {
         if (opType == null) {
+            if (HintEnum.KEYED_FOLLOWEDBY.getHint(agentInstanceContext.getStatementContext().getAnnotations()) != null) {
+                keyedDesc = EvalFollowedByKeyedAnalyzer.analyze(this);
+            }
             initOpType();
         }
 
@@ -86,6 +91,15 @@ public class EvalFollowedByFactoryNode extends EvalNodeFactoryBase {
         opType = hasEngineWidePatternCount ? EvalFollowedByNodeOpType.MAX_POOL : EvalFollowedByNodeOpType.MAX_PLAIN;
     }
 
+    /**
+     * Returns the information for keeping partial matches keyed by correlation value, or null when not requested or not applicable.
+     *
+     * @return keyed evaluation information
+     */
+    public EvalFollowedByKeyedDesc getKeyedDesc() {
+        return keyedDesc;
+    }
+
     public EvalFollowedByNodeOpType getOpType() {
         return opType;
     }
@@ -0,0 +1,108 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern;
+
+import com.espertech.esper.filterspec.*;
+import com.espertech.esper.pattern.guard.TimerWithinGuardFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Analyzes a followed-by of the shape "every a=A -&gt; b=B(key=a.key) where timer:within(t)" for keeping
+ * the partial matches in a table keyed by correlation value, with a single filter and a single schedule for all partial matches.
+ * <p>
+ * Requires the left-hand side to be an every over a tagged filter and the right-hand side to be a timer-within guard
+ * with a constant time over a filter that has an equals-comparison against a property of the left-hand tagged event.
+ * Other filter parameters of the right-hand side must not depend on tagged events.
+ * </p>
+ */
+public class EvalFollowedByKeyedAnalyzer {
+
+    /**
+     * Analyze the followed-by.
+     *
+     * @param followedBy followed-by factory node
+     * @return keyed evaluation information or null if the followed-by does not qualify
+     */
+    public static EvalFollowedByKeyedDesc analyze(EvalFollowedByFactoryNode followedBy) {
+        if (followedBy.getChildNodes().size() != 2) {
+            return null;
+        }
+
+        EvalFactoryNode left = followedBy.getChildNodes().get(0);
+        if (!(left instanceof EvalEveryFactoryNode) || left.getChildNodes().size() != 1) {
+            return null;
+        }
+        EvalFilterFactoryNode leftFilter = getFilter(left.getChildNodes().get(0));
+        if (leftFilter == null || leftFilter.getEventAsName() == null) {
+            return null;
+        }
+
+        EvalFactoryNode right = followedBy.getChildNodes().get(1);
+        if (!(right instanceof EvalGuardFactoryNode) || right.getChildNodes().size() != 1) {
+            return null;
+        }
+        EvalGuardFactoryNode guard = (EvalGuardFactoryNode) right;
+        if (guard.getGuardFactory() == null || guard.getGuardFactory().getClass() != TimerWithinGuardFactory.class) {
+            return null;
+        }
+        TimerWithinGuardFactory guardFactory = (TimerWithinGuardFactory) guard.getGuardFactory();
+        if (!guardFactory.isConstantTime()) {
+            return null;
+        }
+        EvalFilterFactoryNode rightFilter = getFilter(right.getChildNodes().get(0));
+        if (rightFilter == null || rightFilter.getFilterSpec().getParameters().length != 1) {
+            return null;
+        }
+
+        FilterSpecParamEventProp correlation = null;
+        List<FilterSpecParam> remaining = new ArrayList<FilterSpecParam>();
+        for (FilterSpecParam param : rightFilter.getFilterSpec().getParameters()[0]) {
+            if (param instanceof FilterSpecParamEventProp) {
+                FilterSpecParamEventProp eventProp = (FilterSpecParamEventProp) param;
+                if (correlation != null || eventProp.getFilterOperator() != FilterOperator.EQUAL || !eventProp.getResultEventAsName().equals(leftFilter.getEventAsName())) {
+                    return null;
+                }
+                correlation = eventProp;
+            } else if (param instanceof FilterSpecParamConstant) {
+                remaining.add(param);
+            } else if (param instanceof FilterSpecParamExprNode) {
+                FilterSpecParamExprNode exprNode = (FilterSpecParamExprNode) param;
+                if ((exprNode.getTaggedEventTypes() != null && !exprNode.getTaggedEventTypes().isEmpty()) ||
+                        (exprNode.getArrayEventTypes() != null && !exprNode.getArrayEventTypes().isEmpty())) {
+                    return null;
+                }
+                remaining.add(param);
+            } else {
+                return null;
+            }
+        }
+        if (correlation == null) {
+            return null;
+        }
+
+        FilterSpecCompiled spec = rightFilter.getFilterSpec();
+        FilterSpecCompiled sharedFilterSpec = new FilterSpecCompiled(spec.getFilterForEventType(), spec.getFilterForEventTypeName(), new List[]{remaining}, null);
+        return new EvalFollowedByKeyedDesc(rightFilter, correlation, sharedFilterSpec, guardFactory);
+    }
+
+    private static EvalFilterFactoryNode getFilter(EvalFactoryNode node) {
+        if (!(node instanceof EvalFilterFactoryNode)) {
+            return null;
+        }
+        EvalFilterFactoryNode filter = (EvalFilterFactoryNode) node;
+        if (filter.getConsumptionLevel() != null || filter.getFilterSpec() == null || filter.getFilterSpec().getOptionalPropertyEvaluator() != null) {
+            return null;
+        }
+        return filter;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern;
+
+import com.espertech.esper.filterspec.FilterSpecCompiled;
+import com.espertech.esper.filterspec.FilterSpecParamEventProp;
+import com.espertech.esper.pattern.guard.TimerWithinGuardFactory;
+
+/**
+ * Result of the analysis of a followed-by for keeping partial matches keyed by correlation value, see {@link EvalFollowedByKeyedAnalyzer}.
+ */
+public class EvalFollowedByKeyedDesc {
+    private final EvalFilterFactoryNode rightFilter;
+    private final FilterSpecParamEventProp correlation;
+    private final FilterSpecCompiled sharedFilterSpec;
+    private final TimerWithinGuardFactory guardFactory;
+
+    public EvalFollowedByKeyedDesc(EvalFilterFactoryNode rightFilter, FilterSpecParamEventProp correlation, FilterSpecCompiled sharedFilterSpec, TimerWithinGuardFactory guardFactory) {
+        this.rightFilter = rightFilter;
+        this.correlation = correlation;
+        this.sharedFilterSpec = sharedFilterSpec;
+        this.guardFactory = guardFactory;
+    }
+
+    /**
+     * Returns the filter of the right-hand side.
+     *
+     * @return filter factory node
+     */
+    public EvalFilterFactoryNode getRightFilter() {
+        return rightFilter;
+    }
+
+    /**
+     * Returns the equals-parameter correlating the right-hand filter to the tagged left-hand event.
+     *
+     * @return correlation parameter
+     */
+    public FilterSpecParamEventProp getCorrelation() {
+        return correlation;
+    }
+
+    /**
+     * Returns the filter of the right-hand side without the correlation parameter, shared by all partial matches.
+     *
+     * @return filter spec
+     */
+    public FilterSpecCompiled getSharedFilterSpec() {
+        return sharedFilterSpec;
+    }
+
+    /**
+     * Returns the timer-within guard of the right-hand side.
+     *
+     * @return guard factory
+     */
+    public TimerWithinGuardFactory getGuardFactory() {
+        return guardFactory;
+    }
+}
@@ -0,0 +1,392 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.hook.ConditionPatternSubexpressionMax;
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.core.service.EPStatementHandleCallback;
+import com.espertech.esper.core.service.EngineLevelExtensionServicesContext;
+import com.espertech.esper.filter.FilterHandleCallback;
+import com.espertech.esper.filter.FilterService;
+import com.espertech.esper.filter.FilterServiceEntry;
+import com.espertech.esper.filterspec.FilterValueSet;
+import com.espertech.esper.filterspec.MatchedEventMap;
+import com.espertech.esper.filterspec.MatchedEventMapImpl;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.pattern.pool.PatternSubexpressionPoolStmtSvc;
+import com.espertech.esper.schedule.ScheduleHandleCallback;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Set;
+
+/**
+ * This class represents the state of a followed-by operator of the shape "every a=A -&gt; b=B(key=a.key) where timer:within(t)"
+ * that keeps the partial matches in a table keyed by correlation value, see {@link EvalFollowedByKeyedAnalyzer}.
+ * <p>
+ * Instead of a filter, guard and timer per partial match, a single filter without the correlation parameter finds the
+ * partial matches by the correlation value of the filtered event, and a single schedule expires the partial matches,
+ * which all have the same guard time and therefore expire in the order they were added.
+ * </p>
+ */
+public class EvalFollowedByKeyedStateNode extends EvalStateNode implements Evaluator, FilterHandleCallback, ScheduleHandleCallback {
+    protected final EvalFollowedByNode evalFollowedByNode;
+    private final EvalFollowedByKeyedDesc desc;
+    private final EvalFilterNode rightFilterNode;
+    private final HashMap<Object, Pending> pendingByKey;
+    private final long scheduleSlot;
+
+    private boolean isStarted;
+    private EvalStateNode leftNode;
+    private Pending first;
+    private Pending last;
+    private int numPending;
+    private EPStatementHandleCallback filterHandle;
+    private FilterServiceEntry filterServiceEntry;
+    private EPStatementHandleCallback scheduleHandle;
+
+    /**
+     * Constructor.
+     *
+     * @param parentNode         is the parent evaluator to call to indicate truth value
+     * @param evalFollowedByNode is the factory node associated to the state
+     */
+    public EvalFollowedByKeyedStateNode(Evaluator parentNode, EvalFollowedByNode evalFollowedByNode) {
+        super(parentNode);
+        this.evalFollowedByNode = evalFollowedByNode;
+        this.desc = evalFollowedByNode.getFactoryNode().getKeyedDesc();
+        this.rightFilterNode = (EvalFilterNode) ((EvalGuardNode) evalFollowedByNode.getChildNodes()[1]).getChildNode();
+        this.pendingByKey = new HashMap<Object, Pending>();
+        this.scheduleSlot = evalFollowedByNode.getContext().getPatternContext().getScheduleBucket().allocateSlot();
+    }
+
+    @Override
+    public EvalNode getFactoryNode() {
+        return evalFollowedByNode;
+    }
+
+    public int getStatementId() {
+        return evalFollowedByNode.getContext().getPatternContext().getStatementId();
+    }
+
+    public final void start(MatchedEventMap beginState) {
+        isStarted = true;
+        leftNode = evalFollowedByNode.getChildNodes()[0].newState(this, null, 0L);
+        leftNode.start(beginState);
+    }
+
+    public final void evaluateTrue(MatchedEventMap matchEvent, EvalStateNode fromNode, boolean isQuitted, EventBean optionalTriggeringEvent) {
+        if (fromNode != leftNode) {
+            return;
+        }
+        if (isQuitted) {
+            leftNode = null;
+        }
+        addPending(matchEvent);
+        if (leftNode == null && numPending == 0) {
+            this.getParentEvaluator().evaluateFalse(this, true);
+            quit();
+        }
+    }
+
+    public final void evaluateFalse(EvalStateNode fromNode, boolean restartable) {
+        if (fromNode != leftNode) {
+            return;
+        }
+        leftNode.quit();
+        leftNode = null;
+        if (numPending == 0) {
+            this.getParentEvaluator().evaluateFalse(this, true);
+            quit();
+        }
+    }
+
+    public void matchFound(EventBean theEvent, Collection<FilterHandleCallback> allStmtMatches) {
+        if (!isStarted) {
+            return;
+        }
+        Object key = desc.getCorrelation().getLookupable().getGetter().get(theEvent);
+        if (key == null) {
+            return;
+        }
+        Pending pending = pendingByKey.remove(key);
+        if (pending == null) {
+            return;
+        }
+
+        // remove all partial matches for the key before indicating, as the parent may quit this node
+        for (Pending removed = pending; removed != null; removed = removed.nextSameKey) {
+            unlink(removed);
+        }
+
+        EvalFilterFactoryNode rightFilter = desc.getRightFilter();
+        while (pending != null && isStarted) {
+            MatchedEventMap passUp = pending.beginState.shallowCopy();
+            if (rightFilter.getEventAsName() != null) {
+                passUp.add(rightFilter.getEventAsTagNumber(), theEvent);
+            }
+            Pending next = pending.nextSameKey;
+            boolean isFollowedByQuitted = next == null && leftNode == null && numPending == 0;
+            this.getParentEvaluator().evaluateTrue(passUp, this, isFollowedByQuitted, theEvent);
+            pending = next;
+        }
+    }
+
+    public final void scheduledTrigger(EngineLevelExtensionServicesContext engineLevelExtensionServicesContext) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qPatternGuardScheduledEval();
+        }
+        // Timer callback is automatically removed when triggering
+        scheduleHandle = null;
+        long currentTime = evalFollowedByNode.getContext().getAgentInstanceContext().getTimeProvider().getTime();
+        while (first != null && first.expiry <= currentTime) {
+            Pending expired = first;
+            removeSameKey(expired);
+            unlink(expired);
+        }
+        if (first != null) {
+            schedule(first.expiry - currentTime);
+        } else if (leftNode == null && isStarted) {
+            this.getParentEvaluator().evaluateFalse(this, true);
+            quit();
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aPatternGuardScheduledEval();
+        }
+    }
+
+    public boolean isSubSelect() {
+        return false;
+    }
+
+    public boolean isNotOperator() {
+        return false;
+    }
+
+    public boolean isFilterStateNode() {
+        return false;
+    }
+
+    public boolean isFilterChildNonQuitting() {
+        return false;
+    }
+
+    public boolean isObserverStateNodeNonRestarting() {
+        return false;
+    }
+
+    public void removeMatch(Set<EventBean> matchEvent) {
+        if (leftNode != null) {
+            leftNode.removeMatch(matchEvent);
+        }
+        if (!isStarted) {
+            return;
+        }
+        Pending pending = first;
+        while (pending != null) {
+            Pending next = pending.next;
+            if (PatternConsumptionUtil.containsEvent(matchEvent, pending.beginState)) {
+                removeSameKey(pending);
+                unlink(pending);
+            }
+            pending = next;
+        }
+        if (leftNode == null && numPending == 0) {
+            this.getParentEvaluator().evaluateFalse(this, true);
+            quit();
+        }
+    }
+
+    public final void quit() {
+        if (!isStarted) {
+            return;
+        }
+        isStarted = false;
+        if (leftNode != null) {
+            leftNode.quit();
+            leftNode = null;
+        }
+        while (first != null) {
+            unlink(first);
+        }
+        pendingByKey.clear();
+        stopFiltering();
+        if (scheduleHandle != null) {
+            evalFollowedByNode.getContext().getPatternContext().getSchedulingService().remove(scheduleHandle, scheduleSlot);
+            scheduleHandle = null;
+        }
+    }
+
+    public final void accept(EvalStateNodeVisitor visitor) {
+        visitor.visitFollowedBy(evalFollowedByNode.getFactoryNode(), this, pendingByKey, numPending);
+        if (leftNode != null) {
+            leftNode.accept(visitor);
+        }
+    }
+
+    public final String toString() {
+        return "EvalFollowedByKeyedStateNode pending=" + numPending;
+    }
+
+    private void addPending(MatchedEventMap matchEvent) {
+        if (evalFollowedByNode.isTrackWithMax()) {
+            int max = evalFollowedByNode.getFactoryNode().getMax(0);
+            if ((max != -1) && (max >= 0)) {
+                if (numPending >= max) {
+                    evalFollowedByNode.getContext().getAgentInstanceContext().getStatementContext().getExceptionHandlingService().handleCondition(new ConditionPatternSubexpressionMax(max), evalFollowedByNode.getContext().getAgentInstanceContext().getStatementContext().getEpStatementHandle());
+                    return;
+                }
+            }
+        }
+
+        if (evalFollowedByNode.isTrackWithPool()) {
+            PatternSubexpressionPoolStmtSvc poolSvc = evalFollowedByNode.getContext().getStatementContext().getPatternSubexpressionPoolSvc();
+            boolean allow = poolSvc.getEngineSvc().tryIncreaseCount(evalFollowedByNode, evalFollowedByNode.getContext().getAgentInstanceContext());
+            if (!allow) {
+                return;
+            }
+            poolSvc.getStmtHandler().increaseCount();
+        }
+
+        AgentInstanceContext agentInstanceContext = evalFollowedByNode.getContext().getAgentInstanceContext();
+        Object key = desc.getCorrelation().getFilterValue(matchEvent, agentInstanceContext, agentInstanceContext.getEngineImportService(), agentInstanceContext.getAnnotations());
+        long delta = desc.getGuardFactory().computeTime(matchEvent, evalFollowedByNode.getContext());
+        Pending pending = new Pending(key, matchEvent, agentInstanceContext.getTimeProvider().getTime() + delta);
+
+        if (filterHandle == null) {
+            startFiltering();
+        }
+
+        // a null value cannot match the equals-filter, the partial match only expires
+        if (key != null) {
+            Pending head = pendingByKey.get(key);
+            if (head == null) {
+                pendingByKey.put(key, pending);
+                pending.lastSameKey = pending;
+            } else {
+                head.lastSameKey.nextSameKey = pending;
+                head.lastSameKey = pending;
+            }
+        }
+
+        if (last == null) {
+            first = pending;
+        } else {
+            last.next = pending;
+            pending.prev = last;
+        }
+        last = pending;
+        numPending++;
+
+        if (scheduleHandle == null) {
+            schedule(delta);
+        }
+    }
+
+    private void unlink(Pending pending) {
+        if (pending.prev == null) {
+            first = pending.next;
+        } else {
+            pending.prev.next = pending.next;
+        }
+        if (pending.next == null) {
+            last = pending.prev;
+        } else {
+            pending.next.prev = pending.prev;
+        }
+        pending.prev = null;
+        pending.next = null;
+        numPending--;
+
+        if (evalFollowedByNode.isTrackWithPool()) {
+            PatternSubexpressionPoolStmtSvc poolSvc = evalFollowedByNode.getContext().getStatementContext().getPatternSubexpressionPoolSvc();
+            poolSvc.getEngineSvc().decreaseCount(evalFollowedByNode, evalFollowedByNode.getContext().getAgentInstanceContext());
+            poolSvc.getStmtHandler().decreaseCount();
+        }
+    }
+
+    private void removeSameKey(Pending pending) {
+        if (pending.key == null) {
+            return;
+        }
+        Pending head = pendingByKey.get(pending.key);
+        if (head == pending) {
+            Pending next = pending.nextSameKey;
+            if (next == null) {
+                pendingByKey.remove(pending.key);
+            } else {
+                next.lastSameKey = pending.lastSameKey;
+                pendingByKey.put(pending.key, next);
+            }
+            return;
+        }
+        Pending previous = head;
+        while (previous != null && previous.nextSameKey != pending) {
+            previous = previous.nextSameKey;
+        }
+        if (previous != null) {
+            previous.nextSameKey = pending.nextSameKey;
+            if (head.lastSameKey == pending) {
+                head.lastSameKey = previous;
+            }
+        }
+    }
+
+    private void schedule(long delta) {
+        scheduleHandle = new EPStatementHandleCallback(evalFollowedByNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle(), this);
+        evalFollowedByNode.getContext().getPatternContext().getSchedulingService().add(delta, scheduleHandle, scheduleSlot);
+    }
+
+    private void startFiltering() {
+        PatternContext context = evalFollowedByNode.getContext().getPatternContext();
+        AgentInstanceContext agentInstanceContext = evalFollowedByNode.getContext().getAgentInstanceContext();
+        FilterService filterService = context.getFilterService();
+        filterHandle = new EPStatementHandleCallback(agentInstanceContext.getEpStatementAgentInstanceHandle(), this);
+        MatchedEventMap noEvents = new MatchedEventMapImpl(context.getMatchedEventMapMeta());
+        FilterValueSet filterValues = desc.getSharedFilterSpec().getValueSet(noEvents, rightFilterNode.getAddendumFilters(), agentInstanceContext, agentInstanceContext.getEngineImportService(), agentInstanceContext.getAnnotations());
+        filterServiceEntry = filterService.add(filterValues, filterHandle);
+        long filtersVersion = filterService.getFiltersVersion();
+        agentInstanceContext.getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filtersVersion);
+    }
+
+    private void stopFiltering() {
+        if (filterHandle == null) {
+            return;
+        }
+        PatternContext context = evalFollowedByNode.getContext().getPatternContext();
+        context.getFilterService().remove(filterHandle, filterServiceEntry);
+        filterHandle = null;
+        filterServiceEntry = null;
+        long filtersVersion = context.getFilterService().getFiltersVersion();
+        evalFollowedByNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filtersVersion);
+    }
+
+    /**
+     * A partial match waiting for the right-hand event, linked in expiry order and, for the same key, in order of arrival.
+     * The last partial match for the key is only maintained by the first partial match for the key.
+     */
+    private static class Pending {
+        private final Object key;
+        private final MatchedEventMap beginState;
+        private final long expiry;
+        private Pending prev;
+        private Pending next;
+        private Pending nextSameKey;
+        private Pending lastSameKey;
+
+        Pending(Object key, MatchedEventMap beginState, long expiry) {
+            this.key = key;
+            this.beginState = beginState;
+            this.expiry = expiry;
+        }
+    }
+}
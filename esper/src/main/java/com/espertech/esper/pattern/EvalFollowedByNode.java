@@ -36,6 +36,9 @@ public class EvalFollowedByNode extends EvalNodeBase {
 
     public EvalStateNode newState(Evaluator parentNode,
                                   EvalStateNodeNumber stateNodeNumber, long stateNodeId) {
+        if (factoryNode.getKeyedDesc() != null) {
+            return new EvalFollowedByKeyedStateNode(parentNode, this);
+        }
         switch (factoryNode.opType) {
             case NOMAX_PLAIN:
                 return new EvalFollowedByStateNode(parentNode, this);
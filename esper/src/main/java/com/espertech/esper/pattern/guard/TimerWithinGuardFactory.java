@@ -63,6 +63,19 @@ public class TimerWithinGuardFactory implements GuardFactory, Serializable {
         }
     }
 
+    /**
+     * Returns indicator whether all guards wait the same time, i.e. the time is a constant number or a constant time period without months and years.
+     *
+     * @return indicator
+     */
+    public boolean isConstantTime() {
+        if (timeExpr instanceof ExprTimePeriod) {
+            ExprTimePeriod timePeriod = (ExprTimePeriod) timeExpr;
+            return timePeriod.isConstantResult() && !timePeriod.isHasMonth() && !timePeriod.isHasYear();
+        }
+        return timeExpr.isConstantResult();
+    }
+
     public Guard makeGuard(PatternAgentInstanceContext context, MatchedEventMap matchedEventMap, Quitable quitable, EvalStateNodeNumber stateNodeId, Object guardState) {
         return new TimerWithinGuard(computeTime(matchedEventMap, context), quitable);
     }
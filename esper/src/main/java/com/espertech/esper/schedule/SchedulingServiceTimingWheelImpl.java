@@ -0,0 +1,544 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.client.util.DateTime;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.metrics.jmx.JmxGetter;
+import com.espertech.esper.timer.TimeSourceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Implements the schedule service as a hierarchical timing wheel, for use with a very large number of
+ * outstanding schedules.
+ * <p>
+ * Adding and removing a handle is constant-time: each handle is an entry in a doubly-linked bucket list of
+ * one of the wheel levels. The first level has one bucket per time unit, each further level covers the full range of
+ * the level below per bucket. Entries move to lower levels as time advances, and entries beyond the range of the
+ * top level are kept in an overflow list.
+ * <p>
+ * Handles that trigger together are returned ordered by time and then by slot, the same order as
+ * {@link SchedulingServiceImpl}.
+ * <p>
+ * Synchronized since statement creation and event evaluation by multiple (event send) threads
+ * can lead to callbacks added/removed asynchronously.
+ */
+public final class SchedulingServiceTimingWheelImpl implements SchedulingServiceSPI {
+    private static final int FIRST_LEVEL_BITS = 8;
+    private static final int LEVEL_BITS = 6;
+    private static final int NUM_LEVELS = 7;
+    private static final int WHEEL_BITS = FIRST_LEVEL_BITS + (NUM_LEVELS - 1) * LEVEL_BITS;
+
+    private static final Comparator<Entry> ENTRY_COMPARATOR = new Comparator<Entry>() {
+        public int compare(Entry o1, Entry o2) {
+            if (o1.time != o2.time) {
+                return o1.time < o2.time ? -1 : 1;
+            }
+            if (o1.slot != o2.slot) {
+                return o1.slot < o2.slot ? -1 : 1;
+            }
+            return o1.sequence < o2.sequence ? -1 : (o1.sequence == o2.sequence ? 0 : 1);
+        }
+    };
+
+    // Buckets per level, and number of entries per level
+    private final Bucket[][] levels;
+    private final int[] levelCounts;
+
+    // Entries at or before the wheel time that trigger upon the next evaluation
+    private final Bucket due;
+
+    // Entries beyond the range of the top level
+    private final Bucket overflow;
+
+    // Map of handle and entry for removal
+    private final Map<ScheduleHandle, Entry> handleEntryMap;
+
+    // Buffer of triggered entries
+    private final ArrayList<Entry> triggered = new ArrayList<Entry>();
+
+    // Time up to which the wheel has been evaluated
+    private long wheelTime;
+
+    // Order of addition, for ordering handles of the same time and slot
+    private long sequence;
+
+    // Current time - used for evaluation as well as for adding new handles
+    private volatile long currentTime;
+
+    /**
+     * Constructor.
+     *
+     * @param timeSourceService time source provider
+     */
+    public SchedulingServiceTimingWheelImpl(TimeSourceService timeSourceService) {
+        levels = new Bucket[NUM_LEVELS][];
+        levelCounts = new int[NUM_LEVELS];
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            levels[level] = new Bucket[1 << levelBits(level)];
+            for (int i = 0; i < levels[level].length; i++) {
+                levels[level][i] = new Bucket(level);
+            }
+        }
+        due = new Bucket(-1);
+        overflow = new Bucket(-1);
+        handleEntryMap = new HashMap<ScheduleHandle, Entry>();
+        // initialize time to just before now as there is a check for duplicate external time events
+        this.currentTime = timeSourceService.getTimeMillis() - 1;
+        this.wheelTime = currentTime;
+    }
+
+    public synchronized void destroy() {
+        log.debug("Destroying scheduling service");
+        for (Entry entry : handleEntryMap.values()) {
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = null;
+        }
+        handleEntryMap.clear();
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            for (Bucket bucket : levels[level]) {
+                bucket.head = null;
+            }
+            levelCounts[level] = 0;
+        }
+        due.head = null;
+        overflow.head = null;
+    }
+
+    public long getTime() {
+        // note that this.currentTime is volatile
+        return this.currentTime;
+    }
+
+    public synchronized final void setTime(long currentTime) {
+        this.currentTime = currentTime;
+    }
+
+    public synchronized final void add(long afterTime, ScheduleHandle handle, long slot)
+            throws ScheduleServiceException {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleAdd(currentTime, afterTime, handle, slot);
+        }
+        Entry existing = handleEntryMap.remove(handle);
+        if (existing != null) {
+            unlink(existing);
+        }
+
+        Entry entry = new Entry(handle, slot, currentTime + afterTime, sequence++);
+        handleEntryMap.put(handle, entry);
+        place(entry);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleAdd();
+        }
+    }
+
+    public synchronized final void remove(ScheduleHandle handle, long slot) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleRemove(handle, slot);
+        }
+        // If it already has been removed then that's fine;
+        // Such could be the case when 2 timers fireStatementStopped at the same time, and one stops the other
+        Entry entry = handleEntryMap.remove(handle);
+        if (entry != null) {
+            unlink(entry);
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleRemove();
+        }
+    }
+
+    public synchronized final void evaluate(Collection<ScheduleHandle> handles) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleEval(currentTime);
+        }
+        long time = currentTime;
+        if (time < wheelTime) {
+            rewind(time);
+        } else if (time > wheelTime) {
+            advance(time);
+        }
+        while (due.head != null) {
+            Entry entry = due.head;
+            unlink(entry);
+            triggered.add(entry);
+        }
+
+        if (triggered.isEmpty()) {
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aScheduleEval(Collections.<ScheduleHandle>emptyList());
+            }
+            return;
+        }
+
+        if (triggered.size() > 1) {
+            Collections.sort(triggered, ENTRY_COMPARATOR);
+        }
+        for (Entry entry : triggered) {
+            handleEntryMap.remove(entry.handle);
+            handles.add(entry.handle);
+        }
+        triggered.clear();
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleEval(handles);
+        }
+    }
+
+    public synchronized ScheduleSet take(Set<Integer> statementIds) {
+        List<Entry> taken = new ArrayList<Entry>();
+        for (Entry entry : handleEntryMap.values()) {
+            if (statementIds.contains(entry.handle.getStatementId())) {
+                taken.add(entry);
+            }
+        }
+        Collections.sort(taken, ENTRY_COMPARATOR);
+
+        List<ScheduleSetEntry> list = new ArrayList<ScheduleSetEntry>(taken.size());
+        long currentTime = getTime();
+        for (Entry entry : taken) {
+            list.add(new ScheduleSetEntry(entry.time - currentTime, entry.slot, entry.handle));
+            remove(entry.handle, entry.slot);
+        }
+        return new ScheduleSet(list);
+    }
+
+    public void apply(ScheduleSet scheduleSet) {
+        for (ScheduleSetEntry entry : scheduleSet.getList()) {
+            add(entry.getTime(), entry.getHandle(), entry.getScheduleSlot());
+        }
+    }
+
+    public void init() {
+        // no action required
+    }
+
+    @JmxGetter(name = "TimeHandleCount", description = "Number of outstanding time evaluations")
+    public synchronized int getTimeHandleCount() {
+        Set<Long> times = new HashSet<Long>();
+        for (Entry entry : handleEntryMap.values()) {
+            times.add(entry.time);
+        }
+        return times.size();
+    }
+
+    @JmxGetter(name = "FurthestTimeHandle", description = "Furthest outstanding time evaluation")
+    public String getFurthestTimeHandleDate() {
+        Long handle = getFurthestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    @JmxGetter(name = "NearestTimeHandle", description = "Nearest outstanding time evaluation")
+    public String getNearestTimeHandleDate() {
+        Long handle = getNearestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    public synchronized Long getFurthestTimeHandle() {
+        if (overflow.head != null) {
+            return overflow.maxTime();
+        }
+        for (int level = NUM_LEVELS - 1; level >= 0; level--) {
+            if (levelCounts[level] == 0) {
+                continue;
+            }
+            Bucket[] buckets = levels[level];
+            int current = bucketIndex(wheelTime, level);
+            for (int i = buckets.length - 1; i > current; i--) {
+                if (buckets[i].head != null) {
+                    return buckets[i].maxTime();
+                }
+            }
+        }
+        if (due.head != null) {
+            return due.maxTime();
+        }
+        return null;
+    }
+
+    public synchronized int getScheduleHandleCount() {
+        return handleEntryMap.size();
+    }
+
+    public synchronized boolean isScheduled(ScheduleHandle handle) {
+        return handleEntryMap.containsKey(handle);
+    }
+
+    public synchronized Long getNearestTimeHandle() {
+        if (due.head != null) {
+            return due.minTime();
+        }
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            if (levelCounts[level] == 0) {
+                continue;
+            }
+            Bucket[] buckets = levels[level];
+            for (int i = bucketIndex(wheelTime, level) + 1; i < buckets.length; i++) {
+                if (buckets[i].head != null) {
+                    return buckets[i].minTime();
+                }
+            }
+        }
+        if (overflow.head != null) {
+            return overflow.minTime();
+        }
+        return null;
+    }
+
+    public synchronized void visitSchedules(ScheduleVisitor visitor) {
+        ScheduleVisit visit = new ScheduleVisit();
+        visitBucket(due, visit, visitor);
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            if (levelCounts[level] == 0) {
+                continue;
+            }
+            for (Bucket bucket : levels[level]) {
+                visitBucket(bucket, visit, visitor);
+            }
+        }
+        visitBucket(overflow, visit, visitor);
+    }
+
+    private static void visitBucket(Bucket bucket, ScheduleVisit visit, ScheduleVisitor visitor) {
+        for (Entry entry = bucket.head; entry != null; entry = entry.next) {
+            visit.setTimestamp(entry.time);
+            visit.setStatementId(entry.handle.getStatementId());
+            visit.setAgentInstanceId(entry.handle.getAgentInstanceId());
+            visitor.visit(visit);
+        }
+    }
+
+    /**
+     * Advance the wheel to a later time: entries of all levels below the highest level where the wheel time changes
+     * bits trigger, and the bucket of that level that the new time falls into gets redistributed to lower levels.
+     *
+     * @param time new wheel time
+     */
+    private void advance(long time) {
+        long diff = time ^ wheelTime;
+        if ((diff >> WHEEL_BITS) != 0) {
+            // all wheel entries trigger, overflow entries may move into the wheel
+            for (int level = 0; level < NUM_LEVELS; level++) {
+                triggerLevel(level);
+            }
+            wheelTime = time;
+            Entry entry = detach(overflow);
+            while (entry != null) {
+                Entry next = entry.next;
+                placeOrTrigger(entry, time);
+                entry = next;
+            }
+            return;
+        }
+
+        int topLevel = levelOf(diff);
+        for (int level = 0; level < topLevel; level++) {
+            triggerLevel(level);
+        }
+        Bucket[] buckets = levels[topLevel];
+        int from = bucketIndex(wheelTime, topLevel);
+        int to = bucketIndex(time, topLevel);
+        for (int i = from + 1; i < to; i++) {
+            triggerBucket(buckets[i]);
+        }
+        wheelTime = time;
+        Bucket bucket = buckets[to];
+        levelCounts[topLevel] -= bucket.size;
+        Entry entry = detach(bucket);
+        while (entry != null) {
+            Entry next = entry.next;
+            placeOrTrigger(entry, time);
+            entry = next;
+        }
+    }
+
+    /**
+     * Move the wheel to an earlier time, redistributing all entries.
+     *
+     * @param time new wheel time
+     */
+    private void rewind(long time) {
+        List<Entry> entries = new ArrayList<Entry>(handleEntryMap.values());
+        for (Entry entry : entries) {
+            unlink(entry);
+        }
+        wheelTime = time;
+        for (Entry entry : entries) {
+            placeOrTrigger(entry, time);
+        }
+    }
+
+    private void placeOrTrigger(Entry entry, long time) {
+        entry.prev = null;
+        entry.next = null;
+        entry.bucket = null;
+        if (entry.time <= time) {
+            triggered.add(entry);
+        } else {
+            place(entry);
+        }
+    }
+
+    private void place(Entry entry) {
+        if (entry.time <= wheelTime) {
+            link(due, entry);
+            return;
+        }
+        long diff = entry.time ^ wheelTime;
+        if ((diff >> WHEEL_BITS) != 0) {
+            link(overflow, entry);
+            return;
+        }
+        int level = levelOf(diff);
+        link(levels[level][bucketIndex(entry.time, level)], entry);
+        levelCounts[level]++;
+    }
+
+    private void triggerLevel(int level) {
+        if (levelCounts[level] == 0) {
+            return;
+        }
+        for (Bucket bucket : levels[level]) {
+            if (bucket.head != null) {
+                triggerBucket(bucket);
+            }
+        }
+    }
+
+    private void triggerBucket(Bucket bucket) {
+        if (bucket.head == null) {
+            return;
+        }
+        levelCounts[bucket.level] -= bucket.size;
+        Entry entry = detach(bucket);
+        while (entry != null) {
+            Entry next = entry.next;
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = null;
+            triggered.add(entry);
+            entry = next;
+        }
+    }
+
+    private static Entry detach(Bucket bucket) {
+        Entry head = bucket.head;
+        bucket.head = null;
+        bucket.size = 0;
+        return head;
+    }
+
+    private static void link(Bucket bucket, Entry entry) {
+        entry.bucket = bucket;
+        entry.prev = null;
+        entry.next = bucket.head;
+        if (bucket.head != null) {
+            bucket.head.prev = entry;
+        }
+        bucket.head = entry;
+        bucket.size++;
+    }
+
+    private void unlink(Entry entry) {
+        Bucket bucket = entry.bucket;
+        if (bucket == null) {
+            return;
+        }
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            bucket.head = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        bucket.size--;
+        if (bucket.level >= 0) {
+            levelCounts[bucket.level]--;
+        }
+        entry.prev = null;
+        entry.next = null;
+        entry.bucket = null;
+    }
+
+    private static int levelOf(long diff) {
+        int highestBit = 63 - Long.numberOfLeadingZeros(diff);
+        if (highestBit < FIRST_LEVEL_BITS) {
+            return 0;
+        }
+        return 1 + (highestBit - FIRST_LEVEL_BITS) / LEVEL_BITS;
+    }
+
+    private static int levelBits(int level) {
+        return level == 0 ? FIRST_LEVEL_BITS : LEVEL_BITS;
+    }
+
+    private static int levelShift(int level) {
+        return level == 0 ? 0 : FIRST_LEVEL_BITS + (level - 1) * LEVEL_BITS;
+    }
+
+    private static int bucketIndex(long time, int level) {
+        return (int) ((time >> levelShift(level)) & ((1 << levelBits(level)) - 1));
+    }
+
+    private static class Bucket {
+        private final int level;
+        private Entry head;
+        private int size;
+
+        private Bucket(int level) {
+            this.level = level;
+        }
+
+        private long minTime() {
+            long min = Long.MAX_VALUE;
+            for (Entry entry = head; entry != null; entry = entry.next) {
+                min = Math.min(min, entry.time);
+            }
+            return min;
+        }
+
+        private long maxTime() {
+            long max = Long.MIN_VALUE;
+            for (Entry entry = head; entry != null; entry = entry.next) {
+                max = Math.max(max, entry.time);
+            }
+            return max;
+        }
+    }
+
+    private static class Entry {
+        private final ScheduleHandle handle;
+        private final long slot;
+        private final long time;
+        private final long sequence;
+        private Entry prev;
+        private Entry next;
+        private Bucket bucket;
+
+        private Entry(ScheduleHandle handle, long slot, long time, long sequence) {
+            this.handle = handle;
+            this.slot = slot;
+            this.time = time;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulingServiceTimingWheelImpl.class);
+}
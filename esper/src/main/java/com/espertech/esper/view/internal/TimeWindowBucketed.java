@@ -0,0 +1,378 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.view.internal;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.view.DataWindowViewFactory;
+import com.espertech.esper.view.ViewDataVisitor;
+
+import java.util.*;
+
+/**
+ * Container for events that groups events into fixed-width time buckets rather then per-timestamp slots.
+ * <p>
+ * Each bucket covers the timestamps from its start time (inclusive) to its start time plus the bucket width (exclusive)
+ * and keeps its events in an array. Buckets expire as a whole when the last timestamp a bucket covers
+ * is before the expiry timestamp passed in, therefore events may expire late by up to the bucket width less one.
+ * Expired buckets are recycled for reuse.
+ * <p>
+ * It is assumed that the timestamp passed to the add method is ascending.
+ */
+public final class TimeWindowBucketed implements Iterable<EventBean> {
+    private static final int INITIAL_BUCKET_CAPACITY = 16;
+    private static final int MAX_POOLED_BUCKETS = 4;
+
+    private final long bucketWidth;
+    private final ArrayDeque<Bucket> window;
+    private final ArrayDeque<Bucket> pool;
+    private Map<EventBean, Slot> reverseIndex;
+    private int size;
+
+    /**
+     * Ctor.
+     *
+     * @param bucketWidth           width of a time bucket, must be 1 or more
+     * @param isSupportRemoveStream true to indicate the time window should support effective removal of events
+     *                              in the window based on the remove stream events received, or false to not accomodate removal at all
+     */
+    public TimeWindowBucketed(long bucketWidth, boolean isSupportRemoveStream) {
+        if (bucketWidth < 1) {
+            throw new IllegalArgumentException("Bucket width must be 1 or more");
+        }
+        this.bucketWidth = bucketWidth;
+        this.window = new ArrayDeque<Bucket>();
+        this.pool = new ArrayDeque<Bucket>(MAX_POOLED_BUCKETS);
+        if (isSupportRemoveStream) {
+            reverseIndex = new HashMap<EventBean, Slot>();
+        }
+    }
+
+    /**
+     * Adjust expiry dates.
+     *
+     * @param delta delta to adjust for
+     */
+    public void adjust(long delta) {
+        for (Bucket bucket : window) {
+            bucket.start += delta;
+        }
+    }
+
+    /**
+     * Adds event to the time window for the specified timestamp.
+     *
+     * @param timestamp - the time for the event
+     * @param bean      - event to add
+     */
+    public void add(long timestamp, EventBean bean) {
+        Bucket bucket = window.peekLast();
+        if (bucket == null || timestamp >= bucket.start + bucketWidth) {
+            long start = timestamp - Math.floorMod(timestamp, bucketWidth);
+            if (bucket != null && start < bucket.start + bucketWidth) {
+                start = bucket.start + bucketWidth;
+            }
+            bucket = allocateBucket(start);
+            window.addLast(bucket);
+        }
+        int index = bucket.add(bean);
+        if (reverseIndex != null) {
+            reverseIndex.put(bean, new Slot(bucket, index));
+        }
+        size++;
+    }
+
+    /**
+     * Removes the event from the window, if remove stream handling is enabled.
+     *
+     * @param theEvent to remove
+     */
+    public void remove(EventBean theEvent) {
+        if (reverseIndex == null) {
+            throw new UnsupportedOperationException("Time window does not accept event removal");
+        }
+        Slot slot = reverseIndex.remove(theEvent);
+        if (slot != null && slot.bucket.remove(slot.index, theEvent)) {
+            size--;
+        }
+    }
+
+    /**
+     * Return and remove events of those buckets that end before the timestamp passed in,
+     * returning the events expired.
+     *
+     * @param expireBefore is the timestamp from which on to keep events in the window
+     * @return events expired and removed from the window, or null if none expired
+     */
+    public EventBean[] expireEvents(long expireBefore) {
+        int count = 0;
+        int numBuckets = 0;
+        for (Bucket bucket : window) {
+            if (bucket.start + bucketWidth - 1 >= expireBefore) {
+                break;
+            }
+            count += bucket.live;
+            numBuckets++;
+        }
+        if (numBuckets == 0) {
+            return null;
+        }
+
+        EventBean[] expired = count == 0 ? null : new EventBean[count];
+        int offset = 0;
+        for (int i = 0; i < numBuckets; i++) {
+            Bucket bucket = window.removeFirst();
+            if (bucket.live == bucket.count) {
+                System.arraycopy(bucket.events, 0, expired, offset, bucket.count);
+                offset += bucket.count;
+            } else {
+                for (int j = 0; j < bucket.count; j++) {
+                    if (bucket.events[j] != null) {
+                        expired[offset++] = bucket.events[j];
+                    }
+                }
+            }
+            releaseBucket(bucket);
+        }
+
+        if (expired == null) {
+            return null;
+        }
+        if (reverseIndex != null) {
+            for (EventBean theEvent : expired) {
+                reverseIndex.remove(theEvent);
+            }
+        }
+        size -= count;
+        return expired;
+    }
+
+    /**
+     * Returns the last timestamp covered by the oldest bucket, or null if there are no buckets.
+     * The oldest bucket may hold no events if all its events were removed.
+     *
+     * @return null if no buckets, last timestamp of oldest bucket if not empty
+     */
+    public Long getOldestBucketLastTimestamp() {
+        Bucket first = window.peekFirst();
+        return first == null ? null : first.start + bucketWidth - 1;
+    }
+
+    /**
+     * Returns true if there are no buckets, regardless of whether buckets hold events.
+     *
+     * @return indicator
+     */
+    public boolean isNoBuckets() {
+        return window.isEmpty();
+    }
+
+    /**
+     * Returns true if the window currently holds no events.
+     *
+     * @return true if empty, false if not
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of events.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the bucket width.
+     *
+     * @return width
+     */
+    public long getBucketWidth() {
+        return bucketWidth;
+    }
+
+    /**
+     * Returns the reverse index, for testing purposes.
+     *
+     * @return reverse index
+     */
+    public Map<EventBean, Slot> getReverseIndex() {
+        return reverseIndex;
+    }
+
+    /**
+     * Returns the buckets, for testing purposes.
+     *
+     * @return buckets
+     */
+    public ArrayDeque<Bucket> getWindow() {
+        return window;
+    }
+
+    public Iterator<EventBean> iterator() {
+        return new BucketIterator(window.iterator());
+    }
+
+    public void visitView(ViewDataVisitor viewDataVisitor, DataWindowViewFactory viewFactory) {
+        viewDataVisitor.visitPrimary(window, false, viewFactory.getViewName(), size);
+    }
+
+    private Bucket allocateBucket(long start) {
+        Bucket bucket = pool.pollFirst();
+        if (bucket == null) {
+            bucket = new Bucket();
+        }
+        bucket.start = start;
+        return bucket;
+    }
+
+    private void releaseBucket(Bucket bucket) {
+        if (pool.size() >= MAX_POOLED_BUCKETS) {
+            return;
+        }
+        bucket.clear();
+        pool.addLast(bucket);
+    }
+
+    private static class BucketIterator implements Iterator<EventBean> {
+        private final Iterator<Bucket> buckets;
+        private Bucket current;
+        private int index;
+        private EventBean next;
+
+        BucketIterator(Iterator<Bucket> buckets) {
+            this.buckets = buckets;
+            advance();
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public EventBean next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            EventBean result = next;
+            advance();
+            return result;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void advance() {
+            while (true) {
+                if (current != null) {
+                    while (index < current.count) {
+                        EventBean candidate = current.events[index++];
+                        if (candidate != null) {
+                            next = candidate;
+                            return;
+                        }
+                    }
+                }
+                if (!buckets.hasNext()) {
+                    next = null;
+                    return;
+                }
+                current = buckets.next();
+                index = 0;
+            }
+        }
+    }
+
+    /**
+     * Events of a time bucket.
+     */
+    public final static class Bucket {
+        private long start;
+        private EventBean[] events = new EventBean[INITIAL_BUCKET_CAPACITY];
+        private int count;
+        private int live;
+
+        /**
+         * Returns the first timestamp covered by the bucket.
+         *
+         * @return start
+         */
+        public long getStart() {
+            return start;
+        }
+
+        /**
+         * Returns the number of events in the bucket.
+         *
+         * @return count
+         */
+        public int getLive() {
+            return live;
+        }
+
+        private int add(EventBean theEvent) {
+            if (count == events.length) {
+                events = Arrays.copyOf(events, count << 1);
+            }
+            events[count] = theEvent;
+            live++;
+            return count++;
+        }
+
+        private boolean remove(int index, EventBean theEvent) {
+            if (index >= count || events[index] != theEvent) {
+                return false;
+            }
+            events[index] = null;
+            live--;
+            return true;
+        }
+
+        private void clear() {
+            Arrays.fill(events, 0, count, null);
+            count = 0;
+            live = 0;
+        }
+    }
+
+    /**
+     * Position of an event in the window, for removing the event without searching its bucket.
+     */
+    public final static class Slot {
+        private final Bucket bucket;
+        private final int index;
+
+        private Slot(Bucket bucket, int index) {
+            this.bucket = bucket;
+            this.index = index;
+        }
+
+        /**
+         * Returns the bucket.
+         *
+         * @return bucket
+         */
+        public Bucket getBucket() {
+            return bucket;
+        }
+
+        /**
+         * Returns the index of the event within the bucket.
+         *
+         * @return index
+         */
+        public int getIndex() {
+            return index;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.view.window;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.ViewUpdatedCollection;
+import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
+import com.espertech.esper.core.service.EPStatementHandleCallback;
+import com.espertech.esper.core.service.EngineLevelExtensionServicesContext;
+import com.espertech.esper.epl.expression.time.ExprTimePeriodEvalDeltaConst;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.schedule.ScheduleAdjustmentCallback;
+import com.espertech.esper.schedule.ScheduleHandleCallback;
+import com.espertech.esper.util.StopCallback;
+import com.espertech.esper.view.*;
+import com.espertech.esper.view.internal.TimeWindowBucketed;
+
+import java.util.Iterator;
+
+/**
+ * Time window that keeps events in fixed-width time buckets, for use when the
+ * {@link com.espertech.esper.client.annotation.HintEnum#TIME_WINDOW_BUCKET} hint is provided.
+ * <p>
+ * Events leave the window a bucket at a time: the view registers one callback with the scheduling service per bucket
+ * rather then per distinct arrival time, and the expired events of a bucket are posted to child views as a single
+ * old-data array. The trade-off is that an event may leave the window late by up to the bucket width.
+ */
+public class TimeWindowBucketView extends ViewSupport implements DataWindowView, ScheduleAdjustmentCallback, StoppableView, StopCallback {
+    private final TimeWindowViewFactory timeWindowViewFactory;
+    private final ExprTimePeriodEvalDeltaConst timeDeltaComputation;
+    private final TimeWindowBucketed timeWindow;
+    private final ViewUpdatedCollection viewUpdatedCollection;
+    private final AgentInstanceViewFactoryChainContext agentInstanceContext;
+    private final long scheduleSlot;
+    private final EPStatementHandleCallback handle;
+
+    /**
+     * Constructor.
+     *
+     * @param agentInstanceContext  context
+     * @param timeWindowViewFactory for copying the view in a group-by
+     * @param timeDeltaComputation  is the computation for the number of milliseconds before events gets pushed
+     *                              out of the timeWindow as oldData in the update method.
+     * @param bucketWidth           width of the time buckets
+     * @param viewUpdatedCollection is a collection the view must update when receiving events
+     */
+    public TimeWindowBucketView(AgentInstanceViewFactoryChainContext agentInstanceContext, TimeWindowViewFactory timeWindowViewFactory, ExprTimePeriodEvalDeltaConst timeDeltaComputation, long bucketWidth, ViewUpdatedCollection viewUpdatedCollection) {
+        this.agentInstanceContext = agentInstanceContext;
+        this.timeWindowViewFactory = timeWindowViewFactory;
+        this.timeDeltaComputation = timeDeltaComputation;
+        this.viewUpdatedCollection = viewUpdatedCollection;
+        this.scheduleSlot = agentInstanceContext.getStatementContext().getScheduleBucket().allocateSlot();
+        this.timeWindow = new TimeWindowBucketed(bucketWidth, agentInstanceContext.isRemoveStream());
+
+        ScheduleHandleCallback callback = new ScheduleHandleCallback() {
+            public void scheduledTrigger(EngineLevelExtensionServicesContext extensionServicesContext) {
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().qViewScheduledEval(TimeWindowBucketView.this, TimeWindowBucketView.this.timeWindowViewFactory.getViewName());
+                }
+                TimeWindowBucketView.this.expire();
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().aViewScheduledEval();
+                }
+            }
+        };
+        this.handle = new EPStatementHandleCallback(agentInstanceContext.getEpStatementAgentInstanceHandle(), callback);
+
+        if (agentInstanceContext.getStatementContext().getScheduleAdjustmentService() != null) {
+            agentInstanceContext.getStatementContext().getScheduleAdjustmentService().addCallback(this);
+        }
+        agentInstanceContext.addTerminationCallback(this);
+    }
+
+    public void adjust(long delta) {
+        timeWindow.adjust(delta);
+    }
+
+    /**
+     * Returns the (optional) collection handling random access to window contents for prior or previous events.
+     *
+     * @return buffer for events
+     */
+    public ViewUpdatedCollection getViewUpdatedCollection() {
+        return viewUpdatedCollection;
+    }
+
+    public final EventType getEventType() {
+        return parent.getEventType();
+    }
+
+    public final void update(EventBean[] newData, EventBean[] oldData) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qViewProcessIRStream(this, timeWindowViewFactory.getViewName(), newData, oldData);
+        }
+        long timestamp = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
+
+        if (oldData != null) {
+            for (int i = 0; i < oldData.length; i++) {
+                timeWindow.remove(oldData[i]);
+            }
+        }
+
+        if ((newData != null) && (newData.length > 0)) {
+            // a callback is outstanding for as long as there are buckets, schedule when the first bucket gets allocated
+            boolean schedule = timeWindow.isNoBuckets();
+
+            for (int i = 0; i < newData.length; i++) {
+                timeWindow.add(timestamp, newData[i]);
+            }
+
+            if (schedule) {
+                scheduleExpiryCallback();
+            }
+
+            if (viewUpdatedCollection != null) {
+                viewUpdatedCollection.update(newData, null);
+            }
+        }
+
+        // update child views
+        if (this.hasViews()) {
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().qViewIndicate(this, timeWindowViewFactory.getViewName(), newData, oldData);
+            }
+            updateChildren(newData, oldData);
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aViewIndicate();
+            }
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aViewProcessIRStream();
+        }
+    }
+
+    /**
+     * This method removes (expires) the buckets that are entirely outside the window and schedules a new callback for the
+     * time when the next oldest bucket would expire from the window.
+     */
+    protected final void expire() {
+        long current = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
+        long expireBeforeTimestamp = current - timeDeltaComputation.deltaSubtract(current) + 1;
+
+        EventBean[] oldEvents = timeWindow.expireEvents(expireBeforeTimestamp);
+
+        if (oldEvents != null) {
+            if (viewUpdatedCollection != null) {
+                viewUpdatedCollection.update(null, oldEvents);
+            }
+            if (this.hasViews()) {
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().qViewIndicate(this, timeWindowViewFactory.getViewName(), null, oldEvents);
+                }
+                updateChildren(null, oldEvents);
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().aViewIndicate();
+                }
+            }
+        }
+
+        scheduleExpiryCallback();
+    }
+
+    private void scheduleExpiryCallback() {
+        Long lastTimestamp = timeWindow.getOldestBucketLastTimestamp();
+        if (lastTimestamp == null) {
+            return;
+        }
+        long currentTimestamp = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
+        long scheduleTime = timeDeltaComputation.deltaAdd(lastTimestamp) + lastTimestamp - currentTimestamp;
+        agentInstanceContext.getStatementContext().getSchedulingService().add(scheduleTime, handle, scheduleSlot);
+    }
+
+    public ExprTimePeriodEvalDeltaConst getTimeDeltaComputation() {
+        return timeDeltaComputation;
+    }
+
+    /**
+     * Returns the bucket width.
+     *
+     * @return width
+     */
+    public long getBucketWidth() {
+        return timeWindow.getBucketWidth();
+    }
+
+    public final Iterator<EventBean> iterator() {
+        return timeWindow.iterator();
+    }
+
+    public final String toString() {
+        return this.getClass().getName();
+    }
+
+    /**
+     * Returns true if the window is empty, or false if not empty.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return timeWindow.isEmpty();
+    }
+
+    public void stopView() {
+        stopSchedule();
+        agentInstanceContext.removeTerminationCallback(this);
+    }
+
+    public void stop() {
+        stopSchedule();
+    }
+
+    public void stopSchedule() {
+        if (handle != null) {
+            agentInstanceContext.getStatementContext().getSchedulingService().remove(handle, scheduleSlot);
+        }
+        if (agentInstanceContext.getStatementContext().getScheduleAdjustmentService() != null) {
+            agentInstanceContext.getStatementContext().getScheduleAdjustmentService().removeCallback(this);
+        }
+    }
+
+    public void visitView(ViewDataVisitor viewDataVisitor) {
+        timeWindow.visitView(viewDataVisitor, timeWindowViewFactory);
+    }
+
+    public ViewFactory getViewFactory() {
+        return timeWindowViewFactory;
+    }
+}
@@ -11,6 +11,8 @@
 package com.espertech.esper.view.window;
 
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.Hint;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.collection.ViewUpdatedCollection;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
@@ -18,6 +20,7 @@ import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.expression.time.ExprTimePeriodEvalDeltaConst;
 import com.espertech.esper.epl.expression.time.ExprTimePeriodEvalDeltaConstFactory;
+import com.espertech.esper.epl.expression.time.TimeAbacus;
 import com.espertech.esper.view.*;
 
 import java.util.List;
@@ -28,6 +31,8 @@ import java.util.List;
 public class TimeWindowViewFactory implements DataWindowViewFactory, DataWindowViewWithPrevious {
     protected ExprTimePeriodEvalDeltaConstFactory timeDeltaComputationFactory;
 
+    protected long bucketWidth;
+
     private EventType eventType;
 
     public void setViewParameters(ViewFactoryContext viewFactoryContext, List<ExprNode> expressionParameters) throws ViewParameterException {
@@ -35,6 +40,23 @@ public class TimeWindowViewFactory implements DataWindowViewFactory, DataWindowV
             throw new ViewParameterException(getViewParamMessage());
         }
         timeDeltaComputationFactory = ViewFactoryTimePeriodHelper.validateAndEvaluateTimeDeltaFactory(getViewName(), viewFactoryContext.getStatementContext(), expressionParameters.get(0), getViewParamMessage(), 0);
+
+        Hint bucketHint = HintEnum.TIME_WINDOW_BUCKET.getHint(viewFactoryContext.getStatementContext().getAnnotations());
+        if (bucketHint != null) {
+            String hintValue = HintEnum.TIME_WINDOW_BUCKET.getHintAssignedValue(bucketHint);
+            if (hintValue == null) {
+                throw new ViewParameterException("Required hint value for hint '" + HintEnum.TIME_WINDOW_BUCKET + "' has not been provided");
+            }
+            TimeAbacus timeAbacus = viewFactoryContext.getStatementContext().getEngineImportService().getTimeAbacus();
+            try {
+                bucketWidth = timeAbacus.deltaForSecondsDouble(Double.parseDouble(hintValue));
+            } catch (RuntimeException ex) {
+                throw new ViewParameterException("Required hint value for hint '" + HintEnum.TIME_WINDOW_BUCKET + "' value '" + hintValue + "' could not be parsed as a double value");
+            }
+            if (bucketWidth < 1) {
+                throw new ViewParameterException("Hint value for hint '" + HintEnum.TIME_WINDOW_BUCKET + "' value '" + hintValue + "' must be a positive bucket width");
+            }
+        }
     }
 
     public void attach(EventType parentEventType, StatementContext statementContext, ViewFactory optionalParentFactory, List<ViewFactory> parentViewFactories) throws ViewParameterException {
@@ -48,6 +70,9 @@ public class TimeWindowViewFactory implements DataWindowViewFactory, DataWindowV
     public View makeView(AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext) {
         ExprTimePeriodEvalDeltaConst timeDeltaComputation = timeDeltaComputationFactory.make(getViewName(), "view", agentInstanceViewFactoryContext.getAgentInstanceContext(), agentInstanceViewFactoryContext.getTimeAbacus());
         ViewUpdatedCollection randomAccess = agentInstanceViewFactoryContext.getStatementContext().getViewServicePreviousFactory().getOptPreviousExprRandomAccess(agentInstanceViewFactoryContext);
+        if (bucketWidth > 0) {
+            return new TimeWindowBucketView(agentInstanceViewFactoryContext, this, timeDeltaComputation, bucketWidth, randomAccess);
+        }
         return new TimeWindowView(agentInstanceViewFactoryContext, this, timeDeltaComputation, randomAccess);
     }
 
@@ -56,6 +81,18 @@ public class TimeWindowViewFactory implements DataWindowViewFactory, DataWindowV
     }
 
     public boolean canReuse(View view, AgentInstanceContext agentInstanceContext) {
+        if (bucketWidth > 0) {
+            if (!(view instanceof TimeWindowBucketView)) {
+                return false;
+            }
+            TimeWindowBucketView myView = (TimeWindowBucketView) view;
+            ExprTimePeriodEvalDeltaConst delta = timeDeltaComputationFactory.make(getViewName(), "view", agentInstanceContext, agentInstanceContext.getTimeAbacus());
+            if (!delta.equalsTimePeriod(myView.getTimeDeltaComputation()) || myView.getBucketWidth() != bucketWidth) {
+                return false;
+            }
+            return myView.isEmpty();
+        }
+
         if (!(view instanceof TimeWindowView)) {
             return false;
         }
@@ -78,6 +115,15 @@ public class TimeWindowViewFactory implements DataWindowViewFactory, DataWindowV
         return timeDeltaComputationFactory;
     }
 
+    /**
+     * Returns the bucket width when bucketing events by time, or zero when not bucketing.
+     *
+     * @return bucket width
+     */
+    public long getBucketWidth() {
+        return bucketWidth;
+    }
+
     private String getViewParamMessage() {
         return getViewName() + " view requires a single numeric or time period parameter";
     }
@@ -54,11 +54,20 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(2, config.getEngineDefaults().getThreading().getThreadPoolRouteExecNumThreads());
         assertEquals(2, config.getEngineDefaults().getThreading().getThreadPoolTimerExecNumThreads());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolInboundCapacity());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolInboundPartitioned());
+        assertTrue(config.getEngineDefaults().getThreading().getThreadPoolInboundPartitionProperties().isEmpty());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
+        assertNull(config.getEngineDefaults().getThreading().getThreadPoolOutboundExecutorFactory());
+        assertNull(config.getEngineDefaults().getThreading().getThreadPoolRouteExecExecutorFactory());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolFireAndForget());
+        assertEquals(Runtime.getRuntime().availableProcessors(), config.getEngineDefaults().getThreading().getThreadPoolFireAndForgetNumThreads());
+        assertNull(config.getEngineDefaults().getThreading().getThreadPoolTimerExecExecutorFactory());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolOutboundOrderedPerStatement());
         assertFalse(config.getEngineDefaults().getThreading().isEngineFairlock());
         assertFalse(config.getEngineDefaults().getMetricsReporting().isJmxEngineMetrics());
+        assertFalse(config.getEngineDefaults().getMetricsReporting().isLatencyHistograms());
         assertTrue(config.getEngineDefaults().getThreading().isNamedWindowConsumerDispatchPreserveOrder());
         assertEquals(Long.MAX_VALUE, config.getEngineDefaults().getThreading().getNamedWindowConsumerDispatchTimeout());
         assertEquals(ConfigurationEngineDefaults.Threading.Locking.SPIN, config.getEngineDefaults().getThreading().getNamedWindowConsumerDispatchLocking());
@@ -96,6 +105,7 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.NORMAL, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY, config.getEngineDefaults().getExecution().getFilterServiceProfile());
         assertEquals(16, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.SORTED, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
         assertEquals(1, config.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
         ConfigurationEngineDefaults.ByteCodeGeneration codegen = config.getEngineDefaults().getByteCodeGeneration();
         assertEquals(true, codegen.isEnableAggregation());
@@ -106,6 +116,8 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(false, codegen.isIncludeComments());
         assertEquals(false, codegen.isIncludeDebugSymbols());
         assertEquals(true, codegen.isEnableFallback());
+        assertEquals(true, codegen.isEnableCache());
+        assertNull(codegen.getCacheDirectory());
 
         assertEquals(StreamSelector.ISTREAM_ONLY, config.getEngineDefaults().getStreamSelection().getDefaultStreamSelector());
         assertFalse(config.getEngineDefaults().getLanguage().isSortUsingCollator());
@@ -414,9 +426,18 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(3, config.getEngineDefaults().getThreading().getThreadPoolTimerExecNumThreads());
         assertEquals(4, config.getEngineDefaults().getThreading().getThreadPoolRouteExecNumThreads());
         assertEquals(1000, (int) config.getEngineDefaults().getThreading().getThreadPoolInboundCapacity());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolInboundPartitioned());
+        assertEquals(1, config.getEngineDefaults().getThreading().getThreadPoolInboundPartitionProperties().size());
+        assertEquals("myString", config.getEngineDefaults().getThreading().getThreadPoolInboundPartitionProperties().get("MyMapEvent"));
         assertEquals(1500, (int) config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
         assertEquals(2000, (int) config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
+        assertEquals("com.mycompany.MyOutboundExecutorFactory", config.getEngineDefaults().getThreading().getThreadPoolOutboundExecutorFactory());
+        assertEquals("com.mycompany.MyRouteExecutorFactory", config.getEngineDefaults().getThreading().getThreadPoolRouteExecExecutorFactory());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolFireAndForget());
+        assertEquals(5, config.getEngineDefaults().getThreading().getThreadPoolFireAndForgetNumThreads());
+        assertNull(config.getEngineDefaults().getThreading().getThreadPoolTimerExecExecutorFactory());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolOutboundOrderedPerStatement());
 
         assertFalse(config.getEngineDefaults().getThreading().isInternalTimerEnabled());
         assertEquals(1234567, config.getEngineDefaults().getThreading().getInternalTimerMsecResolution());
@@ -454,6 +475,8 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(true, codegen.isIncludeComments());
         assertEquals(true, codegen.isIncludeDebugSymbols());
         assertEquals(false, codegen.isEnableFallback());
+        assertEquals(false, codegen.isEnableCache());
+        assertEquals("/var/cache/esper-codegen", codegen.getCacheDirectory());
 
         assertEquals(ConfigurationEngineDefaults.TimeSourceType.NANO, config.getEngineDefaults().getTimeSource().getTimeSourceType());
         assertEquals(TimeUnit.MICROSECONDS, config.getEngineDefaults().getTimeSource().getTimeUnit());
@@ -464,6 +487,7 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.LARGE, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READWRITE, config.getEngineDefaults().getExecution().getFilterServiceProfile());
         assertEquals(100, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.TIMINGWHEEL, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
         assertEquals(101, config.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
 
         ConfigurationMetricsReporting metrics = config.getEngineDefaults().getMetricsReporting();
@@ -473,6 +497,7 @@ public class TestConfigurationParser extends TestCase {
         assertFalse(metrics.isThreading());
         assertEquals(2, metrics.getStatementGroups().size());
         assertTrue(metrics.isJmxEngineMetrics());
+        assertTrue(metrics.isLatencyHistograms());
         ConfigurationMetricsReporting.StmtGroupMetrics def = metrics.getStatementGroups().get("MyStmtGroup");
         assertEquals(5000, def.getInterval());
         assertTrue(def.isDefaultInclude());
@@ -0,0 +1,78 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import junit.framework.TestCase;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class TestArrayBackedSet extends TestCase {
+    private ArrayBackedSet<Integer> set;
+
+    public void setUp() {
+        set = new ArrayBackedSet<Integer>(2);
+    }
+
+    public void testAddIterate() {
+        assertTrue(set.isEmpty());
+        assertFalse(set.iterator().hasNext());
+
+        set.add(5);
+        set.add(4);
+        set.add(1);
+        assertEquals(3, set.size());
+        assertFalse(set.isEmpty());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[]{5, 4, 1}, set.toArray());
+        assertTrue(set.contains(4));
+        assertFalse(set.contains(3));
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        set.add(2);
+        EPAssertionUtil.assertEqualsExactOrder(new Object[]{2}, set.toArray());
+    }
+
+    public void testIteratorRemove() {
+        set.add(1);
+        set.add(2);
+        set.add(3);
+
+        Iterator<Integer> it = set.iterator();
+        assertEquals(1, (int) it.next());
+        it.remove();
+        try {
+            it.remove();
+            fail();
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+        assertEquals(2, (int) it.next());
+        assertEquals(3, (int) it.next());
+        it.remove();
+        assertFalse(it.hasNext());
+        try {
+            it.next();
+            fail();
+        } catch (NoSuchElementException ex) {
+            // expected
+        }
+
+        assertEquals(1, set.size());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[]{2}, set.toArray());
+
+        set.clear();
+        assertEquals(0, set.size());
+        set.add(4);
+        EPAssertionUtil.assertEqualsExactOrder(new Object[]{4}, set.toArray());
+    }
+}
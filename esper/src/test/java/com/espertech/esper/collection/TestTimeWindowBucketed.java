@@ -0,0 +1,118 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.view.internal.TimeWindowBucketed;
+import junit.framework.TestCase;
+
+public class TestTimeWindowBucketed extends TestCase {
+    private final TimeWindowBucketed window = new TimeWindowBucketed(10, false);
+    private final TimeWindowBucketed windowRemovable = new TimeWindowBucketed(10, true);
+    private final EventBean[] beans = new EventBean[6];
+
+    public void setUp() {
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = SupportEventBeanFactory.createObject(new SupportBean());
+        }
+    }
+
+    public void testAdd() {
+        assertNull(window.getOldestBucketLastTimestamp());
+        assertTrue(window.isEmpty());
+
+        window.add(15, beans[0]);
+        window.add(19, beans[1]);
+        window.add(20, beans[2]);
+        window.add(29, beans[3]);
+        window.add(45, beans[4]);
+        assertEquals(19L, (long) window.getOldestBucketLastTimestamp());
+        assertEquals(3, window.getWindow().size());
+        assertEquals(5, window.size());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[]{beans[0], beans[1], beans[2], beans[3], beans[4]}, window.iterator());
+
+        assertNull(window.expireEvents(19));
+        EPAssertionUtil.assertEqualsExactOrder(new Object[]{beans[0], beans[1]}, window.expireEvents(20));
+        assertEquals(29L, (long) window.getOldestBucketLastTimestamp());
+
+        EPAssertionUtil.assertEqualsExactOrder(new Object[]{beans[2], beans[3], beans[4]}, window.expireEvents(100));
+        assertTrue(window.isEmpty());
+        assertTrue(window.isNoBuckets());
+        assertNull(window.expireEvents(100));
+
+        // recycled buckets start out empty
+        window.add(101, beans[5]);
+        EPAssertionUtil.assertEqualsExactOrder(new Object[]{beans[5]}, window.iterator());
+        assertEquals(109L, (long) window.getOldestBucketLastTimestamp());
+    }
+
+    public void testAddRemove() {
+        windowRemovable.add(10, beans[0]);
+        windowRemovable.add(11, beans[1]);
+        windowRemovable.add(12, beans[2]);
+        windowRemovable.add(20, beans[3]);
+        windowRemovable.add(30, beans[4]);
+
+        windowRemovable.remove(beans[1]);
+        windowRemovable.remove(beans[3]);
+        windowRemovable.remove(beans[3]);
+        assertEquals(3, windowRemovable.size());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[]{beans[0], beans[2], beans[4]}, windowRemovable.iterator());
+
+        EPAssertionUtil.assertEqualsExactOrder(new Object[]{beans[0], beans[2]}, windowRemovable.expireEvents(20));
+
+        // bucket without events is removed but returns no events
+        assertNull(windowRemovable.expireEvents(30));
+        assertEquals(39L, (long) windowRemovable.getOldestBucketLastTimestamp());
+
+        EPAssertionUtil.assertEqualsExactOrder(new Object[]{beans[4]}, windowRemovable.expireEvents(40));
+        assertTrue(windowRemovable.isEmpty());
+        assertEquals(0, windowRemovable.getReverseIndex().size());
+    }
+
+    public void testRemoveFromLargeBucket() {
+        EventBean[] events = new EventBean[100];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = SupportEventBeanFactory.createObject(new SupportBean());
+            windowRemovable.add(10, events[i]);
+        }
+        assertEquals(1, windowRemovable.getWindow().size());
+        assertEquals(50, windowRemovable.getReverseIndex().get(events[50]).getIndex());
+
+        // events are removed by slot, an event not in the window has no effect
+        windowRemovable.remove(events[50]);
+        windowRemovable.remove(events[0]);
+        windowRemovable.remove(beans[0]);
+        assertEquals(98, windowRemovable.size());
+        assertEquals(98, windowRemovable.getWindow().getFirst().getLive());
+
+        EventBean[] expired = windowRemovable.expireEvents(100);
+        assertEquals(98, expired.length);
+        assertSame(events[1], expired[0]);
+        assertSame(events[51], expired[49]);
+        assertEquals(0, windowRemovable.getReverseIndex().size());
+    }
+
+    public void testAdjust() {
+        window.add(10, beans[0]);
+        window.adjust(5);
+        assertEquals(24L, (long) window.getOldestBucketLastTimestamp());
+
+        // a new bucket does not overlap with the adjusted bucket
+        window.add(25, beans[1]);
+        window.add(34, beans[2]);
+        assertEquals(2, window.getWindow().size());
+        assertEquals(25L, window.getWindow().getLast().getStart());
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.EPException;
+import junit.framework.TestCase;
+
+public class TestInboundLane extends TestCase {
+    private final Runnable unit = new Runnable() {
+        public void run() {
+        }
+    };
+
+    public void testSubmitInterrupted() {
+        InboundLane lane = new InboundLane(2);
+        lane.submit(unit);
+        lane.submit(unit);
+
+        // the lane is full and has no consumer
+        Thread.currentThread().interrupt();
+        try {
+            lane.submit(unit);
+            fail();
+        } catch (EPException ex) {
+            assertEquals("Inbound unit rejected, submitting thread was interrupted", ex.getMessage());
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+        assertEquals(2, lane.getQueue().size());
+    }
+
+    public void testSubmitStopped() {
+        InboundLane lane = new InboundLane(2);
+        lane.stop(0);
+        try {
+            lane.submit(unit);
+            fail();
+        } catch (EPException ex) {
+            assertEquals("Inbound unit rejected, inbound lane is stopped", ex.getMessage());
+        }
+        assertTrue(lane.getQueue().isEmpty());
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.CountDownLatch;
+
+public class TestInboundLaneQueue extends TestCase {
+    public void testOfferPoll() {
+        InboundLaneQueue queue = new InboundLaneQueue(3);
+        assertEquals(4, queue.getCapacity());
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+
+        MyRunnable[] units = new MyRunnable[5];
+        for (int i = 0; i < units.length; i++) {
+            units[i] = new MyRunnable(i);
+        }
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(units[i]));
+        }
+        assertFalse(queue.offer(units[4]));
+        assertEquals(4, queue.size());
+
+        assertSame(units[0], queue.poll());
+        assertTrue(queue.offer(units[4]));
+        for (int i = 1; i < 5; i++) {
+            assertSame(units[i], queue.poll());
+        }
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    public void testMultipleProducers() throws Exception {
+        final int numProducers = 4;
+        final int numPerProducer = 100000;
+        final InboundLaneQueue queue = new InboundLaneQueue(64);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        Thread[] producers = new Thread[numProducers];
+        for (int p = 0; p < numProducers; p++) {
+            final int producer = p;
+            producers[p] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < numPerProducer; i++) {
+                        MyRunnable unit = new MyRunnable(producer * numPerProducer + i);
+                        while (!queue.offer(unit)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+            producers[p].start();
+        }
+        startLatch.countDown();
+
+        // per-producer order is kept
+        int[] last = new int[numProducers];
+        for (int p = 0; p < numProducers; p++) {
+            last[p] = -1;
+        }
+        int received = 0;
+        while (received < numProducers * numPerProducer) {
+            MyRunnable unit = (MyRunnable) queue.poll();
+            if (unit == null) {
+                Thread.yield();
+                continue;
+            }
+            int producer = unit.id / numPerProducer;
+            int seq = unit.id % numPerProducer;
+            assertEquals(last[producer] + 1, seq);
+            last[producer] = seq;
+            received++;
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    public void testLaneOrder() throws Exception {
+        InboundLane lane = new InboundLane(16);
+        lane.start(new Thread(lane));
+        final int[] next = new int[1];
+        final boolean[] failed = new boolean[1];
+        final CountDownLatch doneLatch = new CountDownLatch(1);
+        for (int i = 0; i < 1000; i++) {
+            final int seq = i;
+            lane.submit(new Runnable() {
+                public void run() {
+                    if (next[0]++ != seq) {
+                        failed[0] = true;
+                    }
+                    if (seq == 999) {
+                        doneLatch.countDown();
+                    }
+                }
+            });
+        }
+        doneLatch.await();
+        assertFalse(failed[0]);
+        lane.stop(1000);
+    }
+
+    private static class MyRunnable implements Runnable {
+        private final int id;
+
+        MyRunnable(int id) {
+            this.id = id;
+        }
+
+        public void run() {
+        }
+    }
+}
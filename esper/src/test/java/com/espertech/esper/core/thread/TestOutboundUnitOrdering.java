@@ -0,0 +1,58 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.core.service.StatementResultServiceImpl;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+public class TestOutboundUnitOrdering extends TestCase {
+    public void testRejected() {
+        MyExecutor executor = new MyExecutor();
+        OutboundUnitOrdering ordering = new OutboundUnitOrdering(executor);
+        StatementResultServiceImpl statementOne = new StatementResultServiceImpl("s1", null, null, null);
+        StatementResultServiceImpl statementTwo = new StatementResultServiceImpl("s2", null, null, null);
+
+        executor.reject = true;
+        try {
+            ordering.submit(new OutboundUnitRunnable(null, statementOne));
+            fail();
+        } catch (RejectedExecutionException ex) {
+            // expected
+        }
+        assertEquals(0, ordering.getNumStrands());
+        assertTrue(executor.strands.isEmpty());
+
+        // the statement starts a new strand once the executor accepts again
+        executor.reject = false;
+        ordering.submit(new OutboundUnitRunnable(null, statementOne));
+        ordering.submit(new OutboundUnitRunnable(null, statementOne));
+        ordering.submit(new OutboundUnitRunnable(null, statementTwo));
+        assertEquals(2, ordering.getNumStrands());
+        assertEquals(2, executor.strands.size());
+    }
+
+    private static class MyExecutor implements Executor {
+        private boolean reject;
+        private final List<Runnable> strands = new ArrayList<>();
+
+        public void execute(Runnable command) {
+            if (reject) {
+                throw new RejectedExecutionException("Rejected for testing");
+            }
+            strands.add(command);
+        }
+    }
+}
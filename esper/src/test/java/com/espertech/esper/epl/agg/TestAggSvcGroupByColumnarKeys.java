@@ -0,0 +1,94 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg;
+
+import com.espertech.esper.epl.agg.service.groupby.AggSvcGroupByColumnarKeys;
+import com.espertech.esper.epl.agg.service.groupby.AggSvcGroupByColumnarKeysLong;
+import com.espertech.esper.epl.agg.service.groupby.AggSvcGroupByColumnarKeysString;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestAggSvcGroupByColumnarKeys extends TestCase {
+
+    public void testAddRemoveMovesLastRow() {
+        AggSvcGroupByColumnarKeys keys = new AggSvcGroupByColumnarKeysLong(false);
+        assertEquals(0, keys.add(10L));
+        assertEquals(1, keys.add(null));
+        assertEquals(2, keys.add(30L));
+        assertEquals(-1, keys.find(20L));
+
+        // removing the first row moves the last row into it
+        assertEquals(0, keys.remove(10L));
+        assertEquals(2, keys.size());
+        assertEquals(0, keys.find(30L));
+        assertEquals(1, keys.find(null));
+        assertEquals(30L, keys.getKey(0));
+        assertNull(keys.getKey(1));
+
+        // removing the null key when it is not the last row
+        keys.add(40L);
+        assertEquals(1, keys.remove(null));
+        assertEquals(1, keys.find(40L));
+        assertEquals(-1, keys.find(null));
+        assertEquals(-1, keys.remove(null));
+
+        keys.clear();
+        assertEquals(0, keys.size());
+        assertEquals(-1, keys.find(30L));
+    }
+
+    public void testIntKeys() {
+        AggSvcGroupByColumnarKeys keys = new AggSvcGroupByColumnarKeysLong(true);
+        keys.add(5);
+        assertEquals(0, keys.find(5));
+        assertEquals(5, keys.getKey(0));
+        assertEquals(Collections.singletonList(5), new ArrayList<Object>(keys.keys()));
+    }
+
+    public void testRandomAgainstMap() {
+        tryRandom(new AggSvcGroupByColumnarKeysLong(false), false);
+        tryRandom(new AggSvcGroupByColumnarKeysString(), true);
+    }
+
+    private void tryRandom(AggSvcGroupByColumnarKeys keys, boolean stringKeys) {
+        Random random = new Random(1);
+        Map<Object, Integer> expected = new HashMap<Object, Integer>();
+        List<Object> rows = new ArrayList<Object>();
+        for (int i = 0; i < 100000; i++) {
+            int value = random.nextInt(1000) - 500;
+            Object key = value == 0 ? null : stringKeys ? (Object) ("K" + value) : (Object) (long) value;
+            if (random.nextInt(3) != 0) {
+                Integer row = expected.get(key);
+                assertEquals(row == null ? -1 : (int) row, keys.find(key));
+                if (row == null) {
+                    expected.put(key, keys.add(key));
+                    rows.add(key);
+                }
+            } else {
+                Integer row = expected.remove(key);
+                assertEquals(row == null ? -1 : (int) row, keys.remove(key));
+                if (row != null) {
+                    Object moved = rows.remove(rows.size() - 1);
+                    if (row < rows.size()) {
+                        rows.set(row, moved);
+                        expected.put(moved, row);
+                    }
+                }
+            }
+        }
+        assertEquals(rows.size(), keys.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(rows.get(i), keys.getKey(i));
+        }
+        assertEquals(expected.keySet(), new HashSet<Object>(keys.keys()));
+    }
+}
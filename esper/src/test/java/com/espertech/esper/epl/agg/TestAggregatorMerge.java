@@ -0,0 +1,120 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg;
+
+import com.espertech.esper.epl.agg.aggregator.*;
+import com.espertech.esper.epl.expression.core.MinMaxTypeEnum;
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+
+public class TestAggregatorMerge extends TestCase {
+    public void testSum() {
+        AggregatorSumInteger one = new AggregatorSumInteger();
+        AggregatorSumInteger two = new AggregatorSumInteger();
+        AggregatorSumInteger merged = new AggregatorSumInteger();
+        merged.merge(one);
+        assertEquals(null, merged.getValue());
+
+        one.enter(10);
+        one.enter(20);
+        two.enter(5);
+        merged.merge(one);
+        merged.merge(two);
+        assertEquals(35, merged.getValue());
+        assertEquals(30, one.getValue());
+
+        // merged state continues to apply leaving values
+        merged.leave(10);
+        merged.leave(20);
+        assertEquals(5, merged.getValue());
+        merged.leave(5);
+        assertEquals(null, merged.getValue());
+
+        AggregatorSumBigDecimal bigOne = new AggregatorSumBigDecimal();
+        AggregatorSumBigDecimal bigMerged = new AggregatorSumBigDecimal();
+        bigOne.enter(new BigDecimal("1.5"));
+        bigMerged.enter(new BigDecimal("2.5"));
+        bigMerged.merge(bigOne);
+        assertEquals(0, new BigDecimal("4.0").compareTo((BigDecimal) bigMerged.getValue()));
+    }
+
+    public void testCount() {
+        AggregatorCount one = new AggregatorCount();
+        AggregatorCount merged = new AggregatorCount();
+        one.enter(null);
+        one.enter(1);
+        merged.enter(2);
+        merged.merge(one);
+        assertEquals(3L, merged.getValue());
+
+        AggregatorCountNonNull nonNullOne = new AggregatorCountNonNull();
+        AggregatorCountNonNull nonNullMerged = new AggregatorCountNonNull();
+        nonNullOne.enter(null);
+        nonNullOne.enter(1);
+        nonNullMerged.merge(nonNullOne);
+        nonNullMerged.merge(nonNullOne);
+        assertEquals(2L, nonNullMerged.getValue());
+    }
+
+    public void testMinMax() {
+        AggregatorMinMax one = new AggregatorMinMax(MinMaxTypeEnum.MAX);
+        AggregatorMinMax two = new AggregatorMinMax(MinMaxTypeEnum.MAX);
+        AggregatorMinMax merged = new AggregatorMinMax(MinMaxTypeEnum.MAX);
+        one.enter(10);
+        one.enter(20);
+        two.enter(20);
+        two.enter(15);
+        merged.merge(one);
+        merged.merge(two);
+        assertEquals(20, merged.getValue());
+
+        // reference counts are merged
+        merged.leave(20);
+        assertEquals(20, merged.getValue());
+        merged.leave(20);
+        assertEquals(15, merged.getValue());
+
+        AggregatorMinMaxEver everOne = new AggregatorMinMaxEver(MinMaxTypeEnum.MIN);
+        AggregatorMinMaxEver everMerged = new AggregatorMinMaxEver(MinMaxTypeEnum.MIN);
+        everMerged.merge(everOne);
+        assertEquals(null, everMerged.getValue());
+        everOne.enter(5);
+        everMerged.enter(7);
+        everMerged.merge(everOne);
+        assertEquals(5, everMerged.getValue());
+    }
+
+    public void testAvg() {
+        AggregatorAvg one = new AggregatorAvg();
+        AggregatorAvg two = new AggregatorAvg();
+        AggregatorAvg merged = new AggregatorAvg();
+        one.enter(1);
+        one.enter(2);
+        two.enter(6);
+        merged.merge(one);
+        merged.merge(two);
+        assertEquals(3d, merged.getValue());
+
+        AggregatorAvgBigDecimal bigOne = new AggregatorAvgBigDecimal(null);
+        AggregatorAvgBigDecimal bigMerged = new AggregatorAvgBigDecimal(null);
+        bigOne.enter(new BigDecimal(1));
+        bigMerged.enter(new BigDecimal(3));
+        bigMerged.merge(bigOne);
+        assertEquals(0, new BigDecimal(2).compareTo(bigMerged.getValue()));
+    }
+
+    public void testFilterVariantsMergeable() {
+        assertTrue(new AggregatorSumDoubleFilter() instanceof AggregationMethodMergeable);
+        assertTrue(new AggregatorCountFilter() instanceof AggregationMethodMergeable);
+        assertFalse(new AggregatorDistinctValue(new AggregatorSumInteger()) instanceof AggregationMethodMergeable);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg;
+
+import com.espertech.esper.epl.agg.aggregator.*;
+import com.espertech.esper.epl.expression.core.MinMaxTypeEnum;
+import junit.framework.TestCase;
+
+import java.io.*;
+import java.math.BigDecimal;
+
+public class TestAggregatorState extends TestCase {
+    public void testSumAvgCount() throws IOException {
+        AggregatorSumInteger sum = new AggregatorSumInteger();
+        sum.enter(10);
+        sum.enter(20);
+        AggregatorSumInteger sumRestored = new AggregatorSumInteger();
+        sumRestored.enter(99);
+        roundTrip(sum, sumRestored);
+        assertEquals(30, sumRestored.getValue());
+        sumRestored.leave(10);
+        assertEquals(20, sumRestored.getValue());
+
+        AggregatorAvgBigDecimal avg = new AggregatorAvgBigDecimal(null);
+        avg.enter(new BigDecimal("1.5"));
+        avg.enter(new BigDecimal("2.5"));
+        AggregatorAvgBigDecimal avgRestored = roundTrip(avg, new AggregatorAvgBigDecimal(null));
+        assertEquals(0, new BigDecimal("2").compareTo((BigDecimal) avgRestored.getValue()));
+
+        AggregatorCount count = new AggregatorCount();
+        count.enter(null);
+        count.enter(1);
+        assertEquals(2L, roundTrip(count, new AggregatorCount()).getValue());
+    }
+
+    public void testCollections() throws IOException {
+        AggregatorMinMax max = new AggregatorMinMax(MinMaxTypeEnum.MAX);
+        max.enter(10);
+        max.enter(20);
+        max.enter(20);
+        AggregatorMinMax maxRestored = roundTrip(max, new AggregatorMinMax(MinMaxTypeEnum.MAX));
+        assertEquals(20, maxRestored.getValue());
+        maxRestored.leave(20);
+        assertEquals(20, maxRestored.getValue());
+        maxRestored.leave(20);
+        assertEquals(10, maxRestored.getValue());
+
+        AggregatorMedian median = new AggregatorMedian();
+        median.enter(3);
+        median.enter(1);
+        median.enter(2);
+        AggregatorMedian medianRestored = roundTrip(median, new AggregatorMedian());
+        assertEquals(2d, medianRestored.getValue());
+        medianRestored.enter(0);
+        assertEquals(1.5d, medianRestored.getValue());
+
+        AggregatorNth nth = new AggregatorNth(3);
+        assertNull(roundTrip(nth, new AggregatorNth(3)).getValue());
+        nth.enter(new Object[]{"a", 2});
+        nth.enter(new Object[]{"b", 2});
+        nth.enter(new Object[]{"c", 2});
+        AggregatorNth nthRestored = roundTrip(nth, new AggregatorNth(3));
+        assertEquals("a", nthRestored.getValue());
+        nthRestored.enter(new Object[]{"d", 2});
+        assertEquals("b", nthRestored.getValue());
+    }
+
+    public void testDistinct() throws IOException {
+        AggregatorDistinctValue distinct = new AggregatorDistinctValue(new AggregatorCountNonNull());
+        assertTrue(AggregatorStateUtil.isStateful(distinct));
+        distinct.enter(1);
+        distinct.enter(1);
+        distinct.enter(2);
+        AggregatorDistinctValue distinctRestored = roundTrip(distinct, new AggregatorDistinctValue(new AggregatorCountNonNull()));
+        assertEquals(2L, distinctRestored.getValue());
+        distinctRestored.leave(1);
+        assertEquals(2L, distinctRestored.getValue());
+        distinctRestored.leave(1);
+        assertEquals(1L, distinctRestored.getValue());
+
+        assertFalse(AggregatorStateUtil.isStateful(new AggregatorDistinctValue(new MyAggregationMethod())));
+        assertFalse(AggregatorStateUtil.isStateful(new MyAggregationMethod()));
+    }
+
+    public void testVersion() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        AggregatorStateUtil.writeVersion(output, 2);
+        output.writeLong(1);
+        try {
+            new AggregatorCountEver().readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+            fail();
+        } catch (IOException ex) {
+            assertEquals("Unsupported state version 2 for aggregation method AggregatorCountEver", ex.getMessage());
+        }
+    }
+
+    private static <T extends AggregationMethodStateful> T roundTrip(T from, T to) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        from.writeState(output);
+        output.flush();
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        to.readState(input);
+        assertEquals(-1, input.read());
+        return to;
+    }
+
+    private static class MyAggregationMethod implements AggregationMethod {
+        public void enter(Object value) {
+        }
+
+        public void leave(Object value) {
+        }
+
+        public Object getValue() {
+            return null;
+        }
+
+        public void clear() {
+        }
+    }
+}
@@ -14,7 +14,9 @@ import junit.framework.TestCase;
 
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
@@ -34,6 +36,45 @@ public class TestCountMinSketchStateHashes extends TestCase {
         assertEquals(1, estimateCount(state, "text"));
     }
 
+    public void testMerge() {
+        CountMinSketchStateHashes one = CountMinSketchStateHashes.makeState(getDefaultSpec());
+        CountMinSketchStateHashes two = CountMinSketchStateHashes.makeState(getDefaultSpec());
+        add(one, "hello", 100);
+        add(one, "text", 1);
+        add(two, "hello", 5);
+        add(two, "world", 7);
+
+        one.merge(two);
+        assertEquals(105, estimateCount(one, "hello"));
+        assertEquals(1, estimateCount(one, "text"));
+        assertEquals(7, estimateCount(one, "world"));
+        assertEquals(113, one.getTotal());
+        assertEquals(5, estimateCount(two, "hello"));
+
+        // the top-k ranks by the merged frequencies
+        CountMinSketchSpec spec = new CountMinSketchSpec(getDefaultSpec(), 2, null);
+        CountMinSketchState topOne = CountMinSketchState.makeState(spec);
+        CountMinSketchState topTwo = CountMinSketchState.makeState(spec);
+        topOne.add(getBytes("a"), 10);
+        topOne.add(getBytes("b"), 6);
+        topOne.add(getBytes("c"), 5);
+        topTwo.add(getBytes("c"), 4);
+        topTwo.add(getBytes("d"), 1);
+        topOne.merge(topTwo);
+        assertEquals(9, topOne.frequency(getBytes("c")));
+        List<ByteBuffer> topk = new ArrayList<ByteBuffer>(topOne.getTopKValues());
+        assertEquals(2, topk.size());
+        assertEquals(ByteBuffer.wrap(getBytes("a")), topk.get(0));
+        assertEquals(ByteBuffer.wrap(getBytes("c")), topk.get(1));
+
+        try {
+            one.merge(CountMinSketchStateHashes.makeState(new CountMinSketchSpecHashes(0.001, 0.99, 1234567)));
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
     public void testSpace() {
         final double eps = 0.001;
         final double confidence = 0.999;
@@ -24,6 +24,8 @@ import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
 import junit.framework.TestCase;
 
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -32,6 +34,8 @@ public class TestJoinSetComposerImpl extends TestCase {
     private EventBean[] indexedEventOne, indexedEventTwo, newEventOne, newEventTwo;
     private UnindexedEventTable indexLeft;
     private UnindexedEventTable indexRight;
+    private QueryStrategy[] queryStrategies;
+    private Map<TableLookupIndexReqKey, EventTable>[] indexes;
 
     public void setUp() {
         indexedEventOne = SupportEventBeanFactory.makeEvents(new String[]{"s1_1", "s1_2"});
@@ -45,19 +49,19 @@ public class TestJoinSetComposerImpl extends TestCase {
         indexRight = new UnindexedEventTableImpl(1);
         indexRight.add(indexedEventTwo, null);
 
-        QueryStrategy[] queryStrategies = new QueryStrategy[2];
+        queryStrategies = new QueryStrategy[2];
         TableLookupExecNode lookupLeft = new TableLookupExecNode(1, new FullTableScanLookupStrategy(indexRight));
         TableLookupExecNode lookupRight = new TableLookupExecNode(0, new FullTableScanLookupStrategy(indexLeft));
         queryStrategies[0] = new ExecNodeQueryStrategy(0, 2, lookupLeft);
         queryStrategies[1] = new ExecNodeQueryStrategy(1, 2, lookupRight);
 
-        Map<TableLookupIndexReqKey, EventTable>[] indexes = new Map[2];
+        indexes = new Map[2];
         indexes[0] = new HashMap<TableLookupIndexReqKey, EventTable>();
         indexes[1] = new HashMap<TableLookupIndexReqKey, EventTable>();
         indexes[0].put(new TableLookupIndexReqKey("idxLeft"), indexLeft);
         indexes[1].put(new TableLookupIndexReqKey("idxLeft"), indexRight);
 
-        joinSetComposerImpl = new JoinSetComposerImpl(true, indexes, queryStrategies, false, null, true);
+        joinSetComposerImpl = new JoinSetComposerImpl(true, indexes, queryStrategies, false, null, true, false);
     }
 
     public void testJoin() {
@@ -81,6 +85,36 @@ public class TestJoinSetComposerImpl extends TestCase {
         assertTrue(eventStringText.contains("s1_2|s2_3"));
     }
 
+    public void testJoinUniqueRows() {
+        joinSetComposerImpl = new JoinSetComposerImpl(true, indexes, queryStrategies, false, null, true, true);
+
+        // both streams with data, duplicate pairs are removed
+        UniformPair<Set<MultiKey<EventBean>>> result = joinSetComposerImpl.join(
+                new EventBean[][]{newEventOne, newEventTwo},
+                new EventBean[][]{new EventBean[]{indexedEventOne[0]}, new EventBean[]{indexedEventTwo[1]}}, null);
+        assertTrue(result.getFirst() instanceof LinkedHashSet);
+        assertEquals(3, result.getFirst().size());
+        assertEquals(3, result.getSecond().size());
+
+        // single stream with data, rows are composed without deduplication
+        result = joinSetComposerImpl.join(
+                new EventBean[][]{SupportEventBeanFactory.makeEvents(new String[]{"s1_4"}), null},
+                new EventBean[][]{null, null}, null);
+        assertFalse(result.getFirst() instanceof LinkedHashSet);
+        assertEquals(2, result.getFirst().size());
+        String eventStringText = toString(result.getFirst());
+        assertTrue(eventStringText.contains("s1_4|s2_1"));
+        assertTrue(eventStringText.contains("s1_4|s2_3"));
+        assertTrue(result.getSecond().isEmpty());
+
+        // rows removed by a filter are not iterated
+        Iterator<MultiKey<EventBean>> it = result.getFirst().iterator();
+        it.next();
+        it.remove();
+        assertEquals(1, result.getFirst().size());
+        assertEquals(1, toString(result.getFirst()).split(",").length);
+    }
+
     private String toString(Set<MultiKey<EventBean>> events) {
         String delimiter = "";
         StringBuilder buf = new StringBuilder();
@@ -58,8 +58,19 @@ public class TestQueryPlanBuilder extends TestCase {
         assertPlan(plan);
     }
 
+    public void testIsUniqueRows() {
+        NestedIterationNode nested = new NestedIterationNode(new int[]{1});
+        nested.addChildNode(new QueryPlanNodeNoOp());
+        assertTrue(QueryPlanBuilder.isUniqueRows(new QueryPlanNode[]{nested, null}));
+
+        nested.addChildNode(new QueryPlanNodeAllUnidirectionalOuter(1));
+        assertFalse(QueryPlanBuilder.isUniqueRows(new QueryPlanNode[]{nested, null}));
+        assertFalse(QueryPlanBuilder.isUniqueRows(new QueryPlanNode[]{new QueryPlanNodeNoOp(), new QueryPlanNodeAllUnidirectionalOuter(1)}));
+    }
+
     private void assertPlan(QueryPlan plan) {
         assertEquals(2, plan.getExecNodeSpecs().length);
         assertEquals(2, plan.getExecNodeSpecs().length);
+        assertTrue(QueryPlanBuilder.isUniqueRows(plan.getExecNodeSpecs()));
     }
 }
@@ -0,0 +1,95 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.metric;
+
+import com.espertech.esper.client.metric.LatencyMetric;
+import junit.framework.TestCase;
+
+public class TestLatencyRecorder extends TestCase {
+    public void testBuckets() {
+        assertEquals(0, LatencyHistogram.index(-5));
+        assertEquals(15, LatencyHistogram.index(15));
+        assertEquals(15, LatencyHistogram.highestValue(15));
+        assertEquals(LatencyHistogram.NUM_BUCKETS - 1, LatencyHistogram.index(Long.MAX_VALUE));
+
+        int lastIndex = 0;
+        for (long value = 0; value < 1000000; value += 1 + value / 100) {
+            int index = LatencyHistogram.index(value);
+            assertTrue(index >= lastIndex);
+            lastIndex = index;
+            long highest = LatencyHistogram.highestValue(index);
+            assertTrue(highest >= value);
+            assertTrue("failed for " + value, highest - value <= value / 16);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.highestValue(index - 1) < value);
+            }
+        }
+    }
+
+    public void testReportInterval() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        assertNull(recorder.getLast());
+
+        for (int i = 1; i <= 1000; i++) {
+            recorder.record(i);
+        }
+        assertMetric(recorder.reportInterval(), 1000, 511, 991, 1023, 1023);
+        assertMetric(recorder.getLast(), 1000, 511, 991, 1023, 1023);
+
+        // only latencies since the last report
+        assertMetric(recorder.reportInterval(), 0, 0, 0, 0, 0);
+
+        recorder.record(5);
+        assertMetric(recorder.reportInterval(), 1, 5, 5, 5, 5);
+    }
+
+    public void testMultithreaded() throws Exception {
+        final LatencyRecorder recorder = new LatencyRecorder();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        recorder.record(10);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertMetric(recorder.reportInterval(), 40000, 10, 10, 10, 10);
+    }
+
+    public void testShortLivedThreads() throws Exception {
+        final LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < 200; i++) {
+            Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    recorder.record(10);
+                }
+            });
+            thread.start();
+            thread.join();
+        }
+        assertMetric(recorder.reportInterval(), 200, 10, 10, 10, 10);
+        assertTrue(recorder.getNumHistograms() <= 64);
+    }
+
+    private static void assertMetric(LatencyMetric metric, long count, long p50, long p99, long p999, long max) {
+        assertEquals(count, metric.getCount());
+        assertEquals(p50, metric.getP50());
+        assertEquals(p99, metric.getP99());
+        assertEquals(p999, metric.getP999());
+        assertEquals(max, metric.getMax());
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.support.SupportEventAdapterService;
+import com.espertech.esper.event.EventTypeMetadata;
+import com.espertech.esper.event.arr.ObjectArrayEventBean;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.map.MapEventBean;
+import com.espertech.esper.event.map.MapEventType;
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestOffHeapEventStore extends TestCase {
+    private EventType eventType;
+    private OffHeapEventStore store;
+
+    public void setUp() {
+        EventTypeMetadata metadata = EventTypeMetadata.createNonPojoApplicationType(EventTypeMetadata.ApplicationType.OBJECTARR, "testtype", true, true, true, false, false);
+        eventType = new ObjectArrayEventType(metadata, "testtype", 1, SupportEventAdapterService.getService(), makeTypeRep(), null, null, null);
+        store = new OffHeapEventStore(OffHeapEventSerdeFactory.getSerde(eventType), 1024);
+    }
+
+    public void testAddRemove() {
+        EventBean stored = store.add(makeEvent("E1", 1));
+        assertTrue(stored instanceof OffHeapEventBean);
+        assertSame(eventType, stored.getEventType());
+        assertEquals("E1", stored.get("key"));
+        assertEquals(1, stored.get("value"));
+        assertTrue(((OffHeapEventBean) stored).isStored());
+        assertSame(stored, store.add(stored));
+        assertEquals(1, store.getNumEvents());
+        assertTrue(store.getUsedBytes() > 0);
+
+        store.remove(stored);
+        assertFalse(((OffHeapEventBean) stored).isStored());
+        assertEquals(0, store.getNumEvents());
+        assertEquals(0, store.getUsedBytes());
+        assertEquals("E1", stored.get("key"));
+        assertSame(stored.getUnderlying(), stored.getUnderlying());
+
+        // removing a second time or removing an event not held has no effect
+        store.remove(stored);
+        store.remove(makeEvent("E2", 2));
+        assertEquals(0, store.getNumEvents());
+    }
+
+    public void testReplace() {
+        OffHeapEventBean stored = (OffHeapEventBean) store.add(makeEvent("E1", 1));
+        store.replace(stored, new Object[]{"E1", 100});
+        assertEquals(100, stored.get("value"));
+        assertEquals(1, store.getNumEvents());
+    }
+
+    public void testMapType() {
+        EventTypeMetadata metadata = EventTypeMetadata.createNonPojoApplicationType(EventTypeMetadata.ApplicationType.MAP, "maptype", true, true, true, false, false);
+        MapEventType mapType = new MapEventType(metadata, "maptype", 2, SupportEventAdapterService.getService(), makeTypeRep(), null, null, null);
+        OffHeapEventStore mapStore = new OffHeapEventStore(OffHeapEventSerdeFactory.getSerde(mapType), 1024);
+
+        Map<String, Object> props = new HashMap<String, Object>();
+        props.put("key", "E1");
+        props.put("value", null);
+        props.put("undeclared", "x");
+        EventBean stored = mapStore.add(new MapEventBean(props, mapType));
+        assertTrue(stored instanceof OffHeapMapEventBean);
+        assertEquals("E1", stored.get("key"));
+        assertNull(stored.get("value"));
+
+        // only declared properties are kept
+        Map<String, Object> underlying = (Map<String, Object>) stored.getUnderlying();
+        assertEquals(2, underlying.size());
+        assertEquals("E1", underlying.get("key"));
+    }
+
+    public void testUnsupported() {
+        Map<String, Object> typeRep = makeTypeRep();
+        typeRep.put("array", int[].class);
+        EventTypeMetadata metadata = EventTypeMetadata.createNonPojoApplicationType(EventTypeMetadata.ApplicationType.OBJECTARR, "arraytype", true, true, true, false, false);
+        assertNull(OffHeapEventSerdeFactory.getSerde(new ObjectArrayEventType(metadata, "arraytype", 3, SupportEventAdapterService.getService(), typeRep, null, null, null)));
+
+        try {
+            store.add(new ObjectArrayEventBean(new Object[]{new int[0], 1}, eventType));
+            fail();
+        } catch (EPException ex) {
+            assertEquals("Value of type '[I' cannot be stored off-heap", ex.getMessage());
+        }
+        assertEquals(0, store.getNumEvents());
+    }
+
+    public void testSegmentReleaseAndCompaction() {
+        EventBean[] stored = new EventBean[200];
+        for (int i = 0; i < stored.length; i++) {
+            stored[i] = store.add(makeEvent("E" + i, i));
+        }
+        int segments = store.getNumSegments();
+        assertTrue(segments > 2);
+        assertEquals(segments * 1024L, store.getAllocatedBytes());
+
+        // remove all but every tenth event, sparse segments get compacted
+        for (int i = 0; i < stored.length; i++) {
+            if (i % 10 != 0) {
+                store.remove(stored[i]);
+            }
+        }
+        assertEquals(20, store.getNumEvents());
+        assertTrue(store.getNumSegments() < segments);
+        for (int i = 0; i < stored.length; i += 10) {
+            assertEquals("E" + i, stored[i].get("key"));
+            assertEquals(i, stored[i].get("value"));
+        }
+
+        for (int i = 0; i < stored.length; i += 10) {
+            store.remove(stored[i]);
+        }
+        assertEquals(0, store.getNumEvents());
+        assertEquals(0, store.getUsedBytes());
+        assertTrue(store.getNumSegments() <= 1);
+    }
+
+    public void testReadDuringCompaction() throws Exception {
+        final EventBean[] retained = new EventBean[50];
+        for (int i = 0; i < retained.length; i++) {
+            retained[i] = store.add(makeEvent("R" + i, i));
+        }
+        final AtomicReference<String> failure = new AtomicReference<String>();
+        final boolean[] done = new boolean[1];
+        Thread reader = new Thread(new Runnable() {
+            public void run() {
+                while (!isDone(done)) {
+                    for (int i = 0; i < retained.length; i++) {
+                        Object[] underlying = (Object[]) retained[i].getUnderlying();
+                        if (!("R" + i).equals(underlying[0]) || !Integer.valueOf(i).equals(underlying[1]) || !("R" + i).equals(retained[i].get("key"))) {
+                            failure.set("Unexpected values for event " + i);
+                            return;
+                        }
+                    }
+                }
+            }
+        });
+        reader.start();
+
+        // churn and rewrite the retained events so that they get relocated and their segments compacted repeatedly
+        for (int round = 0; round < 1000; round++) {
+            EventBean[] churn = new EventBean[20];
+            for (int i = 0; i < churn.length; i++) {
+                churn[i] = store.add(makeEvent("C" + i, i));
+            }
+            int index = round % retained.length;
+            store.replace((OffHeapEventBean) retained[index], new Object[]{"R" + index, index});
+            store.remove(churn);
+        }
+        synchronized (done) {
+            done[0] = true;
+        }
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(retained.length, store.getNumEvents());
+    }
+
+    public void testValueCodec() {
+        Object[] values = new Object[]{null, "", "abc\u00e9", 1, -1L, 1.5d, true, false, 2.5f, (short) 3, (byte) 4, 'x',
+            new BigDecimal("-1.25"), new BigInteger("123456789012345678901234567890")};
+        OffHeapWriteBuffer out = new OffHeapWriteBuffer(1);
+        for (Object value : values) {
+            OffHeapValueCodec.write(value, out);
+        }
+        OffHeapReadCursor in = new OffHeapReadCursor();
+        in.reset(out.getBuffer(), 0);
+        for (Object value : values) {
+            assertEquals(value, OffHeapValueCodec.read(in));
+        }
+
+        assertTrue(OffHeapValueCodec.isSupportedType(int.class));
+        assertFalse(OffHeapValueCodec.isSupportedType(int[].class));
+        assertFalse(OffHeapValueCodec.isSupportedType(Object.class));
+    }
+
+    private EventBean makeEvent(String key, int value) {
+        return new ObjectArrayEventBean(new Object[]{key, value}, eventType);
+    }
+
+    private static Map<String, Object> makeTypeRep() {
+        Map<String, Object> typeRep = new LinkedHashMap<String, Object>();
+        typeRep.put("key", String.class);
+        typeRep.put("value", Integer.class);
+        return typeRep;
+    }
+
+    private static boolean isDone(boolean[] done) {
+        synchronized (done) {
+            return done[0];
+        }
+    }
+}
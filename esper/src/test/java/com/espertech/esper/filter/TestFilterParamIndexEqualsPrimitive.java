@@ -0,0 +1,111 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.expression.core.ExprFilterSpecLookupable;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.filter.SupportEventEvaluator;
+import junit.framework.TestCase;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TestFilterParamIndexEqualsPrimitive extends TestCase {
+    private SupportEventEvaluator testEvaluator;
+    private SupportBean testBean;
+    private EventBean testEventBean;
+    private EventType testEventType;
+    private List<FilterHandle> matchesList;
+
+    public void setUp() {
+        testEvaluator = new SupportEventEvaluator();
+        testBean = new SupportBean();
+        testEventBean = SupportEventBeanFactory.createObject(testBean);
+        testEventType = testEventBean.getEventType();
+        matchesList = new LinkedList<FilterHandle>();
+    }
+
+    public void testInt() {
+        FilterParamIndexEqualsInt index = new FilterParamIndexEqualsInt(makeLookupable("intPrimitive"), new ReentrantReadWriteLock());
+        index.put(5, testEvaluator);
+        index.put(-100000, testEvaluator);
+        // constant of another type is kept however does not match, same as the HashMap-based index
+        index.put(7L, testEvaluator);
+        assertEquals(3, index.sizeExpensive());
+
+        verifyIntPrimitive(index, 5, 1);
+        verifyIntPrimitive(index, -100000, 1);
+        verifyIntPrimitive(index, 6, 0);
+        verifyIntPrimitive(index, 7, 0);
+
+        assertSame(testEvaluator, index.get(5));
+        assertSame(testEvaluator, index.get(7L));
+        assertNull(index.get(7));
+        index.remove(5);
+        index.remove(5);
+        index.remove(-100000);
+        assertNull(index.get(5));
+        assertFalse(index.isEmpty());
+        index.remove(7L);
+        assertTrue(index.isEmpty());
+    }
+
+    public void testLongBoxed() {
+        FilterParamIndexEqualsLong index = new FilterParamIndexEqualsLong(makeLookupable("longBoxed"), new ReentrantReadWriteLock());
+        index.put(Long.MAX_VALUE, testEvaluator);
+        index.put(1L, testEvaluator);
+
+        verifyLongBoxed(index, Long.MAX_VALUE, 1);
+        verifyLongBoxed(index, 1L, 1);
+        verifyLongBoxed(index, 2L, 0);
+        verifyLongBoxed(index, null, 0);
+    }
+
+    public void testDouble() {
+        FilterParamIndexEqualsDouble index = new FilterParamIndexEqualsDouble(makeLookupable("doublePrimitive"), new ReentrantReadWriteLock());
+        index.put(1.5d, testEvaluator);
+        index.put(Double.NaN, testEvaluator);
+        index.put(0d, testEvaluator);
+
+        verifyDoublePrimitive(index, 1.5d, 1);
+        verifyDoublePrimitive(index, 2.5d, 0);
+        verifyDoublePrimitive(index, 0d, 1);
+        // same as Double.equals
+        verifyDoublePrimitive(index, Double.NaN, 1);
+        verifyDoublePrimitive(index, -0d, 0);
+    }
+
+    private void verifyIntPrimitive(FilterParamIndexBase index, int testValue, int numExpected) {
+        testBean.setIntPrimitive(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private void verifyLongBoxed(FilterParamIndexBase index, Long testValue, int numExpected) {
+        testBean.setLongBoxed(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private void verifyDoublePrimitive(FilterParamIndexBase index, double testValue, int numExpected) {
+        testBean.setDoublePrimitive(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private ExprFilterSpecLookupable makeLookupable(String fieldName) {
+        return new ExprFilterSpecLookupable(fieldName, testEventType.getGetter(fieldName), testEventType.getPropertyType(fieldName), false);
+    }
+}
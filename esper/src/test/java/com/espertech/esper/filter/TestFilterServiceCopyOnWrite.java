@@ -0,0 +1,170 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.filterspec.FilterOperator;
+import com.espertech.esper.filterspec.FilterValueSet;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.bean.SupportBeanSimple;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.event.SupportEventTypeFactory;
+import com.espertech.esper.supportunit.filter.SupportFilterHandle;
+import com.espertech.esper.supportunit.filter.SupportFilterSpecBuilder;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class TestFilterServiceCopyOnWrite extends TestCase {
+    private EventType eventTypeOne;
+    private EventType eventTypeTwo;
+    private FilterServiceCopyOnWrite filterService;
+
+    public void setUp() {
+        filterService = new FilterServiceCopyOnWrite(true);
+        eventTypeOne = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        eventTypeTwo = SupportEventTypeFactory.createBeanType(SupportBeanSimple.class);
+    }
+
+    public void testEvaluateBatchedChanges() {
+        List<SupportFilterHandle> handles = new ArrayList<SupportFilterHandle>();
+        for (int i = 0; i < 100; i++) {
+            SupportFilterHandle handle = new SupportFilterHandle();
+            handles.add(handle);
+            filterService.add(makeFilter(eventTypeOne, "theString", FilterOperator.EQUAL, "E" + i), handle);
+        }
+        SupportFilterHandle rangeHandle = new SupportFilterHandle();
+        filterService.add(makeFilter(eventTypeOne, "intPrimitive", FilterOperator.GREATER, 10), rangeHandle);
+        assertEquals(0, filterService.getNumSnapshotsPublished());
+        assertEquals(101, filterService.getFilterCountApprox());
+
+        assertMatches(makeTypeOneEvent("E5", 11), handles.get(5), rangeHandle);
+        assertMatches(makeTypeOneEvent("X", 5));
+        assertEquals(1, filterService.getNumSnapshotsPublished());
+
+        // remove a few, still only one new snapshot
+        long version = filterService.getFiltersVersion();
+        filterService.remove(handles.get(5), null);
+        filterService.remove(handles.get(5), null);
+        filterService.remove(rangeHandle, null);
+        assertTrue(filterService.getFiltersVersion() > version);
+        assertMatches(makeTypeOneEvent("E5", 11));
+        assertMatches(makeTypeOneEvent("E6", 11), handles.get(6));
+        assertEquals(2, filterService.getNumSnapshotsPublished());
+
+        // other types are not affected
+        SupportFilterHandle typeTwoHandle = new SupportFilterHandle();
+        filterService.add(makeFilter(eventTypeTwo, "myString", FilterOperator.EQUAL, "A"), typeTwoHandle);
+        assertMatches(SupportEventBeanFactory.createObject(new SupportBeanSimple("A", 1)), typeTwoHandle);
+        assertMatches(makeTypeOneEvent("E7", 1), handles.get(7));
+        assertEquals(2, filterService.getCountTypes());
+
+        filterService.removeType(eventTypeTwo);
+        assertMatches(SupportEventBeanFactory.createObject(new SupportBeanSimple("A", 1)));
+        assertEquals(1, filterService.getCountTypes());
+    }
+
+    public void testChurnRebuildsBaseAfterPendingChanges() {
+        List<SupportFilterHandle> handles = new ArrayList<SupportFilterHandle>();
+        for (int i = 0; i < 100; i++) {
+            SupportFilterHandle handle = new SupportFilterHandle();
+            handles.add(handle);
+            filterService.add(makeFilter(eventTypeOne, "theString", FilterOperator.EQUAL, "E" + i), handle);
+        }
+        assertMatches(makeTypeOneEvent("E1", 0), handles.get(1));
+        assertEquals(1, filterService.getNumBaseTreesBuilt());
+
+        // changes published one at a time do not rebuild the base tree
+        SupportFilterHandle added = new SupportFilterHandle();
+        filterService.add(makeFilter(eventTypeOne, "theString", FilterOperator.EQUAL, "E1"), added);
+        assertMatches(makeTypeOneEvent("E1", 0), handles.get(1), added);
+        filterService.remove(handles.get(1), null);
+        assertMatches(makeTypeOneEvent("E1", 0), added);
+        filterService.remove(added, null);
+        assertMatches(makeTypeOneEvent("E1", 0));
+
+        // a callback of the base tree that is added again with another filter matches on the new filter only
+        filterService.add(makeFilter(eventTypeOne, "theString", FilterOperator.EQUAL, "X"), handles.get(2));
+        assertMatches(makeTypeOneEvent("E2", 0));
+        assertMatches(makeTypeOneEvent("X", 0), handles.get(2));
+        assertEquals(1, filterService.getNumBaseTreesBuilt());
+
+        // exceeding the pending changes rebuilds the base tree
+        for (int i = 10; i < 10 + FilterServiceCopyOnWrite.MAX_PENDING_CHANGES; i++) {
+            filterService.remove(handles.get(i), null);
+            assertMatches(makeTypeOneEvent("E" + i, 0));
+        }
+        assertEquals(2, filterService.getNumBaseTreesBuilt());
+        assertMatches(makeTypeOneEvent("X", 0), handles.get(2));
+        assertMatches(makeTypeOneEvent("E99", 0), handles.get(99));
+        assertMatches(makeTypeOneEvent("E1", 0));
+    }
+
+    public void testWriteLockBatch() {
+        SupportFilterHandle handleOne = new SupportFilterHandle();
+        SupportFilterHandle handleTwo = new SupportFilterHandle();
+
+        filterService.acquireWriteLock();
+        try {
+            filterService.add(makeFilter(eventTypeOne, "theString", FilterOperator.EQUAL, "A"), handleOne);
+            filterService.add(makeFilter(eventTypeOne, "theString", FilterOperator.EQUAL, "A"), handleTwo);
+        } finally {
+            filterService.releaseWriteLock();
+        }
+
+        assertMatches(makeTypeOneEvent("A", 0), handleOne, handleTwo);
+        assertEquals(1, filterService.getNumSnapshotsPublished());
+    }
+
+    public void testTakeApply() {
+        SupportFilterHandle handleOne = new SupportFilterHandle();
+        SupportFilterHandle handleTwo = new SupportFilterHandle() {
+            public int getStatementId() {
+                return 2;
+            }
+        };
+        filterService.add(makeFilter(eventTypeOne, "theString", FilterOperator.EQUAL, "A"), handleOne);
+        filterService.add(makeFilter(eventTypeOne, "theString", FilterOperator.EQUAL, "A"), handleTwo);
+        assertMatches(makeTypeOneEvent("A", 0), handleOne, handleTwo);
+
+        FilterSet taken = filterService.take(Collections.singleton(2));
+        assertEquals(1, taken.getFilters().size());
+        assertMatches(makeTypeOneEvent("A", 0), handleOne);
+
+        filterService.apply(taken);
+        assertMatches(makeTypeOneEvent("A", 0), handleOne, handleTwo);
+
+        List<FilterHandle> matches = new ArrayList<FilterHandle>();
+        filterService.evaluate(makeTypeOneEvent("A", 0), matches, 2);
+        assertEquals(Collections.<FilterHandle>singletonList(handleTwo), matches);
+    }
+
+    private void assertMatches(EventBean theEvent, FilterHandle... expected) {
+        List<FilterHandle> matches = new ArrayList<FilterHandle>();
+        filterService.evaluate(theEvent, matches);
+        assertEquals(expected.length, matches.size());
+        for (FilterHandle handle : expected) {
+            assertTrue(matches.contains(handle));
+        }
+    }
+
+    private FilterValueSet makeFilter(EventType eventType, String property, FilterOperator operator, Object value) {
+        return SupportFilterSpecBuilder.build(eventType, new Object[]{property, operator, value}).getValueSet(null, null, null, null, null);
+    }
+
+    private EventBean makeTypeOneEvent(String theString, int intPrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        return SupportEventBeanFactory.createObject(bean);
+    }
+}
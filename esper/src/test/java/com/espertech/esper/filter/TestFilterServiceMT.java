@@ -30,6 +30,7 @@ public class TestFilterServiceMT extends TestCase {
     public void testFilterService() throws Exception {
         runAssertionAddRemoveFilter(new FilterServiceLockCoarse(false));
         runAssertionAddRemoveFilter(new FilterServiceLockFine(false));
+        runAssertionAddRemoveFilter(new FilterServiceCopyOnWrite(false));
     }
 
     private void runAssertionAddRemoveFilter(final FilterService service) throws Exception {
@@ -0,0 +1,160 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.supportunit.schedule.SupportScheduleCallback;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestSchedulingServiceTimingWheelImpl extends TestCase {
+    private SchedulingServiceTimingWheelImpl service;
+    private SupportScheduleCallback[] callbacks;
+
+    public void setUp() {
+        service = new SchedulingServiceTimingWheelImpl(new TimeSourceServiceImpl());
+        callbacks = new SupportScheduleCallback[5];
+        for (int i = 0; i < callbacks.length; i++) {
+            callbacks[i] = new SupportScheduleCallback();
+        }
+    }
+
+    public void testTrigger() {
+        service.setTime(0);
+        evaluate();
+
+        service.add(20, callbacks[3], 4);
+        service.add(20, callbacks[2], 3);
+        service.add(20, callbacks[1], 2);
+        service.add(21, callbacks[0], 1);
+        assertTrue(service.isScheduled(callbacks[3]));
+        assertEquals(4, service.getScheduleHandleCount());
+        assertEquals(2, service.getTimeHandleCount());
+        assertEquals(20L, (long) service.getNearestTimeHandle());
+        assertEquals(21L, (long) service.getFurthestTimeHandle());
+
+        service.setTime(19);
+        assertTrue(evaluate().isEmpty());
+
+        service.setTime(20);
+        assertEquals(Arrays.asList(callbacks[1], callbacks[2], callbacks[3]), evaluate());
+        assertFalse(service.isScheduled(callbacks[3]));
+
+        service.setTime(21);
+        assertEquals(Collections.singletonList(callbacks[0]), evaluate());
+        assertNull(service.getNearestTimeHandle());
+
+        // re-adding replaces the schedule, removing twice is fine
+        service.add(20, callbacks[0], 1);
+        service.add(28, callbacks[0], 1);
+        service.remove(callbacks[0], 1);
+        service.remove(callbacks[0], 1);
+        service.add(5, callbacks[1], 2);
+        service.setTime(26);
+        assertEquals(Collections.singletonList(callbacks[1]), evaluate());
+        assertEquals(0, service.getScheduleHandleCount());
+    }
+
+    public void testLargeJumpsAndRewind() {
+        service.setTime(1000);
+        evaluate();
+
+        service.add(1L << 50, callbacks[0], 1);
+        service.add(1L << 30, callbacks[1], 1);
+        service.add(300, callbacks[2], 1);
+        assertEquals(1300L, (long) service.getNearestTimeHandle());
+        assertEquals(1000L + (1L << 50), (long) service.getFurthestTimeHandle());
+
+        service.setTime(1000 + (1L << 40));
+        assertEquals(Arrays.asList(callbacks[2], callbacks[1]), evaluate());
+
+        service.setTime(10);
+        assertTrue(evaluate().isEmpty());
+        assertTrue(service.isScheduled(callbacks[0]));
+        service.add(5, callbacks[3], 1);
+        service.setTime(15);
+        assertEquals(Collections.singletonList(callbacks[3]), evaluate());
+
+        service.setTime(1000 + (1L << 50));
+        assertEquals(Collections.singletonList(callbacks[0]), evaluate());
+    }
+
+    public void testTakeApply() {
+        service.setTime(0);
+        evaluate();
+        service.add(100, callbacks[0], 1);
+        service.add(50, callbacks[1], 2);
+
+        ScheduleSet set = service.take(Collections.singleton(1));
+        assertEquals(0, service.getScheduleHandleCount());
+        assertEquals(2, set.getList().size());
+        assertEquals(50L, (long) set.getList().get(0).getTime());
+
+        service.setTime(10);
+        service.apply(set);
+        service.setTime(60);
+        assertEquals(Collections.singletonList(callbacks[1]), evaluate());
+        service.setTime(110);
+        assertEquals(Collections.singletonList(callbacks[0]), evaluate());
+    }
+
+    public void testRandomAgainstSorted() {
+        Random random = new Random(1234);
+        SchedulingServiceImpl sorted = new SchedulingServiceImpl(new TimeSourceServiceImpl());
+        sorted.setTime(0);
+        sorted.evaluate(new ArrayList<ScheduleHandle>());
+        service.setTime(0);
+        evaluate();
+
+        SupportScheduleCallback[] handles = new SupportScheduleCallback[500];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = new SupportScheduleCallback();
+        }
+        long[] deltaScales = new long[]{1, 10, 300, 20000, 1000000, 1L << 45};
+        // the sorted implementation retains removed times as empty entries, track the furthest time separately
+        Map<ScheduleHandle, Long> scheduled = new HashMap<ScheduleHandle, Long>();
+
+        long time = 0;
+        for (int step = 0; step < 20000; step++) {
+            int action = random.nextInt(10);
+            if (action < 5) {
+                int index = random.nextInt(handles.length);
+                long delta = (long) (random.nextDouble() * deltaScales[random.nextInt(deltaScales.length)]);
+                sorted.add(delta, handles[index], index);
+                service.add(delta, handles[index], index);
+                scheduled.put(handles[index], time + delta);
+            } else if (action < 7) {
+                int index = random.nextInt(handles.length);
+                sorted.remove(handles[index], index);
+                service.remove(handles[index], index);
+                scheduled.remove(handles[index]);
+            } else {
+                time += (long) (random.nextDouble() * deltaScales[random.nextInt(deltaScales.length - 1)]);
+                sorted.setTime(time);
+                service.setTime(time);
+                List<ScheduleHandle> expected = new ArrayList<ScheduleHandle>();
+                sorted.evaluate(expected);
+                assertEquals(expected, evaluate());
+                scheduled.keySet().removeAll(expected);
+            }
+            assertEquals(sorted.getScheduleHandleCount(), service.getScheduleHandleCount());
+            assertEquals(sorted.getNearestTimeHandle(), service.getNearestTimeHandle());
+            assertEquals(scheduled.isEmpty() ? null : Collections.max(scheduled.values()), service.getFurthestTimeHandle());
+        }
+    }
+
+    private List<ScheduleHandle> evaluate() {
+        List<ScheduleHandle> handles = new ArrayList<ScheduleHandle>();
+        service.evaluate(handles);
+        return handles;
+    }
+}
@@ -20,6 +20,7 @@ import com.espertech.esper.view.Viewable;
 
 import java.lang.annotation.Annotation;
 import java.util.Iterator;
+import java.util.Map;
 
 public class SupportEPStatementSPI implements EPStatementSPI {
 
@@ -139,6 +140,10 @@ public class SupportEPStatementSPI implements EPStatementSPI {
         return null;
     }
 
+    public Map<String, Object> getMergedAggregations() {
+        return null;
+    }
+
     public Iterator<EventBean> iterator() {
         return null;
     }
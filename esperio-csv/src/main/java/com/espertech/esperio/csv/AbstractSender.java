@@ -50,6 +50,15 @@ public abstract class AbstractSender {
      */
     public abstract void sendEvent(AbstractSendableEvent theEvent, Map mapToSend, String eventTypeName);
 
+    /**
+     * Send an event.
+     *
+     * @param theEvent          wrapper
+     * @param objectArrayToSend event object
+     * @param eventTypeName     name of event type
+     */
+    public abstract void sendEvent(AbstractSendableEvent theEvent, Object[] objectArrayToSend, String eventTypeName);
+
     /**
      * Indicate that sender should stop.
      */
@@ -162,6 +162,39 @@ public class AdapterInputSource {
         return reader;
     }
 
+    /**
+     * Return the file if this resource was specified as a file, or as a URL or classpath resource that
+     * resolves to a file in the file system, null otherwise. Zip archives are not returned as a file.
+     *
+     * @return file or null if the resource cannot be read as a file
+     */
+    public File getAsFile() {
+        if (file != null) {
+            return file.getName().endsWith("zip") ? null : file;
+        }
+        URL fileUrl = url;
+        if (classpathResource != null) {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            if (classLoader != null) {
+                fileUrl = classLoader.getResource(classpathResource);
+            }
+            if (fileUrl == null) {
+                fileUrl = CSVReader.class.getResource(classpathResource);
+            }
+            if (fileUrl == null) {
+                fileUrl = CSVReader.class.getClassLoader().getResource(classpathResource);
+            }
+        }
+        if (fileUrl == null || !"file".equals(fileUrl.getProtocol()) || fileUrl.toString().endsWith("zip")) {
+            return null;
+        }
+        try {
+            return new File(fileUrl.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
     /**
      * Return true if calling getStream() will return a new InputStream created from the
      * resource, which, assuming that the resource hasn't been changed, will have the same
@@ -0,0 +1,528 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.csv;
+
+import com.espertech.esper.adapter.AdapterState;
+import com.espertech.esper.adapter.InputAdapter;
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.epl.core.engineimport.EngineImportService;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.util.ExecutionPathDebugLog;
+import com.espertech.esper.util.JavaClassHelper;
+import com.espertech.esper.util.SimpleTypeParser;
+import com.espertech.esper.util.SimpleTypeParserFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An event Adapter that uses a CSV file for a source and that is designed for replaying large files.
+ * <p>
+ * The adapter memory-maps the file and tokenizes bytes using {@link CSVMappedTokenizer}, parses each
+ * column using a {@link SimpleTypeParser} chosen once per column and produces object-array rows
+ * for an object-array event type. The file is divided into ranges that parse in parallel, see
+ * {@link CSVInputAdapterSpec#setParserThreads(int)}, while events are sent in the order of the file.
+ * Multiple files can be replayed in timestamp order by passing an adapter per file to an {@link AdapterCoordinator}.
+ * </p>
+ * <p>
+ * The event type must be an object-array event type or must not exist, in which case the adapter
+ * registers an object-array event type from the property types or the property order of the spec.
+ * The input source must be a file, or a URL or classpath resource that resolves to a file.
+ * </p>
+ */
+public class CSVFastInputAdapter extends AbstractCoordinatedAdapter implements InputAdapter {
+    private static final Logger log = LoggerFactory.getLogger(CSVFastInputAdapter.class);
+
+    private static final int BATCH_SIZE = 1024;
+    private static final int QUEUE_CAPACITY = 16;
+
+    private final CSVInputAdapterSpec adapterSpec;
+    private final String eventTypeName;
+    private final Integer eventsPerSec;
+    private File file;
+    private boolean usingTitleRow;
+    private long dataStart;
+    private String[] columnNames;
+    private int[] propertyIndexPerColumn;
+    private SimpleTypeParser[] parserPerColumn;
+    private int timestampColumn = -1;
+    private int numProperties;
+    private ExecutorService executorService;
+
+    private AtomicBoolean cancelled;
+    private List<BlockingQueue<RowBatch>> queues;
+    private int currentRange;
+    private RowBatch currentBatch;
+    private int currentRow;
+    private boolean rowInPass;
+    private long currentTimestamp;
+    private long lastTimestamp = 0;
+    private long totalDelay;
+    private boolean atEOF = false;
+    private boolean isReset = true;
+    private int rowCount = 0;
+
+    /**
+     * Ctor.
+     *
+     * @param epService - provides the engine runtime and services
+     * @param spec      - the parameters for this adapter
+     */
+    public CSVFastInputAdapter(EPServiceProvider epService, CSVInputAdapterSpec spec) {
+        super(epService, spec.isUsingEngineThread(), spec.isUsingExternalTimer(), spec.isUsingTimeSpanEvents());
+
+        adapterSpec = spec;
+        eventTypeName = adapterSpec.geteventTypeName();
+        eventsPerSec = spec.getEventsPerSec();
+
+        if (epService != null) {
+            finishInitialization(epService, spec);
+        }
+    }
+
+    /**
+     * Ctor for adapters that will be passed to an AdapterCoordinator.
+     *
+     * @param adapterSpec contains parameters that specify the behavior of the input adapter
+     */
+    public CSVFastInputAdapter(CSVInputAdapterSpec adapterSpec) {
+        this(null, adapterSpec);
+    }
+
+    /* (non-Javadoc)
+     * @see com.espertech.esperio.ReadableAdapter#read()
+     */
+    public SendableEvent read() throws EPException {
+        if (stateManager.getState() == AdapterState.DESTROYED || atEOF) {
+            return null;
+        }
+
+        if (!eventsToSend.isEmpty()) {
+            SendableEvent theEvent = eventsToSend.first();
+            eventsToSend.remove(theEvent);
+            return theEvent;
+        }
+
+        Object[] row = nextRow();
+        if (row == null) {
+            if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
+                log.debug(".read reached end of CSV file");
+            }
+            atEOF = true;
+            if (stateManager.getState() == AdapterState.STARTED) {
+                stop();
+            } else {
+                destroy();
+            }
+            return null;
+        }
+
+        ++rowCount;
+        boolean isFirstRow = isReset;
+        isReset = false;
+        updateTotalDelay(row, isFirstRow);
+        return new SendableObjectArrayEvent(row, eventTypeName, totalDelay, scheduleSlot);
+    }
+
+    /* (non-Javadoc)
+     * @see com.espertech.esperio.csv.AbstractCoordinatedAdapter#setEPService(com.espertech.esper.client.EPServiceProvider)
+     */
+    @Override
+    public void setEPService(EPServiceProvider epService) {
+        super.setEPService(epService);
+        finishInitialization(epService, adapterSpec);
+    }
+
+    /**
+     * Returns row count.
+     *
+     * @return row count
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Stop parsing and release the parser threads.
+     */
+    protected void close() {
+        stopParsing();
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Remove the first member of eventsToSend. If there is
+     * another record in the CSV file, insert the event created
+     * from it into eventsToSend.
+     */
+    protected void replaceFirstEventToSend() {
+        eventsToSend.remove(eventsToSend.first());
+        SendableEvent theEvent = read();
+        if (theEvent != null) {
+            eventsToSend.add(theEvent);
+        }
+    }
+
+    /**
+     * Reset all the changeable state of this ReadableAdapter, as if it were just created.
+     */
+    protected void reset() {
+        stopParsing();
+        lastTimestamp = 0;
+        totalDelay = 0;
+        atEOF = false;
+        isReset = true;
+    }
+
+    private void finishInitialization(EPServiceProvider epService, CSVInputAdapterSpec spec) {
+        assertValidParameters(epService, spec);
+
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+
+        scheduleSlot = spi.getSchedulingMgmtService().allocateBucket().allocateSlot();
+
+        file = spec.getAdapterInputSource().getAsFile();
+        if (file == null) {
+            throw new EPException("The fast CSV input adapter requires an input source that is a file");
+        }
+
+        String[] firstRow;
+        long afterFirstRow;
+        CSVMappedTokenizer tokenizer = new CSVMappedTokenizer(file, 0, Long.MAX_VALUE);
+        try {
+            firstRow = tokenizer.getNextRecord();
+            afterFirstRow = tokenizer.getPosition();
+        } finally {
+            tokenizer.close();
+        }
+
+        EventType existingType = spi.getEventAdapterService().getExistsTypeByName(eventTypeName);
+        if (existingType != null && !(existingType instanceof ObjectArrayEventType)) {
+            throw new EPException("Event type " + eventTypeName + " is not an object-array event type, the fast CSV input adapter requires an object-array event type");
+        }
+
+        String[] propertyOrder = spec.getPropertyOrder();
+        if (propertyOrder == null) {
+            if (firstRow == null) {
+                throw new EPException("Cannot resolve the order of properties in the CSV file");
+            }
+            Map<String, Object> givenPropertyTypes = existingType != null ? ((ObjectArrayEventType) existingType).getTypes() : spec.getPropertyTypes();
+            propertyOrder = CSVPropertyOrderHelper.resolvePropertyOrder(firstRow, givenPropertyTypes);
+        }
+        usingTitleRow = firstRow != null && new HashSet<String>(Arrays.asList(firstRow)).equals(new HashSet<String>(Arrays.asList(propertyOrder)));
+        dataStart = usingTitleRow ? afterFirstRow : 0;
+
+        columnNames = new String[propertyOrder.length];
+        Map<String, Object> columnTypes = resolveColumnTypes(propertyOrder, spi.getEngineImportService());
+
+        ObjectArrayEventType eventType;
+        if (existingType != null) {
+            eventType = (ObjectArrayEventType) existingType;
+        } else {
+            Map<String, Object> propertyTypes = new LinkedHashMap<String, Object>();
+            if (spec.getPropertyTypes() != null) {
+                for (String column : columnNames) {
+                    if (spec.getPropertyTypes().containsKey(column)) {
+                        propertyTypes.put(column, spec.getPropertyTypes().get(column));
+                    }
+                }
+                propertyTypes.putAll(spec.getPropertyTypes());
+            } else {
+                propertyTypes.putAll(columnTypes);
+            }
+            eventType = (ObjectArrayEventType) spi.getEventAdapterService().addNestableObjectArrayType(eventTypeName, propertyTypes, null, true, true, true, false, false, false, null);
+        }
+
+        Map<String, Integer> indexes = eventType.getPropertiesIndexes();
+        numProperties = indexes.size();
+        propertyIndexPerColumn = new int[columnNames.length];
+        parserPerColumn = new SimpleTypeParser[columnNames.length];
+        timestampColumn = -1;
+        for (int i = 0; i < columnNames.length; i++) {
+            if (columnNames[i].equals(spec.getTimestampColumn())) {
+                timestampColumn = i;
+            }
+            Integer index = indexes.get(columnNames[i]);
+            if (index == null) {
+                // the column is in the file but not part of the event
+                propertyIndexPerColumn[i] = -1;
+                continue;
+            }
+            Class type = eventType.getPropertyType(columnNames[i]);
+            SimpleTypeParser parser = type == null ? null : SimpleTypeParserFactory.getParser(type);
+            if (parser == null) {
+                throw new EPException("Property " + columnNames[i] + " of type " + (type == null ? "null" : type.getName()) + " cannot be parsed by the fast CSV input adapter");
+            }
+            propertyIndexPerColumn[i] = index;
+            parserPerColumn[i] = parser;
+        }
+        if (spec.getTimestampColumn() != null && timestampColumn == -1) {
+            throw new EPException("Timestamp column " + spec.getTimestampColumn() + " is not a column of the CSV file");
+        }
+
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+        final String threadName = "esperio-csv-parser-" + eventTypeName;
+        executorService = Executors.newFixedThreadPool(spec.getParserThreads(), new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    private Map<String, Object> resolveColumnTypes(String[] propertyOrder, EngineImportService engineImportService) {
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < propertyOrder.length; i++) {
+            String name = propertyOrder[i];
+            Class type = String.class;
+            if (name.contains(" ")) {
+                String[] typeAndName = name.split("\\s");
+                try {
+                    type = JavaClassHelper.getClassForName(JavaClassHelper.getBoxedClassName(typeAndName[0]), engineImportService.getClassForNameProvider());
+                    name = typeAndName[1];
+                } catch (Throwable e) {
+                    log.warn("Unable to use given type for property, will default to String: " + propertyOrder[i], e);
+                }
+            }
+            columnNames[i] = name;
+            result.put(name, type);
+        }
+        return result;
+    }
+
+    private Object[] nextRow() {
+        while (true) {
+            if (currentBatch != null) {
+                if (currentRow < currentBatch.count) {
+                    rowInPass = true;
+                    currentTimestamp = currentBatch.timestamps[currentRow];
+                    return currentBatch.rows[currentRow++];
+                }
+                if (currentBatch.last) {
+                    currentRange++;
+                }
+                currentBatch = null;
+            }
+
+            if (queues == null) {
+                startParsing();
+            } else if (currentRange == queues.size()) {
+                if (!adapterSpec.isLooping() || !rowInPass) {
+                    return null;
+                }
+                stopParsing();
+                startParsing();
+                isReset = true;
+                continue;
+            }
+
+            try {
+                currentBatch = queues.get(currentRange).take();
+            } catch (InterruptedException e) {
+                throw new EPException(e);
+            }
+            currentRow = 0;
+            if (currentBatch.failure != null) {
+                Throwable failure = currentBatch.failure;
+                stopParsing();
+                throw failure instanceof EPException ? (EPException) failure : new EPException(failure);
+            }
+        }
+    }
+
+    private void startParsing() {
+        cancelled = new AtomicBoolean();
+        queues = new ArrayList<BlockingQueue<RowBatch>>();
+        currentRange = 0;
+        currentBatch = null;
+        rowInPass = false;
+
+        int numRanges = adapterSpec.getParserThreads();
+        long rangeSize = Math.max(1, (file.length() - dataStart + numRanges - 1) / numRanges);
+        for (int i = 0; i < numRanges; i++) {
+            // the first range starts at the beginning of the file so that it can skip the title row
+            long start = i == 0 ? 0 : dataStart + i * rangeSize;
+            long end = i == numRanges - 1 ? Long.MAX_VALUE : dataStart + (i + 1) * rangeSize;
+            BlockingQueue<RowBatch> queue = new ArrayBlockingQueue<RowBatch>(QUEUE_CAPACITY);
+            queues.add(queue);
+            executorService.execute(new ParseRangeRunnable(start, end, i == 0 && usingTitleRow, queue, cancelled));
+        }
+    }
+
+    private void stopParsing() {
+        if (cancelled != null) {
+            cancelled.set(true);
+        }
+        queues = null;
+        currentBatch = null;
+    }
+
+    private Object[] makeRow(String[] record) {
+        Object[] row = new Object[numProperties];
+        int count = Math.min(record.length, propertyIndexPerColumn.length);
+        for (int i = 0; i < count; i++) {
+            int index = propertyIndexPerColumn[i];
+            if (index == -1) {
+                continue;
+            }
+            try {
+                row[index] = parserPerColumn[i].parse(record[i]);
+            } catch (RuntimeException ex) {
+                throw new EPException("Failed to parse value '" + record[i] + "' for property " + columnNames[i] + ": " + ex.getMessage(), ex);
+            }
+        }
+        return row;
+    }
+
+    private long parseTimestamp(String[] record) {
+        if (timestampColumn >= record.length) {
+            throw new EPException("Couldn't resolve the timestamp for record " + Arrays.asList(record));
+        }
+        try {
+            return Long.parseLong(record[timestampColumn]);
+        } catch (NumberFormatException ex) {
+            throw new EPException("Failed to parse timestamp '" + record[timestampColumn] + "' for record " + Arrays.asList(record), ex);
+        }
+    }
+
+    private void updateTotalDelay(Object[] row, boolean isFirstRow) {
+        if (eventsPerSec != null) {
+            int msecPerEvent = 1000 / eventsPerSec;
+            totalDelay += msecPerEvent;
+        } else if (timestampColumn != -1) {
+            long timestamp = currentTimestamp;
+            if (timestamp < 0) {
+                throw new EPException("Encountered negative timestamp for CSV record : " + Arrays.asList(row));
+            }
+            long timestampDifference;
+            if (timestamp < lastTimestamp) {
+                if (!isFirstRow) {
+                    throw new EPException("Subsequent timestamp " + timestamp + " is smaller than previous timestamp " + lastTimestamp);
+                } else {
+                    timestampDifference = timestamp;
+                }
+            } else {
+                timestampDifference = timestamp - lastTimestamp;
+            }
+            lastTimestamp = timestamp;
+            totalDelay += timestampDifference;
+        }
+    }
+
+    private void assertValidParameters(EPServiceProvider epService, CSVInputAdapterSpec adapterSpec) {
+        if (!(epService instanceof EPServiceProviderSPI)) {
+            throw new IllegalArgumentException("Invalid type of EPServiceProvider");
+        }
+
+        if (adapterSpec.geteventTypeName() == null) {
+            throw new NullPointerException("eventTypeName cannot be null");
+        }
+
+        if (adapterSpec.getAdapterInputSource() == null) {
+            throw new NullPointerException("adapterInputSource cannot be null");
+        }
+
+        if (adapterSpec.getEventsPerSec() != null && (adapterSpec.getEventsPerSec() < 1 || adapterSpec.getEventsPerSec() > 1000)) {
+            throw new IllegalArgumentException("Illegal value of eventsPerSec:" + adapterSpec.getEventsPerSec());
+        }
+
+        if (adapterSpec.getParserThreads() < 1) {
+            throw new IllegalArgumentException("Illegal value of parserThreads:" + adapterSpec.getParserThreads());
+        }
+    }
+
+    private class ParseRangeRunnable implements Runnable {
+        private final long start;
+        private final long end;
+        private final boolean skipTitleRow;
+        private final BlockingQueue<RowBatch> queue;
+        private final AtomicBoolean cancelled;
+
+        ParseRangeRunnable(long start, long end, boolean skipTitleRow, BlockingQueue<RowBatch> queue, AtomicBoolean cancelled) {
+            this.start = start;
+            this.end = end;
+            this.skipTitleRow = skipTitleRow;
+            this.queue = queue;
+            this.cancelled = cancelled;
+        }
+
+        public void run() {
+            if (cancelled.get()) {
+                return;
+            }
+            CSVMappedTokenizer tokenizer = null;
+            RowBatch batch = new RowBatch();
+            try {
+                tokenizer = new CSVMappedTokenizer(file, start, end);
+                if (skipTitleRow) {
+                    tokenizer.getNextRecord();
+                }
+                String[] record;
+                while ((record = tokenizer.getNextRecord()) != null) {
+                    batch.rows[batch.count] = makeRow(record);
+                    if (timestampColumn != -1) {
+                        batch.timestamps[batch.count] = parseTimestamp(record);
+                    }
+                    batch.count++;
+                    if (batch.count == BATCH_SIZE) {
+                        if (!put(batch)) {
+                            return;
+                        }
+                        batch = new RowBatch();
+                    }
+                }
+                batch.last = true;
+            } catch (Throwable t) {
+                batch = new RowBatch();
+                batch.last = true;
+                batch.failure = t;
+            } finally {
+                if (tokenizer != null) {
+                    tokenizer.close();
+                }
+            }
+            put(batch);
+        }
+
+        private boolean put(RowBatch batch) {
+            try {
+                while (!cancelled.get()) {
+                    if (queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // adapter destroyed
+            }
+            return false;
+        }
+    }
+
+    private static class RowBatch {
+        private final Object[][] rows = new Object[BATCH_SIZE][];
+        private final long[] timestamps = new long[BATCH_SIZE];
+        private int count;
+        private boolean last;
+        private Throwable failure;
+    }
+}
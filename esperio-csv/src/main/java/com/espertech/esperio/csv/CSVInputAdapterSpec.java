@@ -24,6 +24,7 @@ public class CSVInputAdapterSpec {
     private String[] propertyOrder;
     private boolean looping;
     private Map<String, Object> propertyTypes;
+    private int parserThreads = 1;
 
     /**
      * Ctor.
@@ -193,4 +194,24 @@ public class CSVInputAdapterSpec {
     public void setUsingTimeSpanEvents(boolean usingTimeSpanEvents) {
         this.usingTimeSpanEvents = usingTimeSpanEvents;
     }
+
+    /**
+     * Returns the number of threads that parse the file in parallel, applicable to {@link CSVFastInputAdapter} only.
+     *
+     * @return number of parser threads
+     */
+    public int getParserThreads() {
+        return parserThreads;
+    }
+
+    /**
+     * Sets the number of threads that parse the file in parallel, applicable to {@link CSVFastInputAdapter} only.
+     * The file is divided into as many ranges of about equal size and the ranges are parsed in parallel,
+     * while events are still sent in the order of the file. Defaults to 1.
+     *
+     * @param parserThreads number of parser threads
+     */
+    public void setParserThreads(int parserThreads) {
+        this.parserThreads = parserThreads;
+    }
 }
@@ -0,0 +1,282 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.csv;
+
+import com.espertech.esper.client.EPException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A tokenizer that reads CSV records from a range of a file by memory-mapping the file and
+ * tokenizing bytes directly, without a {@link java.io.Reader}.
+ * <p>
+ * Follows the same rules as {@link CSVReader}: values are separated by comma, may be enclosed
+ * in double quotes with two double quotes escaping a double quote, whitespace around values is
+ * removed and lines that start with '#' or contain only whitespace are skipped. Values are decoded as UTF-8.
+ * </p>
+ * <p>
+ * The tokenizer returns the records that start within the given range, i.e. the range start is advanced to
+ * the beginning of the next line unless it is the file start, and the last record may extend past the range end.
+ * Adjacent ranges therefore return each record exactly once, provided that quoted values do not contain line breaks.
+ * The file is mapped one window at a time so that files larger than the maximum buffer size can be read.
+ * </p>
+ */
+public class CSVMappedTokenizer {
+    /**
+     * Default size of the mapped window.
+     */
+    public final static int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long end;
+    private final int windowSize;
+    private final List<String> values = new ArrayList<String>();
+
+    private MappedByteBuffer buffer;
+    private long bufferStart;
+    private byte[] value = new byte[256];
+    private int valueLength;
+
+    /**
+     * Ctor.
+     *
+     * @param file       the file to read
+     * @param start      start offset of the range
+     * @param end        end offset of the range (exclusive)
+     * @param windowSize size of the mapped window
+     * @throws EPException if the file cannot be opened or mapped
+     */
+    public CSVMappedTokenizer(File file, long start, long end, int windowSize) throws EPException {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Invalid window size " + windowSize);
+        }
+        this.windowSize = windowSize;
+        try {
+            this.file = new RandomAccessFile(file, "r");
+            this.channel = this.file.getChannel();
+            this.fileSize = channel.size();
+            this.end = Math.min(end, fileSize);
+            if (start > 0 && start < fileSize) {
+                // the record that contains the byte before the start belongs to the preceding range
+                map(start - 1);
+                skipLine();
+            } else {
+                map(Math.min(start, fileSize));
+            }
+        } catch (IOException e) {
+            throw new EPException("Failed to map file '" + file + "': " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param file  the file to read
+     * @param start start offset of the range
+     * @param end   end offset of the range (exclusive)
+     * @throws EPException if the file cannot be opened or mapped
+     */
+    public CSVMappedTokenizer(File file, long start, long end) throws EPException {
+        this(file, start, end, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Returns the next record.
+     *
+     * @return values of the record or null when no further record starts within the range
+     * @throws EPException in case of errors in reading the file or unexpected characters
+     */
+    public String[] getNextRecord() throws EPException {
+        try {
+            while (getPosition() < end) {
+                int c = read();
+                if (c == -1) {
+                    return null;
+                }
+                if (c == '#') {
+                    skipLine();
+                    continue;
+                }
+                String[] record = readRecord(c);
+                if (record != null) {
+                    return record;
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new EPException(e);
+        }
+    }
+
+    /**
+     * Returns the file offset of the next byte to read.
+     *
+     * @return offset
+     */
+    public long getPosition() {
+        return bufferStart + buffer.position();
+    }
+
+    /**
+     * Returns the file size.
+     *
+     * @return size in bytes
+     */
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Close the file.
+     */
+    public void close() {
+        try {
+            file.close();
+        } catch (IOException e) {
+            throw new EPException(e);
+        }
+    }
+
+    private String[] readRecord(int first) throws IOException {
+        values.clear();
+        valueLength = 0;
+        int trailingSpaces = 0;
+        boolean quoted = false;
+        int c = first;
+        while (true) {
+            if (c == -1 || c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    skipNewlineAfterReturn();
+                }
+                if (valueLength > 0 || quoted) {
+                    values.add(valueString(trailingSpaces));
+                } else if (!values.isEmpty()) {
+                    values.add("");
+                }
+                // no values means that this line was just whitespace
+                return values.isEmpty() ? null : values.toArray(new String[values.size()]);
+            }
+
+            if (c == ',') {
+                values.add(valueString(trailingSpaces));
+                valueLength = 0;
+                trailingSpaces = 0;
+                quoted = false;
+            } else if (c == ' ' || c == '\t') {
+                if (valueLength > 0 && !quoted) {
+                    append(c);
+                    trailingSpaces++;
+                }
+            } else if (c == '"') {
+                if (valueLength > 0 || quoted) {
+                    throw unexpectedCharacterException(c);
+                }
+                readQuoted();
+                quoted = true;
+            } else {
+                if (quoted) {
+                    throw unexpectedCharacterException(c);
+                }
+                append(c);
+                trailingSpaces = 0;
+            }
+            c = read();
+        }
+    }
+
+    private void readQuoted() throws IOException {
+        // enclosing quotes and quotes used to escape other quotes are discarded
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new EPException("Encountered end-of-file within a quoted value");
+            }
+            if (c == '"') {
+                c = read();
+                if (c != '"') {
+                    unread(c);
+                    return;
+                }
+            }
+            append(c);
+        }
+    }
+
+    private String valueString(int trailingSpaces) {
+        return new String(value, 0, valueLength - trailingSpaces, StandardCharsets.UTF_8);
+    }
+
+    private void append(int c) {
+        if (valueLength == value.length) {
+            byte[] larger = new byte[value.length * 2];
+            System.arraycopy(value, 0, larger, 0, valueLength);
+            value = larger;
+        }
+        value[valueLength++] = (byte) c;
+    }
+
+    private void skipLine() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1 || c == '\n') {
+                return;
+            }
+            if (c == '\r') {
+                skipNewlineAfterReturn();
+                return;
+            }
+        }
+    }
+
+    private void skipNewlineAfterReturn() throws IOException {
+        int c = read();
+        if (c != '\n') {
+            unread(c);
+        }
+    }
+
+    private int read() throws IOException {
+        if (!buffer.hasRemaining()) {
+            long next = bufferStart + buffer.limit();
+            if (next >= fileSize) {
+                return -1;
+            }
+            map(next);
+        }
+        return buffer.get() & 0xff;
+    }
+
+    private void unread(int c) {
+        // a window always starts with the byte read after mapping, so the position is not at zero
+        if (c != -1) {
+            buffer.position(buffer.position() - 1);
+        }
+    }
+
+    private void map(long position) throws IOException {
+        long size = Math.min(windowSize, fileSize - position);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        bufferStart = position;
+    }
+
+    private EPException unexpectedCharacterException(int unexpected) {
+        return new EPException("Encountered unexpected character " + (char) unexpected);
+    }
+}
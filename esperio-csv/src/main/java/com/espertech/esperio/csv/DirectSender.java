@@ -25,6 +25,10 @@ public class DirectSender extends AbstractSender {
         runtime.sendEvent(mapToSend, eventTypeName);
     }
 
+    public void sendEvent(AbstractSendableEvent theEvent, Object[] objectArrayToSend, String eventTypeName) {
+        runtime.sendEvent(objectArrayToSend, eventTypeName);
+    }
+
     public void onFinish() {
         // do nothing
     }
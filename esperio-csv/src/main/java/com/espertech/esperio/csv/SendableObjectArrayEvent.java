@@ -0,0 +1,47 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.csv;
+
+import java.util.Arrays;
+
+/**
+ * An implementation of SendableEvent that wraps an object-array event for
+ * sending into the runtime.
+ */
+public class SendableObjectArrayEvent extends AbstractSendableEvent {
+    private final Object[] objectArrayToSend;
+    private final String eventTypeName;
+
+    /**
+     * Ctor.
+     *
+     * @param objectArrayToSend - the object array to send into the runtime
+     * @param eventTypeName     - the event type name for the object-array event
+     * @param timestamp         - the timestamp for this event
+     * @param scheduleSlot      - the schedule slot for the entity that created this event
+     */
+    public SendableObjectArrayEvent(Object[] objectArrayToSend, String eventTypeName, long timestamp, long scheduleSlot) {
+        super(timestamp, scheduleSlot);
+        this.objectArrayToSend = objectArrayToSend;
+        this.eventTypeName = eventTypeName;
+    }
+
+    /* (non-Javadoc)
+     * @see com.espertech.esperio.csv.SendableEvent#send(com.espertech.esper.client.EPRuntime)
+     */
+    public void send(AbstractSender sender) {
+        sender.sendEvent(this, objectArrayToSend, eventTypeName);
+    }
+
+    public String toString() {
+        return Arrays.toString(objectArrayToSend);
+    }
+}
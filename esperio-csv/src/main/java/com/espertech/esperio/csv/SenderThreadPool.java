@@ -67,4 +67,18 @@ public class SenderThreadPool extends DirectSender {
             }
         });
     }
+
+    /**
+     * Send an event.
+     *
+     * @param objectArrayToSend event to send
+     * @param eventTypeName     name of event type
+     */
+    public void sendEvent(final Object[] objectArrayToSend, final String eventTypeName) {
+        executorService.execute(new Runnable() {
+            public void run() {
+                runtime.sendEvent(objectArrayToSend, eventTypeName);
+            }
+        });
+    }
 }
@@ -0,0 +1,232 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.regression.adapter;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.client.time.TimerControlEvent;
+import com.espertech.esperio.csv.*;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestCSVFastInputAdapter extends TestCase {
+    private EPServiceProvider epService;
+    private List<File> files = new ArrayList<File>();
+
+    protected void setUp() {
+        Configuration config = new Configuration();
+        config.addEventType("PriceEvent", new String[]{"timestamp", "symbol", "price"}, new Object[]{Long.class, String.class, Double.class});
+        config.addEventType("TradeEvent", new String[]{"timestamp", "symbol", "notional"}, new Object[]{Long.class, String.class, Double.class});
+        Map<String, Object> mapProps = new HashMap<String, Object>();
+        mapProps.put("symbol", String.class);
+        config.addEventType("MapEvent", mapProps);
+        epService = EPServiceProviderManager.getProvider(TestCSVFastInputAdapter.class.getSimpleName(), config);
+        epService.initialize();
+        epService.getEPRuntime().sendEvent(new TimerControlEvent(TimerControlEvent.ClockType.CLOCK_EXTERNAL));
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+    }
+
+    protected void tearDown() {
+        epService.destroy();
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    public void testTokenizer() throws Exception {
+        String text = "# comment, not a record\n" +
+                "a, b ,\"c \"\"q\"\"\" , ,\n" +
+                "  \t\n" +
+                "x,\"y,z\"\r\n" +
+                "\u00e9t\u00e9,\"\"\n" +
+                "last";
+        File file = writeFile(text);
+        String[][] expected = new String[][]{{"a", "b", "c \"q\"", "", ""}, {"x", "y,z"}, {"\u00e9t\u00e9", ""}, {"last"}};
+
+        // window sizes that are smaller than a record map the file multiple times
+        for (int windowSize : new int[]{1, 2, 3, 7, CSVMappedTokenizer.DEFAULT_WINDOW_SIZE}) {
+            CSVMappedTokenizer tokenizer = new CSVMappedTokenizer(file, 0, Long.MAX_VALUE, windowSize);
+            for (String[] record : expected) {
+                EPAssertionUtil.assertEqualsExactOrder(record, tokenizer.getNextRecord());
+            }
+            assertNull(tokenizer.getNextRecord());
+            tokenizer.close();
+        }
+
+        assertInvalidRecord("a\"b\"\n", "Encountered unexpected character \"");
+        assertInvalidRecord("\"a\"b\n", "Encountered unexpected character b");
+        assertInvalidRecord("\"ab\n", "Encountered end-of-file within a quoted value");
+    }
+
+    public void testTokenizerRanges() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            text.append(i).append(",value").append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        File file = writeFile(text.toString());
+
+        // each record is returned by exactly one of two adjacent ranges, for any boundary
+        for (int boundary = 0; boundary <= file.length(); boundary++) {
+            List<String[]> records = new ArrayList<String[]>();
+            readRange(file, 0, boundary, records);
+            readRange(file, boundary, Long.MAX_VALUE, records);
+            assertEquals("failed for boundary " + boundary, 50, records.size());
+            for (int i = 0; i < 50; i++) {
+                EPAssertionUtil.assertEqualsExactOrder(new String[]{Integer.toString(i), "value" + i}, records.get(i));
+            }
+        }
+    }
+
+    public void testReplayParallel() throws Exception {
+        int numRows = 10000;
+        StringBuilder text = new StringBuilder("timestamp,symbol,volume,price\n");
+        for (int i = 0; i < numRows; i++) {
+            text.append(i).append(",S").append(i % 10).append(',').append(i * 2).append(',').append(i * 0.5).append('\n');
+        }
+        File file = writeFile(text.toString());
+
+        Map<String, Object> propertyTypes = new HashMap<String, Object>();
+        propertyTypes.put("timestamp", Long.class);
+        propertyTypes.put("symbol", String.class);
+        propertyTypes.put("price", Double.class);
+
+        for (int parserThreads : new int[]{1, 4}) {
+            String eventTypeName = "Tick" + parserThreads;
+            CSVInputAdapterSpec spec = new CSVInputAdapterSpec(new AdapterInputSource(file), eventTypeName);
+            spec.setPropertyTypes(propertyTypes);
+            spec.setTimestampColumn("timestamp");
+            spec.setUsingExternalTimer(true);
+            spec.setParserThreads(parserThreads);
+            CSVFastInputAdapter adapter = new CSVFastInputAdapter(epService, spec);
+
+            EventType eventType = epService.getEPAdministrator().getConfiguration().getEventType(eventTypeName);
+            assertEquals(Object[].class, eventType.getUnderlyingType());
+            assertNull(eventType.getPropertyType("volume"));
+
+            SupportUpdateListener listener = new SupportUpdateListener();
+            epService.getEPAdministrator().createEPL("select * from " + eventTypeName).addListener(listener);
+            adapter.start();
+
+            EventBean[] events = listener.getNewDataListFlattened();
+            assertEquals(numRows, events.length);
+            for (int i = 0; i < numRows; i++) {
+                assertEquals((long) i, events[i].get("timestamp"));
+                assertEquals("S" + (i % 10), events[i].get("symbol"));
+                assertEquals(i * 0.5, events[i].get("price"));
+            }
+            assertEquals(numRows, adapter.getRowCount());
+            assertEquals(numRows - 1, epService.getEPRuntime().getCurrentTime());
+            epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        }
+    }
+
+    public void testCoordinated() throws Exception {
+        CSVInputAdapterSpec inputPricesSpec = new CSVInputAdapterSpec(new AdapterInputSource("regression/csvtest_timestamp_prices.csv"), "PriceEvent");
+        inputPricesSpec.setTimestampColumn("timestamp");
+        CSVFastInputAdapter inputPrices = new CSVFastInputAdapter(inputPricesSpec);
+
+        CSVInputAdapterSpec inputTradesSpec = new CSVInputAdapterSpec(new AdapterInputSource("regression/csvtest_timestamp_trades.csv"), "TradeEvent");
+        inputTradesSpec.setTimestampColumn("timestamp");
+        CSVFastInputAdapter inputTrades = new CSVFastInputAdapter(inputTradesSpec);
+
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select symbol from PriceEvent").addListener(listener);
+        epService.getEPAdministrator().createEPL("select symbol from TradeEvent").addListener(listener);
+
+        AdapterCoordinator coordinator = new AdapterCoordinatorImpl(epService, true);
+        coordinator.coordinate(inputPrices);
+        coordinator.coordinate(inputTrades);
+        coordinator.start();
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(400));
+        assertFalse(listener.isInvoked());
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(1000));
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), new String[]{"symbol"}, new Object[][]{{"IBM"}, {"IBM"}});
+        listener.reset();
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(2000));
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), new String[]{"symbol"}, new Object[][]{{"MSFT"}});
+        assertEquals("PriceEvent", listener.getLastNewData()[0].getEventType().getName());
+        listener.reset();
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(3000));
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), new String[]{"symbol"}, new Object[][]{{"MSFT"}});
+        assertEquals("TradeEvent", listener.getLastNewData()[0].getEventType().getName());
+    }
+
+    public void testInvalid() throws Exception {
+        File file = writeFile("symbol\nIBM\n");
+
+        CSVInputAdapterSpec spec = new CSVInputAdapterSpec(new AdapterInputSource(file), "MapEvent");
+        tryInvalid(spec, "Event type MapEvent is not an object-array event type, the fast CSV input adapter requires an object-array event type");
+
+        spec = new CSVInputAdapterSpec(new AdapterInputSource(new ByteArrayInputStream("symbol\nIBM\n".getBytes())), "StreamEvent");
+        tryInvalid(spec, "The fast CSV input adapter requires an input source that is a file");
+
+        spec = new CSVInputAdapterSpec(new AdapterInputSource(file), "NoTimestampEvent");
+        spec.setTimestampColumn("timestamp");
+        tryInvalid(spec, "Timestamp column timestamp is not a column of the CSV file");
+    }
+
+    private void tryInvalid(CSVInputAdapterSpec spec, String message) {
+        try {
+            new CSVFastInputAdapter(epService, spec);
+            fail();
+        } catch (EPException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+    }
+
+    private void assertInvalidRecord(String text, String message) throws IOException {
+        CSVMappedTokenizer tokenizer = new CSVMappedTokenizer(writeFile(text), 0, Long.MAX_VALUE);
+        try {
+            tokenizer.getNextRecord();
+            fail();
+        } catch (EPException ex) {
+            assertEquals(message, ex.getMessage());
+        } finally {
+            tokenizer.close();
+        }
+    }
+
+    private void readRange(File file, long start, long end, List<String[]> records) {
+        CSVMappedTokenizer tokenizer = new CSVMappedTokenizer(file, start, end, 5);
+        String[] record;
+        while ((record = tokenizer.getNextRecord()) != null) {
+            records.add(record);
+        }
+        tokenizer.close();
+    }
+
+    private File writeFile(String text) throws IOException {
+        File file = File.createTempFile(TestCSVFastInputAdapter.class.getSimpleName(), ".csv");
+        files.add(file);
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+}
@@ -10,6 +10,7 @@
  */
 package com.espertech.esperio.db;
 
+import com.espertech.esper.adapter.BaseSubscription;
 import com.espertech.esper.client.ConfigurationException;
 import com.espertech.esper.client.EPServiceProviderManager;
 import com.espertech.esper.client.EventPropertyGetter;
@@ -24,17 +25,27 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 public class EsperIODBAdapter {
     private final static Logger log = LoggerFactory.getLogger(EsperIODBAdapter.class);
 
+    private final static int DEFAULT_BATCH_MAX_INFLIGHT = 4;
+
     private final ConfigurationDBAdapter config;
     private final String engineURI;
 
     private DatabaseConfigServiceImpl databaseConfigSvc;
     private ExecutorServices executorFactory;
+    private final List<EsperIODBBatchSubscription> batchSubscriptions = new ArrayList<EsperIODBBatchSubscription>();
+    private ScheduledExecutorService flushService;
 
     /**
      * Quickstart constructor.
@@ -71,7 +82,7 @@ public class EsperIODBAdapter {
             RunnableUpsertFactory upsertFactory = getUpsertFactory(engineSPI, upsert, databaseConfigSvc);
 
             try {
-                EsperIODBBaseSubscription subs = new EsperIODBBaseSubscription(upsertFactory, executorFactory.getConfiguredExecutor(upsert.getExecutorName()));
+                BaseSubscription subs = makeSubscription(upsertFactory, upsertFactory, upsert.getExecutorName(), upsert.getBatchSize(), upsert.getBatchFlushIntervalSec(), upsert.getBatchMaxInFlight());
                 subs.seteventTypeName(upsert.getStream());
                 subs.setSubscriptionName(upsertFactory.getContext().getName());
                 subs.registerAdapter(engineSPI);
@@ -85,7 +96,7 @@ public class EsperIODBAdapter {
             RunnableDMLFactory dmlFactory = getDMLFactory(engineSPI, dml, databaseConfigSvc);
 
             try {
-                EsperIODBBaseSubscription subs = new EsperIODBBaseSubscription(dmlFactory, executorFactory.getConfiguredExecutor(dml.getExecutorName()));
+                BaseSubscription subs = makeSubscription(dmlFactory, dmlFactory, dml.getExecutorName(), dml.getBatchSize(), dml.getBatchFlushIntervalSec(), dml.getBatchMaxInFlight());
                 subs.seteventTypeName(dml.getStream());
                 subs.setSubscriptionName(dmlFactory.getContext().getName());
                 subs.registerAdapter(engineSPI);
@@ -99,6 +110,41 @@ public class EsperIODBAdapter {
         }
     }
 
+    private BaseSubscription makeSubscription(RunnableFactory runnableFactory, RunnableBatchFactory batchFactory, String executorName, Integer batchSize, Double batchFlushIntervalSec, Integer batchMaxInFlight) {
+        java.util.concurrent.Executor executor = executorFactory.getConfiguredExecutor(executorName);
+        if (batchSize == null) {
+            return new EsperIODBBaseSubscription(runnableFactory, executor);
+        }
+        if (batchSize < 1) {
+            throw new ConfigurationException("Invalid batch size " + batchSize + ", the batch size must be a positive number");
+        }
+        int maxInFlight = batchMaxInFlight == null ? DEFAULT_BATCH_MAX_INFLIGHT : batchMaxInFlight;
+        if (maxInFlight < 1) {
+            throw new ConfigurationException("Invalid maximum number of in-flight batches " + maxInFlight + ", the number must be a positive number");
+        }
+
+        final EsperIODBBatchSubscription subs = new EsperIODBBatchSubscription(batchFactory, executor, batchSize, maxInFlight);
+        batchSubscriptions.add(subs);
+        if (batchFlushIntervalSec != null && batchFlushIntervalSec > 0) {
+            if (flushService == null) {
+                flushService = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "esperio-db-batch-flush-" + engineURI);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+            long interval = Math.max(1, (long) (batchFlushIntervalSec * 1000));
+            flushService.scheduleWithFixedDelay(new Runnable() {
+                public void run() {
+                    subs.flush();
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        return subs;
+    }
+
     private RunnableUpsertFactory getUpsertFactory(EPServiceProviderSPI engineSPI, UpsertQuery upsert, DatabaseConfigServiceImpl databaseConfigSvc) {
         String upsertName = upsert.getName();
         if (upsertName == null) {
@@ -209,6 +255,16 @@ public class EsperIODBAdapter {
             log.debug("Destroying Esper DB Adapter");
         }
 
+        // write the events of partial batches before the executors shut down
+        if (flushService != null) {
+            flushService.shutdownNow();
+            flushService = null;
+        }
+        for (EsperIODBBatchSubscription subs : batchSubscriptions) {
+            subs.flush();
+        }
+        batchSubscriptions.clear();
+
         executorFactory.destroy();
     }
 }
@@ -158,6 +158,9 @@ public class ConfigurationDBAdapterParser {
         String executorName = getOptionalAttribute(parentNode, "executor-name");
         String retry = getOptionalAttribute(parentNode, "retry");
         String retryInterval = getOptionalAttribute(parentNode, "retry-interval-sec");
+        String batchSize = getOptionalAttribute(parentNode, "batch-size");
+        String batchFlushInterval = getOptionalAttribute(parentNode, "batch-flush-interval-sec");
+        String batchMaxInFlight = getOptionalAttribute(parentNode, "batch-max-inflight");
         List<BindingParameter> bindings = new ArrayList<BindingParameter>();
 
         String sql = null;
@@ -175,6 +178,9 @@ public class ConfigurationDBAdapterParser {
         dmlQuery.setExecutorName(executorName);
         dmlQuery.setRetry(retry == null ? null : Integer.parseInt(retry));
         dmlQuery.setRetryIntervalSec(retryInterval == null ? null : Double.parseDouble(retryInterval));
+        dmlQuery.setBatchSize(batchSize == null ? null : Integer.parseInt(batchSize));
+        dmlQuery.setBatchFlushIntervalSec(batchFlushInterval == null ? null : Double.parseDouble(batchFlushInterval));
+        dmlQuery.setBatchMaxInFlight(batchMaxInFlight == null ? null : Integer.parseInt(batchMaxInFlight));
         dmlQuery.setStream(stream);
         dmlQuery.setConnection(connection);
         dmlQuery.setSql(sql);
@@ -194,6 +200,9 @@ public class ConfigurationDBAdapterParser {
         String executorName = getOptionalAttribute(parentNode, "executor-name");
         String retry = getOptionalAttribute(parentNode, "retry");
         String retryInterval = getOptionalAttribute(parentNode, "retry-interval-sec");
+        String batchSize = getOptionalAttribute(parentNode, "batch-size");
+        String batchFlushInterval = getOptionalAttribute(parentNode, "batch-flush-interval-sec");
+        String batchMaxInFlight = getOptionalAttribute(parentNode, "batch-max-inflight");
         String tableName = getRequiredAttribute(parentNode, "table-name");
         List<Column> keys = new ArrayList<Column>();
         List<Column> values = new ArrayList<Column>();
@@ -220,6 +229,9 @@ public class ConfigurationDBAdapterParser {
         upsertQuery.setKeys(keys);
         upsertQuery.setValues(values);
         upsertQuery.setRetryIntervalSec(retryInterval == null ? null : Double.parseDouble(retryInterval));
+        upsertQuery.setBatchSize(batchSize == null ? null : Integer.parseInt(batchSize));
+        upsertQuery.setBatchFlushIntervalSec(batchFlushInterval == null ? null : Double.parseDouble(batchFlushInterval));
+        upsertQuery.setBatchMaxInFlight(batchMaxInFlight == null ? null : Integer.parseInt(batchMaxInFlight));
         configuration.getUpsertQueries().add(upsertQuery);
     }
 
@@ -22,6 +22,9 @@ public class UpsertQuery {
     private String executorName;
     private Integer retry;
     private Double retryIntervalSec;
+    private Integer batchSize;
+    private Double batchFlushIntervalSec;
+    private Integer batchMaxInFlight;
 
     private List<Column> keys;
     private List<Column> values;
@@ -102,4 +105,28 @@ public class UpsertQuery {
     public void setRetryIntervalSec(Double retryIntervalSec) {
         this.retryIntervalSec = retryIntervalSec;
     }
-}
\ No newline at end of file
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Double getBatchFlushIntervalSec() {
+        return batchFlushIntervalSec;
+    }
+
+    public void setBatchFlushIntervalSec(Double batchFlushIntervalSec) {
+        this.batchFlushIntervalSec = batchFlushIntervalSec;
+    }
+
+    public Integer getBatchMaxInFlight() {
+        return batchMaxInFlight;
+    }
+
+    public void setBatchMaxInFlight(Integer batchMaxInFlight) {
+        this.batchMaxInFlight = batchMaxInFlight;
+    }
+}
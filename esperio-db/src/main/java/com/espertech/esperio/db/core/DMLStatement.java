@@ -18,6 +18,7 @@ import org.slf4j.LoggerFactory;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Map;
 
 public class DMLStatement {
@@ -61,4 +62,36 @@ public class DMLStatement {
             }
         }
     }
+
+    public void executeBatch(Connection connection, List<EventBean> eventBeans) {
+        PreparedStatement statement = null;
+        try {
+            if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
+                log.debug("Executing batch of " + eventBeans.size() + " rows '" + dmlSQL + ")");
+            }
+            statement = connection.prepareStatement(dmlSQL);
+            for (EventBean eventBean : eventBeans) {
+                for (Map.Entry<Integer, BindingEntry> entry : bindings.entrySet()) {
+                    Object value = entry.getValue().getGetter().get(eventBean);
+                    statement.setObject(entry.getKey(), value);
+                }
+                statement.addBatch();
+            }
+
+            int[] rows = statement.executeBatch();
+            if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
+                log.debug("Batch execution yielded " + rows.length + " row counts");
+            }
+        } catch (SQLException ex) {
+            String message = "Failed to invoke : " + dmlSQL + " :" + ex.getMessage();
+            log.error(message, ex);
+            storeExceptionHandler.handle(message, ex);
+            throw new StoreExceptionDBRel(message, ex);
+        } finally {
+            try {
+                if (statement != null) statement.close();
+            } catch (SQLException e) {
+            }
+        }
+    }
 }
@@ -0,0 +1,109 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.db.core;
+
+import com.espertech.esper.adapter.BaseSubscription;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.filter.FilterHandleCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Subscription that accumulates events into batches and hands each batch to the executor when the batch size is reached
+ * or when flushed, such as by the flush interval.
+ * <p>
+ * The number of batches handed to the executor and not yet completed is bounded. When the bound is reached the thread
+ * that delivers events, or that flushes, waits for a batch to complete.
+ * </p>
+ */
+public class EsperIODBBatchSubscription extends BaseSubscription {
+    private final static Logger log = LoggerFactory.getLogger(EsperIODBBatchSubscription.class);
+
+    private final RunnableBatchFactory runnableFactory;
+    private final Executor executor;
+    private final int batchSize;
+    private final Semaphore inFlight;
+
+    private List<EventBean> batch;
+
+    public EsperIODBBatchSubscription(RunnableBatchFactory runnableFactory, Executor executor, int batchSize, int maxInFlight) {
+        this.runnableFactory = runnableFactory;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.batch = new ArrayList<EventBean>(batchSize);
+    }
+
+    public void matchFound(EventBean theEvent, Collection<FilterHandleCallback> allStmtMatches) {
+        List<EventBean> full = null;
+        synchronized (this) {
+            batch.add(theEvent);
+            if (batch.size() >= batchSize) {
+                full = batch;
+                batch = new ArrayList<EventBean>(batchSize);
+            }
+        }
+        if (full != null) {
+            submit(full);
+        }
+    }
+
+    /**
+     * Hand the events accumulated so far to the executor.
+     */
+    public void flush() {
+        List<EventBean> pending;
+        synchronized (this) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            pending = batch;
+            batch = new ArrayList<EventBean>(batchSize);
+        }
+        submit(pending);
+    }
+
+    public boolean isSubSelect() {
+        return false;
+    }
+
+    public int getStatementId() {
+        return -1;
+    }
+
+    private void submit(List<EventBean> events) {
+        final Runnable runnable = runnableFactory.makeBatchRunnable(events);
+        inFlight.acquireUninterruptibly();
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        runnable.run();
+                    } catch (Throwable t) {
+                        log.error("Error executing database action:" + t.getMessage(), t);
+                    } finally {
+                        inFlight.release();
+                    }
+                }
+            });
+        } catch (RuntimeException ex) {
+            // the executor rejected the batch, such as when shut down
+            inFlight.release();
+            log.error("Error executing database action:" + ex.getMessage(), ex);
+        }
+    }
+}
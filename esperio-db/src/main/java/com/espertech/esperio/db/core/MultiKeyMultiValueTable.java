@@ -18,6 +18,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -358,6 +359,103 @@ public class MultiKeyMultiValueTable {
         }
     }
 
+    /**
+     * Update rows as a batch, and insert as a batch the rows that were not found.
+     * The keys must be unique among the rows.
+     *
+     * @param connection db connection
+     * @param keys       key values per row
+     * @param values     column values per row
+     * @throws StoreExceptionDBRel failed operation
+     */
+    public void updateInsertBatch(Connection connection, List<Object[]> keys, List<Object[]> values) throws StoreExceptionDBRel {
+        int[] updated = runUpdateBatch(connection, updateSQL, keys, values);
+
+        List<Object[]> insertKeys = new ArrayList<Object[]>();
+        List<Object[]> insertValues = new ArrayList<Object[]>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == Statement.SUCCESS_NO_INFO) {
+                // the driver does not report the update count, fall back to update-insert of the row
+                updateInsertValue(connection, keys.get(i), values.get(i));
+            } else if (updated[i] == 0) {
+                insertKeys.add(keys.get(i));
+                insertValues.add(values.get(i));
+            }
+        }
+        if (!insertKeys.isEmpty()) {
+            runInsertBatch(connection, insertSQL, insertKeys, insertValues);
+        }
+    }
+
+    private int[] runUpdateBatch(Connection connection, String query, List<Object[]> keys, List<Object[]> values) {
+        PreparedStatement statement = null;
+        try {
+            if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
+                log.debug("Executing query '" + query + "' for a batch of " + keys.size() + " rows");
+            }
+            statement = connection.prepareStatement(query);
+            for (int row = 0; row < keys.size(); row++) {
+                int index = 1;
+                for (Object value : values.get(row)) {
+                    statement.setObject(index, value);
+                    index++;
+                }
+                for (Object key : keys.get(row)) {
+                    statement.setObject(index, key);
+                    index++;
+                }
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        } catch (SQLException ex) {
+            String message = "Failed to invoke : " + query + " :" + ex.getMessage();
+            log.error(message, ex);
+            storeExceptionHandler.handle(message, ex);
+            throw new StoreExceptionDBRel(message, ex);
+        } finally {
+            try {
+                if (statement != null) statement.close();
+            } catch (SQLException e) {
+            }
+        }
+    }
+
+    private void runInsertBatch(Connection connection, String query, List<Object[]> keys, List<Object[]> values) {
+        PreparedStatement statement = null;
+        try {
+            if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
+                log.debug("Executing query '" + query + "' for a batch of " + keys.size() + " rows");
+            }
+            statement = connection.prepareStatement(query);
+            for (int row = 0; row < keys.size(); row++) {
+                int index = 1;
+                for (Object key : keys.get(row)) {
+                    statement.setObject(index, key);
+                    index++;
+                }
+                for (Object value : values.get(row)) {
+                    statement.setObject(index, value);
+                    index++;
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        } catch (SQLException ex) {
+            String message = "Failed to invoke : " + query + " :" + ex.getMessage();
+            if ((ex.getSQLState() != null) && (ex.getSQLState().equals("23000"))) {
+                throw new StoreExceptionDBDuplicateRow(message, ex);
+            }
+            log.error(message, ex);
+            storeExceptionHandler.handle(message, ex);
+            throw new StoreExceptionDBRel(message, ex);
+        } finally {
+            try {
+                if (statement != null) statement.close();
+            } catch (SQLException e) {
+            }
+        }
+    }
+
     private boolean runDelete(Connection connection, String query, Object[] keys) {
         PreparedStatement statement = null;
         try {
@@ -0,0 +1,94 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.db.core;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.db.DatabaseConfigException;
+import com.espertech.esper.util.ExecutionPathDebugLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+public class RunnableDMLBatch implements Runnable {
+    private final static Logger log = LoggerFactory.getLogger(RunnableDMLBatch.class);
+
+    private final RunnableDMLContext context;
+    private final List<EventBean> events;
+
+    public RunnableDMLBatch(RunnableDMLContext context, List<EventBean> events) {
+        this.context = context;
+        this.events = events;
+    }
+
+    public void run() {
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled() && (ExecutionPathDebugLog.isTimerDebugEnabled))) {
+            log.debug("Executing DML batch work unit for " + events.size() + " events");
+        }
+
+        int retryMax = context.getRetry() == null ? 1 : context.getRetry();
+        int retryCount = 0;
+
+        while (true) {
+            try {
+                tryDMLBatch();
+                break;
+            } catch (Throwable t) {
+                log.error("Error in DML batch named '" + context.getName() + "' :" + t.getMessage(), t);
+                retryCount++;
+                if (retryCount >= retryMax) {
+                    log.warn("Failed DML batch named '" + context.getName() + "', retry count reached, " + events.size() + " events not written");
+                    break;
+                }
+                if ((context.getRetryWait() != null) && (context.getRetryWait() > 0)) {
+                    long interval = (long) (context.getRetryWait() * 1000);
+                    log.warn("Retry DML batch named '" + context.getName() + "', retry interval msec " + interval + " retry count " + retryCount + " max " + retryMax);
+                    try {
+                        Thread.sleep(interval);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                } else {
+                    log.warn("Retry DML batch named '" + context.getName() + "', retry count " + retryCount + " max " + retryMax);
+                }
+            }
+        }
+    }
+
+    private void tryDMLBatch() throws DatabaseConfigException, SQLException {
+        // the batch commits as one transaction, a failed batch is rolled back and retried as a whole
+        Connection connection = context.getConnectionFactory().getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        try {
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            context.getDmlStatement().executeBatch(connection, events);
+            connection.commit();
+        } catch (SQLException ex) {
+            connection.rollback();
+            throw ex;
+        } catch (RuntimeException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            try {
+                if (autoCommit) {
+                    connection.setAutoCommit(true);
+                }
+            } finally {
+                connection.close();
+            }
+        }
+    }
+}
@@ -14,7 +14,9 @@ import com.espertech.esper.client.EventBean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class RunnableDMLFactory implements RunnableFactory {
+import java.util.List;
+
+public class RunnableDMLFactory implements RunnableFactory, RunnableBatchFactory {
     private final static Logger log = LoggerFactory.getLogger(RunnableDMLFactory.class);
 
     private final RunnableDMLContext context;
@@ -30,4 +32,8 @@ public class RunnableDMLFactory implements RunnableFactory {
     public Runnable makeRunnable(EventBean theEvent) {
         return new RunnableDML(context, theEvent);
     }
+
+    public Runnable makeBatchRunnable(List<EventBean> events) {
+        return new RunnableDMLBatch(context, events);
+    }
 }
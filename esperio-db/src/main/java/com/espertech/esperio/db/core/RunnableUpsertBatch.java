@@ -0,0 +1,113 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.db.core;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.db.DatabaseConfigException;
+import com.espertech.esper.util.ExecutionPathDebugLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+
+public class RunnableUpsertBatch implements Runnable {
+    private final static Logger log = LoggerFactory.getLogger(RunnableUpsertBatch.class);
+
+    private final RunnableUpsertContext context;
+    private final List<EventBean> events;
+
+    public RunnableUpsertBatch(RunnableUpsertContext context, List<EventBean> events) {
+        this.context = context;
+        this.events = events;
+    }
+
+    public void run() {
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled() && (ExecutionPathDebugLog.isTimerDebugEnabled))) {
+            log.debug("Executing upsert batch work unit for " + events.size() + " events");
+        }
+
+        int retryMax = context.getRetry() == null ? 1 : context.getRetry();
+        int retryCount = 0;
+
+        while (true) {
+            try {
+                tryUpsertBatch();
+                break;
+            } catch (Throwable t) {
+                log.error("Error in upsert batch named '" + context.getName() + "' :" + t.getMessage(), t);
+                retryCount++;
+                if (retryCount >= retryMax) {
+                    log.warn("Failed upsert batch named '" + context.getName() + "', retry count reached, " + events.size() + " events not written");
+                    break;
+                }
+                if ((context.getRetryWait() != null) && (context.getRetryWait() > 0)) {
+                    long interval = (long) (context.getRetryWait() * 1000);
+                    log.warn("Retry upsert batch named '" + context.getName() + "', retry interval msec " + interval + " retry count " + retryCount + " max " + retryMax);
+                    try {
+                        Thread.sleep(interval);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                } else {
+                    log.warn("Retry upsert batch named '" + context.getName() + "', retry count " + retryCount + " max " + retryMax);
+                }
+            }
+        }
+    }
+
+    private void tryUpsertBatch() throws DatabaseConfigException, SQLException {
+        // the batch commits as one transaction, a failed batch is rolled back and retried as a whole
+        Connection connection = context.getConnectionFactory().getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        try {
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            // coalesce events by key, the last event for a key provides the values as with upserts per event
+            Map<List<Object>, Object[]> rows = new LinkedHashMap<List<Object>, Object[]>();
+            for (EventBean theEvent : events) {
+                Object[] keys = new Object[context.getKeyGetters().length];
+                for (int i = 0; i < context.getKeyGetters().length; i++) {
+                    keys[i] = context.getKeyGetters()[i].get(theEvent);
+                }
+
+                Object[] values = new Object[context.getValueGetters().length];
+                for (int i = 0; i < context.getValueGetters().length; i++) {
+                    values[i] = context.getValueGetters()[i].get(theEvent);
+                }
+                rows.put(Arrays.asList(keys), values);
+            }
+
+            List<Object[]> keyList = new ArrayList<Object[]>(rows.size());
+            for (List<Object> keys : rows.keySet()) {
+                keyList.add(keys.toArray());
+            }
+            context.getTable().updateInsertBatch(connection, keyList, new ArrayList<Object[]>(rows.values()));
+            connection.commit();
+        } catch (SQLException ex) {
+            connection.rollback();
+            throw ex;
+        } catch (RuntimeException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            try {
+                if (autoCommit) {
+                    connection.setAutoCommit(true);
+                }
+            } finally {
+                connection.close();
+            }
+        }
+    }
+}
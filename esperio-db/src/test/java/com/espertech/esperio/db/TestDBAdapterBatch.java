@@ -0,0 +1,184 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.db;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import junit.framework.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Batched DML and upsert against an embedded H2 database, which does not require a database server.
+ */
+public class TestDBAdapterBatch extends TestCase {
+    private static final Logger log = LoggerFactory.getLogger(TestDBAdapterBatch.class);
+
+    private final static String URL = "jdbc:h2:mem:esperiodbbatch;DB_CLOSE_DELAY=-1";
+    private final static String TABLE_NAME = "mytestbatch";
+
+    public void setUp() throws Exception {
+        executeSQL("drop table if exists " + TABLE_NAME);
+        executeSQL("create table " + TABLE_NAME + " (key1 varchar(10), key2 int, value1 varchar(20), value2 double, primary key (key1, key2))");
+    }
+
+    public void testDMLBatch() throws Exception {
+        String batchAttributes = "batch-size=\"100\" batch-flush-interval-sec=\"0.1\" batch-max-inflight=\"2\" executor-name=\"queue1\"";
+        EPServiceProvider provider = makeProvider("testDMLBatch", makeDMLConfig(batchAttributes));
+
+        for (int i = 0; i < 1050; i++) {
+            provider.getEPRuntime().sendEvent(new SupportBean("v" + i, i));
+        }
+
+        // the last partial batch is written by the timed flush
+        assertTrue(awaitCount(1050, 5000));
+        Object[][] rows = readAll("select * from " + TABLE_NAME + " where key2 in (0, 1049) order by key2");
+        EPAssertionUtil.assertEqualsExactOrder(rows, new Object[][]{{"A", 0, "v0", 0d}, {"A", 1049, "v1049", 1049d}});
+
+        provider.destroy();
+    }
+
+    public void testUpsertBatch() throws Exception {
+        String esperIODBConfig = "<esperio-db-configuration>\n" +
+                makeConnectionConfig() +
+                "<upsert connection=\"db1\" stream=\"SupportDBBean\" name=\"MyUpsertQuery\" table-name=\"" + TABLE_NAME + "\" batch-size=\"7\">\n" +
+                "<keys>\n" +
+                "<column property=\"key1\" column=\"key1\" type=\"varchar\"/>\n" +
+                "<column property=\"key2\" column=\"key2\" type=\"integer\"/>\n" +
+                "</keys>\n" +
+                "<values>\n" +
+                "<column property=\"value1\" column=\"value1\" type=\"varchar\"/>\n" +
+                "<column property=\"value2\" column=\"value2\" type=\"double\"/>\n" +
+                "</values>\n" +
+                "</upsert>\n" +
+                "</esperio-db-configuration>";
+        EPServiceProvider provider = makeProvider("testUpsertBatch", esperIODBConfig);
+
+        // a batch of 7 events spans rounds, rows of the same key within a batch are coalesced
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 10; i++) {
+                provider.getEPRuntime().sendEvent(new SupportDBBean("K", i, "r" + round, (double) round));
+            }
+        }
+
+        // destroy writes the last partial batch
+        provider.destroy();
+
+        Object[][] rows = readAll("select * from " + TABLE_NAME + " order by key2");
+        assertEquals(10, rows.length);
+        for (int i = 0; i < 10; i++) {
+            EPAssertionUtil.assertEqualsExactOrder(rows[i], new Object[]{"K", i, "r2", 2d});
+        }
+    }
+
+    public void testThroughput() throws Exception {
+        int numRows = 20000;
+        long deltaSingle = runThroughput("testThroughputSingle", makeDMLConfig("executor-name=\"queue1\""), 0, numRows);
+        long deltaBatch = runThroughput("testThroughputBatch", makeDMLConfig("batch-size=\"500\" batch-flush-interval-sec=\"0.1\" batch-max-inflight=\"4\" executor-name=\"queue1\""), numRows, numRows);
+        log.info("Single-row DML " + numRows * 1000L / Math.max(1, deltaSingle) + " rows/sec, batched DML " + numRows * 1000L / Math.max(1, deltaBatch) + " rows/sec");
+    }
+
+    private long runThroughput(String engineURI, String esperIODBConfig, int start, int numRows) throws Exception {
+        EPServiceProvider provider = makeProvider(engineURI, esperIODBConfig);
+        long startTime = System.currentTimeMillis();
+        for (int i = start; i < start + numRows; i++) {
+            provider.getEPRuntime().sendEvent(new SupportBean("v" + i, i));
+        }
+        assertTrue(awaitCount(start + numRows, 60000));
+        long delta = System.currentTimeMillis() - startTime;
+        provider.destroy();
+        return delta;
+    }
+
+    private EPServiceProvider makeProvider(String engineURI, String esperIODBConfig) {
+        Configuration engineConfig = new Configuration();
+        engineConfig.addPluginLoader("EsperIODBAdapter", EsperIODBAdapterPlugin.class.getName(), new Properties(), esperIODBConfig);
+        engineConfig.addEventType("SupportDBBean", SupportDBBean.class);
+        engineConfig.addEventType("SupportBean", SupportBean.class);
+        EPServiceProvider provider = EPServiceProviderManager.getProvider(engineURI, engineConfig);
+        provider.getEPAdministrator().createEPL("insert into SupportDBBean select 'A' as key1, intProp as key2, stringProp as value1, intProp as value2 from SupportBean");
+        return provider;
+    }
+
+    private String makeDMLConfig(String attributes) {
+        return "<esperio-db-configuration>\n" +
+                makeConnectionConfig() +
+                "<dml connection=\"db1\" stream=\"SupportDBBean\" name=\"MyInsertQuery\" " + attributes + ">\n" +
+                "<sql>insert into " + TABLE_NAME + "(key1, key2, value1, value2)\n" +
+                "values (?, ?, ?, ?)</sql>\n" +
+                "<bindings>\n" +
+                "<parameter pos=\"1\" property=\"key1\"/>\n" +
+                "<parameter pos=\"2\" property=\"key2\"/>\n" +
+                "<parameter pos=\"3\" property=\"value1\"/>\n" +
+                "<parameter pos=\"4\" property=\"value2\"/>\n" +
+                "</bindings>\n" +
+                "</dml>\n" +
+                "<executors>\n" +
+                "<executor name=\"queue1\" threads=\"2\"/>\n" +
+                "</executors>\n" +
+                "</esperio-db-configuration>";
+    }
+
+    private String makeConnectionConfig() {
+        return "<jdbc-connection name=\"db1\">\n" +
+                "<drivermanager-connection class-name=\"org.h2.Driver\" url=\"" + URL + "\" user=\"sa\" password=\"\"/>\n" +
+                "<connection-settings auto-commit=\"true\"/>" +
+                "</jdbc-connection>\n";
+    }
+
+    private boolean awaitCount(int expected, long timeoutMSec) throws Exception {
+        long end = System.currentTimeMillis() + timeoutMSec;
+        while (System.currentTimeMillis() < end) {
+            Object[][] rows = readAll("select count(*) from " + TABLE_NAME);
+            if (((Number) rows[0][0]).intValue() == expected) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    private static void executeSQL(String sql) throws SQLException {
+        Connection connection = DriverManager.getConnection(URL, "sa", "");
+        Statement stmt = connection.createStatement();
+        stmt.executeUpdate(sql);
+        stmt.close();
+        connection.close();
+    }
+
+    private static Object[][] readAll(String sql) throws SQLException {
+        Connection connection = DriverManager.getConnection(URL, "sa", "");
+        Statement stmt = connection.createStatement();
+        ResultSet resultSet = stmt.executeQuery(sql);
+        List<Object[]> rows = new ArrayList<Object[]>();
+        while (resultSet.next()) {
+            Object[] row = new Object[resultSet.getMetaData().getColumnCount()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = resultSet.getObject(i + 1);
+            }
+            rows.add(row);
+        }
+        stmt.close();
+        connection.close();
+        return rows.toArray(new Object[rows.size()][]);
+    }
+}
@@ -80,6 +80,9 @@ public class TestConfig extends TestCase {
         assertEquals("queue1", dmlQuery.getExecutorName());
         assertEquals((int) 2, (int) dmlQuery.getRetry());
         assertEquals(1d, dmlQuery.getRetryIntervalSec());
+        assertEquals(500, (int) dmlQuery.getBatchSize());
+        assertEquals(0.5d, dmlQuery.getBatchFlushIntervalSec());
+        assertEquals(4, (int) dmlQuery.getBatchMaxInFlight());
         assertEquals(3, dmlQuery.getBindings().size());
         BindingParameter binding = dmlQuery.getBindings().get(0);
         assertEquals(1, binding.getPosition());
@@ -96,6 +99,9 @@ public class TestConfig extends TestCase {
         assertEquals("queue1", upsertQuery.getExecutorName());
         assertEquals((int) 3, (int) upsertQuery.getRetry());
         assertNull(upsertQuery.getRetryIntervalSec());
+        assertNull(upsertQuery.getBatchSize());
+        assertNull(upsertQuery.getBatchFlushIntervalSec());
+        assertNull(upsertQuery.getBatchMaxInFlight());
         assertEquals(2, upsertQuery.getKeys().size());
         Column col = upsertQuery.getKeys().get(0);
         assertEquals("eventProperty1", col.getProperty());
@@ -14,6 +14,8 @@ public class EsperIOKafkaConfig {
     public final static String INPUT_SUBSCRIBER_CONFIG = "esperio.kafka.input.subscriber";
     public final static String INPUT_PROCESSOR_CONFIG = "esperio.kafka.input.processor";
     public final static String INPUT_TIMESTAMPEXTRACTOR_CONFIG = "esperio.kafka.input.timestampextractor";
+    public final static String INPUT_BATCH_THREADPERPARTITION_CONFIG = "esperio.kafka.input.batch.threadperpartition";
+    public final static String INPUT_BATCH_MAXRETRIES_CONFIG = "esperio.kafka.input.batch.maxretries";
     public final static String OUTPUT_FLOWCONTROLLER_CONFIG = "esperio.kafka.output.flowcontroller";
     public final static String TOPICS_CONFIG = "esperio.kafka.topics";
 }
@@ -0,0 +1,311 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.kafka;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.time.CurrentTimeSpanEvent;
+import com.espertech.esper.core.service.EPRuntimeEventSender;
+import com.espertech.esper.core.service.EPRuntimeSPI;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.util.JavaClassHelper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Input processor that sends the records of each poll result to the engine as one batch and commits the offsets
+ * of the records once the batch has been processed.
+ * <p>
+ * When a timestamp extractor is configured, the processor advances engine time once per poll result,
+ * to the maximum timestamp of the records, before processing the events.
+ * </p>
+ * <p>
+ * When the property {@link EsperIOKafkaConfig#INPUT_BATCH_THREADPERPARTITION_CONFIG} is true, each assigned
+ * topic partition is processed by its own thread, preserving the order of events within a partition.
+ * The poll thread waits for all partitions of the poll result to complete before committing offsets.
+ * If the poll thread is interrupted while waiting, it commits the offsets of the partitions that completed,
+ * seeks the other partitions back for redelivery and returns with the interrupt status set.
+ * </p>
+ * <p>
+ * Offsets are committed synchronously, the consumer should be configured with "enable.auto.commit" set to false.
+ * When processing the records of a partition fails, the processor does not commit offsets for the partition
+ * and seeks the consumer back to the first offset of the partition's records, so that the next poll redelivers them.
+ * When the records starting at the same offset fail more than {@link EsperIOKafkaConfig#INPUT_BATCH_MAXRETRIES_CONFIG} times
+ * (default {@link #DEFAULT_MAX_RETRIES}), the processor sends the records one by one, logs and skips the records that fail,
+ * and commits past them.
+ * </p>
+ */
+public class EsperIOKafkaInputProcessorBatch implements EsperIOKafkaInputProcessor {
+
+    private final static Logger log = LoggerFactory.getLogger(EsperIOKafkaInputProcessorBatch.class);
+
+    /**
+     * Default number of redeliveries of failed records before the records that fail are skipped.
+     */
+    public final static int DEFAULT_MAX_RETRIES = 3;
+
+    private EPServiceProviderSPI engine;
+    private Consumer<Object, Object> consumer;
+    private EsperIOKafkaInputTimestampExtractor timestampExtractor;
+    private boolean threadPerPartition;
+    private boolean inboundThreading;
+    private String engineURI;
+    private int maxRetries;
+    private final Map<TopicPartition, ExecutorService> partitionExecutors = new HashMap<>();
+    private final Map<TopicPartition, RetryState> retries = new HashMap<>();
+
+    public void init(EsperIOKafkaInputProcessorContext context) {
+        String maxRetriesValue = context.getProperties().getProperty(EsperIOKafkaConfig.INPUT_BATCH_MAXRETRIES_CONFIG);
+        init(context.getEngine(), context.getConsumer(), context.getProperties().getProperty(EsperIOKafkaConfig.INPUT_TIMESTAMPEXTRACTOR_CONFIG),
+                Boolean.parseBoolean(context.getProperties().getProperty(EsperIOKafkaConfig.INPUT_BATCH_THREADPERPARTITION_CONFIG)),
+                maxRetriesValue == null ? DEFAULT_MAX_RETRIES : Integer.parseInt(maxRetriesValue.trim()));
+    }
+
+    void init(EPServiceProviderSPI engine, Consumer<Object, Object> consumer, String timestampExtractorClassName, boolean threadPerPartition) {
+        init(engine, consumer, timestampExtractorClassName, threadPerPartition, DEFAULT_MAX_RETRIES);
+    }
+
+    void init(EPServiceProviderSPI engine, Consumer<Object, Object> consumer, String timestampExtractorClassName, boolean threadPerPartition, int maxRetries) {
+        this.engine = engine;
+        this.consumer = consumer;
+        this.threadPerPartition = threadPerPartition;
+        this.maxRetries = maxRetries;
+        this.engineURI = engine.getURI();
+        this.inboundThreading = engine.getConfigurationInformation().getEngineDefaults().getThreading().isThreadPoolInbound();
+
+        if (timestampExtractorClassName != null) {
+            timestampExtractor = (EsperIOKafkaInputTimestampExtractor) JavaClassHelper.instantiate(EsperIOKafkaInputTimestampExtractor.class, timestampExtractorClassName, engine.getEngineImportService().getClassForNameProvider());
+        }
+    }
+
+    public void process(ConsumerRecords<Object, Object> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        if (timestampExtractor != null) {
+            long maxTimestamp = Long.MIN_VALUE;
+            for (ConsumerRecord<Object, Object> record : records) {
+                maxTimestamp = Math.max(maxTimestamp, timestampExtractor.extract(record));
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Sending time span {}", maxTimestamp);
+            }
+            engine.getEPRuntime().sendEvent(new CurrentTimeSpanEvent(maxTimestamp));
+        }
+
+        Map<TopicPartition, OffsetAndMetadata> offsets = new LinkedHashMap<>();
+        if (!threadPerPartition) {
+            try {
+                sendRecords(records);
+            } catch (RuntimeException e) {
+                // the failed partition is not known, each partition counts the failure
+                boolean retriesExhausted = false;
+                for (TopicPartition partition : records.partitions()) {
+                    retriesExhausted |= addFailure(partition, records.records(partition));
+                }
+                if (!retriesExhausted) {
+                    log.error("Error processing records for engine URI '{}', not committing offsets and seeking back for redelivery: {}", engineURI, e.getMessage(), e);
+                    for (TopicPartition partition : records.partitions()) {
+                        seekToFirst(partition, records.records(partition));
+                    }
+                    return;
+                }
+                log.error("Error processing records for engine URI '{}' after {} retries, sending records individually and skipping failed records: {}", engineURI, maxRetries, e.getMessage(), e);
+                for (TopicPartition partition : records.partitions()) {
+                    sendRecordsSkipFailed(partition, records.records(partition));
+                }
+            }
+            for (TopicPartition partition : records.partitions()) {
+                retries.remove(partition);
+                addOffset(offsets, partition, records.records(partition));
+            }
+        } else {
+            removeUnassignedPartitions();
+            List<TopicPartition> partitions = new ArrayList<>(records.partitions());
+            List<Future<?>> futures = new ArrayList<>(partitions.size());
+            for (TopicPartition partition : partitions) {
+                List<ConsumerRecord<Object, Object>> partitionRecords = records.records(partition);
+                futures.add(getPartitionExecutor(partition).submit(() -> sendRecords(partitionRecords)));
+            }
+            for (int i = 0; i < partitions.size(); i++) {
+                TopicPartition partition = partitions.get(i);
+                List<ConsumerRecord<Object, Object>> partitionRecords = records.records(partition);
+                try {
+                    futures.get(i).get();
+                } catch (InterruptedException e) {
+                    // partitions not known to be processed get redelivered, offsets of processed partitions get committed
+                    log.warn("Interrupted waiting for partitions to be processed for engine URI '{}', seeking back partitions not yet completed", engineURI);
+                    for (int j = i; j < partitions.size(); j++) {
+                        seekToFirst(partitions.get(j), records.records(partitions.get(j)));
+                    }
+                    commit(offsets);
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    if (!addFailure(partition, partitionRecords)) {
+                        log.error("Error processing records of partition {} for engine URI '{}', not committing offsets and seeking back for redelivery: {}", partition, engineURI, e.getCause().getMessage(), e.getCause());
+                        seekToFirst(partition, partitionRecords);
+                        continue;
+                    }
+                    log.error("Error processing records of partition {} for engine URI '{}' after {} retries, sending records individually and skipping failed records: {}", partition, engineURI, maxRetries, e.getCause().getMessage(), e.getCause());
+                    sendRecordsSkipFailed(partition, partitionRecords);
+                }
+                retries.remove(partition);
+                addOffset(offsets, partition, partitionRecords);
+            }
+        }
+
+        commit(offsets);
+    }
+
+    public void close() {
+        for (ExecutorService executor : partitionExecutors.values()) {
+            shutdown(executor);
+        }
+        partitionExecutors.clear();
+    }
+
+    private void sendRecords(Iterable<ConsumerRecord<Object, Object>> records) {
+        if (inboundThreading) {
+            // inbound threading queues events individually
+            for (ConsumerRecord<Object, Object> record : records) {
+                if (record.value() != null) {
+                    engine.getEPRuntime().sendEvent(record.value());
+                }
+            }
+            return;
+        }
+
+        EPRuntimeSPI runtime = (EPRuntimeSPI) engine.getEPRuntime();
+        List<EventBean> events = new ArrayList<>();
+        for (ConsumerRecord<Object, Object> record : records) {
+            Object value = record.value();
+            if (value != null) {
+                events.add(value instanceof EventBean ? (EventBean) value : runtime.wrapEvent(value));
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Sending batch of {} events", events.size());
+        }
+        if (!(runtime instanceof EPRuntimeEventSender)) {
+            throw new EPException("Runtime does not support processing batches of events");
+        }
+        ((EPRuntimeEventSender) runtime).processWrappedEvents(events.toArray(new EventBean[events.size()]));
+    }
+
+    private void sendRecordsSkipFailed(TopicPartition partition, List<ConsumerRecord<Object, Object>> partitionRecords) {
+        for (ConsumerRecord<Object, Object> record : partitionRecords) {
+            try {
+                sendRecords(Collections.singletonList(record));
+            } catch (RuntimeException e) {
+                log.error("Skipping record of partition {} at offset {} for engine URI '{}' after {} retries: {}", partition, record.offset(), engineURI, maxRetries, e.getMessage(), e);
+            }
+        }
+    }
+
+    // counts a failure of the records of the partition, returns true when the records failed more often than the retry limit
+    private boolean addFailure(TopicPartition partition, List<ConsumerRecord<Object, Object>> partitionRecords) {
+        if (partitionRecords.isEmpty()) {
+            return false;
+        }
+        long firstOffset = partitionRecords.get(0).offset();
+        RetryState state = retries.get(partition);
+        if (state == null || state.offset != firstOffset) {
+            state = new RetryState(firstOffset);
+            retries.put(partition, state);
+        }
+        state.failures++;
+        return state.failures > maxRetries;
+    }
+
+    private void commit(Map<TopicPartition, OffsetAndMetadata> offsets) {
+        if (!offsets.isEmpty()) {
+            consumer.commitSync(offsets);
+        }
+    }
+
+    private ExecutorService getPartitionExecutor(TopicPartition partition) {
+        ExecutorService executor = partitionExecutors.get(partition);
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(new EsperIOKafkaInputThreadFactory(engineURI + "__" + partition.topic() + "_" + partition.partition()));
+            partitionExecutors.put(partition, executor);
+        }
+        return executor;
+    }
+
+    private void removeUnassignedPartitions() {
+        if (partitionExecutors.isEmpty()) {
+            return;
+        }
+        Set<TopicPartition> assignment = consumer.assignment();
+        retries.keySet().retainAll(assignment);
+        for (Iterator<Map.Entry<TopicPartition, ExecutorService>> it = partitionExecutors.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<TopicPartition, ExecutorService> entry = it.next();
+            if (!assignment.contains(entry.getKey())) {
+                shutdown(entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    private void seekToFirst(TopicPartition partition, List<ConsumerRecord<Object, Object>> partitionRecords) {
+        if (!partitionRecords.isEmpty()) {
+            consumer.seek(partition, partitionRecords.get(0).offset());
+        }
+    }
+
+    private static void addOffset(Map<TopicPartition, OffsetAndMetadata> offsets, TopicPartition partition, List<ConsumerRecord<Object, Object>> partitionRecords) {
+        if (!partitionRecords.isEmpty()) {
+            offsets.put(partition, new OffsetAndMetadata(partitionRecords.get(partitionRecords.size() - 1).offset() + 1));
+        }
+    }
+
+    private static void shutdown(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RetryState {
+        private final long offset;
+        private int failures;
+
+        RetryState(long offset) {
+            this.offset = offset;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.kafka;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.hook.ExceptionHandler;
+import com.espertech.esper.client.hook.ExceptionHandlerFactory;
+import com.espertech.esper.client.hook.ExceptionHandlerFactoryContext;
+
+public class SupportExceptionHandlerFactoryRethrow implements ExceptionHandlerFactory {
+    public ExceptionHandler getHandler(ExceptionHandlerFactoryContext context) {
+        return handlerContext -> {
+            throw new EPException("Unexpected exception in statement '" + handlerContext.getStatementName() + "'", handlerContext.getThrowable());
+        };
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.kafka;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.ConfigurationPlugInSingleRowFunction;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import junit.framework.TestCase;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.record.TimestampType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+public class TestKafkaInputProcessorBatch extends TestCase {
+
+    private static final String TOPIC = "esperio_batch";
+    private static final TopicPartition P0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition P1 = new TopicPartition(TOPIC, 1);
+
+    private EPServiceProviderSPI epService;
+    private MockConsumer<Object, Object> consumer;
+    private SupportListener listener;
+
+    private static volatile String failOn;
+    private static volatile String poison;
+    private static volatile String blockOn;
+    private static final CountDownLatch block = new CountDownLatch(1);
+
+    public void setUp() {
+        failOn = null;
+        poison = null;
+        blockOn = null;
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.getEngineDefaults().getExceptionHandling().addClass(SupportExceptionHandlerFactoryRethrow.class);
+        configuration.addEventType(SupportBean.class);
+        configuration.addPlugInSingleRowFunction(new ConfigurationPlugInSingleRowFunction("checkRecord", this.getClass().getName(), "checkRecord",
+                ConfigurationPlugInSingleRowFunction.ValueCache.DISABLED, ConfigurationPlugInSingleRowFunction.FilterOptimizable.DISABLED, true, null));
+        epService = (EPServiceProviderSPI) EPServiceProviderManager.getProvider(this.getClass().getSimpleName(), configuration);
+        epService.initialize();
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select * from SupportBean");
+        listener = new SupportListener();
+        stmt.addListener(listener);
+
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(Arrays.asList(P0, P1));
+    }
+
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    public void testBatchSingleThread() {
+        runAssertion(false);
+    }
+
+    public void testBatchThreadPerPartition() {
+        runAssertion(true);
+    }
+
+    private void runAssertion(boolean threadPerPartition) {
+        EsperIOKafkaInputProcessorBatch processor = new EsperIOKafkaInputProcessorBatch();
+        processor.init(epService, consumer, EsperIOKafkaInputTimestampExtractorConsumerRecord.class.getName(), threadPerPartition);
+
+        Map<TopicPartition, List<ConsumerRecord<Object, Object>>> records = new HashMap<>();
+        records.put(P0, makeRecords(P0, 0, 5, 1000));
+        records.put(P1, makeRecords(P1, 10, 3, 2000));
+        processor.process(new ConsumerRecords<>(records));
+
+        // all events are processed and time advanced once to the maximum timestamp before commit
+        assertEquals(2012, epService.getEPRuntime().getCurrentTime());
+        assertReceived(Arrays.asList("P0_0", "P0_1", "P0_2", "P0_3", "P0_4", "P1_10", "P1_11", "P1_12"));
+        assertEquals(5, consumer.committed(P0).offset());
+        assertEquals(13, consumer.committed(P1).offset());
+
+        // second batch for one partition only, with an empty value
+        records.clear();
+        List<ConsumerRecord<Object, Object>> partitionRecords = makeRecords(P0, 5, 2, 3000);
+        partitionRecords.add(new ConsumerRecord<>(TOPIC, 0, 7, 3007, TimestampType.CREATE_TIME, 0L, 0, 0, null, null));
+        records.put(P0, partitionRecords);
+        processor.process(new ConsumerRecords<>(records));
+
+        assertEquals(3007, epService.getEPRuntime().getCurrentTime());
+        assertEquals(10, getReceived().size());
+        assertEquals(8, consumer.committed(P0).offset());
+        assertEquals(13, consumer.committed(P1).offset());
+
+        processor.close();
+    }
+
+    public void testFailureSingleThread() {
+        runAssertionFailure(false);
+    }
+
+    public void testFailureThreadPerPartition() {
+        runAssertionFailure(true);
+    }
+
+    public static boolean checkRecord(String value) {
+        if (value.equals(failOn)) {
+            failOn = null;
+            throw new RuntimeException("Failed processing " + value);
+        }
+        if (value.equals(poison)) {
+            throw new RuntimeException("Failed processing poison " + value);
+        }
+        if (value.equals(blockOn)) {
+            try {
+                block.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return true;
+    }
+
+    private void runAssertionFailure(boolean threadPerPartition) {
+        createCheckedStatement();
+
+        EsperIOKafkaInputProcessorBatch processor = new EsperIOKafkaInputProcessorBatch();
+        processor.init(epService, consumer, null, threadPerPartition);
+
+        failOn = "P1_11";
+        Map<TopicPartition, List<ConsumerRecord<Object, Object>>> records = new HashMap<>();
+        records.put(P0, makeRecords(P0, 0, 5, 1000));
+        records.put(P1, makeRecords(P1, 10, 3, 2000));
+        processor.process(new ConsumerRecords<>(records));
+
+        // the failed records are not committed and the consumer is positioned for redelivery
+        assertNull(consumer.committed(P1));
+        assertEquals(10, consumer.position(P1));
+        if (threadPerPartition) {
+            assertEquals(5, consumer.committed(P0).offset());
+        } else {
+            assertNull(consumer.committed(P0));
+            assertEquals(0, consumer.position(P0));
+        }
+
+        // redelivery succeeds
+        records.clear();
+        if (!threadPerPartition) {
+            records.put(P0, makeRecords(P0, 0, 5, 1000));
+        }
+        records.put(P1, makeRecords(P1, 10, 3, 2000));
+        processor.process(new ConsumerRecords<>(records));
+
+        assertEquals(5, consumer.committed(P0).offset());
+        assertEquals(13, consumer.committed(P1).offset());
+        assertTrue(getReceived().containsAll(Arrays.asList("P0_0", "P0_1", "P0_2", "P0_3", "P0_4", "P1_10", "P1_11", "P1_12")));
+
+        processor.close();
+    }
+
+    public void testPoisonSingleThread() {
+        runAssertionPoison(false);
+    }
+
+    public void testPoisonThreadPerPartition() {
+        runAssertionPoison(true);
+    }
+
+    private void runAssertionPoison(boolean threadPerPartition) {
+        createCheckedStatement();
+
+        EsperIOKafkaInputProcessorBatch processor = new EsperIOKafkaInputProcessorBatch();
+        processor.init(epService, consumer, null, threadPerPartition, 2);
+
+        poison = "P1_11";
+        Map<TopicPartition, List<ConsumerRecord<Object, Object>>> records = new HashMap<>();
+        records.put(P1, makeRecords(P1, 10, 3, 2000));
+
+        // the first delivery and two retries fail and seek back
+        for (int i = 0; i < 3; i++) {
+            processor.process(new ConsumerRecords<>(records));
+            assertNull(consumer.committed(P1));
+            assertEquals(10, consumer.position(P1));
+        }
+
+        // the next failure skips the poison record and commits past it, the records are sent again one by one
+        int numReceived = getReceived().size();
+        processor.process(new ConsumerRecords<>(records));
+        assertEquals(13, consumer.committed(P1).offset());
+        List<String> received = getReceived();
+        assertEquals(Arrays.asList("P1_10", "P1_10", "P1_12"), received.subList(numReceived, received.size()));
+
+        // records at the next offset start with no failures
+        records.put(P1, makeRecords(P1, 13, 2, 3000));
+        poison = "P1_13";
+        processor.process(new ConsumerRecords<>(records));
+        assertEquals(13, consumer.committed(P1).offset());
+        assertEquals(13, consumer.position(P1));
+
+        processor.close();
+    }
+
+    public void testInterruptedThreadPerPartition() {
+        createCheckedStatement();
+
+        EsperIOKafkaInputProcessorBatch processor = new EsperIOKafkaInputProcessorBatch();
+        processor.init(epService, consumer, null, true);
+
+        blockOn = "P0_0";
+        Map<TopicPartition, List<ConsumerRecord<Object, Object>>> records = new HashMap<>();
+        records.put(P0, makeRecords(P0, 0, 5, 1000));
+        records.put(P1, makeRecords(P1, 10, 3, 2000));
+
+        // the poll thread is interrupted while partition P0 is still processing
+        Thread.currentThread().interrupt();
+        processor.process(new ConsumerRecords<>(records));
+        assertTrue(Thread.interrupted());
+
+        // P0 is redelivered, P1 is committed if it completed before the interrupt and redelivered otherwise
+        assertNull(consumer.committed(P0));
+        assertEquals(0, consumer.position(P0));
+        if (consumer.committed(P1) == null) {
+            assertEquals(10, consumer.position(P1));
+        } else {
+            assertEquals(13, consumer.committed(P1).offset());
+        }
+
+        block.countDown();
+        processor.close();
+    }
+
+    private void createCheckedStatement() {
+        // listener exceptions are handled by the engine, the failure is raised by statement processing instead
+        epService.getEPAdministrator().destroyAllStatements();
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select * from SupportBean where checkRecord(stringProp)");
+        listener = new SupportListener();
+        stmt.addListener(listener);
+    }
+
+    private List<ConsumerRecord<Object, Object>> makeRecords(TopicPartition partition, int startOffset, int count, long startTimestamp) {
+        List<ConsumerRecord<Object, Object>> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int offset = startOffset + i;
+            SupportBean bean = new SupportBean("P" + partition.partition() + "_" + offset, offset);
+            records.add(new ConsumerRecord<>(partition.topic(), partition.partition(), offset, startTimestamp + offset, TimestampType.CREATE_TIME, 0L, 0, 0, null, bean));
+        }
+        return records;
+    }
+
+    private void assertReceived(List<String> expected) {
+        List<String> received = getReceived();
+        assertEquals(new HashSet<>(expected), new HashSet<>(received));
+        // order within a partition is preserved
+        for (String prefix : new String[]{"P0_", "P1_"}) {
+            List<String> expectedPartition = filter(expected, prefix);
+            assertEquals(expectedPartition, filter(received, prefix));
+        }
+    }
+
+    private List<String> getReceived() {
+        List<String> received = new ArrayList<>();
+        for (EventBean[] events : listener.getEvents()) {
+            for (EventBean event : events) {
+                received.add(((SupportBean) event.getUnderlying()).getStringProp());
+            }
+        }
+        return received;
+    }
+
+    private static List<String> filter(List<String> values, String prefix) {
+        List<String> result = new ArrayList<>();
+        for (String value : values) {
+            if (value.startsWith(prefix)) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+}
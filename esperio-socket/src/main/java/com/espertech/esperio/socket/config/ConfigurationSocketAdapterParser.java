@@ -103,6 +103,8 @@ public class ConfigurationSocketAdapterParser {
         String stream = getOptionalAttribute(node, "stream");
         String propertyOrder = getOptionalAttribute(node, "propertyOrder");
         String unescapeStr = getOptionalAttribute(node, "unescape");
+        String selectorThreads = getOptionalAttribute(node, "selectorThreads");
+        String readBufferSize = getOptionalAttribute(node, "readBufferSize");
 
         SocketConfig socketConfig = new SocketConfig();
         socketConfig.setPort(Integer.parseInt(port));
@@ -116,6 +118,12 @@ public class ConfigurationSocketAdapterParser {
         if (unescapeStr != null) {
             socketConfig.setUnescape(Boolean.parseBoolean(unescapeStr));
         }
+        if (selectorThreads != null) {
+            socketConfig.setSelectorThreads(Integer.parseInt(selectorThreads));
+        }
+        if (readBufferSize != null) {
+            socketConfig.setReadBufferSize(Integer.parseInt(readBufferSize));
+        }
 
         configuration.getSockets().put(name, socketConfig);
     }
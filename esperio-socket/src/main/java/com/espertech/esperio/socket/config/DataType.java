@@ -13,5 +13,6 @@ package com.espertech.esperio.socket.config;
 public enum DataType {
     OBJECT,
     CSV,
-    PROPERTY_ORDERED_CSV
+    PROPERTY_ORDERED_CSV,
+    BINARY
 }
@@ -18,6 +18,8 @@ public class SocketConfig {
     private String propertyOrder;
     private String stream;
     private boolean unescape;
+    private Integer selectorThreads;
+    private Integer readBufferSize;
 
     public SocketConfig() {
     }
@@ -77,4 +79,20 @@ public class SocketConfig {
     public void setUnescape(boolean unescape) {
         this.unescape = unescape;
     }
+
+    public Integer getSelectorThreads() {
+        return selectorThreads;
+    }
+
+    public void setSelectorThreads(Integer selectorThreads) {
+        this.selectorThreads = selectorThreads;
+    }
+
+    public Integer getReadBufferSize() {
+        return readBufferSize;
+    }
+
+    public void setReadBufferSize(Integer readBufferSize) {
+        this.readBufferSize = readBufferSize;
+    }
 }
@@ -0,0 +1,63 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.socket.core;
+
+import com.espertech.esper.client.ConfigurationException;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Value types of the binary frame format, each property value is preceded by a byte that is zero for a null value.
+ * <p>
+ * Numeric values are big-endian, a string value is a 4-byte length followed by the UTF-8 bytes.
+ */
+public enum BinaryFieldType {
+    BOOLEAN,
+    BYTE,
+    SHORT,
+    CHAR,
+    INT,
+    LONG,
+    FLOAT,
+    DOUBLE,
+    STRING;
+
+    /**
+     * Returns the field type for a property type.
+     *
+     * @param clazz    property type
+     * @param property property name for use in the message
+     * @return field type
+     * @throws ConfigurationException if the type is not supported
+     */
+    public static BinaryFieldType forClass(Class clazz, String property) {
+        Class boxed = JavaClassHelper.getBoxedType(clazz);
+        if (boxed == String.class) {
+            return STRING;
+        } else if (boxed == Integer.class) {
+            return INT;
+        } else if (boxed == Long.class) {
+            return LONG;
+        } else if (boxed == Double.class) {
+            return DOUBLE;
+        } else if (boxed == Float.class) {
+            return FLOAT;
+        } else if (boxed == Short.class) {
+            return SHORT;
+        } else if (boxed == Byte.class) {
+            return BYTE;
+        } else if (boxed == Boolean.class) {
+            return BOOLEAN;
+        } else if (boxed == Character.class) {
+            return CHAR;
+        }
+        throw new ConfigurationException("Property '" + property + "' of type '" + (clazz == null ? "null" : clazz.getName()) + "' is not supported by the binary data format");
+    }
+}
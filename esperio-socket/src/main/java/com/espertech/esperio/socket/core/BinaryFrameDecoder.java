@@ -0,0 +1,119 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.socket.core;
+
+import com.espertech.esper.client.ConfigurationException;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Decodes binary frames into object-array events of an object-array event type.
+ * <p>
+ * A frame holds a value for each property of the event type in property-index order, see {@link BinaryFieldType}.
+ * Not thread-safe, as the decoder reuses a buffer for string values.
+ */
+public class BinaryFrameDecoder {
+    private final BinaryFieldType[] fieldTypes;
+    private byte[] stringBuffer = new byte[256];
+
+    public BinaryFrameDecoder(BinaryFieldType[] fieldTypes) {
+        this.fieldTypes = fieldTypes;
+    }
+
+    /**
+     * Make a decoder for an object-array event type.
+     *
+     * @param eventType event type
+     * @return decoder
+     * @throws ConfigurationException if the type is not an object-array type or a property type is not supported
+     */
+    public static BinaryFrameDecoder make(EventType eventType) {
+        if (!(eventType instanceof ObjectArrayEventType)) {
+            throw new ConfigurationException("Event type '" + eventType.getName() + "' is not an object-array event type, the binary data format requires an object-array event type");
+        }
+        Map<String, Integer> indexes = ((ObjectArrayEventType) eventType).getPropertiesIndexes();
+        BinaryFieldType[] fieldTypes = new BinaryFieldType[indexes.size()];
+        for (Map.Entry<String, Integer> entry : indexes.entrySet()) {
+            fieldTypes[entry.getValue()] = BinaryFieldType.forClass(eventType.getPropertyType(entry.getKey()), entry.getKey());
+        }
+        return new BinaryFrameDecoder(fieldTypes);
+    }
+
+    public BinaryFieldType[] getFieldTypes() {
+        return fieldTypes;
+    }
+
+    /**
+     * Decode the frame that starts at the buffer position and advance the position past the frame.
+     *
+     * @param buffer buffer
+     * @param length frame length not including the length prefix
+     * @return event property values
+     * @throws IllegalArgumentException if the frame content does not match the frame length
+     */
+    public Object[] decode(ByteBuffer buffer, int length) {
+        int end = buffer.position() + length;
+        int limit = buffer.limit();
+        buffer.limit(end);
+        try {
+            Object[] values = new Object[fieldTypes.length];
+            for (int i = 0; i < fieldTypes.length; i++) {
+                if (buffer.get() != 0) {
+                    values[i] = read(fieldTypes[i], buffer);
+                }
+            }
+            if (buffer.position() != end) {
+                throw new IllegalArgumentException("Frame of length " + length + " has " + (end - buffer.position()) + " bytes remaining after the last property value");
+            }
+            return values;
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalArgumentException("Frame of length " + length + " is too short for the property values", ex);
+        } finally {
+            buffer.limit(limit);
+        }
+    }
+
+    private Object read(BinaryFieldType type, ByteBuffer buffer) {
+        switch (type) {
+            case BOOLEAN:
+                return buffer.get() != 0;
+            case BYTE:
+                return buffer.get();
+            case SHORT:
+                return buffer.getShort();
+            case CHAR:
+                return buffer.getChar();
+            case INT:
+                return buffer.getInt();
+            case LONG:
+                return buffer.getLong();
+            case FLOAT:
+                return buffer.getFloat();
+            case DOUBLE:
+                return buffer.getDouble();
+            default:
+                int size = buffer.getInt();
+                if (size < 0 || size > buffer.remaining()) {
+                    throw new IllegalArgumentException("Invalid string length " + size);
+                }
+                if (stringBuffer.length < size) {
+                    stringBuffer = new byte[Math.max(size, stringBuffer.length * 2)];
+                }
+                buffer.get(stringBuffer, 0, size);
+                return new String(stringBuffer, 0, size, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.socket.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes object-array events into length-prefixed binary frames, for use by clients sending to a socket
+ * configured for the binary data format.
+ */
+public class BinaryFrameEncoder {
+    private final BinaryFieldType[] fieldTypes;
+
+    /**
+     * Ctor.
+     *
+     * @param propertyTypes types of the event properties in property-index order
+     */
+    public BinaryFrameEncoder(Class[] propertyTypes) {
+        this.fieldTypes = new BinaryFieldType[propertyTypes.length];
+        for (int i = 0; i < propertyTypes.length; i++) {
+            fieldTypes[i] = BinaryFieldType.forClass(propertyTypes[i], Integer.toString(i));
+        }
+    }
+
+    /**
+     * Write the 4-byte frame length followed by the frame.
+     *
+     * @param values event property values
+     * @param buffer buffer to write to
+     * @throws java.nio.BufferOverflowException if the buffer does not have sufficient space
+     */
+    public void encode(Object[] values, ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putInt(0);
+        for (int i = 0; i < fieldTypes.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                buffer.put((byte) 0);
+                continue;
+            }
+            buffer.put((byte) 1);
+            switch (fieldTypes[i]) {
+                case BOOLEAN:
+                    buffer.put((Boolean) value ? (byte) 1 : (byte) 0);
+                    break;
+                case BYTE:
+                    buffer.put((Byte) value);
+                    break;
+                case SHORT:
+                    buffer.putShort((Short) value);
+                    break;
+                case CHAR:
+                    buffer.putChar((Character) value);
+                    break;
+                case INT:
+                    buffer.putInt((Integer) value);
+                    break;
+                case LONG:
+                    buffer.putLong((Long) value);
+                    break;
+                case FLOAT:
+                    buffer.putFloat((Float) value);
+                    break;
+                case DOUBLE:
+                    buffer.putDouble((Double) value);
+                    break;
+                default:
+                    byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                    buffer.putInt(bytes.length);
+                    buffer.put(bytes);
+                    break;
+            }
+        }
+        buffer.putInt(start, buffer.position() - start - 4);
+    }
+}
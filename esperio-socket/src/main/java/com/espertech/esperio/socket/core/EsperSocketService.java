@@ -11,6 +11,7 @@
 package com.espertech.esperio.socket.core;
 
 import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esperio.socket.config.DataType;
 import com.espertech.esperio.socket.config.SocketConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,6 +29,7 @@ public class EsperSocketService {
     private ServerSocket serverSocket;
     private EsperSocketServiceRunnable runnable;
     private Thread socketThread;
+    private EsperSocketServiceNIO nioService;
 
     public EsperSocketService(String serviceName, SocketConfig serviceConfig) {
         this.serviceName = serviceName;
@@ -40,6 +42,12 @@ public class EsperSocketService {
 
     public void start(String serviceName, EPServiceProviderSPI engineSPI) throws IOException {
 
+        if (serviceConfig.getDataType() == DataType.BINARY) {
+            nioService = new EsperSocketServiceNIO(serviceName, serviceConfig);
+            nioService.start(engineSPI);
+            return;
+        }
+
         if (serviceConfig.getHostname() != null) {
             InetAddress inetAddress = InetAddress.getByName(serviceConfig.getHostname());
             int backlog = serviceConfig.getBacklog() == null ? 2 : serviceConfig.getBacklog();
@@ -62,6 +70,11 @@ public class EsperSocketService {
     }
 
     public void destroy() {
+        if (nioService != null) {
+            nioService.destroy();
+            return;
+        }
+
         log.info("Closing existing workers for service '" + this.getServiceName() + "'");
         runnable.destroy();
 
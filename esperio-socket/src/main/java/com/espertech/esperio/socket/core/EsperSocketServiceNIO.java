@@ -0,0 +1,147 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.socket.core;
+
+import com.espertech.esper.client.ConfigurationException;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esperio.socket.config.SocketConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Non-blocking socket service for the binary data format: an acceptor thread assigns connections round-robin
+ * to a fixed number of selector threads, so that a few threads serve many connections.
+ */
+public class EsperSocketServiceNIO {
+    private final static Logger log = LoggerFactory.getLogger(EsperSocketServiceNIO.class);
+
+    private final static int DEFAULT_SELECTOR_THREADS = 2;
+    private final static int DEFAULT_READ_BUFFER_SIZE = 65536;
+
+    private final String serviceName;
+    private final SocketConfig serviceConfig;
+    private ServerSocketChannel serverChannel;
+    private EsperSocketServiceNIOReactor[] reactors;
+    private Thread[] reactorThreads;
+    private Thread acceptThread;
+    private volatile boolean shutdown;
+
+    public EsperSocketServiceNIO(String serviceName, SocketConfig serviceConfig) {
+        this.serviceName = serviceName;
+        this.serviceConfig = serviceConfig;
+    }
+
+    public void start(EPServiceProviderSPI engineSPI) throws IOException {
+        String eventTypeName = serviceConfig.getStream();
+        if (eventTypeName == null || eventTypeName.length() == 0) {
+            throw new ConfigurationException("Invalid null or empty value provided for required 'stream' parameter");
+        }
+        EventType eventType = engineSPI.getEventAdapterService().getExistsTypeByName(eventTypeName);
+        if (eventType == null) {
+            throw new ConfigurationException("Event type by name '" + eventTypeName + "' not found");
+        }
+        int numThreads = serviceConfig.getSelectorThreads() == null ? DEFAULT_SELECTOR_THREADS : serviceConfig.getSelectorThreads();
+        if (numThreads < 1) {
+            throw new ConfigurationException("Invalid number of selector threads " + numThreads + ", the number must be a positive number");
+        }
+        int readBufferSize = serviceConfig.getReadBufferSize() == null ? DEFAULT_READ_BUFFER_SIZE : serviceConfig.getReadBufferSize();
+        if (readBufferSize < 16) {
+            throw new ConfigurationException("Invalid read buffer size " + readBufferSize + ", the size must be at least 16");
+        }
+
+        reactors = new EsperSocketServiceNIOReactor[numThreads];
+        reactorThreads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            reactors[i] = new EsperSocketServiceNIOReactor(serviceName, engineSPI.getEPRuntime(), eventTypeName, BinaryFrameDecoder.make(eventType), readBufferSize);
+        }
+
+        InetSocketAddress address;
+        if (serviceConfig.getHostname() != null) {
+            address = new InetSocketAddress(InetAddress.getByName(serviceConfig.getHostname()), serviceConfig.getPort());
+        } else {
+            address = new InetSocketAddress(serviceConfig.getPort());
+        }
+        int backlog = serviceConfig.getBacklog() == null ? 0 : serviceConfig.getBacklog();
+        log.info("Esper socket adapter accepting binary-frame connections on " + address + " with " + numThreads + " selector threads for socket named '" + serviceName + "'");
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, backlog);
+
+        for (int i = 0; i < numThreads; i++) {
+            reactorThreads[i] = new Thread(reactors[i], "esperio-socket-" + serviceName + "-selector-" + i);
+            reactorThreads[i].setDaemon(true);
+            reactorThreads[i].start();
+        }
+
+        acceptThread = new Thread(new Runnable() {
+            public void run() {
+                accept();
+            }
+        }, "esperio-socket-" + serviceName + "-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public void destroy() {
+        shutdown = true;
+
+        log.info("Closing server socket for service '" + serviceName + "' and port " + serviceConfig.getPort());
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            log.debug("Error closing server socket: " + e.getMessage(), e);
+        }
+        join(acceptThread);
+
+        log.info("Stopping selector threads for service '" + serviceName + "'");
+        for (EsperSocketServiceNIOReactor reactor : reactors) {
+            reactor.destroy();
+        }
+        for (Thread thread : reactorThreads) {
+            join(thread);
+        }
+    }
+
+    private void accept() {
+        int next = 0;
+        while (!shutdown) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                log.debug("Incoming connection service '" + serviceName + "' from " + channel.getRemoteAddress());
+                channel.configureBlocking(false);
+                reactors[next].register(channel);
+                next = (next + 1) % reactors.length;
+            } catch (ClosedChannelException ex) {
+                break;
+            } catch (IOException e) {
+                if (!shutdown) {
+                    log.error("I/O error accepting connection for service '" + serviceName + "' : " + e.getMessage());
+                }
+            }
+        }
+        log.info("For service '" + serviceName + "' listening on port " + serviceConfig.getPort() + " ended accept thread.");
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join(10000);
+        } catch (InterruptedException e) {
+            log.debug("Interrupted", e);
+        }
+    }
+}
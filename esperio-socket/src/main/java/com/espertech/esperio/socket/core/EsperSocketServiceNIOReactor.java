@@ -0,0 +1,223 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.socket.core;
+
+import com.espertech.esper.client.EPRuntime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Selector loop that reads binary frames from the connections assigned to it.
+ * <p>
+ * Each read goes into a direct buffer that the reactor reuses for all its connections. The complete frames of a read
+ * are decoded and sent to the engine as one batch, and the bytes of an incomplete frame are kept with the connection
+ * until the next read.
+ */
+public class EsperSocketServiceNIOReactor implements Runnable {
+    private final static Logger log = LoggerFactory.getLogger(EsperSocketServiceNIOReactor.class);
+
+    private final String serviceName;
+    private final EPRuntime runtime;
+    private final String eventTypeName;
+    private final BinaryFrameDecoder decoder;
+    private final Selector selector;
+    private final ByteBuffer readBuffer;
+    private final Queue<SocketChannel> registrations = new ConcurrentLinkedQueue<SocketChannel>();
+    private final List<Object[]> batch = new ArrayList<Object[]>();
+    private volatile boolean shutdown;
+
+    public EsperSocketServiceNIOReactor(String serviceName, EPRuntime runtime, String eventTypeName, BinaryFrameDecoder decoder, int readBufferSize) throws IOException {
+        this.serviceName = serviceName;
+        this.runtime = runtime;
+        this.eventTypeName = eventTypeName;
+        this.decoder = decoder;
+        this.selector = Selector.open();
+        this.readBuffer = ByteBuffer.allocateDirect(readBufferSize);
+    }
+
+    /**
+     * Assign a connection to this reactor.
+     *
+     * @param channel non-blocking connection
+     */
+    public void register(SocketChannel channel) {
+        registrations.add(channel);
+        selector.wakeup();
+    }
+
+    public void run() {
+        try {
+            while (!shutdown) {
+                selector.select();
+                registerPending();
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (key.isValid() && key.isReadable()) {
+                        read(key);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            log.error("I/O error in selector for service '" + serviceName + "' : " + ex.getMessage(), ex);
+        } catch (ClosedSelectorException ex) {
+            log.debug("Selector closed for service '" + serviceName + "'");
+        } finally {
+            closeAll();
+        }
+    }
+
+    public void destroy() {
+        shutdown = true;
+        selector.wakeup();
+    }
+
+    private void registerPending() {
+        SocketChannel channel;
+        while ((channel = registrations.poll()) != null) {
+            try {
+                channel.register(selector, SelectionKey.OP_READ, new ConnectionState());
+            } catch (IOException ex) {
+                log.warn("Failed to register connection for service '" + serviceName + "' : " + ex.getMessage());
+                closeChannel(channel);
+            }
+        }
+    }
+
+    private void read(SelectionKey key) {
+        SocketChannel channel = (SocketChannel) key.channel();
+        ConnectionState state = (ConnectionState) key.attachment();
+
+        readBuffer.clear();
+        if (state.partial != null) {
+            // the leftover of an incomplete frame is released once moved to the read buffer
+            readBuffer.put(state.partial);
+            state.partial = null;
+        }
+
+        int count;
+        try {
+            count = channel.read(readBuffer);
+        } catch (IOException ex) {
+            log.debug("I/O error reading from connection: " + ex.getMessage());
+            close(key);
+            return;
+        }
+        readBuffer.flip();
+
+        boolean valid = decodeFrames();
+        sendBatch();
+
+        if (!valid) {
+            close(key);
+            return;
+        }
+        if (readBuffer.hasRemaining()) {
+            if (count < 0) {
+                log.warn("Connection for service '" + serviceName + "' closed with an incomplete frame of " + readBuffer.remaining() + " bytes");
+            } else {
+                state.partial = ByteBuffer.allocate(readBuffer.remaining());
+                state.partial.put(readBuffer);
+                state.partial.flip();
+            }
+        }
+        if (count < 0) {
+            log.debug("EOF received from connection");
+            close(key);
+        }
+    }
+
+    private boolean decodeFrames() {
+        int maxFrameLength = readBuffer.capacity() - 4;
+        while (readBuffer.remaining() >= 4) {
+            int position = readBuffer.position();
+            int length = readBuffer.getInt(position);
+            if (length < 0 || length > maxFrameLength) {
+                log.error("Invalid frame length " + length + " received for service '" + serviceName + "', the maximum frame length is " + maxFrameLength + ", closing connection");
+                return false;
+            }
+            if (readBuffer.remaining() < 4 + length) {
+                break;
+            }
+            readBuffer.position(position + 4);
+            try {
+                batch.add(decoder.decode(readBuffer, length));
+            } catch (IllegalArgumentException ex) {
+                log.error("Invalid frame received for service '" + serviceName + "' : " + ex.getMessage() + ", closing connection");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void sendBatch() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Object[][] events = batch.toArray(new Object[batch.size()][]);
+        batch.clear();
+        try {
+            runtime.sendEvents(events, eventTypeName);
+        } catch (Throwable t) {
+            log.error("Unexpected exception encountered sending " + events.length + " events service '" + serviceName + "' :" + t.getMessage(), t);
+        }
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        closeChannel((SocketChannel) key.channel());
+    }
+
+    private void closeAll() {
+        SocketChannel channel;
+        while ((channel = registrations.poll()) != null) {
+            closeChannel(channel);
+        }
+        try {
+            for (SelectionKey key : selector.keys()) {
+                closeChannel((SocketChannel) key.channel());
+            }
+        } catch (ClosedSelectorException ex) {
+            // already closed
+        }
+        try {
+            selector.close();
+        } catch (IOException ex) {
+            log.debug("Error closing selector: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static void closeChannel(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            log.debug("Error closing connection: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static class ConnectionState {
+        private ByteBuffer partial;
+    }
+}
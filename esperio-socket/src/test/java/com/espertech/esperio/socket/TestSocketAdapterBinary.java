@@ -0,0 +1,184 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.socket;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.UpdateListener;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esperio.socket.config.ConfigurationSocketAdapter;
+import com.espertech.esperio.socket.config.DataType;
+import com.espertech.esperio.socket.config.SocketConfig;
+import com.espertech.esperio.socket.core.BinaryFrameEncoder;
+import junit.framework.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TestSocketAdapterBinary extends TestCase {
+    private static final Logger log = LoggerFactory.getLogger(TestSocketAdapterBinary.class);
+
+    private static final String[] PROPERTY_NAMES = "stringProp,intProp,longProp,doubleProp,boolProp".split(",");
+    private static final Class[] PROPERTY_TYPES = new Class[]{String.class, int.class, Long.class, double.class, Boolean.class};
+
+    private final BinaryFrameEncoder encoder = new BinaryFrameEncoder(PROPERTY_TYPES);
+
+    public void testSendBinary() throws Exception {
+        int port = 6811;
+        String engineURI = "TestSocketAdapterBinary";
+        EPServiceProvider provider = makeEngine(engineURI);
+        EsperIOSocketAdapter adapter = makeAdapter(engineURI, port, 2, 1024);
+
+        SupportUpdateListener listener = new SupportUpdateListener();
+        EPStatement stmt = provider.getEPAdministrator().createEPL("select * from MyBinaryEvent");
+        stmt.addListener(listener);
+
+        SocketChannel client = SocketChannel.open(new InetSocketAddress("localhost", port));
+
+        // two frames in one write
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        encoder.encode(new Object[]{"E1", 10, 100L, 1.5d, true}, buffer);
+        encoder.encode(new Object[]{"\u00e9v\u00e9nement", -1, null, 0d, null}, buffer);
+        write(client, buffer);
+        Thread.sleep(200);
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), PROPERTY_NAMES, new Object[][]{
+            {"E1", 10, 100L, 1.5d, true}, {"\u00e9v\u00e9nement", -1, null, 0d, null}});
+        listener.reset();
+
+        // one frame split over multiple writes
+        buffer.clear();
+        encoder.encode(new Object[]{"E3", 30, 300L, 3.5d, false}, buffer);
+        buffer.flip();
+        for (int i = 0; i < buffer.limit(); i += 3) {
+            ByteBuffer part = buffer.duplicate();
+            part.position(i);
+            part.limit(Math.min(i + 3, buffer.limit()));
+            while (part.hasRemaining()) {
+                client.write(part);
+            }
+            Thread.sleep(10);
+        }
+        Thread.sleep(200);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), PROPERTY_NAMES, new Object[]{"E3", 30, 300L, 3.5d, false});
+
+        // frame exceeding the maximum frame length closes the connection
+        buffer.clear();
+        buffer.putInt(5000);
+        write(client, buffer);
+        Thread.sleep(200);
+        assertEquals(-1, client.read(ByteBuffer.allocate(1)));
+        client.close();
+
+        // a new connection is served
+        client = SocketChannel.open(new InetSocketAddress("localhost", port));
+        buffer.clear();
+        encoder.encode(new Object[]{"E4", 40, 400L, 4.5d, true}, buffer);
+        write(client, buffer);
+        Thread.sleep(200);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), PROPERTY_NAMES, new Object[]{"E4", 40, 400L, 4.5d, true});
+
+        client.close();
+        adapter.destroy();
+        provider.destroy();
+    }
+
+    public void testLoopbackLoad() throws Exception {
+        int port = 6812;
+        int numConnections = 1000;
+        int numEventsPerConnection = 200;
+        int eventsPerWrite = 50;
+        String engineURI = "TestSocketAdapterBinaryLoad";
+        EPServiceProvider provider = makeEngine(engineURI);
+        EsperIOSocketAdapter adapter = makeAdapter(engineURI, port, 4, 65536);
+
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong sum = new AtomicLong();
+        EPStatement stmt = provider.getEPAdministrator().createEPL("select intProp from MyBinaryEvent");
+        stmt.addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                for (EventBean event : newEvents) {
+                    count.incrementAndGet();
+                    sum.addAndGet((Integer) event.get("intProp"));
+                }
+            }
+        });
+
+        SocketChannel[] clients = new SocketChannel[numConnections];
+        for (int i = 0; i < numConnections; i++) {
+            clients[i] = SocketChannel.open(new InetSocketAddress("localhost", port));
+        }
+
+        long start = System.currentTimeMillis();
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        for (int batch = 0; batch < numEventsPerConnection / eventsPerWrite; batch++) {
+            for (int i = 0; i < numConnections; i++) {
+                buffer.clear();
+                for (int j = 0; j < eventsPerWrite; j++) {
+                    encoder.encode(new Object[]{"C" + i, 1, (long) j, 1d, true}, buffer);
+                }
+                write(clients[i], buffer);
+            }
+        }
+
+        long expected = (long) numConnections * numEventsPerConnection;
+        long end = System.currentTimeMillis() + 60000;
+        while (count.get() < expected && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        long delta = System.currentTimeMillis() - start;
+        assertEquals(expected, count.get());
+        assertEquals(expected, sum.get());
+        log.info("Received " + expected + " events from " + numConnections + " connections in " + delta + " msec, " + (expected * 1000 / Math.max(1, delta)) + " events/sec");
+
+        for (SocketChannel client : clients) {
+            client.close();
+        }
+        adapter.destroy();
+        provider.destroy();
+    }
+
+    private EPServiceProvider makeEngine(String engineURI) {
+        Configuration engineConfig = new Configuration();
+        engineConfig.addEventType("MyBinaryEvent", PROPERTY_NAMES, PROPERTY_TYPES);
+        return EPServiceProviderManager.getProvider(engineURI, engineConfig);
+    }
+
+    private EsperIOSocketAdapter makeAdapter(String engineURI, int port, int selectorThreads, int readBufferSize) {
+        ConfigurationSocketAdapter adapterConfig = new ConfigurationSocketAdapter();
+        SocketConfig socket = new SocketConfig();
+        socket.setDataType(DataType.BINARY);
+        socket.setPort(port);
+        socket.setStream("MyBinaryEvent");
+        socket.setSelectorThreads(selectorThreads);
+        socket.setReadBufferSize(readBufferSize);
+        socket.setBacklog(1024);
+        adapterConfig.getSockets().put("BinarySocketService", socket);
+
+        EsperIOSocketAdapter adapter = new EsperIOSocketAdapter(adapterConfig, engineURI);
+        adapter.start();
+        return adapter;
+    }
+
+    private static void write(SocketChannel channel, ByteBuffer buffer) throws Exception {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}